@@ -0,0 +1,36 @@
+package com.lordofthejars.nosqlunit.benchmarks;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.openjdk.jmh.Main;
+
+/**
+ * Entry point of the benchmarks jar. Accepts the same options as the JMH
+ * launcher but exports results as JSON (<code>jmh-result.json</code>, or the
+ * file given with <code>-rff</code>) unless another format is requested with
+ * <code>-rf</code>, so runs can be compared over time.
+ */
+public final class BenchmarkRunner {
+
+	private static final String RESULT_FORMAT_OPTION = "-rf";
+	private static final String DEFAULT_RESULT_FORMAT = "json";
+
+	private BenchmarkRunner() {
+		super();
+	}
+
+	public static void main(String[] args) throws Exception {
+
+		List<String> options = new ArrayList<String>(Arrays.asList(args));
+
+		if (!options.contains(RESULT_FORMAT_OPTION)) {
+			options.add(0, RESULT_FORMAT_OPTION);
+			options.add(1, DEFAULT_RESULT_FORMAT);
+		}
+
+		Main.main(options.toArray(new String[options.size()]));
+	}
+
+}
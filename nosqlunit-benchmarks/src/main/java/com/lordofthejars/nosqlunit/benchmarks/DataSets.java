@@ -0,0 +1,111 @@
+package com.lordofthejars.nosqlunit.benchmarks;
+
+import java.nio.charset.Charset;
+
+/**
+ * Generates datasets of a given number of records in the format expected by
+ * each engine, so benchmarks do not depend on fixture files.
+ */
+public final class DataSets {
+
+	private static final Charset UTF_8 = Charset.forName("UTF-8");
+
+	private DataSets() {
+		super();
+	}
+
+	public static byte[] mongoDb(int size) {
+
+		StringBuilder dataSet = new StringBuilder("{\"benchmark\":[");
+
+		for (int i = 0; i < size; i++) {
+			separator(dataSet, i);
+			dataSet.append("{\"_id\":").append(i)
+				.append(",\"name\":\"name-").append(i)
+				.append("\",\"value\":").append(i).append('}');
+		}
+
+		return dataSet.append("]}").toString().getBytes(UTF_8);
+	}
+
+	public static byte[] keyValue(int size) {
+
+		StringBuilder dataSet = new StringBuilder("{\"data\":[");
+
+		for (int i = 0; i < size; i++) {
+			separator(dataSet, i);
+			dataSet.append("{\"key\":\"key-").append(i)
+				.append("\",\"value\":\"value-").append(i).append("\"}");
+		}
+
+		return dataSet.append("]}").toString().getBytes(UTF_8);
+	}
+
+	public static byte[] keyValueObjects(int size) {
+
+		StringBuilder dataSet = new StringBuilder("{\"data\":[");
+
+		for (int i = 0; i < size; i++) {
+			separator(dataSet, i);
+			dataSet.append("{\"key\":\"key-").append(i)
+				.append("\",\"implementation\":\"").append(Record.class.getName())
+				.append("\",\"value\":{\"name\":\"name-").append(i)
+				.append("\",\"value\":").append(i).append("}}");
+		}
+
+		return dataSet.append("]}").toString().getBytes(UTF_8);
+	}
+
+	public static byte[] elasticsearch(int size) {
+
+		StringBuilder dataSet = new StringBuilder("{\"documents\":[");
+
+		for (int i = 0; i < size; i++) {
+			separator(dataSet, i);
+			dataSet.append("{\"document\":[{\"index\":{\"indexName\":\"benchmark\",\"indexType\":\"record\",\"indexId\":\"")
+				.append(i).append("\"}},{\"data\":{\"name\":\"name-").append(i)
+				.append("\",\"value\":").append(i).append("}}]}");
+		}
+
+		return dataSet.append("]}").toString().getBytes(UTF_8);
+	}
+
+	private static void separator(StringBuilder dataSet, int index) {
+		if (index > 0) {
+			dataSet.append(',');
+		}
+	}
+
+	public static class Record {
+
+		private String name;
+		private int value;
+
+		public Record() {
+			super();
+		}
+
+		public Record(String name, int value) {
+			this.name = name;
+			this.value = value;
+		}
+
+		public String getName() {
+			return name;
+		}
+
+		public void setName(String name) {
+			this.name = name;
+		}
+
+		public int getValue() {
+			return value;
+		}
+
+		public void setValue(int value) {
+			this.value = value;
+		}
+
+	}
+
+}
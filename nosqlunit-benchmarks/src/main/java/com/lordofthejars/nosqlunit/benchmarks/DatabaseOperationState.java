@@ -0,0 +1,58 @@
+package com.lordofthejars.nosqlunit.benchmarks;
+
+import java.io.ByteArrayInputStream;
+
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+import com.lordofthejars.nosqlunit.core.DatabaseOperation;
+
+/**
+ * Engine started once per trial together with a generated dataset of
+ * <code>size</code> records. Subclasses start the engine and create its
+ * {@link DatabaseOperation}.
+ */
+@State(Scope.Benchmark)
+public abstract class DatabaseOperationState {
+
+	@Param({ "10", "1000", "100000", "1000000" })
+	public int size;
+
+	private DatabaseOperation<?> databaseOperation;
+	private byte[] dataSet;
+
+	@Setup(Level.Trial)
+	public void setUp() throws Throwable {
+		this.databaseOperation = startEngine();
+		this.dataSet = dataSet(size);
+	}
+
+	@TearDown(Level.Trial)
+	public void tearDown() {
+		this.databaseOperation.deleteAll();
+		stopEngine();
+	}
+
+	public void insert() {
+		this.databaseOperation.insert(new ByteArrayInputStream(dataSet));
+	}
+
+	public void deleteAll() {
+		this.databaseOperation.deleteAll();
+	}
+
+	public boolean databaseIs() {
+		return this.databaseOperation.databaseIs(new ByteArrayInputStream(dataSet));
+	}
+
+	protected abstract DatabaseOperation<?> startEngine() throws Throwable;
+
+	protected abstract void stopEngine();
+
+	protected abstract byte[] dataSet(int size);
+
+}
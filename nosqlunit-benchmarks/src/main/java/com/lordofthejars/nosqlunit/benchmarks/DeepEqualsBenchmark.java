@@ -0,0 +1,144 @@
+package com.lordofthejars.nosqlunit.benchmarks;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.lordofthejars.nosqlunit.benchmarks.DataSets.Record;
+import com.lordofthejars.nosqlunit.util.DeepEquals;
+
+/**
+ * Throughput of {@link DeepEquals} comparing object graphs like the ones
+ * built by key-value comparison strategies, and graphs of plain objects
+ * compared field by field. Benchmarks prefixed with <code>reflective</code>
+ * run the previous implementation, {@link ReflectiveDeepEquals}, on the same
+ * graphs.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Fork(1)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@State(Scope.Benchmark)
+public class DeepEqualsBenchmark {
+
+	@Param({ "10", "1000", "100000" })
+	public int size;
+
+	private List<Object> expected;
+	private List<Object> equal;
+	private List<Object> differentAtEnd;
+	private List<Node> expectedNodes;
+	private List<Node> equalNodes;
+
+	@Setup(Level.Trial)
+	public void setUp() {
+		this.expected = graph(size);
+		this.equal = graph(size);
+		this.differentAtEnd = graph(size);
+		this.differentAtEnd.set(size - 1, element(-1));
+		this.expectedNodes = nodes(size);
+		this.equalNodes = nodes(size);
+	}
+
+	@Benchmark
+	public boolean equalGraphs() {
+		return DeepEquals.deepEquals(expected, equal);
+	}
+
+	@Benchmark
+	public boolean graphsDifferentAtEnd() {
+		return DeepEquals.deepEquals(expected, differentAtEnd);
+	}
+
+	@Benchmark
+	public boolean equalObjectGraphs() {
+		return DeepEquals.deepEquals(expectedNodes, equalNodes);
+	}
+
+	@Benchmark
+	public boolean reflectiveEqualGraphs() {
+		return ReflectiveDeepEquals.deepEquals(expected, equal);
+	}
+
+	@Benchmark
+	public boolean reflectiveGraphsDifferentAtEnd() {
+		return ReflectiveDeepEquals.deepEquals(expected, differentAtEnd);
+	}
+
+	@Benchmark
+	public boolean reflectiveEqualObjectGraphs() {
+		return ReflectiveDeepEquals.deepEquals(expectedNodes, equalNodes);
+	}
+
+	/**
+	 * Object without equals method, with primitive fields and children.
+	 */
+	static class Node {
+
+		private final String name;
+		private final long value;
+		private final double weight;
+		private final boolean leaf;
+		private final Node[] children;
+
+		Node(String name, long value, double weight, Node... children) {
+			this.name = name;
+			this.value = value;
+			this.weight = weight;
+			this.leaf = children.length == 0;
+			this.children = children;
+		}
+
+	}
+
+	private static List<Node> nodes(int size) {
+
+		List<Node> nodes = new ArrayList<Node>(size);
+
+		for (int i = 0; i < size; i++) {
+			nodes.add(new Node("node-" + i, i, i / 2.0, new Node("left-" + i, i, 0.5), new Node("right-" + i, i, 1.5)));
+		}
+
+		return nodes;
+	}
+
+	private static List<Object> graph(int size) {
+
+		List<Object> graph = new ArrayList<Object>(size);
+
+		for (int i = 0; i < size; i++) {
+			graph.add(element(i));
+		}
+
+		return graph;
+	}
+
+	private static Map<String, Object> element(int index) {
+
+		Map<String, Object> element = new HashMap<String, Object>();
+
+		element.put("name", "name-" + index);
+		element.put("values", Arrays.asList(index, index + 1, index + 2));
+		element.put("record", new Record("record-" + index, index));
+
+		return element;
+	}
+
+}
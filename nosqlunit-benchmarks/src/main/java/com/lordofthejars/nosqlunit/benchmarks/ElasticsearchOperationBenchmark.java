@@ -0,0 +1,105 @@
+package com.lordofthejars.nosqlunit.benchmarks;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import org.elasticsearch.node.Node;
+
+import com.lordofthejars.nosqlunit.core.DatabaseOperation;
+import com.lordofthejars.nosqlunit.elasticsearch2.ElasticsearchOperation;
+import com.lordofthejars.nosqlunit.elasticsearch2.EmbeddedElasticsearchInstancesFactory;
+import com.lordofthejars.nosqlunit.elasticsearch2.EmbeddedElasticsearchLifecycleManager;
+
+/**
+ * Throughput of {@link ElasticsearchOperation} against a local embedded
+ * Elasticsearch node.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Fork(1)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+public class ElasticsearchOperationBenchmark {
+
+	@State(Scope.Benchmark)
+	public static class EmbeddedElasticsearchState extends DatabaseOperationState {
+
+		private final EmbeddedElasticsearchLifecycleManager lifecycleManager = new EmbeddedElasticsearchLifecycleManager();
+
+		@Override
+		protected DatabaseOperation<?> startEngine() throws Throwable {
+			lifecycleManager.startEngine();
+			Node node = EmbeddedElasticsearchInstancesFactory.getInstance().getDefaultEmbeddedInstance();
+			return new ElasticsearchOperation(node.client());
+		}
+
+		@Override
+		protected void stopEngine() {
+			lifecycleManager.stopEngine();
+		}
+
+		@Override
+		protected byte[] dataSet(int size) {
+			return DataSets.elasticsearch(size);
+		}
+
+	}
+
+	@State(Scope.Benchmark)
+	public static class EmptyDatabase {
+
+		@Setup(Level.Invocation)
+		public void empty(EmbeddedElasticsearchState database) {
+			database.deleteAll();
+		}
+
+	}
+
+	@State(Scope.Benchmark)
+	public static class PopulatedDatabase {
+
+		@Setup(Level.Invocation)
+		public void populate(EmbeddedElasticsearchState database) {
+			database.deleteAll();
+			database.insert();
+		}
+
+	}
+
+	@State(Scope.Benchmark)
+	public static class SeededDatabase {
+
+		@Setup(Level.Trial)
+		public void seed(EmbeddedElasticsearchState database) {
+			database.insert();
+		}
+
+	}
+
+	@Benchmark
+	public void insert(EmbeddedElasticsearchState database, EmptyDatabase emptyDatabase) {
+		database.insert();
+	}
+
+	@Benchmark
+	public void deleteAll(EmbeddedElasticsearchState database, PopulatedDatabase populatedDatabase) {
+		database.deleteAll();
+	}
+
+	@Benchmark
+	public boolean databaseIs(EmbeddedElasticsearchState database, SeededDatabase seededDatabase) {
+		return database.databaseIs();
+	}
+
+}
@@ -0,0 +1,107 @@
+package com.lordofthejars.nosqlunit.benchmarks;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import org.infinispan.Cache;
+import org.infinispan.manager.EmbeddedCacheManager;
+
+import com.lordofthejars.nosqlunit.core.DatabaseOperation;
+import com.lordofthejars.nosqlunit.infinispan.EmbeddedInfinispanInstancesFactory;
+import com.lordofthejars.nosqlunit.infinispan.EmbeddedInfinispanLifecycleManager;
+import com.lordofthejars.nosqlunit.infinispan.InfinispanOperation;
+
+/**
+ * Throughput of {@link InfinispanOperation} against the default cache of an
+ * embedded Infinispan.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Fork(1)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+public class InfinispanOperationBenchmark {
+
+	@State(Scope.Benchmark)
+	public static class EmbeddedInfinispanState extends DatabaseOperationState {
+
+		private final EmbeddedInfinispanLifecycleManager lifecycleManager = new EmbeddedInfinispanLifecycleManager();
+
+		@Override
+		protected DatabaseOperation<?> startEngine() throws Throwable {
+			lifecycleManager.startEngine();
+			EmbeddedCacheManager cacheManager = EmbeddedInfinispanInstancesFactory.getInstance().getDefaultEmbeddedInstance();
+			Cache<Object, Object> cache = cacheManager.getCache();
+			return new InfinispanOperation(cache);
+		}
+
+		@Override
+		protected void stopEngine() {
+			lifecycleManager.stopEngine();
+		}
+
+		@Override
+		protected byte[] dataSet(int size) {
+			return DataSets.keyValue(size);
+		}
+
+	}
+
+	@State(Scope.Benchmark)
+	public static class EmptyDatabase {
+
+		@Setup(Level.Invocation)
+		public void empty(EmbeddedInfinispanState database) {
+			database.deleteAll();
+		}
+
+	}
+
+	@State(Scope.Benchmark)
+	public static class PopulatedDatabase {
+
+		@Setup(Level.Invocation)
+		public void populate(EmbeddedInfinispanState database) {
+			database.deleteAll();
+			database.insert();
+		}
+
+	}
+
+	@State(Scope.Benchmark)
+	public static class SeededDatabase {
+
+		@Setup(Level.Trial)
+		public void seed(EmbeddedInfinispanState database) {
+			database.insert();
+		}
+
+	}
+
+	@Benchmark
+	public void insert(EmbeddedInfinispanState database, EmptyDatabase emptyDatabase) {
+		database.insert();
+	}
+
+	@Benchmark
+	public void deleteAll(EmbeddedInfinispanState database, PopulatedDatabase populatedDatabase) {
+		database.deleteAll();
+	}
+
+	@Benchmark
+	public boolean databaseIs(EmbeddedInfinispanState database, SeededDatabase seededDatabase) {
+		return database.databaseIs();
+	}
+
+}
@@ -0,0 +1,72 @@
+package com.lordofthejars.nosqlunit.benchmarks;
+
+import java.io.ByteArrayInputStream;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import com.lordofthejars.nosqlunit.objects.KeyValueObjectMapper;
+
+/**
+ * Throughput of {@link KeyValueObjectMapper} reading key-value datasets of
+ * simple values and of objects with an implementation class, either into a
+ * map or streamed to a handler.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Fork(1)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@State(Scope.Benchmark)
+public class KeyValueObjectMapperBenchmark {
+
+	@Param({ "10", "1000", "100000", "1000000" })
+	public int size;
+
+	private final KeyValueObjectMapper keyValueObjectMapper = new KeyValueObjectMapper();
+
+	private byte[] simpleValues;
+	private byte[] objectValues;
+
+	@Setup(Level.Trial)
+	public void setUp() {
+		this.simpleValues = DataSets.keyValue(size);
+		this.objectValues = DataSets.keyValueObjects(size);
+	}
+
+	@Benchmark
+	public Map<Object, Object> readSimpleValues() {
+		return keyValueObjectMapper.readValues(new ByteArrayInputStream(simpleValues));
+	}
+
+	@Benchmark
+	public Map<Object, Object> readObjectValues() {
+		return keyValueObjectMapper.readValues(new ByteArrayInputStream(objectValues));
+	}
+
+	@Benchmark
+	public void streamObjectValues(final Blackhole blackhole) {
+		keyValueObjectMapper.readValues(new ByteArrayInputStream(objectValues), new KeyValueObjectMapper.KeyValueHandler() {
+
+			@Override
+			public void keyValue(Object key, Object value) {
+				blackhole.consume(key);
+				blackhole.consume(value);
+			}
+		});
+	}
+
+}
@@ -0,0 +1,103 @@
+package com.lordofthejars.nosqlunit.benchmarks;
+
+import static com.lordofthejars.nosqlunit.mongodb.InMemoryMongoDbConfigurationBuilder.inMemoryMongoDb;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.lordofthejars.nosqlunit.core.DatabaseOperation;
+import com.lordofthejars.nosqlunit.mongodb.InMemoryMongoDbLifecycleManager;
+import com.lordofthejars.nosqlunit.mongodb.MongoOperation;
+
+/**
+ * Throughput of {@link MongoOperation} against a Fongo backed in-memory
+ * MongoDB.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Fork(1)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+public class MongoDbOperationBenchmark {
+
+	@State(Scope.Benchmark)
+	public static class InMemoryMongoDbState extends DatabaseOperationState {
+
+		private final InMemoryMongoDbLifecycleManager lifecycleManager = new InMemoryMongoDbLifecycleManager();
+
+		@Override
+		protected DatabaseOperation<?> startEngine() throws Throwable {
+			lifecycleManager.startEngine();
+			return new MongoOperation(inMemoryMongoDb().databaseName("benchmark").build());
+		}
+
+		@Override
+		protected void stopEngine() {
+			lifecycleManager.stopEngine();
+		}
+
+		@Override
+		protected byte[] dataSet(int size) {
+			return DataSets.mongoDb(size);
+		}
+
+	}
+
+	@State(Scope.Benchmark)
+	public static class EmptyDatabase {
+
+		@Setup(Level.Invocation)
+		public void empty(InMemoryMongoDbState database) {
+			database.deleteAll();
+		}
+
+	}
+
+	@State(Scope.Benchmark)
+	public static class PopulatedDatabase {
+
+		@Setup(Level.Invocation)
+		public void populate(InMemoryMongoDbState database) {
+			database.deleteAll();
+			database.insert();
+		}
+
+	}
+
+	@State(Scope.Benchmark)
+	public static class SeededDatabase {
+
+		@Setup(Level.Trial)
+		public void seed(InMemoryMongoDbState database) {
+			database.insert();
+		}
+
+	}
+
+	@Benchmark
+	public void insert(InMemoryMongoDbState database, EmptyDatabase emptyDatabase) {
+		database.insert();
+	}
+
+	@Benchmark
+	public void deleteAll(InMemoryMongoDbState database, PopulatedDatabase populatedDatabase) {
+		database.deleteAll();
+	}
+
+	@Benchmark
+	public boolean databaseIs(InMemoryMongoDbState database, SeededDatabase seededDatabase) {
+		return database.databaseIs();
+	}
+
+}
@@ -0,0 +1,391 @@
+package com.lordofthejars.nosqlunit.benchmarks;
+
+import java.lang.reflect.Array;
+import java.lang.reflect.Field;
+import java.util.Collection;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedList;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.Set;
+import java.util.SortedMap;
+import java.util.SortedSet;
+
+import com.lordofthejars.nosqlunit.util.DeepEquals;
+
+/**
+ * Previous implementation of {@link DeepEquals#deepEquals(Object, Object)},
+ * allocating a pair per compared objects and reading fields reflectively.
+ * Kept as baseline of {@link DeepEqualsBenchmark}.
+ */
+final class ReflectiveDeepEquals
+{
+    private ReflectiveDeepEquals()
+    {
+        super();
+    }
+
+    private static class DualKey
+    {
+        private final Object _key1;
+        private final Object _key2;
+        
+        private DualKey(Object k1, Object k2)
+        {
+            _key1 = k1;
+            _key2 = k2;
+        }
+        
+        public boolean equals(Object other)
+        {
+            if (other == null)
+            {
+                return false;
+            }
+            
+            if (!(other instanceof DualKey))
+            {
+                return false;
+            }
+            
+            DualKey that = (DualKey) other;
+            return _key1 == that._key1 && _key2 == that._key2;
+        }
+        
+        public int hashCode()
+        {
+            int h1 = _key1 != null ? _key1.hashCode() : 0;
+            int h2 = _key2 != null ? _key2.hashCode() : 0;
+            return h1 + h2;
+        }
+    }
+
+    public static boolean deepEquals(Object a, Object b)
+    {
+        Set<DualKey> visited = new HashSet<DualKey>();
+        Deque<DualKey> stack = new LinkedList<DualKey>();
+        stack.addFirst(new DualKey(a, b));
+
+        while (!stack.isEmpty())
+        {            
+            DualKey dualKey = stack.removeFirst();        
+            visited.add(dualKey);
+            
+            if (dualKey._key1 == dualKey._key2)
+            {   // Same instance is always equal to itself.
+                continue;
+            }
+            
+            if (dualKey._key1 == null || dualKey._key2 == null)
+            {   // If either one is null, not equal (both can't be null, due to above comparison).
+                return false;
+            }
+                            
+            if (!dualKey._key1.getClass().equals(dualKey._key2.getClass()))
+            {   // Must be same class
+                return false;
+            }
+            
+            // Handle all [] types.  In order to be equal, the arrays must be the same 
+            // length, be of the same type, be in the same order, and all elements within
+            // the array must be deeply equivalent.
+            if (dualKey._key1.getClass().isArray())
+            {
+                if (!compareArrays(dualKey._key1, dualKey._key2, stack, visited))
+                {
+                    return false;
+                }
+                continue;
+            }
+            
+            // Special handle SortedSets because they are fast to compare because their
+            // elements must be in the same order to be equivalent Sets.
+            if (dualKey._key1 instanceof SortedSet)
+            {
+                if (!compareOrderedCollection((Collection<Object>) dualKey._key1, (Collection<Object>) dualKey._key2, stack, visited))
+                {
+                    return false;
+                }
+                continue;
+            }
+            
+            // Handled unordered Sets.  This is a slightly more expensive comparison because order cannot
+            // be assumed, a temporary Map must be created, however the comparison still runs in O(N) time.
+            if (dualKey._key1 instanceof Set)
+            {
+                if (!compareUnorderedCollection((Collection<Object>) dualKey._key1, (Collection<Object>) dualKey._key2, stack, visited))
+                {
+                    return false;
+                }
+                continue;
+            }
+            
+            // Check any Collection that is not a Set.  In these cases, element order
+            // matters, therefore this comparison is faster than using unordered comparison.
+            if (dualKey._key1 instanceof Collection)
+            {
+                if (!compareOrderedCollection((Collection<Object>) dualKey._key1, (Collection<Object>) dualKey._key2, stack, visited))
+                {
+                    return false;
+                }                                
+                continue;
+            }
+            
+            // Compare two SortedMaps.  This takes advantage of the fact that these
+            // Maps can be compared in O(N) time due to their ordering.
+            if (dualKey._key1 instanceof SortedMap)
+            {
+                if (!compareSortedMap((SortedMap<Object, Object>) dualKey._key1, (SortedMap<Object, Object>) dualKey._key2, stack, visited))
+                {
+                    return false;
+                }
+                continue;
+            }
+            
+            // Compare two Unordered Maps. This is a slightly more expensive comparison because
+            // order cannot be assumed, therefore a temporary Map must be created, however the
+            // comparison still runs in O(N) time.
+            if (dualKey._key1 instanceof Map)
+            {
+                if (!compareUnorderedMap((Map<Object, Object>) dualKey._key1, (Map<Object, Object>) dualKey._key2, stack, visited))
+                {
+                    return false;
+                }
+                continue;
+            }
+            
+            if (DeepEquals.hasCustomEquals(dualKey._key1.getClass()))
+            {
+                if (!dualKey._key1.equals(dualKey._key2))
+                {
+                    return false;
+                }
+                continue;
+            }        
+            
+            Collection<Field> fields = DeepEquals.getDeepDeclaredFields(dualKey._key1.getClass());               
+            
+            for (Field field : fields)
+            {
+                try
+                {
+                    DualKey dk = new DualKey(field.get(dualKey._key1), field.get(dualKey._key2));
+                    if (!visited.contains(dk))
+                    {
+                        stack.addFirst(dk);
+                    }
+                }
+                catch (Exception ignored)
+                { }
+            }
+        }
+
+        return true;
+    }
+
+    /**
+     * Deeply compare to Arrays []. Both arrays must be of the same type, same length, and all
+     * elements within the arrays must be deeply equal in order to return true.
+     * @param array1 [] type (Object[], String[], etc.)
+     * @param array2 [] type (Object[], String[], etc.)
+     * @param stack add items to compare to the Stack (Stack versus recursion)
+     * @param visited Set of objects already compared (prevents cycles)
+     * @return true if the two arrays are the same length and contain deeply equivalent items.
+     */
+    private static boolean compareArrays(Object array1, Object array2, Deque<DualKey> stack, Set<DualKey> visited)
+    {
+        // Same instance check already performed...
+
+        int len = Array.getLength(array1);
+        if (len != Array.getLength(array2))
+        {
+            return false;
+        }
+
+        for (int i = 0; i < len; i++)
+        {
+            DualKey dk = new DualKey(Array.get(array1, i), Array.get(array2, i));
+            if (!visited.contains(dk))
+            {   // push contents for further comparison
+                stack.addFirst(dk);
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Deeply compare two Collections that must be same length and in same order.
+     * @param col1 First collection of items to compare
+     * @param col2 Second collection of items to compare
+     * @param stack add items to compare to the Stack (Stack versus recursion)
+     * @param visited Set of objects already compared (prevents cycles)
+     * value of 'true' indicates that the Collections may be equal, and the sets
+     * items will be added to the Stack for further comparison.
+     */
+    private static boolean compareOrderedCollection(Collection<Object> col1, Collection<Object> col2, Deque<DualKey> stack, Set<DualKey> visited)
+    {
+        // Same instance check already performed...
+
+        if (col1.size() != col2.size())
+        {
+            return false;
+        }
+                        
+        Iterator<Object> i1 = col1.iterator();
+        Iterator<Object> i2 = col2.iterator();
+        
+        while (i1.hasNext())
+        {
+            DualKey dk = new DualKey(i1.next(), i2.next());
+            if (!visited.contains(dk))
+            {   // push contents for further comparison
+                stack.addFirst(dk);
+            }
+        }
+        return true;
+    }
+        
+    /**
+     * Deeply compare the two sets referenced by dualKey.  This method attempts
+     * to quickly determine inequality by length, then if lengths match, it
+     * places one collection into a temporary Map by DeepEquals.deepHashCode(), so that it
+     * can walk the other collection and look for each item in the map, which
+     * runs in O(N) time, rather than an O(N^2) lookup that would occur if each
+     * item from collection one was scanned for in collection two.
+     * @param col1 First collection of items to compare
+     * @param col2 Second collection of items to compare
+     * @param stack add items to compare to the Stack (Stack versus recursion)
+     * @param visited Set containing items that have already been compared,
+     * so as to prevent cycles.
+     * @return boolean false if the Collections are for certain not equals. A
+     * value of 'true' indicates that the Collections may be equal, and the sets
+     * items will be added to the Stack for further comparison.
+     */
+    private static boolean compareUnorderedCollection(Collection<Object> col1, Collection<Object> col2, Deque<DualKey> stack, Set<DualKey> visited)
+    {
+        // Same instance check already performed...
+
+        if (col1.size() != col2.size())
+        {
+            return false;
+        }
+
+        Map<Integer, Object> fastLookup = new HashMap<Integer, Object>();
+        for (Object o : col2)
+        {
+            fastLookup.put(DeepEquals.deepHashCode(o), o);
+        }
+
+        for (Object o : col1)
+        {
+            Object other = fastLookup.get(DeepEquals.deepHashCode(o));
+            if (other == null)
+            {   // Item not even found in other Collection, no need to continue.
+                return false;
+            }
+
+            DualKey dk = new DualKey(o, other);
+            if (!visited.contains(dk))
+            {   // Place items on 'stack' for further comparison.
+                stack.addFirst(dk);
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Deeply compare two SortedMap instances.  This method walks the Maps in order,
+     * taking advantage of the fact that they Maps are SortedMaps.
+     * @param map1 SortedMap one
+     * @param map2 SortedMap two
+     * @param stack add items to compare to the Stack (Stack versus recursion)
+     * @param visited Set containing items that have already been compared, to prevent cycles.
+     * @return false if the Maps are for certain not equals.  'true' indicates that 'on the surface' the maps
+     * are equal, however, it will place the contents of the Maps on the stack for further comparisons.
+     */
+    private static boolean compareSortedMap(SortedMap<Object, Object> map1, SortedMap<Object, Object> map2, Deque<DualKey> stack, Set<DualKey> visited)
+    {
+        // Same instance check already performed...
+
+        if (map1.size() != map2.size())
+        {
+            return false;
+        }
+
+        Iterator<Entry<Object, Object>> i1 = map1.entrySet().iterator();
+        Iterator<Entry<Object, Object>> i2 = map2.entrySet().iterator();
+
+        while (i1.hasNext())
+        {
+            Map.Entry<Object, Object> entry1 = i1.next();
+            Map.Entry<Object, Object> entry2 = i2.next();
+
+            // Must split the Key and Value so that Map.Entry's equals() method is not used.
+            DualKey dk = new DualKey(entry1.getKey(), entry2.getKey());
+            if (!visited.contains(dk))
+            {   // Push Keys for further comparison
+                stack.addFirst(dk);
+            }
+
+            dk = new DualKey(entry1.getValue(), entry2.getValue());
+            if (!visited.contains(dk))
+            {   // Push values for further comparison
+                stack.addFirst(dk);
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Deeply compare two Map instances.  After quick short-circuit tests, this method
+     * uses a temporary Map so that this method can run in O(N) time.
+     * @param map1 Map one
+     * @param map2 Map two
+     * @param stack add items to compare to the Stack (Stack versus recursion)
+     * @param visited Set containing items that have already been compared, to prevent cycles.
+     * @return false if the Maps are for certain not equals.  'true' indicates that 'on the surface' the maps
+     * are equal, however, it will place the contents of the Maps on the stack for further comparisons.
+     */
+    private static boolean compareUnorderedMap(Map<Object, Object> map1, Map<Object, Object> map2, Deque<DualKey> stack, Set<DualKey> visited)
+    {
+        // Same instance check already performed...
+
+        if (map1.size() != map2.size())
+        {
+            return false;
+        }
+
+        Map<Integer, Map.Entry<Object, Object>> fastLookup = new HashMap<Integer, Map.Entry<Object, Object>>();
+
+        for (Map.Entry<Object, Object> entry : map2.entrySet())
+        {
+            fastLookup.put(DeepEquals.deepHashCode(entry.getKey()), entry);
+        }
+
+        for (Map.Entry<Object, Object> entry : map1.entrySet())
+        {
+            Map.Entry<Object, Object> other = fastLookup.get(DeepEquals.deepHashCode(entry.getKey()));
+            if (other == null)
+            {
+                return false;
+            }
+
+            DualKey dk = new DualKey(entry.getKey(), other.getKey());
+            if (!visited.contains(dk))
+            {   // Push keys for further comparison
+                stack.addFirst(dk);
+            }
+
+            dk = new DualKey(entry.getValue(), other.getValue());
+            if (!visited.contains(dk))
+            {   // Push values for further comparison
+                stack.addFirst(dk);
+            }
+        }
+
+        return true;
+    }
+}
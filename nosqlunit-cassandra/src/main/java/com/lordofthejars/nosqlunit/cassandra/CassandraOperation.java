@@ -9,13 +9,17 @@ import me.prettyprint.hector.api.ddl.KeyspaceDefinition;
 import me.prettyprint.hector.api.factory.HFactory;
 
 import com.lordofthejars.nosqlunit.core.AbstractCustomizableDatabaseOperation;
+import com.lordofthejars.nosqlunit.core.NamespaceAwareDatabaseOperation;
 import com.lordofthejars.nosqlunit.core.NoSqlAssertionError;
+import com.lordofthejars.nosqlunit.core.TestNamespace;
 
-public class CassandraOperation extends AbstractCustomizableDatabaseOperation<CassandraConnectionCallback, Keyspace> {
+public class CassandraOperation extends AbstractCustomizableDatabaseOperation<CassandraConnectionCallback, Keyspace>
+		implements NamespaceAwareDatabaseOperation {
 
 	private Keyspace keyspace;
 	private Cluster cluster;
 	private CassandraConfiguration cassandraConfiguration;
+	private TestNamespace testNamespace = TestNamespace.DEFAULT_NAMESPACE;
 
 	protected static final String INTERNAL_CASSANDRA_KEYSPACE = Keyspace.KEYSPACE_SYSTEM;
 
@@ -82,7 +86,7 @@ public class CassandraOperation extends AbstractCustomizableDatabaseOperation<Ca
 		for (KeyspaceDefinition keyspaceDefinition : keyspaces) {
 			String keyspaceName = keyspaceDefinition.getName();
 
-            if (!keyspaceName.startsWith(INTERNAL_CASSANDRA_KEYSPACE)) {
+            if (!keyspaceName.startsWith(INTERNAL_CASSANDRA_KEYSPACE) && testNamespace.contains(keyspaceName)) {
 				cluster.dropKeyspace(keyspaceName, true);
 			}
 		}
@@ -90,6 +94,15 @@ public class CassandraOperation extends AbstractCustomizableDatabaseOperation<Ca
 		List<KeyspaceDefinition> keyspaces2 = cluster.describeKeyspaces();
 	}
 
+	/**
+	 * Namespace is applied as a suffix of keyspace names defined in datasets,
+	 * and only keyspaces of the namespace are dropped.
+	 */
+	@Override
+	public void useNamespace(TestNamespace testNamespace) {
+		this.testNamespace = testNamespace;
+	}
+
 	@Override
 	public boolean databaseIs(InputStream expectedData) {
 		return compareData(expectedData);
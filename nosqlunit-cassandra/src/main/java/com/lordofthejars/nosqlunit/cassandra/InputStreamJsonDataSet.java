@@ -11,6 +11,8 @@ import org.codehaus.jackson.JsonParseException;
 import org.codehaus.jackson.map.JsonMappingException;
 import org.codehaus.jackson.map.ObjectMapper;
 
+import com.lordofthejars.nosqlunit.core.TestNamespace;
+
 public class InputStreamJsonDataSet extends AbstractCommonsParserDataSet implements DataSet  {
 
 	private InputStream inputDataSetLocation;
@@ -27,7 +29,9 @@ public class InputStreamJsonDataSet extends AbstractCommonsParserDataSet impleme
 
 		ObjectMapper jsonMapper = new ObjectMapper();
 		try {
-			return jsonMapper.readValue(inputDataSetLocation, ParsedKeyspace.class);
+			ParsedKeyspace parsedKeyspace = jsonMapper.readValue(inputDataSetLocation, ParsedKeyspace.class);
+			parsedKeyspace.setName(TestNamespace.current().qualify(parsedKeyspace.getName()));
+			return parsedKeyspace;
 		} catch (JsonParseException e) {
 			throw new ParseException(e);
 		} catch (JsonMappingException e) {
@@ -1,7 +1,11 @@
 package com.lordofthejars.nosqlunit.cassandra;
 
+import java.io.File;
+
 import org.junit.rules.ExternalResource;
 
+import com.lordofthejars.nosqlunit.core.SeedTemplate;
+
 public class ManagedCassandra extends ExternalResource {
 
 	public ManagedCassandra() {
@@ -32,6 +36,21 @@ public class ManagedCassandra extends ExternalResource {
 			return this;
 		}
 
+		/**
+		 * @param templatePath
+		 *            directory where templates cloned as target path before
+		 *            starting Cassandra are stored. Cassandra data directories
+		 *            should be relative to target path.
+		 * @param seedDataSets
+		 *            classpath locations of base fixtures. Template is captured
+		 *            once a rule has loaded them, and prepared again when they
+		 *            change. Without them, template must be prepared beforehand.
+		 */
+		public ManagedCassandraRuleBuilder seedTemplate(String templatePath, String... seedDataSets) {
+			this.managedCassandraLifecycleManager.setSeedTemplate(SeedTemplate.of(new File(templatePath), seedDataSets));
+			return this;
+		}
+
 		public ManagedCassandraRuleBuilder cassandraPath(String cassandraPath) {
 			this.managedCassandraLifecycleManager.setCassandraPath(cassandraPath);
 			return this;
@@ -3,6 +3,7 @@ package com.lordofthejars.nosqlunit.cassandra;
 import static ch.lambdaj.Lambda.having;
 import static ch.lambdaj.Lambda.on;
 import static ch.lambdaj.Lambda.selectUnique;
+import static com.lordofthejars.nosqlunit.core.IOUtils.deleteDir;
 import static java.util.concurrent.TimeUnit.SECONDS;
 import static org.hamcrest.core.StringStartsWith.startsWith;
 
@@ -14,6 +15,7 @@ import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.concurrent.CountDownLatch;
+import java.util.regex.Pattern;
 
 import me.prettyprint.cassandra.service.CassandraHost;
 
@@ -22,6 +24,9 @@ import org.slf4j.LoggerFactory;
 
 import com.lordofthejars.nosqlunit.core.AbstractLifecycleManager;
 import com.lordofthejars.nosqlunit.core.CommandLineExecutor;
+import com.lordofthejars.nosqlunit.core.ProcessOutputPump;
+import com.lordofthejars.nosqlunit.core.ReadinessProbe;
+import com.lordofthejars.nosqlunit.core.SeedTemplate;
 import com.lordofthejars.nosqlunit.env.SystemEnvironmentVariables;
 
 public class ManagedCassandraLifecycleManager extends AbstractLifecycleManager {
@@ -36,10 +41,14 @@ public class ManagedCassandraLifecycleManager extends AbstractLifecycleManager {
 
 	private static final String LIB_DIRECTORY = "/lib";
 
+	private static final long STOP_TIMEOUT_SECONDS = 30;
+
 	Process pwd;
 
 	private static final String LOCALHOST = "127.0.0.1";
 
+	private static final Pattern READY_PATTERN = Pattern.compile("Starting listening for CQL clients|Listening for thrift clients");
+
 	protected static final String FOREGROUND_ARGUMENT_NAME = "-Dcassandra-foreground=yes";
 
 	public static final String DEFAULT_CASSANDRA_TARGET_PATH = "target" + File.separatorChar + "cassandra-temp";
@@ -57,6 +66,16 @@ public class ManagedCassandraLifecycleManager extends AbstractLifecycleManager {
 	private String targetPath = DEFAULT_CASSANDRA_TARGET_PATH;
 	private int port = CassandraHost.DEFAULT_PORT;
 
+	private SeedTemplate seedTemplate;
+
+	private final Runnable seedTemplateCapture = new Runnable() {
+
+		@Override
+		public void run() {
+			captureSeedTemplate();
+		}
+	};
+
 	private Map<String, String> extraCommandArguments = new HashMap<String, String>();
 	private List<String> singleCommandArguments = new ArrayList<String>();
 
@@ -67,10 +86,22 @@ public class ManagedCassandraLifecycleManager extends AbstractLifecycleManager {
 	}
 
 	
+	@Override
+	protected boolean isShareableAcrossProcesses() {
+		return true;
+	}
+
+	@Override
+	protected Process getServerProcess() {
+		return pwd;
+	}
+
 	@Override
 	public void doStart() throws Throwable {
 		LOGGER.info("Starting {} Cassandra instance.", cassandraPath);
+		cloneSeedTemplate();
 		startCassandra();
+		awaitSeeding();
 		LOGGER.info("Started {} Cassandra instance.", cassandraPath);
 	}
 
@@ -79,7 +110,7 @@ public class ManagedCassandraLifecycleManager extends AbstractLifecycleManager {
 		new Thread(new Runnable() {
 			public void run() {
 				try {
-					startCassandraAsDaemon();
+					startCassandraAsDaemon(startupLatch);
 					startupLatch.countDown();
 				} catch (InterruptedException e) {
 					throw new IllegalStateException(e);
@@ -94,13 +125,21 @@ public class ManagedCassandraLifecycleManager extends AbstractLifecycleManager {
 		}
 	}
 
-	private List<String> startCassandraAsDaemon() throws InterruptedException {
+	private List<String> startCassandraAsDaemon(final CountDownLatch startupLatch) throws InterruptedException {
 
 		try {
 			pwd = startProcess();
+			ProcessOutputPump outputPump = ProcessOutputPump.start(pwd);
+			outputPump.whenLogged(READY_PATTERN).thenRun(new Runnable() {
+				@Override
+				public void run() {
+					startupLatch.countDown();
+				}
+			});
 			pwd.waitFor();
 			if (pwd.exitValue() != 0) {
-				List<String> consoleOutput = getConsoleOutput(pwd);
+				outputPump.awaitEnd(1, SECONDS);
+				List<String> consoleOutput = outputPump.getLines();
 				throw new IllegalStateException("Cassandra [" + cassandraPath + " at port " + port
 						+ "] could not be started. Next console message was thrown: " + consoleOutput);
 			}
@@ -116,10 +155,6 @@ public class ManagedCassandraLifecycleManager extends AbstractLifecycleManager {
 				buildOperationSystemProgramAndArguments());
 	}
 
-	private List<String> getConsoleOutput(Process pwd) throws IOException {
-		return this.commandLineExecutor.getConsoleOutput(pwd);
-	}
-
 	private List<String> buildOperationSystemProgramAndArguments() {
 
 		File[] cassandraJarLibraries = getCassandraJarLibraries();
@@ -157,11 +192,55 @@ public class ManagedCassandraLifecycleManager extends AbstractLifecycleManager {
 	public void doStop() {
 		LOGGER.info("Stopping {} Cassandra instance.", cassandraPath);
 		
+		if (this.seedTemplate != null) {
+			this.seedTemplate.cancelSeeding(this.seedTemplateCapture);
+		}
 		stopCassandra();
 		
 		LOGGER.info("Stopped {} Cassandra instance.", cassandraPath);
 	}
 
+	private void cloneSeedTemplate() {
+		if (this.seedTemplate != null && this.seedTemplate.isPrepared()) {
+			File targetPathDirectory = new File(targetPath);
+			deleteDir(targetPathDirectory);
+			this.seedTemplate.cloneInto(targetPathDirectory);
+			LOGGER.info("Cloned seed template {} into {}.", this.seedTemplate.getTemplateDirectory(), targetPathDirectory);
+		}
+	}
+
+	private void awaitSeeding() {
+		if (this.seedTemplate != null && !isSharedAcrossProcesses()
+				&& this.seedTemplate.awaitSeeding(this.seedTemplateCapture)) {
+			LOGGER.info("Seed template {} will be captured once its seed datasets are loaded.",
+					this.seedTemplate.getTemplateDirectory());
+		}
+	}
+
+	/**
+	 * Restarts Cassandra once seed datasets have been loaded, so its data
+	 * files are consistent when they are stored as template.
+	 */
+	private void captureSeedTemplate() {
+
+		Process process = pwd;
+		stopCassandra();
+
+		try {
+			if (process != null && ReadinessProbe.processTerminated(process).awaitReadiness(STOP_TIMEOUT_SECONDS, SECONDS)) {
+				this.seedTemplate.captureIfNotPrepared(new File(targetPath));
+				LOGGER.info("Captured seed template {}.", this.seedTemplate.getTemplateDirectory());
+			} else {
+				LOGGER.warn("Seed template {} not captured because Cassandra did not stop in {} seconds.",
+						this.seedTemplate.getTemplateDirectory(), STOP_TIMEOUT_SECONDS);
+			}
+		} catch (InterruptedException e) {
+			throw new IllegalStateException(e);
+		}
+
+		startCassandra();
+	}
+
 	private void stopCassandra() {
         if (pwd != null)
             pwd.destroy();
@@ -211,6 +290,10 @@ public class ManagedCassandraLifecycleManager extends AbstractLifecycleManager {
 		this.targetPath = targetPath;
 	}
 
+	public void setSeedTemplate(SeedTemplate seedTemplate) {
+		this.seedTemplate = seedTemplate;
+	}
+
 	public void setCassandraPath(String cassandraPath) {
 		this.cassandraPath = cassandraPath;
 	}
@@ -0,0 +1,44 @@
+package com.lordofthejars.nosqlunit.annotation;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Runs test body concurrently to measure throughput and latency against the
+ * database state seeded by {@link UsingDataSet}. Datasets are loaded once
+ * before the load, and {@link ShouldMatchDataSet} is checked once after it.
+ * Test fails when throughput or latency budgets are not met.
+ */
+@Retention(RetentionPolicy.RUNTIME)
+@Target({ ElementType.METHOD })
+public @interface ConcurrentLoad {
+
+	int threads() default 4;
+
+	/**
+	 * Number of measured executions of test body per thread.
+	 */
+	int iterations() default 100;
+
+	/**
+	 * Number of executions of test body per thread before measuring.
+	 */
+	int warmup() default 0;
+
+	/**
+	 * Minimum number of executions per second of all threads, 0 means no
+	 * budget.
+	 */
+	double minThroughput() default 0;
+
+	/**
+	 * Maximum latency in milliseconds at {@link #latencyPercentile()}, 0
+	 * means no budget.
+	 */
+	double maxLatencyMillis() default 0;
+
+	double latencyPercentile() default 99.0;
+
+}
@@ -0,0 +1,52 @@
+package com.lordofthejars.nosqlunit.annotation;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+import com.lordofthejars.nosqlunit.core.LoadStrategyEnum;
+import com.lordofthejars.nosqlunit.core.RecordShape;
+
+/**
+ * Seeds synthetic records instead of reading a dataset file. Records are
+ * generated lazily and inserted in batches, so big volumes can be loaded
+ * without keeping them in memory. Given the same seed, same records are
+ * generated.
+ */
+@Retention(RetentionPolicy.RUNTIME)
+@Target({ ElementType.METHOD, ElementType.TYPE })
+public @interface GeneratedDataSet {
+
+	/**
+	 * Name records are generated for, depending on the database: collection,
+	 * index, key prefix, table or node label.
+	 */
+	String template();
+
+	long count();
+
+	long seed() default 0L;
+
+	RecordShape shape() default RecordShape.DOCUMENT;
+
+	GeneratedField[] fields() default {};
+
+	/**
+	 * Number of records rendered and inserted at once.
+	 */
+	int batchSize() default 1000;
+
+	/**
+	 * When test is also annotated with {@link UsingDataSet}, generated records
+	 * are inserted after its datasets and this strategy is ignored.
+	 */
+	LoadStrategyEnum loadStrategy() default LoadStrategyEnum.CLEAN_INSERT;
+
+	/**
+	 * Inserts batches concurrently. Only for databases whose insertions can be
+	 * executed concurrently.
+	 */
+	boolean parallelLoad() default false;
+
+}
@@ -0,0 +1,40 @@
+package com.lordofthejars.nosqlunit.annotation;
+
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+import com.lordofthejars.nosqlunit.core.FieldGenerator;
+
+/**
+ * Field of the records of a {@link GeneratedDataSet}.
+ */
+@Retention(RetentionPolicy.RUNTIME)
+@Target({})
+public @interface GeneratedField {
+
+	String name();
+
+	FieldGenerator generator() default FieldGenerator.SEQUENCE;
+
+	/**
+	 * Lower bound of numeric values, and first value of sequences.
+	 */
+	long min() default 0L;
+
+	/**
+	 * Upper bound, inclusive, of numeric values.
+	 */
+	long max() default 1000L;
+
+	/**
+	 * Length of generated strings.
+	 */
+	int length() default 10;
+
+	/**
+	 * Values picked by {@link FieldGenerator#ONE_OF}.
+	 */
+	String[] values() default {};
+
+}
@@ -5,10 +5,29 @@ import java.lang.annotation.Retention;
 import java.lang.annotation.RetentionPolicy;
 import java.lang.annotation.Target;
 
+import com.lordofthejars.nosqlunit.core.ComparisonMode;
+
 @Retention(RetentionPolicy.RUNTIME)
 @Target({ ElementType.METHOD, ElementType.TYPE })
 public @interface ShouldMatchDataSet {
 
 	String location() default "";
 	SelectiveMatcher[] withSelectiveMatcher() default {};
+
+	/**
+	 * DIGEST and SAMPLE modes stream both expected dataset and database
+	 * content, so they can be used with datasets too big to be compared
+	 * record by record.
+	 */
+	ComparisonMode mode() default ComparisonMode.EXACT;
+
+	/**
+	 * Number of expected records looked up per collection in SAMPLE mode.
+	 */
+	int sampleSize() default 100;
+
+	/**
+	 * Seed choosing the expected records looked up in SAMPLE mode.
+	 */
+	long sampleSeed() default 0L;
 }
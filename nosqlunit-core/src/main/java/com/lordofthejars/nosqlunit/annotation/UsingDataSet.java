@@ -15,4 +15,17 @@ public @interface UsingDataSet {
 	LoadStrategyEnum loadStrategy() default LoadStrategyEnum.CLEAN_INSERT;
 	Selective[] withSelectiveLocations() default {};
 	
+	/**
+	 * Inserts datasets concurrently. Only for databases whose insertions can
+	 * be executed concurrently. It can also be enabled for all tests with
+	 * nosqlunit.dataset.parallel.load system property.
+	 */
+	boolean parallelLoad() default false;
+	
+	/**
+	 * Datasets inserted after all the others, one after another and in the
+	 * given order, also when datasets are loaded in parallel.
+	 */
+	String[] dependentLocations() default {};
+	
 }
@@ -1,31 +1,67 @@
 package com.lordofthejars.nosqlunit.core;
 
+import java.util.concurrent.TimeUnit;
+
+import com.lordofthejars.nosqlunit.core.ConnectionManagement.ConnectionCallback;
 
 
 public abstract class AbstractLifecycleManager implements LifecycleManager {
 
-	private boolean ready = false;
+	private volatile boolean ready = false;
 
 	@Override
 	public void startEngine() throws Throwable {
 
-		if (isServerNotStartedYet()) {
-			ready = true;
-			doStart();
-		}
+		ConnectionManagement.getInstance().addConnection(getHost(), getPort(), new ConnectionCallback() {
+
+			@Override
+			public void execute() throws Throwable {
+				if (isSharedAcrossProcesses()) {
+					SharedServerRegistry.getInstance().start(AbstractLifecycleManager.this, new ConnectionCallback() {
+
+						@Override
+						public void execute() throws Throwable {
+							doStart();
+						}
+					});
+				} else {
+					doStart();
+				}
+				ready = true;
+			}
+		});
 
-		ConnectionManagement.getInstance().addConnection(getHost(), getPort());
 	}
 
 
 	@Override
 	public void stopEngine() {
 
-		int remainingConnections = ConnectionManagement.getInstance().removeConnection(getHost(), getPort());
-
-		if (noMoreConnectionsToManage(remainingConnections)) {
-			ready = false;
-			doStop();
+		try {
+			ConnectionManagement.getInstance().removeConnection(getHost(), getPort(), new ConnectionCallback() {
+
+				@Override
+				public void execute() throws Throwable {
+					ready = false;
+					if (isSharedAcrossProcesses()) {
+						SharedServerRegistry.getInstance().stop(AbstractLifecycleManager.this, new ConnectionCallback() {
+
+							@Override
+							public void execute() throws Throwable {
+								doStop();
+							}
+						});
+					} else {
+						doStop();
+					}
+				}
+			});
+		} catch (RuntimeException e) {
+			throw e;
+		} catch (Error e) {
+			throw e;
+		} catch (Throwable e) {
+			throw new IllegalStateException(e);
 		}
 
 	}
@@ -33,13 +69,45 @@ public abstract class AbstractLifecycleManager implements LifecycleManager {
 	public boolean isReady() {
 		return this.ready;
 	}
-	
-	private boolean noMoreConnectionsToManage(int remainingConnections) {
-		return remainingConnections < 1;
+
+	/**
+	 * Servers running in their own process can be shared with other JVMs
+	 * through {@link SharedServerRegistry}. Embedded servers live in the JVM
+	 * that started them, so they are never shared.
+	 */
+	protected boolean isShareableAcrossProcesses() {
+		return false;
 	}
 
-	private boolean isServerNotStartedYet() {
-		return !ConnectionManagement.getInstance().isConnectionRegistered(getHost(), getPort());
+	/**
+	 * @return process running the server started by this manager, or null if
+	 *         it has not been started or runs in this JVM. Servers shared
+	 *         through {@link SharedServerRegistry} are terminated through it
+	 *         when they are released last by another JVM.
+	 */
+	protected Process getServerProcess() {
+		return null;
+	}
+
+	protected boolean isSharedAcrossProcesses() {
+		return isShareableAcrossProcesses() && SharedServerRegistry.isEnabled();
+	}
+
+	/**
+	 * Waits until engine is ready, polling given probe with an exponential
+	 * backoff.
+	 * 
+	 * @throws IllegalStateException
+	 *             if engine is not ready before timeout expires.
+	 */
+	protected void waitUntilReady(ReadinessProbe readinessProbe, long timeout, TimeUnit unit)
+			throws InterruptedException {
+
+		if (!readinessProbe.awaitReadiness(timeout, unit)) {
+			throw new IllegalStateException(getClass().getSimpleName() + " on " + getHost() + ":" + getPort()
+					+ " was not ready after " + timeout + " " + unit.name().toLowerCase() + ".",
+					readinessProbe.getLastFailure());
+		}
 	}
 
 	public abstract String getHost();
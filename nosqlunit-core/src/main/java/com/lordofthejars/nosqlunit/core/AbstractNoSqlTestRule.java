@@ -1,8 +1,11 @@
 package com.lordofthejars.nosqlunit.core;
 
 import com.lordofthejars.nosqlunit.annotation.*;
+import com.lordofthejars.nosqlunit.instrumentation.CompositeRuleInstrumentation;
+import com.lordofthejars.nosqlunit.instrumentation.RuleInstrumentation;
+import com.lordofthejars.nosqlunit.instrumentation.RuleInstrumentation.Measurement;
+import com.lordofthejars.nosqlunit.instrumentation.RulePhase;
 import com.lordofthejars.nosqlunit.util.DefaultClasspathLocationBuilder;
-import com.lordofthejars.nosqlunit.util.ReflectionUtil;
 import org.junit.rules.MethodRule;
 import org.junit.runners.model.FrameworkMethod;
 import org.junit.runners.model.Statement;
@@ -36,6 +39,8 @@ public abstract class AbstractNoSqlTestRule implements MethodRule {
 
     private InjectAnnotationProcessor injectAnnotationProcessor;
 
+    private RuleInstrumentation ruleInstrumentation;
+
     public AbstractNoSqlTestRule(String identifier) {
         this.identifier = identifier;
         this.injectAnnotationProcessor = new InjectAnnotationProcessor(
@@ -51,65 +56,318 @@ public abstract class AbstractNoSqlTestRule implements MethodRule {
     @Override
     public Statement apply(final Statement base, final FrameworkMethod method,
             final Object testObject) {
-        return new Statement() {
+
+        final TestMethodMetadata testMethodMetadata = TestClassMetadata.forClass(
+                testObject.getClass()).forMethod(method);
+
+        final boolean innermostRule = !(base instanceof RuleStatement);
+
+        return new RuleStatement() {
 
             @Override
             public void evaluate() throws Throwable {
 
+                if (ConcurrentLoadRunner.isLoadThread()) {
+                    // an enclosing rule runs the load, data is already loaded
+                    base.evaluate();
+                    return;
+                }
+
                 target = testObject;
 
                 defaultDataSetLocationResolver = new DefaultDataSetLocationResolver(
-                        testObject.getClass());
+                        testObject.getClass(), readableCompiledFormats());
 
-                UsingDataSet usingDataSet = getUsingDataSetAnnotation();
+                final NamespaceBuffer namespaceBuffer = namespaceBufferIfEnabled();
+
+                if (namespaceBuffer == null) {
+                    evaluateRule(null, false);
+                    return;
+                }
+
+                TestNamespace testNamespace = namespaceBuffer
+                        .namespaceFor(testObject);
+                ((NamespaceAwareDatabaseOperation) getDatabaseOperation())
+                        .useNamespace(testNamespace);
+                final boolean namespacePrepared = namespaceBuffer
+                        .isPreparedFor(identifier, testName(method));
+
+                evaluateWithin(testNamespace, new Statement() {
+
+                    @Override
+                    public void evaluate() throws Throwable {
+                        evaluateRule(namespaceBuffer, namespacePrepared);
+                    }
+                });
+
+            }
+
+            private void evaluateRule(NamespaceBuffer namespaceBuffer,
+                    boolean namespacePrepared) throws Throwable {
+
+                UsingDataSet usingDataSet = testMethodMetadata.getUsingDataSet();
+
+                RuleInstrumentation instrumentation = getRuleInstrumentation();
+                String testName = testName(method);
+                String dataSets = describeDataSets(usingDataSet);
+
+                boolean namespaceAcquired = namespaceBuffer == null
+                        && useNamespaceIfIsolated();
 
                 try {
 
                     if (isTestAnnotatedWithDataSet(usingDataSet)) {
-                        createCustomInsertationStrategyIfPresent();
-                        loadDataSet(usingDataSet, method);
+                        Measurement measurement = instrumentation.start(
+                                RulePhase.LOAD_DATASET, identifier, testName,
+                                dataSets);
+                        try {
+                            createCustomInsertationStrategyIfPresent();
+                            if (!namespacePrepared) {
+                                loadDataSet(usingDataSet, method,
+                                        getDatabaseOperation());
+                            }
+                            if (namespaceBuffer == null && !namespaceAcquired) {
+                                reportSeedingIfAwaited(usingDataSet, method);
+                            }
+                        } finally {
+                            measurement.stop();
+                        }
                     }
 
-                    injectAnnotationProcessor.processInjectAnnotation(testObject
-                            .getClass(), target, getDatabaseOperation()
-                            .connectionManager());
+                    GeneratedDataSet generatedDataSet = testMethodMetadata
+                            .getGeneratedDataSet();
+
+                    if (generatedDataSet != null) {
+                        Measurement measurement = instrumentation.start(
+                                RulePhase.LOAD_DATASET, identifier, testName,
+                                "generated:" + generatedDataSet.template());
+                        try {
+                            createCustomInsertationStrategyIfPresent();
+                            loadGeneratedDataSet(generatedDataSet,
+                                    isTestAnnotatedWithDataSet(usingDataSet));
+                        } finally {
+                            measurement.stop();
+                        }
+                    }
 
-                    base.evaluate();
+                    Measurement injectionMeasurement = instrumentation.start(
+                            RulePhase.INJECTION, identifier, testName, dataSets);
+                    try {
+                        injectAnnotationProcessor.processInjectAnnotation(
+                                testObject.getClass(), target,
+                                getDatabaseOperation().connectionManager());
+                    } finally {
+                        injectionMeasurement.stop();
+                    }
 
-                    ShouldMatchDataSet shouldMatchDataSet = getShouldMatchDataSetAnnotation();
+                    if (namespaceBuffer != null) {
+                        prepareNextNamespace(namespaceBuffer);
+                    }
+
+                    ConcurrentLoad concurrentLoad = testMethodMetadata
+                            .getConcurrentLoad();
+                    ConcurrentLoadRunner concurrentLoadRunner = null;
+                    ConcurrentLoadReport concurrentLoadReport = null;
+
+                    Measurement testMeasurement = instrumentation.start(
+                            RulePhase.TEST, identifier, testName, dataSets);
+                    try {
+                        if (concurrentLoad == null || !innermostRule) {
+                            base.evaluate();
+                        } else {
+                            concurrentLoadRunner = new ConcurrentLoadRunner(
+                                    concurrentLoad, testName);
+                            concurrentLoadReport = concurrentLoadRunner
+                                    .run(base);
+                        }
+                    } finally {
+                        testMeasurement.stop();
+                    }
+
+                    ShouldMatchDataSet shouldMatchDataSet = testMethodMetadata.getShouldMatchDataSet();
 
                     if (isTestAnnotatedWithExpectedDataSet(shouldMatchDataSet)) {
-                        createCustomComparisionStrategyIfPresent();
-                        assertExpectation(shouldMatchDataSet);
+                        Measurement measurement = instrumentation.start(
+                                RulePhase.EXPECTATION, identifier, testName,
+                                dataSets);
+                        try {
+                            createCustomComparisionStrategyIfPresent();
+                            assertExpectation(shouldMatchDataSet);
+                        } finally {
+                            measurement.stop();
+                        }
+                    }
+
+                    if (concurrentLoadRunner != null) {
+                        concurrentLoadRunner
+                                .assertWithinBudgets(concurrentLoadReport);
                     }
 
                 } finally {
-                    close();
+                    if (namespaceBuffer != null) {
+                        namespaceBuffer.awaitPreparation(identifier);
+                    }
+
+                    Measurement closeMeasurement = instrumentation.start(
+                            RulePhase.CLOSE, identifier, testName, dataSets);
+                    try {
+                        rollbackTransactionIfOpen();
+                    } finally {
+                        try {
+                            close();
+                        } finally {
+                            closeMeasurement.stop();
+                            if (namespaceAcquired) {
+                                TestNamespace.release();
+                            }
+                        }
+                    }
+                }
+
+            }
+
+            /**
+             * Transaction opened by {@link LoadStrategyEnum#ROLLBACK} is kept
+             * during the test and the comparison of expected datasets, and
+             * rolled back once they finish.
+             */
+            private void rollbackTransactionIfOpen() {
+                DatabaseOperation<?> databaseOperation = getDatabaseOperation();
+
+                if (databaseOperation instanceof TransactionalDatabaseOperation) {
+                    ((TransactionalDatabaseOperation) databaseOperation)
+                            .rollbackTransaction();
                 }
+            }
 
+            private String testName(FrameworkMethod testMethod) {
+                return testObject.getClass().getName() + "#"
+                        + testMethod.getName();
+            }
+
+            private NamespaceBuffer namespaceBufferIfEnabled() {
+                if (TestNamespace.isBufferingEnabled()
+                        && getDatabaseOperation() instanceof NamespaceForkableDatabaseOperation) {
+                    return NamespaceBuffer.forCurrentThread(TestNamespace
+                            .numberOfBuffers());
+                }
+
+                return null;
+            }
+
+            /**
+             * Cleans and seeds next namespace in background with datasets of
+             * next test method. Only datasets loaded with CLEAN_INSERT or
+             * DELETE_ALL are prepared, as they fully define the content of
+             * the namespace.
+             */
+            private void prepareNextNamespace(NamespaceBuffer namespaceBuffer) {
+                final FrameworkMethod nextMethod = testMethodMetadata
+                        .getTestClassMetadata().nextTestMethod(method);
+
+                if (nextMethod == null) {
+                    return;
+                }
+
+                final UsingDataSet nextUsingDataSet = testMethodMetadata
+                        .getTestClassMetadata().forMethod(nextMethod)
+                        .getUsingDataSet();
+
+                if (!isPreparable(nextUsingDataSet)) {
+                    return;
+                }
+
+                createCustomInsertationStrategyIfPresent();
+
+                final DatabaseOperation<?> nextDatabaseOperation = ((NamespaceForkableDatabaseOperation) getDatabaseOperation())
+                        .forNamespace(namespaceBuffer.nextNamespace());
+
+                namespaceBuffer.prepare(identifier, testName(nextMethod),
+                        new Runnable() {
+
+                            @Override
+                            public void run() {
+                                try {
+                                    loadDataSet(nextUsingDataSet, nextMethod,
+                                            nextDatabaseOperation);
+                                } catch (IOException e) {
+                                    throw new IllegalStateException(e);
+                                }
+                            }
+                        });
+            }
+
+            private boolean isPreparable(UsingDataSet usingDataSet) {
+                return isTestAnnotatedWithDataSet(usingDataSet)
+                        && (usingDataSet.loadStrategy() == LoadStrategyEnum.CLEAN_INSERT
+                                || usingDataSet.loadStrategy() == LoadStrategyEnum.DELETE_ALL);
+            }
+
+            private String describeDataSets(UsingDataSet usingDataSet) {
+
+                if (!isTestAnnotatedWithDataSet(usingDataSet)) {
+                    return "";
+                }
+
+                StringBuilder dataSets = new StringBuilder();
+                appendLocations(dataSets, usingDataSet.locations());
+                appendLocations(dataSets, usingDataSet.dependentLocations());
+
+                Selective[] selectiveLocations = usingDataSet
+                        .withSelectiveLocations();
+                if (selectiveLocations != null) {
+                    for (Selective selective : selectiveLocations) {
+                        if (selective.identifier().trim().equals(identifier)) {
+                            appendLocations(dataSets, selective.locations());
+                        }
+                    }
+                }
+
+                return dataSets.length() == 0 ? "default" : dataSets.toString();
+            }
+
+            private void appendLocations(StringBuilder dataSets, String[] locations) {
+                if (locations == null) {
+                    return;
+                }
+
+                for (String location : locations) {
+                    if (dataSets.length() > 0) {
+                        dataSets.append(',');
+                    }
+                    dataSets.append(location);
+                }
+            }
+
+            private boolean useNamespaceIfIsolated() {
+                DatabaseOperation<?> databaseOperation = getDatabaseOperation();
+
+                if (TestNamespace.isIsolationEnabled()
+                        && databaseOperation instanceof NamespaceAwareDatabaseOperation) {
+                    TestNamespace testNamespace = TestNamespace.acquire();
+                    try {
+                        ((NamespaceAwareDatabaseOperation) databaseOperation)
+                                .useNamespace(testNamespace);
+                    } catch (RuntimeException e) {
+                        TestNamespace.release();
+                        throw e;
+                    }
+                    return true;
+                }
+
+                return false;
             }
 
             private void createCustomComparisionStrategyIfPresent() {
-                CustomComparisonStrategy customComparisonStrategy = getCustomComparisionStrategy();
+                CustomComparisonStrategy customComparisonStrategy = testMethodMetadata
+                        .getTestClassMetadata().getCustomComparisonStrategy();
 
                 if (isTestAnnotatedWithCustomComparisionStrategy(customComparisonStrategy)) {
                     DatabaseOperation<?> databaseOperation = getDatabaseOperation();
 
                     if (isDatabaseOperationCustomizable(databaseOperation)) {
-                        Class<? extends ComparisonStrategy<?>> comparisionStrategy = customComparisonStrategy
-                                .comparisonStrategy();
-                        ComparisonStrategy<?> comparisionStrategyObject = ReflectionUtil.createInstance(comparisionStrategy);
-
-                        Class<?> classWithAnnotation = IOUtils.getClassWithAnnotation(
-                                target.getClass(),
-                                IgnorePropertyValue.class);
-                        if (method.getAnnotation(IgnorePropertyValue.class) != null
-                                || (classWithAnnotation != null && classWithAnnotation
-                                        .getAnnotation(
-                                                IgnorePropertyValue.class) != null)) {
-                            comparisionStrategyObject
-                                    .setIgnoreProperties(getPropertiesToIgnore());
-                        }
+                        ComparisonStrategy<?> comparisionStrategyObject = testMethodMetadata
+                                .customComparisonStrategyInstance();
 
                         overrideComparisionStrategy(databaseOperation,
                                 comparisionStrategyObject);
@@ -122,15 +380,16 @@ public abstract class AbstractNoSqlTestRule implements MethodRule {
             }
 
             private void createCustomInsertationStrategyIfPresent() {
-                CustomInsertionStrategy customInsertionStrategy = getCustomInsertationStrategy();
+                TestClassMetadata testClassMetadata = testMethodMetadata.getTestClassMetadata();
+                CustomInsertionStrategy customInsertionStrategy = testClassMetadata
+                        .getCustomInsertionStrategy();
 
                 if (isTestAnnotatedWithCustomInsertationStrategy(customInsertionStrategy)) {
                     DatabaseOperation<?> databaseOperation = getDatabaseOperation();
 
                     if (isDatabaseOperationCustomizable(databaseOperation)) {
-                        Class<? extends InsertionStrategy<?>> insertationStrategy = customInsertionStrategy
-                                .insertionStrategy();
-                        InsertionStrategy<?> insertationStrategyObject = ReflectionUtil.createInstance(insertationStrategy);
+                        InsertionStrategy<?> insertationStrategyObject = testClassMetadata
+                                .customInsertionStrategyInstance();
                         overrideInsertationStrategy(databaseOperation,
                                 insertationStrategyObject);
                     } else {
@@ -162,97 +421,6 @@ public abstract class AbstractNoSqlTestRule implements MethodRule {
                 return databaseOperation instanceof AbstractCustomizableDatabaseOperation;
             }
 
-            private ShouldMatchDataSet getShouldMatchDataSetAnnotation() {
-
-                ShouldMatchDataSet shouldMatchDataSet = method
-                        .getAnnotation(ShouldMatchDataSet.class);
-
-                if (!isTestAnnotatedWithExpectedDataSet(shouldMatchDataSet)) {
-
-                    Class<?> testClass = target.getClass();
-                    Class<?> annotatedClass = IOUtils.getClassWithAnnotation(
-                            testClass, ShouldMatchDataSet.class);
-                    shouldMatchDataSet = annotatedClass == null ? null
-                            : annotatedClass
-                                    .getAnnotation(ShouldMatchDataSet.class);
-
-                }
-
-                return shouldMatchDataSet;
-            }
-
-            private String[] getPropertiesToIgnore() {
-                List<String> propertyValuesToIgnore = new ArrayList<String>();
-
-                Class<?> annotated = IOUtils.getClassWithAnnotation(
-                        target.getClass(), IgnorePropertyValue.class);
-                if (annotated != null) {
-                    IgnorePropertyValue annotationIgnore = annotated
-                            .getAnnotation(IgnorePropertyValue.class);
-
-                    if (annotationIgnore != null) {
-                        String[] properties = annotationIgnore.properties();
-                        for (String property : properties) {
-                            propertyValuesToIgnore.add(property);
-                        }
-                    }
-                }
-
-                IgnorePropertyValue ignorePropertyValue = method
-                        .getAnnotation(IgnorePropertyValue.class);
-
-                if (isTestAnnotatedWithIgnoreProperty(ignorePropertyValue)) {
-                    String[] properties = ignorePropertyValue.properties();
-                    for (String property : properties) {
-                        propertyValuesToIgnore.add(property);
-                    }
-                }
-
-                return propertyValuesToIgnore
-                        .toArray(new String[propertyValuesToIgnore.size()]);
-            }
-
-            private UsingDataSet getUsingDataSetAnnotation() {
-
-                UsingDataSet usingDataSet = method
-                        .getAnnotation(UsingDataSet.class);
-
-                if (!isTestAnnotatedWithDataSet(usingDataSet)) {
-
-                    Class<?> testClass = target.getClass();
-                    Class<?> annotatedClass = IOUtils.getClassWithAnnotation(
-                            testClass, UsingDataSet.class);
-                    usingDataSet = annotatedClass == null ? null
-                            : annotatedClass.getAnnotation(UsingDataSet.class);
-
-                }
-
-                return usingDataSet;
-            }
-
-            private CustomComparisonStrategy getCustomComparisionStrategy() {
-                Class<?> testClass = target.getClass();
-                Class<?> annotatedClass = IOUtils
-                        .getClassWithAnnotation(
-                                testClass,
-                                com.lordofthejars.nosqlunit.annotation.CustomComparisonStrategy.class);
-                return annotatedClass == null ? null
-                        : annotatedClass
-                                .getAnnotation(com.lordofthejars.nosqlunit.annotation.CustomComparisonStrategy.class);
-            }
-
-            private com.lordofthejars.nosqlunit.annotation.CustomInsertionStrategy getCustomInsertationStrategy() {
-
-                Class<?> testClass = target.getClass();
-                Class<?> annotatedClass = IOUtils
-                        .getClassWithAnnotation(
-                                testClass,
-                                com.lordofthejars.nosqlunit.annotation.CustomInsertionStrategy.class);
-                return annotatedClass == null ? null
-                        : annotatedClass
-                                .getAnnotation(com.lordofthejars.nosqlunit.annotation.CustomInsertionStrategy.class);
-            }
-
             private void assertExpectation(ShouldMatchDataSet shouldMatchDataSet)
                     throws IOException {
 
@@ -260,7 +428,7 @@ public abstract class AbstractNoSqlTestRule implements MethodRule {
                         shouldMatchDataSet);
 
                 if (isNotEmptyStream(scriptContent)) {
-                    getDatabaseOperation().databaseIs(scriptContent);
+                    assertExpectation(shouldMatchDataSet, scriptContent);
                 } else {
 
                     final String suffix = EXPECTED_RESERVED_WORD + "."
@@ -280,6 +448,37 @@ public abstract class AbstractNoSqlTestRule implements MethodRule {
 
             }
 
+            private void assertExpectation(ShouldMatchDataSet shouldMatchDataSet,
+                    InputStream scriptContent) throws IOException {
+
+                ComparisonMode comparisonMode = shouldMatchDataSet.mode();
+
+                if (comparisonMode == ComparisonMode.EXACT) {
+                    getDatabaseOperation().databaseIs(scriptContent);
+                    return;
+                }
+
+                if (!(getDatabaseOperation() instanceof RecordStreamingDatabaseOperation)) {
+                    throw new IllegalArgumentException(comparisonMode
+                            + " comparison mode is not supported by "
+                            + getDatabaseOperation().getClass().getName());
+                }
+
+                RecordStreamingDatabaseOperation recordStreamingDatabaseOperation = (RecordStreamingDatabaseOperation) getDatabaseOperation();
+
+                if (comparisonMode == ComparisonMode.DIGEST) {
+                    StreamingDataSetAssertion.assertDigestEquals(
+                            recordStreamingDatabaseOperation, scriptContent,
+                            testMethodMetadata.getPropertiesToIgnore());
+                } else {
+                    StreamingDataSetAssertion.assertSampleEquals(
+                            recordStreamingDatabaseOperation, scriptContent,
+                            shouldMatchDataSet.sampleSize(),
+                            shouldMatchDataSet.sampleSeed(),
+                            testMethodMetadata.getPropertiesToIgnore());
+                }
+            }
+
             private InputStream loadExpectedContentScript(
                     final FrameworkMethod method,
                     ShouldMatchDataSet shouldMatchDataSet) throws IOException {
@@ -345,15 +544,18 @@ public abstract class AbstractNoSqlTestRule implements MethodRule {
                 InputStream scriptContent;
                 scriptContent = IOUtils.getStreamFromClasspathBaseResource(
                         defaultDataSetLocationResolver.getResourceBase(),
-                        location);
+                        defaultDataSetLocationResolver.resolveDataSetLocation(location));
                 return scriptContent;
             }
 
             private void loadDataSet(UsingDataSet usingDataSet,
-                    FrameworkMethod method) throws IOException {
+                    FrameworkMethod method, DatabaseOperation<?> databaseOperation)
+                    throws IOException {
 
                 List<InputStream> scriptContent = loadDatasets(usingDataSet,
                         method);
+                List<InputStream> dependentScriptContent = loadDependentDataSets(usingDataSet);
+                scriptContent.addAll(dependentScriptContent);
                 LoadStrategyEnum loadStrategyEnum = usingDataSet.loadStrategy();
 
                 if (areDatasetsRequired(loadStrategyEnum)
@@ -376,12 +578,93 @@ public abstract class AbstractNoSqlTestRule implements MethodRule {
 
                 LoadStrategyOperation loadStrategyOperation = loadStrategyFactory
                         .getLoadStrategyInstance(loadStrategyEnum,
-                                getDatabaseOperation());
+                                databaseOperation);
+
+                if (loadStrategyOperation instanceof ReuseIfCleanLoadStrategyOperation) {
+                    ((ReuseIfCleanLoadStrategyOperation) loadStrategyOperation)
+                            .setIdentifier(identifier);
+                }
+
+                if (loadStrategyOperation instanceof DataSetLoadingStrategyOperation
+                        && isParallelLoad(usingDataSet)
+                        && DataSetLoader.isThreadSafe(databaseOperation)) {
+                    ((DataSetLoadingStrategyOperation) loadStrategyOperation)
+                            .setDataSetLoader(DataSetLoader
+                                    .parallel(dependentScriptContent.size()));
+                }
+
                 loadStrategyOperation.executeScripts(scriptContent
                         .toArray(new InputStream[scriptContent.size()]));
 
             }
 
+            /**
+             * Datasets loaded with {@link LoadStrategyEnum#CLEAN_INSERT} into
+             * an engine awaiting the seed datasets of its {@link SeedTemplate}
+             * are reported, so template is captured before test modifies
+             * them. Other strategies do not clean first, so the engine may
+             * hold data of previous tests.
+             */
+            private void reportSeedingIfAwaited(UsingDataSet usingDataSet,
+                    FrameworkMethod method) throws IOException {
+
+                if (!SeedTemplate.isAwaitingSeeding()
+                        || usingDataSet.loadStrategy() != LoadStrategyEnum.CLEAN_INSERT) {
+                    return;
+                }
+
+                List<InputStream> dataSets = loadDatasets(usingDataSet, method);
+                dataSets.addAll(loadDependentDataSets(usingDataSet));
+                SeedTemplate.seeded(dataSets);
+            }
+
+            /**
+             * Generated records are inserted after datasets of
+             * {@link UsingDataSet}, when present.
+             */
+            private void loadGeneratedDataSet(GeneratedDataSet generatedDataSet,
+                    boolean afterDataSets) {
+
+                DatabaseOperation<?> databaseOperation = getDatabaseOperation();
+
+                if (!(databaseOperation instanceof GeneratedDataSetOperation)) {
+                    throw new IllegalArgumentException(
+                            "Generated datasets cannot be inserted by "
+                                    + databaseOperation.getClass().getName()
+                                    + ".");
+                }
+
+                InputStream[] batches = new DataSetGenerator(generatedDataSet)
+                        .batches((GeneratedDataSetOperation) databaseOperation);
+
+                LoadStrategyEnum loadStrategyEnum = afterDataSets ? LoadStrategyEnum.INSERT
+                        : generatedDataSet.loadStrategy();
+
+                LoadStrategyOperation loadStrategyOperation = loadStrategyFactory
+                        .getLoadStrategyInstance(loadStrategyEnum,
+                                databaseOperation);
+
+                if (loadStrategyOperation instanceof ReuseIfCleanLoadStrategyOperation) {
+                    ((ReuseIfCleanLoadStrategyOperation) loadStrategyOperation)
+                            .setIdentifier(identifier);
+                }
+
+                if (loadStrategyOperation instanceof DataSetLoadingStrategyOperation
+                        && (generatedDataSet.parallelLoad() || DataSetLoader
+                                .isParallelLoadEnabled())
+                        && DataSetLoader.isThreadSafe(databaseOperation)) {
+                    ((DataSetLoadingStrategyOperation) loadStrategyOperation)
+                            .setDataSetLoader(DataSetLoader.parallel(0));
+                }
+
+                loadStrategyOperation.executeScripts(batches);
+            }
+
+            private boolean isParallelLoad(UsingDataSet usingDataSet) {
+                return usingDataSet.parallelLoad()
+                        || DataSetLoader.isParallelLoadEnabled();
+            }
+
             private boolean notSelectiveAnnotation(
                     Selective[] withSelectiveLocations) {
                 return withSelectiveLocations.length == 0;
@@ -408,6 +691,36 @@ public abstract class AbstractNoSqlTestRule implements MethodRule {
                 return scriptContent;
             }
 
+            private List<InputStream> loadDependentDataSets(
+                    UsingDataSet usingDataSet) {
+
+                String[] dependentLocations = usingDataSet.dependentLocations();
+
+                if (!isLocationsAttributeSpecified(dependentLocations)) {
+                    return new ArrayList<InputStream>();
+                }
+
+                List<InputStream> dependentScriptContent = new ArrayList<InputStream>();
+
+                for (String dependentLocation : defaultDataSetLocationResolver
+                        .resolveDataSetLocations(dependentLocations)) {
+                    InputStream content = IOUtils.getStreamFromClasspathBaseResource(
+                            defaultDataSetLocationResolver.getResourceBase(),
+                            dependentLocation);
+
+                    if (content == null) {
+                        throw new IllegalArgumentException(
+                                "File "
+                                        + dependentLocation
+                                        + " specified in dependentLocations property is not present in classpath.");
+                    }
+
+                    dependentScriptContent.add(content);
+                }
+
+                return dependentScriptContent;
+            }
+
             private List<InputStream> loadSelectiveDataSets(
                     UsingDataSet usingDataSet) throws IOException {
 
@@ -428,7 +741,8 @@ public abstract class AbstractNoSqlTestRule implements MethodRule {
                                                 .getAllStreamsFromClasspathBaseResource(
                                                         defaultDataSetLocationResolver
                                                                 .getResourceBase(),
-                                                        selective.locations()));
+                                                        defaultDataSetLocationResolver
+                                                                .resolveDataSetLocations(selective.locations())));
                             }
                         }
                     }
@@ -448,7 +762,8 @@ public abstract class AbstractNoSqlTestRule implements MethodRule {
                     scriptContent.addAll(IOUtils
                             .getAllStreamsFromClasspathBaseResource(
                                     defaultDataSetLocationResolver
-                                            .getResourceBase(), locations));
+                                            .getResourceBase(), defaultDataSetLocationResolver
+                                            .resolveDataSetLocations(locations)));
 
                 } else {
 
@@ -515,11 +830,6 @@ public abstract class AbstractNoSqlTestRule implements MethodRule {
             private boolean isTestAnnotatedWithDataSet(UsingDataSet usingDataSet) {
                 return usingDataSet != null;
             }
-
-            private boolean isTestAnnotatedWithIgnoreProperty(
-                    IgnorePropertyValue ignorePropertyValue) {
-                return ignorePropertyValue != null;
-            }
         };
     }
 
@@ -532,6 +842,59 @@ public abstract class AbstractNoSqlTestRule implements MethodRule {
         this.injectAnnotationProcessor = injectAnnotationProcessor;
     }
 
+    public void setRuleInstrumentation(RuleInstrumentation ruleInstrumentation) {
+        this.ruleInstrumentation = ruleInstrumentation;
+    }
+
+    /**
+     * Evaluates given statement in current thread within given namespace.
+     */
+    private static void evaluateWithin(TestNamespace testNamespace,
+            final Statement statement) throws Throwable {
+
+        final Throwable[] failure = new Throwable[1];
+
+        testNamespace.runWithin(new Runnable() {
+
+            @Override
+            public void run() {
+                try {
+                    statement.evaluate();
+                } catch (Throwable e) {
+                    failure[0] = e;
+                }
+            }
+        });
+
+        if (failure[0] != null) {
+            throw failure[0];
+        }
+    }
+
+    /**
+     * Statement of a rule, so a rule wrapping another one lets the innermost
+     * rule run the {@link ConcurrentLoad} of the test, and loads of every rule
+     * happen once before it.
+     */
+    private abstract static class RuleStatement extends Statement {
+    }
+
+    private CompiledDataSetFormat[] readableCompiledFormats() {
+        DatabaseOperation<?> databaseOperation = getDatabaseOperation();
+
+        if (databaseOperation instanceof CompiledDataSetDatabaseOperation) {
+            return ((CompiledDataSetDatabaseOperation) databaseOperation)
+                    .readableCompiledFormats();
+        }
+
+        return new CompiledDataSetFormat[0];
+    }
+
+    private RuleInstrumentation getRuleInstrumentation() {
+        return ruleInstrumentation == null ? CompositeRuleInstrumentation
+                .getDefault() : ruleInstrumentation;
+    }
+
     public void setIdentifier(String identifier) {
         this.identifier = identifier;
     }
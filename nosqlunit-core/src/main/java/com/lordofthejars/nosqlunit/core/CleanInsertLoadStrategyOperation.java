@@ -5,12 +5,13 @@ import java.io.InputStream;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
-public class CleanInsertLoadStrategyOperation implements LoadStrategyOperation {
+public class CleanInsertLoadStrategyOperation implements DataSetLoadingStrategyOperation {
 
 	private static final Logger LOGGER = LoggerFactory
 			.getLogger(CleanInsertLoadStrategyOperation.class);
 
 	private DatabaseOperation databaseOperation;
+	private DataSetLoader dataSetLoader = DataSetLoader.SEQUENTIAL;
 
 	public CleanInsertLoadStrategyOperation(DatabaseOperation databaseOperation) {
 		this.databaseOperation = databaseOperation;
@@ -28,10 +29,13 @@ public class CleanInsertLoadStrategyOperation implements LoadStrategyOperation {
 		} 
 	}
 
+	@Override
+	public void setDataSetLoader(DataSetLoader dataSetLoader) {
+		this.dataSetLoader = dataSetLoader;
+	}
+
 	private void executeInsert(InputStream[] contentDataset) {
-		for (InputStream dataScript : contentDataset) {
-			this.databaseOperation.insert(dataScript);
-		}
+		this.dataSetLoader.insert(this.databaseOperation, contentDataset);
 	}
 
 	private void executeClean() {
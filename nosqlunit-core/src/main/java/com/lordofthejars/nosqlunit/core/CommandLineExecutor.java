@@ -1,10 +1,7 @@
 package com.lordofthejars.nosqlunit.core;
 
-import java.io.BufferedReader;
 import java.io.File;
 import java.io.IOException;
-import java.io.InputStreamReader;
-import java.util.ArrayList;
 import java.util.List;
 
 public class CommandLineExecutor {
@@ -18,17 +15,20 @@ public class CommandLineExecutor {
 		return pwd;
 	}
 	
+	/**
+	 * Reads console output of given process until it ends.
+	 * 
+	 * @return last lines of output, {@value ProcessOutputPump#DEFAULT_CAPACITY}
+	 *         unless <code>nosqlunit.console.output.lines</code> system
+	 *         property sets another number.
+	 */
 	public List<String> getConsoleOutput(Process process) throws IOException {
 		
-		BufferedReader outputReader = new BufferedReader(new InputStreamReader(
-				process.getInputStream()));
-		String output;
-		List<String> lines = new ArrayList<String>();
-		while ((output = outputReader.readLine()) != null) {
-			lines.add(output.toString());
-		}
+		ProcessOutputPump processOutputPump = new ProcessOutputPump(process.getInputStream(),
+				ProcessOutputPump.configuredCapacity());
+		processOutputPump.run();
 		
-		return lines;
+		return processOutputPump.getLines();
 	}
 	
 }
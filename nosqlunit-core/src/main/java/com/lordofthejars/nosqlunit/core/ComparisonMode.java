@@ -0,0 +1,26 @@
+package com.lordofthejars.nosqlunit.core;
+
+/**
+ * How expected datasets of
+ * {@link com.lordofthejars.nosqlunit.annotation.ShouldMatchDataSet} are
+ * compared with database content.
+ */
+public enum ComparisonMode {
+
+	/**
+	 * Every expected record is compared by the comparison strategy of the
+	 * database.
+	 */
+	EXACT,
+	/**
+	 * Number of records and an order independent hash of their content are
+	 * compared per collection.
+	 */
+	DIGEST,
+	/**
+	 * Number of records is compared per collection, and a reproducible random
+	 * subset of expected records is looked up in the database.
+	 */
+	SAMPLE
+
+}
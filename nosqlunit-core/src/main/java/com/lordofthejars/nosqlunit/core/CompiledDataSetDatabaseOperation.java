@@ -0,0 +1,12 @@
+package com.lordofthejars.nosqlunit.core;
+
+/**
+ * Implemented by {@link DatabaseOperation}s able to read datasets compiled
+ * into some {@link CompiledDataSetFormat}s, so compiled datasets are only
+ * resolved for backends that can read them.
+ */
+public interface CompiledDataSetDatabaseOperation {
+
+	CompiledDataSetFormat[] readableCompiledFormats();
+
+}
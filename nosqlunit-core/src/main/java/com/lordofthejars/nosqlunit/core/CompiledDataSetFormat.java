@@ -0,0 +1,51 @@
+package com.lordofthejars.nosqlunit.core;
+
+import java.io.InputStream;
+
+/**
+ * Binary formats datasets can be compiled into at build time, detected by
+ * file extension. A compiled dataset is stored next to its source with the
+ * format extension appended (for example <code>users.json.bson</code>), so it
+ * is preferred over the text dataset when both are available. Only backends
+ * providing a {@link DataSetCompiler} of a format are able to read it.
+ */
+public enum CompiledDataSetFormat {
+
+	NONE(""),
+	BSON(".bson"),
+	SMILE(".smile");
+
+	private final String extension;
+
+	private CompiledDataSetFormat(String extension) {
+		this.extension = extension;
+	}
+
+	public String getExtension() {
+		return extension;
+	}
+
+	public static CompiledDataSetFormat fromLocation(String location) {
+
+		for (CompiledDataSetFormat format : values()) {
+			if (format != NONE && location.endsWith(format.extension)) {
+				return format;
+			}
+		}
+
+		return NONE;
+	}
+
+	/**
+	 * @return format of given dataset, or {@link #NONE} if it is not a
+	 *         compiled classpath resource.
+	 */
+	public static CompiledDataSetFormat of(InputStream dataset) {
+		if (dataset instanceof ResourceInputStream) {
+			return ((ResourceInputStream) dataset).getCompiledFormat();
+		}
+
+		return NONE;
+	}
+
+}
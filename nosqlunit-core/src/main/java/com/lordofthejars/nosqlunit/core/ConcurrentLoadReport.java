@@ -0,0 +1,53 @@
+package com.lordofthejars.nosqlunit.core;
+
+import java.util.concurrent.TimeUnit;
+
+import org.HdrHistogram.Histogram;
+
+/**
+ * Throughput and latency histogram of a {@link ConcurrentLoadRunner} run.
+ * Latencies are recorded in nanoseconds.
+ */
+public final class ConcurrentLoadReport {
+
+	private static final double NANOS_PER_MILLI = TimeUnit.MILLISECONDS.toNanos(1);
+
+	private final Histogram latencies;
+	private final long elapsedNanos;
+
+	ConcurrentLoadReport(Histogram latencies, long elapsedNanos) {
+		this.latencies = latencies;
+		this.elapsedNanos = elapsedNanos;
+	}
+
+	public long getOperations() {
+		return latencies.getTotalCount();
+	}
+
+	public long getElapsedNanos() {
+		return elapsedNanos;
+	}
+
+	/**
+	 * @return executions per second of all threads.
+	 */
+	public double getThroughput() {
+		return elapsedNanos == 0 ? 0 : getOperations() * (double) TimeUnit.SECONDS.toNanos(1) / elapsedNanos;
+	}
+
+	public double getLatencyMillisAtPercentile(double percentile) {
+		return latencies.getValueAtPercentile(percentile) / NANOS_PER_MILLI;
+	}
+
+	public Histogram getLatencies() {
+		return latencies.copy();
+	}
+
+	@Override
+	public String toString() {
+		return String.format("%d operations in %.1f ms, %.1f operations per second, latency p50 %.3f ms, p99 %.3f ms, max %.3f ms",
+				getOperations(), elapsedNanos / NANOS_PER_MILLI, getThroughput(), getLatencyMillisAtPercentile(50.0),
+				getLatencyMillisAtPercentile(99.0), latencies.getMaxValue() / NANOS_PER_MILLI);
+	}
+
+}
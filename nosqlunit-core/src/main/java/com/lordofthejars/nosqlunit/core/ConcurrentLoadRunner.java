@@ -0,0 +1,199 @@
+package com.lordofthejars.nosqlunit.core;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.HdrHistogram.Histogram;
+import org.junit.runners.model.Statement;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.lordofthejars.nosqlunit.annotation.ConcurrentLoad;
+
+/**
+ * Runs a test body as configured by {@link ConcurrentLoad}. Every thread runs
+ * its warmup executions, and once all of them have finished, measured
+ * executions are recorded in a latency histogram per thread, merged at the
+ * end. First failure of test body stops the load and is rethrown.
+ *
+ * Load threads run test body within the {@link TestNamespace} of the thread
+ * running the load, so they reach the same data as the test. Rules evaluated
+ * by a load thread, because they are wrapped by the rule running the load,
+ * find {@link #isLoadThread()} true and only evaluate their test body.
+ */
+public final class ConcurrentLoadRunner {
+
+	private static final Logger LOGGER = LoggerFactory.getLogger(ConcurrentLoadRunner.class);
+
+	private static final long HIGHEST_TRACKABLE_LATENCY = TimeUnit.HOURS.toNanos(1);
+	private static final int SIGNIFICANT_DIGITS = 3;
+
+	private static final ThreadLocal<Boolean> LOAD_THREAD = new ThreadLocal<Boolean>();
+
+	private final ConcurrentLoad concurrentLoad;
+	private final String testName;
+
+	public ConcurrentLoadRunner(ConcurrentLoad concurrentLoad, String testName) {
+		if (concurrentLoad.threads() < 1 || concurrentLoad.iterations() < 1 || concurrentLoad.warmup() < 0) {
+			throw new IllegalArgumentException("ConcurrentLoad of " + testName
+					+ " requires at least one thread and one iteration, and no negative warmup.");
+		}
+
+		this.concurrentLoad = concurrentLoad;
+		this.testName = testName;
+	}
+
+	public ConcurrentLoadReport run(Statement statement) throws Throwable {
+		final CountDownLatch warmedUp = new CountDownLatch(concurrentLoad.threads());
+		final AtomicReference<Throwable> failure = new AtomicReference<Throwable>();
+		final TestNamespace testNamespace = TestNamespace.current();
+
+		ExecutorService executorService = Executors.newFixedThreadPool(concurrentLoad.threads(), loadThreadFactory());
+
+		try {
+			List<Future<Histogram>> threadLatencies = new ArrayList<Future<Histogram>>();
+
+			for (int i = 0; i < concurrentLoad.threads(); i++) {
+				threadLatencies.add(executorService.submit(loadThread(statement, testNamespace, warmedUp, failure)));
+			}
+
+			warmedUp.await();
+			long start = System.nanoTime();
+
+			Histogram latencies = newHistogram();
+
+			for (Future<Histogram> threadLatency : threadLatencies) {
+				latencies.add(threadLatency.get());
+			}
+
+			long elapsedNanos = System.nanoTime() - start;
+
+			if (failure.get() != null) {
+				throw failure.get();
+			}
+
+			ConcurrentLoadReport concurrentLoadReport = new ConcurrentLoadReport(latencies, elapsedNanos);
+			LOGGER.info("Concurrent load of {} with {} threads: {}", testName, concurrentLoad.threads(),
+					concurrentLoadReport);
+
+			return concurrentLoadReport;
+		} catch (ExecutionException e) {
+			throw e.getCause();
+		} finally {
+			executorService.shutdownNow();
+		}
+	}
+
+	/**
+	 * @return true if current thread is running iterations of a load.
+	 */
+	public static boolean isLoadThread() {
+		return Boolean.TRUE.equals(LOAD_THREAD.get());
+	}
+
+	public void assertWithinBudgets(ConcurrentLoadReport concurrentLoadReport) {
+		if (concurrentLoad.minThroughput() > 0 && concurrentLoadReport.getThroughput() < concurrentLoad.minThroughput()) {
+			throw FailureHandler.createFailure(
+					"Throughput of %s was %.1f operations per second but expected at least %.1f.", testName,
+					concurrentLoadReport.getThroughput(), concurrentLoad.minThroughput());
+		}
+
+		if (concurrentLoad.maxLatencyMillis() > 0) {
+			double latency = concurrentLoadReport.getLatencyMillisAtPercentile(concurrentLoad.latencyPercentile());
+
+			if (latency > concurrentLoad.maxLatencyMillis()) {
+				throw FailureHandler.createFailure("Latency p%s of %s was %.3f ms but expected at most %.3f ms.",
+						concurrentLoad.latencyPercentile(), testName, latency, concurrentLoad.maxLatencyMillis());
+			}
+		}
+	}
+
+	private Callable<Histogram> loadThread(final Statement statement, final TestNamespace testNamespace,
+			final CountDownLatch warmedUp, final AtomicReference<Throwable> failure) {
+		return new Callable<Histogram>() {
+
+			@Override
+			public Histogram call() throws Exception {
+				final Histogram latencies = newHistogram();
+
+				LOAD_THREAD.set(Boolean.TRUE);
+				try {
+					testNamespace.runWithin(new Runnable() {
+
+						@Override
+						public void run() {
+							evaluateIterations(statement, warmedUp, failure, latencies);
+						}
+					});
+				} finally {
+					LOAD_THREAD.remove();
+				}
+
+				return latencies;
+			}
+		};
+	}
+
+	private void evaluateIterations(Statement statement, CountDownLatch warmedUp, AtomicReference<Throwable> failure,
+			Histogram latencies) {
+		try {
+			for (int i = 0; i < concurrentLoad.warmup() && failure.get() == null; i++) {
+				statement.evaluate();
+			}
+		} catch (Throwable e) {
+			failure.compareAndSet(null, e);
+		} finally {
+			warmedUp.countDown();
+		}
+
+		try {
+			warmedUp.await();
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			failure.compareAndSet(null, e);
+			return;
+		}
+
+		for (int i = 0; i < concurrentLoad.iterations() && failure.get() == null; i++) {
+			long start = System.nanoTime();
+
+			try {
+				statement.evaluate();
+			} catch (Throwable e) {
+				failure.compareAndSet(null, e);
+				break;
+			}
+
+			latencies.recordValue(Math.min(System.nanoTime() - start, HIGHEST_TRACKABLE_LATENCY));
+		}
+	}
+
+	private static Histogram newHistogram() {
+		return new Histogram(HIGHEST_TRACKABLE_LATENCY, SIGNIFICANT_DIGITS);
+	}
+
+	private ThreadFactory loadThreadFactory() {
+		final AtomicInteger threadNumber = new AtomicInteger();
+
+		return new ThreadFactory() {
+
+			@Override
+			public Thread newThread(Runnable runnable) {
+				Thread thread = new Thread(runnable, "nosqlunit-load-" + threadNumber.incrementAndGet());
+				thread.setDaemon(true);
+				return thread;
+			}
+		};
+	}
+
+}
@@ -1,11 +1,24 @@
 package com.lordofthejars.nosqlunit.core;
 
-import java.util.HashMap;
-import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 
+/**
+ * Counts how many lifecycle managers are using each host and port. Counters
+ * are guarded per host and port, so engines listening on different addresses
+ * can be started and stopped in parallel, while the first registration and
+ * the last removal of the same address are executed exactly once.
+ */
 public final class ConnectionManagement {
 
-	private final class Connection {
+	/**
+	 * Action executed while registration of a host and port is locked.
+	 */
+	public interface ConnectionCallback {
+		void execute() throws Throwable;
+	}
+
+	private static final class Connection {
 		
 		private final String host;
 		private final int port;
@@ -21,7 +34,6 @@ public final class ConnectionManagement {
 		public int hashCode() {
 			final int prime = 31;
 			int result = 1;
-			result = prime * result + getOuterType().hashCode();
 			result = prime * result + ((host == null) ? 0 : host.hashCode());
 			result = prime * result + port;
 			return result;
@@ -36,8 +48,6 @@ public final class ConnectionManagement {
 			if (getClass() != obj.getClass())
 				return false;
 			Connection other = (Connection) obj;
-			if (!getOuterType().equals(other.getOuterType()))
-				return false;
 			if (host == null) {
 				if (other.host != null)
 					return false;
@@ -47,17 +57,16 @@ public final class ConnectionManagement {
 				return false;
 			return true;
 		}
-
-		private ConnectionManagement getOuterType() {
-			return ConnectionManagement.this;
-		}
-		
 		
 	}
+
+	private static final class ConnectionCounter {
+		private int numberOfConnections;
+	}
 	
 	private static ConnectionManagement connectionManagement;
 
-	private Map<Connection, Integer> currentConnections = new HashMap<ConnectionManagement.Connection, Integer>();  
+	private final ConcurrentMap<Connection, ConnectionCounter> currentConnections = new ConcurrentHashMap<ConnectionManagement.Connection, ConnectionCounter>();
 
 	
 	private ConnectionManagement() {
@@ -72,40 +81,90 @@ public final class ConnectionManagement {
 	}
 
 	public void addConnection(String host, int port) {
-		
-		Connection connection = new Connection(host, port);
-		
-		if(isConnectionRegistered(connection)) {
-			int previousNumberOfConnections = currentConnections.remove(connection);
-			currentConnections.put(connection, previousNumberOfConnections+1);
-		} else {
-			currentConnections.put(new Connection(host, port), 1);
+		ConnectionCounter connectionCounter = connectionCounter(new Connection(host, port));
+
+		synchronized (connectionCounter) {
+			connectionCounter.numberOfConnections++;
+		}
+	}
+
+	/**
+	 * Registers a new connection, executing callback before registering it if
+	 * it is the first one. Concurrent registrations of same host and port wait
+	 * until callback finishes. If callback fails connection is not registered.
+	 */
+	public void addConnection(String host, int port, ConnectionCallback firstConnectionCallback) throws Throwable {
+		ConnectionCounter connectionCounter = connectionCounter(new Connection(host, port));
+
+		synchronized (connectionCounter) {
+			if (connectionCounter.numberOfConnections == 0) {
+				firstConnectionCallback.execute();
+			}
+			connectionCounter.numberOfConnections++;
 		}
 	}
 	
 	public int removeConnection(String host, int port) {
-		
-		Connection connection = new Connection(host, port);
-		
-		if(isConnectionRegistered(connection)) {
-			int previousNumberOfConnections = currentConnections.remove(connection);
-			int numberCurrentConnections = previousNumberOfConnections-1;
-			
-			if(numberCurrentConnections > 0) {
-				this.currentConnections.put(connection, numberCurrentConnections);
+		ConnectionCounter connectionCounter = currentConnections.get(new Connection(host, port));
+
+		if (connectionCounter == null) {
+			return 0;
+		}
+
+		synchronized (connectionCounter) {
+			if (connectionCounter.numberOfConnections > 0) {
+				connectionCounter.numberOfConnections--;
 			}
-			
-			return numberCurrentConnections;
+			return connectionCounter.numberOfConnections;
+		}
+	}
+
+	/**
+	 * Removes a connection, executing callback after removing it if no more
+	 * connections remain. Concurrent registrations of same host and port wait
+	 * until callback finishes.
+	 * 
+	 * @return number of remaining connections.
+	 */
+	public int removeConnection(String host, int port, ConnectionCallback lastConnectionCallback) throws Throwable {
+		ConnectionCounter connectionCounter = connectionCounter(new Connection(host, port));
+
+		synchronized (connectionCounter) {
+			if (connectionCounter.numberOfConnections > 0) {
+				connectionCounter.numberOfConnections--;
+			}
+
+			if (connectionCounter.numberOfConnections == 0) {
+				lastConnectionCallback.execute();
+			}
+
+			return connectionCounter.numberOfConnections;
 		}
-		
-		return 0;
 	}
 	
 	public boolean isConnectionRegistered(String host, int port) {
-		return isConnectionRegistered(new Connection(host, port));
+		ConnectionCounter connectionCounter = currentConnections.get(new Connection(host, port));
+
+		if (connectionCounter == null) {
+			return false;
+		}
+
+		synchronized (connectionCounter) {
+			return connectionCounter.numberOfConnections > 0;
+		}
 	}
-	
-	private boolean isConnectionRegistered(Connection connection) {
-		return currentConnections.containsKey(connection);
+
+	private ConnectionCounter connectionCounter(Connection connection) {
+		ConnectionCounter connectionCounter = currentConnections.get(connection);
+
+		if (connectionCounter == null) {
+			connectionCounter = new ConnectionCounter();
+			ConnectionCounter previous = currentConnections.putIfAbsent(connection, connectionCounter);
+			if (previous != null) {
+				connectionCounter = previous;
+			}
+		}
+
+		return connectionCounter;
 	}
 }
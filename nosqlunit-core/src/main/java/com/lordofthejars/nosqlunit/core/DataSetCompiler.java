@@ -0,0 +1,25 @@
+package com.lordofthejars.nosqlunit.core;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+
+/**
+ * Compiles text datasets of a backend into a {@link CompiledDataSetFormat},
+ * so they are read without text parsing when tests are run. Compilers are
+ * registered using <code>java.util.ServiceLoader</code>, and looked up by
+ * name by the <code>nosqlunit-maven-plugin</code>.
+ */
+public interface DataSetCompiler {
+
+	/**
+	 * @return name used to choose this compiler, for example
+	 *         <code>mongodb</code>.
+	 */
+	String getName();
+
+	CompiledDataSetFormat getFormat();
+
+	void compile(InputStream dataset, OutputStream compiledDataSet) throws IOException;
+
+}
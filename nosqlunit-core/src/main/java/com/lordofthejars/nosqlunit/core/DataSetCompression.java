@@ -0,0 +1,106 @@
+package com.lordofthejars.nosqlunit.core;
+
+import java.io.BufferedInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.zip.GZIPInputStream;
+
+/**
+ * Compression formats supported for datasets, detected by file extension.
+ * Datasets are decompressed while they are read, so backends receive the
+ * plain content. <i>xz</i> and <i>zstd</i> require <code>org.tukaani:xz</code>
+ * and <code>com.github.luben:zstd-jni</code> respectively on the test
+ * classpath.
+ */
+public enum DataSetCompression {
+
+	NONE("") {
+		@Override
+		protected InputStream decompressStream(InputStream compressed) {
+			return compressed;
+		}
+	},
+	GZIP(".gz") {
+		@Override
+		protected InputStream decompressStream(InputStream compressed) throws IOException {
+			return new GZIPInputStream(compressed, BUFFER_SIZE);
+		}
+	},
+	ZSTD(".zst") {
+		@Override
+		protected InputStream decompressStream(InputStream compressed) throws IOException {
+			requireClass("com.github.luben.zstd.ZstdInputStream", "zstd", "com.github.luben:zstd-jni");
+			return ZstdDecompression.decompress(new BufferedInputStream(compressed, BUFFER_SIZE));
+		}
+	},
+	XZ(".xz") {
+		@Override
+		protected InputStream decompressStream(InputStream compressed) throws IOException {
+			requireClass("org.tukaani.xz.XZInputStream", "xz", "org.tukaani:xz");
+			return XzDecompression.decompress(new BufferedInputStream(compressed, BUFFER_SIZE));
+		}
+	};
+
+	private static final int BUFFER_SIZE = 8192;
+
+	private final String extension;
+
+	private DataSetCompression(String extension) {
+		this.extension = extension;
+	}
+
+	public String getExtension() {
+		return extension;
+	}
+
+	public static DataSetCompression fromLocation(String location) {
+
+		for (DataSetCompression compression : values()) {
+			if (compression != NONE && location.endsWith(compression.extension)) {
+				return compression;
+			}
+		}
+
+		return NONE;
+	}
+
+	public InputStream decompress(InputStream compressed) throws IOException {
+		try {
+			return decompressStream(compressed);
+		} catch (IOException e) {
+			compressed.close();
+			throw e;
+		} catch (RuntimeException e) {
+			compressed.close();
+			throw e;
+		}
+	}
+
+	protected abstract InputStream decompressStream(InputStream compressed) throws IOException;
+
+	/*
+	 * Optional libraries are only referenced from these classes, so they are
+	 * not loaded unless a dataset of that format is read.
+	 */
+	private static final class ZstdDecompression {
+		static InputStream decompress(InputStream compressed) throws IOException {
+			return new com.github.luben.zstd.ZstdInputStream(compressed);
+		}
+	}
+
+	private static final class XzDecompression {
+		static InputStream decompress(InputStream compressed) throws IOException {
+			return new org.tukaani.xz.XZInputStream(compressed);
+		}
+	}
+
+	private static void requireClass(String className, String format, String artifact) {
+		try {
+			Class.forName(className, false, DataSetCompression.class.getClassLoader());
+		} catch (ClassNotFoundException e) {
+			throw new IllegalStateException("Reading " + format + " compressed datasets requires " + artifact
+					+ " dependency in classpath.", e);
+		}
+	}
+
+}
@@ -0,0 +1,174 @@
+package com.lordofthejars.nosqlunit.core;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Random;
+
+import com.lordofthejars.nosqlunit.annotation.GeneratedDataSet;
+import com.lordofthejars.nosqlunit.annotation.GeneratedField;
+
+/**
+ * Generates records of a {@link GeneratedDataSet}. Each record is generated
+ * from its own random, seeded with dataset seed and record index, so any batch
+ * can be generated independently of the others and always contains the same
+ * records.
+ *
+ * Generated dataset is split in batches of datasets of the database, each one
+ * rendered only when it is read and released once read, so at most one batch
+ * per inserting thread is kept in memory.
+ */
+public class DataSetGenerator {
+
+	private final GeneratedDataSet generatedDataSet;
+
+	public DataSetGenerator(GeneratedDataSet generatedDataSet) {
+		if (generatedDataSet.count() < 0) {
+			throw new IllegalArgumentException("Number of generated records cannot be negative.");
+		}
+
+		if (generatedDataSet.batchSize() <= 0) {
+			throw new IllegalArgumentException("Batch size of generated records should be positive.");
+		}
+
+		this.generatedDataSet = generatedDataSet;
+	}
+
+	public GeneratedRecord record(long index) {
+		Random random = new Random(mix(generatedDataSet.seed() + index * 0x9E3779B97F4A7C15L));
+		Map<String, Object> fields = new LinkedHashMap<String, Object>();
+
+		for (GeneratedField field : generatedDataSet.fields()) {
+			fields.put(field.name(), field.generator().generate(field, index, random));
+		}
+
+		return new GeneratedRecord(index, fields);
+	}
+
+	/**
+	 * @return records from first index, inclusive, to last index, exclusive,
+	 *         generated as they are iterated.
+	 */
+	public Iterator<GeneratedRecord> records(final long fromIndex, final long toIndex) {
+		return new Iterator<GeneratedRecord>() {
+
+			private long index = fromIndex;
+
+			@Override
+			public boolean hasNext() {
+				return index < toIndex;
+			}
+
+			@Override
+			public GeneratedRecord next() {
+				if (!hasNext()) {
+					throw new NoSuchElementException();
+				}
+				return record(index++);
+			}
+
+			@Override
+			public void remove() {
+				throw new UnsupportedOperationException();
+			}
+		};
+	}
+
+	/**
+	 * @return one dataset of given database per batch of records.
+	 */
+	public InputStream[] batches(GeneratedDataSetOperation generatedDataSetOperation) {
+
+		if (!Arrays.asList(generatedDataSetOperation.acceptedRecordShapes()).contains(generatedDataSet.shape())) {
+			throw new IllegalArgumentException(generatedDataSet.shape() + " records cannot be generated for "
+					+ generatedDataSetOperation.getClass().getName() + ", accepted record shapes are "
+					+ Arrays.toString(generatedDataSetOperation.acceptedRecordShapes()) + ".");
+		}
+
+		long count = generatedDataSet.count();
+		int batchSize = generatedDataSet.batchSize();
+		long numberOfBatches = (count + batchSize - 1) / batchSize;
+
+		if (numberOfBatches > Integer.MAX_VALUE) {
+			throw new IllegalArgumentException("Too many batches of generated records, batch size should be increased.");
+		}
+
+		InputStream[] batches = new InputStream[(int) numberOfBatches];
+
+		for (int i = 0; i < batches.length; i++) {
+			long fromIndex = (long) i * batchSize;
+			batches[i] = new GeneratedBatchInputStream(generatedDataSetOperation, fromIndex, Math.min(count, fromIndex
+					+ batchSize));
+		}
+
+		return batches;
+	}
+
+	private static long mix(long value) {
+		long z = value;
+		z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+		z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+		return z ^ (z >>> 31);
+	}
+
+	private final class GeneratedBatchInputStream extends InputStream {
+
+		private final GeneratedDataSetOperation generatedDataSetOperation;
+		private final long fromIndex;
+		private final long toIndex;
+
+		private InputStream renderedBatch;
+
+		private GeneratedBatchInputStream(GeneratedDataSetOperation generatedDataSetOperation, long fromIndex,
+				long toIndex) {
+			this.generatedDataSetOperation = generatedDataSetOperation;
+			this.fromIndex = fromIndex;
+			this.toIndex = toIndex;
+		}
+
+		@Override
+		public int read() throws IOException {
+			return renderedBatch().read();
+		}
+
+		@Override
+		public int read(byte[] buffer, int offset, int length) throws IOException {
+			return renderedBatch().read(buffer, offset, length);
+		}
+
+		@Override
+		public int available() throws IOException {
+			return renderedBatch().available();
+		}
+
+		@Override
+		public void close() throws IOException {
+			renderedBatch = new ByteArrayInputStream(new byte[0]);
+		}
+
+		private InputStream renderedBatch() throws IOException {
+			if (renderedBatch == null) {
+				ByteArrayOutputStream batch = new ByteArrayOutputStream();
+				Writer writer = new OutputStreamWriter(batch, "UTF-8");
+
+				generatedDataSetOperation.writeGeneratedRecords(generatedDataSet.shape(), generatedDataSet.template(),
+						records(fromIndex, toIndex), writer);
+				writer.flush();
+
+				renderedBatch = new ByteArrayInputStream(batch.toByteArray());
+			}
+
+			return renderedBatch;
+		}
+
+	}
+
+}
@@ -0,0 +1,196 @@
+package com.lordofthejars.nosqlunit.core;
+
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Inserts the datasets of a test. By default datasets are inserted one after
+ * another. When loading in parallel, independent datasets are inserted
+ * concurrently and dependent ones, placed at the end, are inserted afterwards
+ * in the given order.
+ * 
+ * Parallel loads share a pool of <code>nosqlunit.dataset.parallel.threads</code>
+ * threads (number of processors, and at least two, by default), and are only
+ * done with database operations implementing
+ * {@link ThreadSafeInsertionDatabaseOperation}; datasets of other operations
+ * are inserted sequentially. A dataset failing to load is logged with its
+ * location and its failure is rethrown as it is.
+ */
+public class DataSetLoader {
+
+	public static final String PARALLEL_LOAD_PROPERTY = "nosqlunit.dataset.parallel.load";
+	public static final String THREADS_PROPERTY = "nosqlunit.dataset.parallel.threads";
+
+	public static final DataSetLoader SEQUENTIAL = new DataSetLoader(false, 0);
+
+	private static final Logger LOGGER = LoggerFactory.getLogger(DataSetLoader.class);
+
+	private static final class LoaderExecutor {
+
+		private static final ExecutorService INSTANCE = Executors.newFixedThreadPool(
+				Integer.getInteger(THREADS_PROPERTY, Math.max(2, Runtime.getRuntime().availableProcessors())), new ThreadFactory() {
+
+					private final AtomicInteger numberOfThreads = new AtomicInteger();
+
+					@Override
+					public Thread newThread(Runnable runnable) {
+						Thread thread = new Thread(runnable, "nosqlunit-dataset-loader-" + numberOfThreads.incrementAndGet());
+						thread.setDaemon(true);
+						return thread;
+					}
+				});
+
+	}
+
+	private final boolean parallel;
+	private final int numberOfDependentDataSets;
+
+	private DataSetLoader(boolean parallel, int numberOfDependentDataSets) {
+		this.parallel = parallel;
+		this.numberOfDependentDataSets = numberOfDependentDataSets;
+	}
+
+	/**
+	 * @param numberOfDependentDataSets
+	 *            number of datasets, at the end of the datasets to load, that
+	 *            must be loaded in order after all the others.
+	 */
+	public static DataSetLoader parallel(int numberOfDependentDataSets) {
+		return new DataSetLoader(true, numberOfDependentDataSets);
+	}
+
+	public static boolean isParallelLoadEnabled() {
+		return Boolean.getBoolean(PARALLEL_LOAD_PROPERTY);
+	}
+
+	public boolean isParallel() {
+		return parallel;
+	}
+
+	public void insert(DatabaseOperation<?> databaseOperation, InputStream[] contentDataset) {
+
+		if (!parallel) {
+			for (InputStream dataScript : contentDataset) {
+				databaseOperation.insert(dataScript);
+			}
+			return;
+		}
+
+		if (!isThreadSafe(databaseOperation)) {
+			LOGGER.debug("{} cannot insert concurrently, so datasets are inserted sequentially.", databaseOperation
+					.getClass().getName());
+			for (int i = 0; i < contentDataset.length; i++) {
+				insertDataSet(databaseOperation, contentDataset[i], i);
+			}
+			return;
+		}
+
+		int numberOfIndependentDataSets = Math.max(0, contentDataset.length - numberOfDependentDataSets);
+
+		insertConcurrently(databaseOperation, contentDataset, numberOfIndependentDataSets);
+
+		for (int i = numberOfIndependentDataSets; i < contentDataset.length; i++) {
+			insertDataSet(databaseOperation, contentDataset[i], i);
+		}
+	}
+
+	private void insertConcurrently(final DatabaseOperation<?> databaseOperation, final InputStream[] contentDataset,
+			int numberOfIndependentDataSets) {
+
+		if (numberOfIndependentDataSets == 1) {
+			insertDataSet(databaseOperation, contentDataset[0], 0);
+			return;
+		}
+
+		final TestNamespace testNamespace = TestNamespace.current();
+		List<Future<?>> insertions = new ArrayList<Future<?>>(numberOfIndependentDataSets);
+
+		for (int i = 0; i < numberOfIndependentDataSets; i++) {
+			final int index = i;
+			insertions.add(LoaderExecutor.INSTANCE.submit(new Runnable() {
+
+				@Override
+				public void run() {
+					testNamespace.runWithin(new Runnable() {
+
+						@Override
+						public void run() {
+							insertDataSet(databaseOperation, contentDataset[index], index);
+						}
+					});
+				}
+			}));
+		}
+
+		awaitInsertions(insertions);
+	}
+
+	private void awaitInsertions(List<Future<?>> insertions) {
+
+		RuntimeException failure = null;
+
+		for (Future<?> insertion : insertions) {
+			try {
+				insertion.get();
+			} catch (ExecutionException e) {
+				RuntimeException cause = asRuntimeException(e.getCause());
+				if (failure == null) {
+					failure = cause;
+				} else {
+					failure.addSuppressed(cause);
+				}
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+				throw new IllegalStateException("Interrupted while waiting datasets to be loaded.", e);
+			}
+		}
+
+		if (failure != null) {
+			throw failure;
+		}
+	}
+
+	public static boolean isThreadSafe(DatabaseOperation<?> databaseOperation) {
+		return databaseOperation instanceof ThreadSafeInsertionDatabaseOperation;
+	}
+
+	private void insertDataSet(DatabaseOperation<?> databaseOperation, InputStream dataScript, int index) {
+		try {
+			databaseOperation.insert(dataScript);
+		} catch (RuntimeException e) {
+			LOGGER.error("Dataset {} could not be loaded.", location(dataScript, index));
+			throw e;
+		}
+	}
+
+	private RuntimeException asRuntimeException(Throwable cause) {
+		if (cause instanceof RuntimeException) {
+			return (RuntimeException) cause;
+		}
+
+		if (cause instanceof Error) {
+			throw (Error) cause;
+		}
+
+		return new IllegalStateException(cause);
+	}
+
+	private String location(InputStream dataScript, int index) {
+		if (dataScript instanceof ResourceInputStream) {
+			return dataScript.toString();
+		}
+
+		return "#" + (index + 1);
+	}
+
+}
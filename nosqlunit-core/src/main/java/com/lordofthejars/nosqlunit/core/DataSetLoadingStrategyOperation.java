@@ -0,0 +1,10 @@
+package com.lordofthejars.nosqlunit.core;
+
+/**
+ * Load strategy inserting datasets, which can be told how to load them.
+ */
+public interface DataSetLoadingStrategyOperation extends LoadStrategyOperation {
+
+	void setDataSetLoader(DataSetLoader dataSetLoader);
+
+}
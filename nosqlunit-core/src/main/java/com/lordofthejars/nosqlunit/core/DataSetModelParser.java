@@ -0,0 +1,16 @@
+package com.lordofthejars.nosqlunit.core;
+
+import java.io.IOException;
+import java.io.InputStream;
+
+/**
+ * Converts a dataset stream into the model an insertion or comparison strategy
+ * works with. Parsers should be stateless because {@link ParsedDataSetCache}
+ * shares parsed models between all parsers of the same class, and returned
+ * models must be treated as read-only by their callers.
+ */
+public interface DataSetModelParser<T> {
+
+	T parse(InputStream dataset) throws IOException;
+
+}
@@ -1,8 +1,12 @@
 package com.lordofthejars.nosqlunit.core;
 
 import static com.lordofthejars.nosqlunit.core.IOUtils.isFileAvailableOnClasspath;
+import static com.lordofthejars.nosqlunit.core.IOUtils.lastModifiedOnClasspath;
 
 import java.lang.annotation.Annotation;
+import java.util.Arrays;
+import java.util.EnumSet;
+import java.util.Set;
 
 import org.junit.runners.model.FrameworkMethod;
 
@@ -11,16 +15,45 @@ import com.lordofthejars.nosqlunit.util.DefaultClasspathLocationBuilder;
 
 public class DefaultDataSetLocationResolver {
 
+	/**
+	 * Zip entries, so resources read from jars, keep modification times with
+	 * two seconds resolution.
+	 */
+	private static final long MODIFICATION_TIME_RESOLUTION_MILLIS = 2000;
+
 	private Class<?> resourceBase;
+	private Set<CompiledDataSetFormat> readableCompiledFormats;
 	
+	/**
+	 * Resolves datasets to their text form only.
+	 */
 	public DefaultDataSetLocationResolver(Class<?> resourceBase) {
+		this(resourceBase, new CompiledDataSetFormat[0]);
+	}
+
+	/**
+	 * @param readableCompiledFormats
+	 *            formats the backend can read, so datasets compiled into them
+	 *            are preferred over their text form.
+	 */
+	public DefaultDataSetLocationResolver(Class<?> resourceBase, CompiledDataSetFormat... readableCompiledFormats) {
 		this.resourceBase = resourceBase;
+		this.readableCompiledFormats = EnumSet.noneOf(CompiledDataSetFormat.class);
+		this.readableCompiledFormats.addAll(Arrays.asList(readableCompiledFormats));
+		this.readableCompiledFormats.remove(CompiledDataSetFormat.NONE);
 	}
 	
 	public Class<?> getResourceBase() {
 		return resourceBase;
 	}
 	
+	/**
+	 * Resolves default dataset location of given method, first by method name
+	 * and then by class name. For each name a compiled dataset (for example
+	 * <code>.json.bson</code>) in a readable format is preferred unless its
+	 * source is newer, then the plain file, and otherwise a compressed one
+	 * (for example <code>.json.gz</code>) is looked for.
+	 */
 	public String resolveDefaultDataSetLocation(Annotation annotation, FrameworkMethod method, String suffix) {
 		
 		String defaultClassAnnotatedClasspath = DefaultClasspathLocationBuilder.defaultClassAnnotatedClasspathLocation(method);
@@ -30,39 +63,90 @@ public class DefaultDataSetLocationResolver {
 			String defaultMethodAnnotatedClasspathFile = DefaultClasspathLocationBuilder.defaultMethodAnnotatedClasspathLocation(
 					method, defaultClassAnnotatedClasspath, suffix);
 			
-			if (isFileAvailableOnClasspath(resourceBase,
-					defaultMethodAnnotatedClasspathFile)) {
+			String availableMethodAnnotatedClasspathFile = availableLocation(defaultMethodAnnotatedClasspathFile);
 			
-				return	defaultMethodAnnotatedClasspathFile;
-
-			} else {
+			if (availableMethodAnnotatedClasspathFile != null) {
 			
-				String defaultClassAnnotatedClasspathFile = defaultClassAnnotatedClasspath+suffix;
-				
-				if (isFileAvailableOnClasspath(resourceBase,
-						defaultClassAnnotatedClasspathFile)) {
-
-					return 	defaultClassAnnotatedClasspathFile;
-				
-				}
-				
+				return	availableMethodAnnotatedClasspathFile;
+
 			}
 			
+		}
+		
+		return availableLocation(defaultClassAnnotatedClasspath+suffix);
+	}
+
+	/**
+	 * Resolves an explicitly given dataset location to its compiled dataset if
+	 * it is available in a readable format and not older than given location,
+	 * or to the given location otherwise. Compiled datasets are named after
+	 * the uncompressed source, so <code>users.json.gz</code> is resolved to
+	 * <code>users.json.bson</code>.
+	 */
+	public String resolveDataSetLocation(String location) {
+		
+		String compiledLocation = availableCompiledLocation(location);
+		
+		return compiledLocation == null ? location : compiledLocation;
+	}
+
+	public String[] resolveDataSetLocations(String[] locations) {
+		
+		String[] resolvedLocations = new String[locations.length];
+		
+		for (int i = 0; i < locations.length; i++) {
+			resolvedLocations[i] = resolveDataSetLocation(locations[i]);
+		}
+		
+		return resolvedLocations;
+	}
+
+	private String availableCompiledLocation(String location) {
+		
+		String uncompressedLocation = location.substring(0,
+				location.length() - DataSetCompression.fromLocation(location).getExtension().length());
+		
+		for (CompiledDataSetFormat format : this.readableCompiledFormats) {
 			
-		} else {
+			String compiledLocation = uncompressedLocation + format.getExtension();
 			
-			String defaultClassAnnotatedClasspathFile = defaultClassAnnotatedClasspath+suffix;
+			if (isFileAvailableOnClasspath(resourceBase, compiledLocation)
+					&& !isNewerThan(location, compiledLocation)) {
+				return compiledLocation;
+			}
 			
-			if (isFileAvailableOnClasspath(resourceBase,
-					defaultClassAnnotatedClasspathFile)) {
+		}
+		
+		return null;
+	}
 
-				return 	defaultClassAnnotatedClasspathFile;
+	private String availableLocation(String location) {
+		
+		for (DataSetCompression compression : DataSetCompression.values()) {
 			
+			String compressedLocation = location + compression.getExtension();
+			
+			if (isFileAvailableOnClasspath(resourceBase, compressedLocation)) {
+				String compiledLocation = availableCompiledLocation(compressedLocation);
+				return compiledLocation == null ? compressedLocation : compiledLocation;
 			}
 			
 		}
 		
-		return null;
+		return availableCompiledLocation(location);
+	}
+
+	/**
+	 * @return true if source is available and has been modified after its
+	 *         compiled dataset, so compiled dataset is stale.
+	 */
+	private boolean isNewerThan(String sourceLocation, String compiledLocation) {
+		
+		long sourceLastModified = lastModifiedOnClasspath(resourceBase, sourceLocation);
+		long compiledLastModified = lastModifiedOnClasspath(resourceBase, compiledLocation);
+		
+		return sourceLastModified > 0 && compiledLastModified > 0
+				&& sourceLastModified - compiledLastModified > MODIFICATION_TIME_RESOLUTION_MILLIS;
 	}
 
 	private boolean isMethodAnnotated(FrameworkMethod method, Annotation annotation) {
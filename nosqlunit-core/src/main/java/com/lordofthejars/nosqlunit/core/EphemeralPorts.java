@@ -0,0 +1,142 @@
+package com.lordofthejars.nosqlunit.core;
+
+import java.io.IOException;
+import java.net.ServerSocket;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Allocates free ports for engines configured with {@link #AUTO} port, so
+ * several engines, forks or modules can run side by side on the same machine.
+ *
+ * Lifecycle managers allocate a port when they are configured with
+ * {@link #AUTO} and publish it under the name of their engine and the name of
+ * their server, its target path. Rules configured with {@link #AUTO} port
+ * resolve it to the port published for the server they connect to when they
+ * first connect, so rules and injected connections reach the server that has
+ * been started even if they were built before it. The server may be omitted
+ * when only one server of the engine has been started with an automatic port.
+ */
+public final class EphemeralPorts {
+
+	/**
+	 * Port value meaning that a free port should be chosen automatically.
+	 */
+	public static final int AUTO = 0;
+
+	private static final Set<Integer> ALLOCATED_PORTS = Collections.synchronizedSet(new HashSet<Integer>());
+	private static final Map<String, Map<String, Integer>> PUBLISHED_PORTS = new ConcurrentHashMap<String, Map<String, Integer>>();
+
+	private EphemeralPorts() {
+		super();
+	}
+
+	public static boolean isAuto(int port) {
+		return port == AUTO;
+	}
+
+	/**
+	 * @return a port free at the time of the call that has not been returned
+	 *         before in this JVM.
+	 */
+	public static int allocate() {
+
+		while (true) {
+			int port = freePort();
+
+			if (ALLOCATED_PORTS.add(port)) {
+				return port;
+			}
+		}
+	}
+
+	/**
+	 * Publishes port allocated for given server of given engine, so rule
+	 * configurations of that server configured with {@link #AUTO} port
+	 * connect to it.
+	 */
+	public static void publish(String engine, String server, int port) {
+
+		Map<String, Integer> servers = PUBLISHED_PORTS.get(engine);
+
+		if (servers == null) {
+			PUBLISHED_PORTS.putIfAbsent(engine, new ConcurrentHashMap<String, Integer>());
+			servers = PUBLISHED_PORTS.get(engine);
+		}
+
+		servers.put(server, port);
+	}
+
+	/**
+	 * @return given port, or port published for the only server of given
+	 *         engine if it is {@link #AUTO}.
+	 * @throws IllegalStateException
+	 *             if port is {@link #AUTO} and there is not exactly one server
+	 *             of given engine with a published port.
+	 */
+	public static int resolve(String engine, int port) {
+		return resolve(engine, null, port);
+	}
+
+	/**
+	 * @param server
+	 *            name of the server, or null if only one server of given engine
+	 *            has been started with an automatic port.
+	 * @return given port, or port published for given server if it is
+	 *         {@link #AUTO}.
+	 * @throws IllegalStateException
+	 *             if port is {@link #AUTO} and no port has been published for
+	 *             given server, or server is null and several servers of given
+	 *             engine have published their ports.
+	 */
+	public static int resolve(String engine, String server, int port) {
+
+		if (!isAuto(port)) {
+			return port;
+		}
+
+		Map<String, Integer> servers = PUBLISHED_PORTS.get(engine);
+
+		if (servers == null || servers.isEmpty()) {
+			throw new IllegalStateException("Port of " + engine
+					+ " is automatic but no " + engine + " server with automatic port has been started.");
+		}
+
+		if (server == null) {
+			if (servers.size() > 1) {
+				throw new IllegalStateException("Port of " + engine + " is automatic but several " + engine
+						+ " servers with automatic port have been started " + servers.keySet()
+						+ ", so the server to connect to should be given.");
+			}
+			return servers.values().iterator().next();
+		}
+
+		Integer publishedPort = servers.get(server);
+
+		if (publishedPort == null) {
+			throw new IllegalStateException("Port of " + engine + " server " + server
+					+ " is automatic but it has not been started with automatic port.");
+		}
+
+		return publishedPort;
+	}
+
+	private static int freePort() {
+
+		try {
+			ServerSocket serverSocket = new ServerSocket(0);
+			try {
+				serverSocket.setReuseAddress(true);
+				return serverSocket.getLocalPort();
+			} finally {
+				serverSocket.close();
+			}
+		} catch (IOException e) {
+			throw new IllegalStateException("No free port could be allocated.", e);
+		}
+	}
+
+}
@@ -0,0 +1,88 @@
+package com.lordofthejars.nosqlunit.core;
+
+import java.util.Random;
+
+import com.lordofthejars.nosqlunit.annotation.GeneratedField;
+
+/**
+ * Generators of values of {@link GeneratedField}s. Values only depend on
+ * record index and on the random of the record, so they are reproducible.
+ */
+public enum FieldGenerator {
+
+	/**
+	 * min plus record index.
+	 */
+	SEQUENCE {
+		@Override
+		public Object generate(GeneratedField field, long index, Random random) {
+			return field.min() + index;
+		}
+	},
+	/**
+	 * Integer number between min and max.
+	 */
+	INTEGER {
+		@Override
+		public Object generate(GeneratedField field, long index, Random random) {
+			long range = field.max() - field.min() + 1;
+			return range <= 0 ? field.min() : field.min() + (long) (random.nextDouble() * range);
+		}
+	},
+	/**
+	 * Decimal number between min and max.
+	 */
+	DOUBLE {
+		@Override
+		public Object generate(GeneratedField field, long index, Random random) {
+			return field.min() + random.nextDouble() * (field.max() - field.min());
+		}
+	},
+	BOOLEAN {
+		@Override
+		public Object generate(GeneratedField field, long index, Random random) {
+			return random.nextBoolean();
+		}
+	},
+	/**
+	 * Alphanumeric string of given length.
+	 */
+	STRING {
+		@Override
+		public Object generate(GeneratedField field, long index, Random random) {
+			char[] characters = new char[field.length()];
+
+			for (int i = 0; i < characters.length; i++) {
+				characters[i] = ALPHANUMERIC.charAt(random.nextInt(ALPHANUMERIC.length()));
+			}
+
+			return new String(characters);
+		}
+	},
+	UUID {
+		@Override
+		public Object generate(GeneratedField field, long index, Random random) {
+			return new java.util.UUID(random.nextLong(), random.nextLong()).toString();
+		}
+	},
+	/**
+	 * One of given values.
+	 */
+	ONE_OF {
+		@Override
+		public Object generate(GeneratedField field, long index, Random random) {
+			String[] values = field.values();
+
+			if (values.length == 0) {
+				throw new IllegalArgumentException("Values are required to generate field " + field.name() + ".");
+			}
+
+			return values[random.nextInt(values.length)];
+		}
+	};
+
+	private static final String ALPHANUMERIC = "abcdefghijklmnopqrstuvwxyzABCDEFGHIJKLMNOPQRSTUVWXYZ0123456789";
+
+	public abstract Object generate(GeneratedField field, long index, Random random);
+
+}
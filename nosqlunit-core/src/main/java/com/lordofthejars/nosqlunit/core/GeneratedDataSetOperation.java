@@ -0,0 +1,31 @@
+package com.lordofthejars.nosqlunit.core;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.util.Iterator;
+
+/**
+ * Implemented by {@link DatabaseOperation}s that can be seeded with
+ * {@link com.lordofthejars.nosqlunit.annotation.GeneratedDataSet}s. Generated
+ * records are written as a dataset of the database, and inserted through
+ * {@link DatabaseOperation#insert(java.io.InputStream)}.
+ */
+public interface GeneratedDataSetOperation {
+
+	/**
+	 * @return shapes of generated records this database can store.
+	 */
+	RecordShape[] acceptedRecordShapes();
+
+	/**
+	 * Writes a batch of generated records as one dataset of this database.
+	 *
+	 * @param recordShape
+	 *            one of accepted record shapes.
+	 * @param template
+	 *            name records are generated for.
+	 */
+	void writeGeneratedRecords(RecordShape recordShape, String template, Iterator<GeneratedRecord> records,
+			Writer writer) throws IOException;
+
+}
@@ -0,0 +1,65 @@
+package com.lordofthejars.nosqlunit.core;
+
+import java.io.IOException;
+import java.util.Collections;
+import java.util.Map;
+
+import org.codehaus.jackson.JsonGenerator;
+
+/**
+ * Record of a generated dataset.
+ */
+public final class GeneratedRecord {
+
+	private final long index;
+	private final Map<String, Object> fields;
+
+	GeneratedRecord(long index, Map<String, Object> fields) {
+		this.index = index;
+		this.fields = Collections.unmodifiableMap(fields);
+	}
+
+	/**
+	 * @return position of the record in the generated dataset, starting at 0.
+	 */
+	public long getIndex() {
+		return index;
+	}
+
+	/**
+	 * @return generated fields, in declaration order.
+	 */
+	public Map<String, Object> getFields() {
+		return fields;
+	}
+
+	/**
+	 * Writes generated fields as a JSON object.
+	 */
+	public void writeFields(JsonGenerator jsonGenerator) throws IOException {
+		jsonGenerator.writeStartObject();
+
+		for (Map.Entry<String, Object> field : fields.entrySet()) {
+			jsonGenerator.writeFieldName(field.getKey());
+			writeValue(jsonGenerator, field.getValue());
+		}
+
+		jsonGenerator.writeEndObject();
+	}
+
+	/**
+	 * Writes a generated value as a JSON scalar.
+	 */
+	public static void writeValue(JsonGenerator jsonGenerator, Object value) throws IOException {
+		if (value instanceof Long) {
+			jsonGenerator.writeNumber((Long) value);
+		} else if (value instanceof Double) {
+			jsonGenerator.writeNumber((Double) value);
+		} else if (value instanceof Boolean) {
+			jsonGenerator.writeBoolean((Boolean) value);
+		} else {
+			jsonGenerator.writeString(String.valueOf(value));
+		}
+	}
+
+}
@@ -1,12 +1,14 @@
 package com.lordofthejars.nosqlunit.core;
 
-import java.io.BufferedReader;
 import java.io.File;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.InputStreamReader;
+import java.io.Reader;
 import java.lang.annotation.Annotation;
 import java.lang.reflect.Field;
+import java.net.URL;
+import java.net.URLConnection;
 import java.security.AccessController;
 import java.security.PrivilegedAction;
 import java.util.ArrayList;
@@ -14,6 +16,8 @@ import java.util.List;
 
 public final class IOUtils {
 
+	private static final int BUFFER_SIZE = 8192;
+
 	private IOUtils() {
 		super();
 	}
@@ -71,7 +75,33 @@ public final class IOUtils {
     }
 	
 	public static boolean isFileAvailableOnClasspath(Class<?> resourceBase, String dataLocation) {
-		return resourceBase.getResourceAsStream(dataLocation) != null;
+		return resourceBase.getResource(dataLocation) != null;
+	}
+
+	/**
+	 * @return last modification time of given classpath resource, or 0 if it
+	 *         is not available or not known.
+	 */
+	public static long lastModifiedOnClasspath(Class<?> resourceBase, String dataLocation) {
+
+		URL resource = resourceBase.getResource(dataLocation);
+
+		if (resource == null) {
+			return 0;
+		}
+
+		try {
+			URLConnection connection = resource.openConnection();
+			connection.setUseCaches(false);
+
+			try {
+				return connection.getLastModified();
+			} finally {
+				connection.getInputStream().close();
+			}
+		} catch (IOException e) {
+			return 0;
+		}
 	}
 	
 	public static List<InputStream> getAllStreamsFromClasspathBaseResource(Class<?> resourceBase, String[] dataLocations) {
@@ -90,19 +120,31 @@ public final class IOUtils {
 	}
 	
 	public static InputStream getStreamFromClasspathBaseResource(Class<?> resourceBase, String dataLocation) {
-		
-		if(isFileAvailableOnClasspath(resourceBase, dataLocation)) {
-			return resourceBase.getResourceAsStream(dataLocation);
+
+		URL resource = resourceBase.getResource(dataLocation);
+
+		if(resource != null) {
+			try {
+				return new ResourceInputStream(resource);
+			} catch (IOException e) {
+				throw new IllegalArgumentException("Dataset " + dataLocation + " could not be read, check it is not corrupt and its extension matches its compression.", e);
+			}
 		} else {
 			return null;
 		}
-		
+
 	}
 	
 	public static String readAllStreamFromClasspathBaseResource(Class<?> resourceBase, String dataLocation) throws IOException {
 		
-		if(isFileAvailableOnClasspath(resourceBase, dataLocation)) {
-			return readFullStream(resourceBase.getResourceAsStream(dataLocation));
+		InputStream content = getStreamFromClasspathBaseResource(resourceBase, dataLocation);
+		
+		if(content != null) {
+			try {
+				return readFullStream(content);
+			} finally {
+				content.close();
+			}
 		} else {
 			return null;
 		}
@@ -124,15 +166,20 @@ public final class IOUtils {
 		return scriptContent;
 	}
 	
+	/**
+	 * Reads the whole stream as UTF-8 text, keeping line separators. Datasets
+	 * that can be big should be read with {@link JsonDataSetReader} instead.
+	 */
 	public static String readFullStream(InputStream data) throws IOException {
 		
-		BufferedReader bufferedReader = new BufferedReader(new InputStreamReader(data, "UTF-8"));
+		Reader reader = new InputStreamReader(data, "UTF-8");
 		
 		StringBuilder readData = new StringBuilder();
-		String readLine;
+		char[] buffer = new char[BUFFER_SIZE];
+		int read;
 		
-		while((readLine = bufferedReader.readLine()) != null) {
-			readData.append(readLine);
+		while((read = reader.read(buffer)) != -1) {
+			readData.append(buffer, 0, read);
 		}
 		
 		return readData.toString();
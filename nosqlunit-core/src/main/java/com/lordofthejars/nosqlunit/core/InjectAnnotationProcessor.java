@@ -1,15 +1,8 @@
 package com.lordofthejars.nosqlunit.core;
 
-import java.lang.annotation.Annotation;
 import java.lang.reflect.Field;
-import java.util.HashSet;
-import java.util.Set;
 
-import javax.inject.Inject;
-import javax.inject.Named;
-
-import com.lordofthejars.nosqlunit.annotation.ByContainer;
-import com.lordofthejars.nosqlunit.annotation.ConnectionManager;
+import com.lordofthejars.nosqlunit.core.TestClassMetadata.InjectableField;
 
 public class InjectAnnotationProcessor {
 
@@ -23,50 +16,31 @@ public class InjectAnnotationProcessor {
 			Object injectionObject) {
 
 		if (isTargetSet(testInstance)) {
-		    
-		    Set<Field> fields = new HashSet<Field>();
-		    fields.addAll(IOUtils.getFieldsWithAnnotation(clazz, Inject.class));
-		    fields.addAll(IOUtils.getFieldsWithAnnotation(clazz, ConnectionManager.class));
-		    fields.addAll(IOUtils.getFieldsWithAnnotation(clazz, ByContainer.class));
-		    
-			for (Field field : fields) {
-				Annotation injectAnnotation = field.getAnnotation(Inject.class);
-				Annotation connectionManagerAnnotation = field.getAnnotation(ConnectionManager.class);
-				Annotation byContainerAnnotation = field.getAnnotation(ByContainer.class);
-				
-				if (isInjectedAndNotExternallyManaged(injectAnnotation, byContainerAnnotation, connectionManagerAnnotation)) {
-					Annotation namedAnnotation = field
-							.getAnnotation(Named.class);
 
-					if (isNamedAnnotationNotPresent(namedAnnotation)
-							|| isIdentifierValueInNamedAnnotation(namedAnnotation)) {
+			for (InjectableField injectableField : TestClassMetadata.forClass(clazz).getInjectableFields()) {
+
+				String name = injectableField.getName();
+
+				if (isNamedAnnotationNotPresent(name)
+						|| isIdentifierValueInNamedAnnotation(name)) {
+
+					Field field = injectableField.getField();
 
-						if (field.getType().isInstance(injectionObject)) {
-							new FieldSetter(testInstance, field)
-									.set(injectionObject);
-						}
+					if (field.getType().isInstance(injectionObject)) {
+						new FieldSetter(testInstance, field)
+								.set(injectionObject);
 					}
 				}
 			}
 		}
 	}
 
-
-    private boolean isInjectedAndNotExternallyManaged(
-            Annotation injectAnnotation, Annotation byContainerAnnotation,
-            Annotation connectionManagerAnnotation) {
-        return (injectAnnotation != null && byContainerAnnotation == null)
-                || connectionManagerAnnotation != null;
-    }
-
-    private boolean isIdentifierValueInNamedAnnotation(
-            Annotation namedAnnotation) {
-        String namedValue = ((Named) namedAnnotation).value();
+    private boolean isIdentifierValueInNamedAnnotation(String namedValue) {
         return "".equals(namedValue) || namedValue.equals(identifier);
     }
 
-    private boolean isNamedAnnotationNotPresent(Annotation namedAnnotation) {
-        return namedAnnotation == null;
+    private boolean isNamedAnnotationNotPresent(String namedValue) {
+        return namedValue == null;
     }
 
     private boolean isTargetSet(Object testInstance) {
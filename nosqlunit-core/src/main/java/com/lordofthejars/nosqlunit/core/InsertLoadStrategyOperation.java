@@ -5,12 +5,13 @@ import java.io.InputStream;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
-public class InsertLoadStrategyOperation implements LoadStrategyOperation {
+public class InsertLoadStrategyOperation implements DataSetLoadingStrategyOperation {
 
 	private static final Logger LOGGER = LoggerFactory
 			.getLogger(InsertLoadStrategyOperation.class);
 
 	private DatabaseOperation databaseOperation;
+	private DataSetLoader dataSetLoader = DataSetLoader.SEQUENTIAL;
 
 	public InsertLoadStrategyOperation(DatabaseOperation databaseOperation) {
 		this.databaseOperation = databaseOperation;
@@ -25,10 +26,13 @@ public class InsertLoadStrategyOperation implements LoadStrategyOperation {
 		} 
 	}
 
+	@Override
+	public void setDataSetLoader(DataSetLoader dataSetLoader) {
+		this.dataSetLoader = dataSetLoader;
+	}
+
 	private void executeInsert(InputStream[] contentDataset) {
-		for (InputStream dataScript : contentDataset) {
-			this.databaseOperation.insert(dataScript);
-		}
+		this.dataSetLoader.insert(this.databaseOperation, contentDataset);
 	}
 
 }
@@ -0,0 +1,251 @@
+package com.lordofthejars.nosqlunit.core;
+
+import java.io.BufferedReader;
+import java.io.Closeable;
+import java.io.FilterReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.io.StringWriter;
+
+import org.codehaus.jackson.JsonFactory;
+import org.codehaus.jackson.JsonGenerator;
+import org.codehaus.jackson.JsonParseException;
+import org.codehaus.jackson.JsonParser;
+import org.codehaus.jackson.JsonToken;
+
+/**
+ * Pull reader over a JSON dataset. Datasets are read directly from the raw
+ * stream, field by field, and records of arrays are handed one at a time, so
+ * memory used while loading is bounded by the biggest record instead of the
+ * whole dataset.
+ *
+ * Reading starts inside the root object. {@link #nextField()} moves to the
+ * next field of the current object, and its value is then consumed with
+ * {@link #beginObject()}, {@link #readRecords(RecordHandler)},
+ * {@link #readValueAsJson()} or {@link #skipValue()}. A value not consumed is
+ * skipped by the next call to {@link #nextField()}.
+ *
+ * As MongoDB parser does, comments, single quotes, unquoted field names and
+ * trailing commas are accepted.
+ */
+public class JsonDataSetReader implements Closeable {
+
+	private static final JsonFactory JSON_FACTORY = new JsonFactory();
+
+	static {
+		JSON_FACTORY.configure(JsonParser.Feature.ALLOW_COMMENTS, true);
+		JSON_FACTORY.configure(JsonParser.Feature.ALLOW_SINGLE_QUOTES, true);
+		JSON_FACTORY.configure(JsonParser.Feature.ALLOW_UNQUOTED_FIELD_NAMES, true);
+	}
+
+	/**
+	 * Receives each record of an array as a JSON document.
+	 */
+	public interface RecordHandler {
+		void record(String record) throws IOException;
+	}
+
+	private final JsonParser parser;
+	private boolean pendingValue = false;
+
+	public JsonDataSetReader(InputStream dataset) throws IOException {
+		this.parser = JSON_FACTORY.createJsonParser(new TrailingCommaReader(new InputStreamReader(dataset, "UTF-8")));
+		expect(this.parser.nextToken(), JsonToken.START_OBJECT);
+	}
+
+	/**
+	 * @return name of the next field of current object, or null if there are
+	 *         no more fields.
+	 */
+	public String nextField() throws IOException {
+		skipPendingValue();
+
+		JsonToken token = parser.nextToken();
+
+		if (token == JsonToken.FIELD_NAME) {
+			parser.nextToken();
+			pendingValue = true;
+			return parser.getCurrentName();
+		}
+
+		expectEndOfObject(token);
+		return null;
+	}
+
+	public boolean isArrayValue() {
+		return parser.getCurrentToken() == JsonToken.START_ARRAY;
+	}
+
+	public boolean isObjectValue() {
+		return parser.getCurrentToken() == JsonToken.START_OBJECT;
+	}
+
+	/**
+	 * Enters current object value, so its fields are read with
+	 * {@link #nextField()}.
+	 */
+	public void beginObject() throws IOException {
+		expect(parser.getCurrentToken(), JsonToken.START_OBJECT);
+		pendingValue = false;
+	}
+
+	/**
+	 * Hands each element of current array value to given handler, reading
+	 * the next one only after the previous one has been handled.
+	 *
+	 * @return number of records read.
+	 */
+	public long readRecords(RecordHandler recordHandler) throws IOException {
+		expect(parser.getCurrentToken(), JsonToken.START_ARRAY);
+		pendingValue = false;
+
+		long numberOfRecords = 0;
+
+		while (parser.nextToken() != JsonToken.END_ARRAY) {
+			recordHandler.record(currentValueAsJson());
+			numberOfRecords++;
+		}
+
+		return numberOfRecords;
+	}
+
+	/**
+	 * @return current value, with all its children, as JSON.
+	 */
+	public String readValueAsJson() throws IOException {
+		pendingValue = false;
+		return currentValueAsJson();
+	}
+
+	public void skipValue() throws IOException {
+		skipPendingValue();
+	}
+
+	@Override
+	public void close() throws IOException {
+		parser.close();
+	}
+
+	private String currentValueAsJson() throws IOException {
+		StringWriter value = new StringWriter();
+		JsonGenerator generator = JSON_FACTORY.createJsonGenerator(value);
+
+		try {
+			generator.copyCurrentStructure(parser);
+		} finally {
+			generator.close();
+		}
+
+		return value.toString();
+	}
+
+	/**
+	 * Drops commas followed only by whitespace before the end of an object or
+	 * an array.
+	 */
+	private static class TrailingCommaReader extends FilterReader {
+
+		private final StringBuilder pending = new StringBuilder();
+		private int pendingIndex = 0;
+		private boolean pendingComma = false;
+		private char quote = 0;
+		private boolean escaped = false;
+
+		TrailingCommaReader(Reader in) {
+			super(new BufferedReader(in));
+		}
+
+		@Override
+		public int read() throws IOException {
+			char[] character = new char[1];
+			return read(character, 0, 1) == -1 ? -1 : character[0];
+		}
+
+		@Override
+		public int read(char[] buffer, int offset, int length) throws IOException {
+			int read = 0;
+
+			while (read < length) {
+				if (pendingIndex < pending.length() && !pendingComma) {
+					buffer[offset + read++] = pending.charAt(pendingIndex++);
+				} else if (!fill()) {
+					break;
+				}
+			}
+
+			return read == 0 && length > 0 ? -1 : read;
+		}
+
+		@Override
+		public boolean markSupported() {
+			return false;
+		}
+
+		private boolean fill() throws IOException {
+			if (pendingIndex == pending.length()) {
+				pending.setLength(0);
+				pendingIndex = 0;
+			}
+
+			int character = in.read();
+
+			if (character == -1) {
+				boolean flushed = pendingComma;
+				pendingComma = false;
+				return flushed;
+			}
+
+			char current = (char) character;
+
+			if (quote != 0) {
+				pending.append(current);
+				if (escaped) {
+					escaped = false;
+				} else if (current == '\\') {
+					escaped = true;
+				} else if (current == quote) {
+					quote = 0;
+				}
+			} else if (pendingComma && Character.isWhitespace(current)) {
+				pending.append(current);
+			} else if (pendingComma && (current == '}' || current == ']')) {
+				pending.deleteCharAt(pendingIndex);
+				pending.append(current);
+				pendingComma = false;
+			} else {
+				pendingComma = current == ',';
+				if (current == '"' || current == '\'') {
+					quote = current;
+				}
+				pending.append(current);
+			}
+
+			return true;
+		}
+
+	}
+
+	private void skipPendingValue() throws IOException {
+		if (pendingValue) {
+			parser.skipChildren();
+			pendingValue = false;
+		}
+	}
+
+	private void expectEndOfObject(JsonToken token) throws JsonParseException {
+		if (token != JsonToken.END_OBJECT) {
+			throw new JsonParseException("Expected a field or end of object but found " + token,
+					parser.getCurrentLocation());
+		}
+	}
+
+	private void expect(JsonToken token, JsonToken expectedToken) throws JsonParseException {
+		if (token != expectedToken) {
+			throw new JsonParseException("Expected " + expectedToken + " but found " + token,
+					parser.getCurrentLocation());
+		}
+	}
+
+}
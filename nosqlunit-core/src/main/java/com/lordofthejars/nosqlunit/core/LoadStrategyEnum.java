@@ -3,7 +3,7 @@ package com.lordofthejars.nosqlunit.core;
 public enum LoadStrategyEnum {
 
 	
-	INSERT(InsertLoadStrategyOperation.class), CLEAN_INSERT(CleanInsertLoadStrategyOperation.class), DELETE_ALL(DeleteAllLoadStrategyOperation.class);
+	INSERT(InsertLoadStrategyOperation.class), CLEAN_INSERT(CleanInsertLoadStrategyOperation.class), DELETE_ALL(DeleteAllLoadStrategyOperation.class), REUSE_IF_CLEAN(ReuseIfCleanLoadStrategyOperation.class), ROLLBACK(RollbackLoadStrategyOperation.class);
 	
 	private final Class<? extends LoadStrategyOperation> strategyClass;
 	
@@ -0,0 +1,17 @@
+package com.lordofthejars.nosqlunit.core;
+
+/**
+ * Implemented by {@link DatabaseOperation}s that can scope inserting, deleting
+ * and comparing data to a {@link TestNamespace}, so tests running in parallel
+ * can share one engine.
+ */
+public interface NamespaceAwareDatabaseOperation {
+
+	/**
+	 * Scopes next operations, and the connection returned by
+	 * {@link DatabaseOperation#connectionManager()} if possible, to given
+	 * namespace.
+	 */
+	void useNamespace(TestNamespace testNamespace);
+
+}
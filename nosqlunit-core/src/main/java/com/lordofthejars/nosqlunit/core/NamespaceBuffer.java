@@ -0,0 +1,172 @@
+package com.lordofthejars.nosqlunit.core;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Namespaces alternated by the tests of a thread when namespace buffering is
+ * enabled. Each test runs on next namespace of the ring, and rules of the same
+ * test share it. While a test runs, the namespace of next test is prepared in
+ * background by each rule, and tests find their namespace already prepared if
+ * it was prepared for them.
+ */
+final class NamespaceBuffer {
+
+	private static final Logger LOGGER = LoggerFactory.getLogger(NamespaceBuffer.class);
+
+	private static final ThreadLocal<NamespaceBuffer> CURRENT_BUFFER = new ThreadLocal<NamespaceBuffer>();
+
+	private static final class PreparationExecutor {
+
+		private static final ExecutorService INSTANCE = Executors.newCachedThreadPool(new ThreadFactory() {
+
+			private final AtomicInteger numberOfThreads = new AtomicInteger();
+
+			@Override
+			public Thread newThread(Runnable runnable) {
+				Thread thread = new Thread(runnable, "nosqlunit-namespace-preparation-"
+						+ numberOfThreads.incrementAndGet());
+				thread.setDaemon(true);
+				return thread;
+			}
+		});
+
+	}
+
+	private static final class Preparation {
+
+		private final int namespaceIndex;
+		private final String testName;
+		private final Future<?> future;
+
+		private Preparation(int namespaceIndex, String testName, Future<?> future) {
+			this.namespaceIndex = namespaceIndex;
+			this.testName = testName;
+			this.future = future;
+		}
+
+	}
+
+	private final TestNamespace[] namespaces;
+	private int currentIndex = -1;
+	private Object currentTest;
+
+	private final Map<String, Preparation> preparations = new HashMap<String, Preparation>();
+
+	NamespaceBuffer(TestNamespace... namespaces) {
+		this.namespaces = namespaces;
+	}
+
+	/**
+	 * @return buffer of current thread, reserving given number of namespaces
+	 *         the first time.
+	 */
+	static NamespaceBuffer forCurrentThread(int numberOfBuffers) {
+		NamespaceBuffer namespaceBuffer = CURRENT_BUFFER.get();
+
+		if (namespaceBuffer == null) {
+			TestNamespace[] namespaces = new TestNamespace[numberOfBuffers];
+
+			for (int i = 0; i < numberOfBuffers; i++) {
+				namespaces[i] = TestNamespace.reserve();
+			}
+
+			namespaceBuffer = new NamespaceBuffer(namespaces);
+			CURRENT_BUFFER.set(namespaceBuffer);
+		}
+
+		return namespaceBuffer;
+	}
+
+	/**
+	 * @return namespace of given test, moving to next namespace of the ring
+	 *         when test differs from previous one.
+	 */
+	TestNamespace namespaceFor(Object test) {
+		if (test != currentTest) {
+			currentTest = test;
+			currentIndex = (currentIndex + 1) % namespaces.length;
+		}
+
+		return namespaces[currentIndex];
+	}
+
+	TestNamespace nextNamespace() {
+		return namespaces[(currentIndex + 1) % namespaces.length];
+	}
+
+	/**
+	 * Waits for the preparation started by given rule during previous test.
+	 *
+	 * @return true if current namespace has been successfully prepared for
+	 *         given test.
+	 */
+	boolean isPreparedFor(String identifier, String testName) {
+		Preparation preparation = preparations.remove(identifier);
+
+		if (preparation == null) {
+			return false;
+		}
+
+		try {
+			preparation.future.get();
+		} catch (ExecutionException e) {
+			LOGGER.warn("Namespace could not be prepared for " + preparation.testName
+					+ ", data is loaded when test starts.", e.getCause());
+			return false;
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			return false;
+		}
+
+		return preparation.namespaceIndex == currentIndex && preparation.testName.equals(testName);
+	}
+
+	/**
+	 * Prepares next namespace in background for given test of given rule.
+	 */
+	void prepare(String identifier, String testName, final Runnable preparation) {
+		final TestNamespace nextNamespace = nextNamespace();
+
+		Future<?> future = PreparationExecutor.INSTANCE.submit(new Runnable() {
+
+			@Override
+			public void run() {
+				nextNamespace.runWithin(preparation);
+			}
+		});
+
+		preparations.put(identifier, new Preparation((currentIndex + 1) % namespaces.length, testName, future));
+	}
+
+	/**
+	 * Waits until preparation started by given rule finishes, so its
+	 * connection can be closed. Failures are reported by
+	 * {@link #isPreparedFor(String, String)}.
+	 */
+	void awaitPreparation(String identifier) {
+		Preparation preparation = preparations.get(identifier);
+
+		if (preparation == null) {
+			return;
+		}
+
+		try {
+			preparation.future.get();
+		} catch (ExecutionException e) {
+			// reported when next test looks for its prepared namespace
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}
+	}
+
+}
@@ -0,0 +1,17 @@
+package com.lordofthejars.nosqlunit.core;
+
+/**
+ * Implemented by {@link NamespaceAwareDatabaseOperation}s that can create
+ * another operation sharing the same connection but scoped to another
+ * namespace, so a namespace can be prepared in background while a test runs on
+ * another one.
+ */
+public interface NamespaceForkableDatabaseOperation extends NamespaceAwareDatabaseOperation {
+
+	/**
+	 * @return operation with same insertion and comparison strategies, scoped
+	 *         to given namespace. Scope of this operation is not modified.
+	 */
+	DatabaseOperation<?> forNamespace(TestNamespace testNamespace);
+
+}
@@ -0,0 +1,159 @@
+package com.lordofthejars.nosqlunit.core;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URL;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * JVM-wide cache of parsed datasets. Entries are keyed by resource URL,
+ * content checksum and parser class, so a fixture changed on disk is parsed
+ * again while the same fixture used by many tests is parsed only once.
+ *
+ * The number of cached models is bounded by the
+ * <code>nosqlunit.dataset.cache.size</code> system property (128 by default,
+ * 0 disables caching), evicting the least recently used model first.
+ *
+ * Resources bigger than <code>nosqlunit.dataset.cache.max.bytes</code> system
+ * property (4 MB by default) and compressed resources are never cached, so
+ * backends able to stream datasets can load them with bounded memory.
+ */
+public final class ParsedDataSetCache {
+
+	public static final String CACHE_SIZE_PROPERTY = "nosqlunit.dataset.cache.size";
+	public static final String MAX_CACHEABLE_BYTES_PROPERTY = "nosqlunit.dataset.cache.max.bytes";
+	private static final int DEFAULT_CACHE_SIZE = 128;
+	private static final long DEFAULT_MAX_CACHEABLE_BYTES = 4 * 1024 * 1024;
+
+	private static final class Key {
+
+		private final String resource;
+		private final long checksum;
+		private final Class<?> parserClass;
+
+		public Key(String resource, long checksum, Class<?> parserClass) {
+			this.resource = resource;
+			this.checksum = checksum;
+			this.parserClass = parserClass;
+		}
+
+		@Override
+		public int hashCode() {
+			final int prime = 31;
+			int result = 1;
+			result = prime * result + resource.hashCode();
+			result = prime * result + (int) (checksum ^ (checksum >>> 32));
+			result = prime * result + parserClass.hashCode();
+			return result;
+		}
+
+		@Override
+		public boolean equals(Object obj) {
+			if (this == obj)
+				return true;
+			if (obj == null || getClass() != obj.getClass())
+				return false;
+			Key other = (Key) obj;
+			return checksum == other.checksum && resource.equals(other.resource)
+					&& parserClass == other.parserClass;
+		}
+
+	}
+
+	private static ParsedDataSetCache parsedDataSetCache;
+
+	private final int maxEntries;
+	private final long maxCacheableBytes;
+	private final Map<Key, Object> parsedDataSets;
+
+	ParsedDataSetCache(final int maxEntries) {
+		this(maxEntries, DEFAULT_MAX_CACHEABLE_BYTES);
+	}
+
+	ParsedDataSetCache(final int maxEntries, final long maxCacheableBytes) {
+		this.maxEntries = maxEntries;
+		this.maxCacheableBytes = maxCacheableBytes;
+		this.parsedDataSets = new LinkedHashMap<Key, Object>(16, 0.75f, true) {
+
+			private static final long serialVersionUID = 1L;
+
+			@Override
+			protected boolean removeEldestEntry(Map.Entry<Key, Object> eldest) {
+				return size() > maxEntries;
+			}
+		};
+	}
+
+	public static synchronized ParsedDataSetCache getInstance() {
+		if (parsedDataSetCache == null) {
+			parsedDataSetCache = new ParsedDataSetCache(Integer.getInteger(CACHE_SIZE_PROPERTY, DEFAULT_CACHE_SIZE),
+					Long.getLong(MAX_CACHEABLE_BYTES_PROPERTY, DEFAULT_MAX_CACHEABLE_BYTES));
+		}
+		return parsedDataSetCache;
+	}
+
+	/**
+	 * Returns the parsed model of given dataset, parsing it only when the same
+	 * classpath resource has not been parsed before by the same kind of parser.
+	 * Streams that do not come from a classpath resource are always parsed.
+	 */
+	@SuppressWarnings("unchecked")
+	public <T> T parse(InputStream dataset, DataSetModelParser<T> parser) throws IOException {
+
+		if (!isCacheable(dataset)) {
+			return parser.parse(dataset);
+		}
+
+		ResourceInputStream resourceInputStream = (ResourceInputStream) dataset;
+		URL resource = resourceInputStream.getResource();
+		Key key = new Key(resource.toExternalForm(), resourceInputStream.checksum(), parser.getClass());
+
+		T model;
+		synchronized (parsedDataSets) {
+			model = (T) parsedDataSets.get(key);
+		}
+
+		if (model != null) {
+			dataset.close();
+			return model;
+		}
+
+		model = parser.parse(dataset);
+
+		if (model != null) {
+			synchronized (parsedDataSets) {
+				parsedDataSets.put(key, model);
+			}
+		}
+
+		return model;
+	}
+
+	public int size() {
+		synchronized (parsedDataSets) {
+			return parsedDataSets.size();
+		}
+	}
+
+	public void clear() {
+		synchronized (parsedDataSets) {
+			parsedDataSets.clear();
+		}
+	}
+
+	/**
+	 * @return true if parsed model of given dataset would be kept in the
+	 *         cache, false if it would be parsed every time.
+	 */
+	public boolean isCacheable(InputStream dataset) throws IOException {
+		if (maxEntries <= 0 || !(dataset instanceof ResourceInputStream)) {
+			return false;
+		}
+
+		ResourceInputStream resourceInputStream = (ResourceInputStream) dataset;
+		return resourceInputStream.getCompression() == DataSetCompression.NONE
+				&& resourceInputStream.length() <= maxCacheableBytes;
+	}
+
+}
@@ -0,0 +1,142 @@
+package com.lordofthejars.nosqlunit.core;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Finds and terminates operating system processes by their id, so a server
+ * started by a JVM can be stopped by another one sharing it.
+ */
+final class ProcessIds {
+
+	static final long UNKNOWN = -1;
+
+	private static final boolean WINDOWS = System.getProperty("os.name", "").toLowerCase().startsWith("windows");
+
+	private ProcessIds() {
+	}
+
+	/**
+	 * @return id of given process, or {@link #UNKNOWN} if it cannot be found,
+	 *         for example on Windows before Java 9.
+	 */
+	static long of(Process process) {
+
+		if (process == null) {
+			return UNKNOWN;
+		}
+
+		try {
+			Method pid = Process.class.getMethod("pid");
+			return ((Number) pid.invoke(process)).longValue();
+		} catch (NoSuchMethodException e) {
+			// before Java 9 id is only kept by UNIXProcess
+		} catch (Exception e) {
+			return UNKNOWN;
+		}
+
+		try {
+			Field pid = process.getClass().getDeclaredField("pid");
+			pid.setAccessible(true);
+			return pid.getLong(process);
+		} catch (Exception e) {
+			return UNKNOWN;
+		}
+	}
+
+	/**
+	 * Start time of given process, so a process id recorded by an earlier
+	 * build can be told apart from the same id reused by an unrelated process.
+	 * It is read from <code>/proc/&lt;pid&gt;/stat</code> when available, and
+	 * otherwise from <code>ProcessHandle</code> of Java 9.
+	 *
+	 * @return start time of given process, or null if it is not running or
+	 *         its start time cannot be found.
+	 */
+	static String startTime(long pid) {
+
+		File stat = new File("/proc/" + pid + "/stat");
+
+		if (stat.isFile()) {
+			try {
+				FileInputStream statStream = new FileInputStream(stat);
+				String content;
+				try {
+					content = IOUtils.readFullStream(statStream);
+				} finally {
+					statStream.close();
+				}
+				// fields after the command name, which may contain spaces, start with the third one
+				String[] fields = content.substring(content.lastIndexOf(')') + 2).trim().split(" ");
+				return fields.length > 19 ? "proc:" + fields[19] : null;
+			} catch (IOException e) {
+				return null;
+			}
+		}
+
+		try {
+			Class<?> processHandle = Class.forName("java.lang.ProcessHandle");
+			Object handle = optionalValue(processHandle.getMethod("of", long.class).invoke(null, pid));
+
+			if (handle == null) {
+				return null;
+			}
+
+			Object info = processHandle.getMethod("info").invoke(handle);
+			Object startInstant = optionalValue(info.getClass().getMethod("startInstant").invoke(info));
+
+			return startInstant == null ? null : "instant:" + startInstant;
+		} catch (Exception e) {
+			return null;
+		}
+	}
+
+	private static Object optionalValue(Object optional) throws Exception {
+		Method isPresent = optional.getClass().getMethod("isPresent");
+		return (Boolean) isPresent.invoke(optional) ? optional.getClass().getMethod("get").invoke(optional) : null;
+	}
+
+	static boolean isRunning(long pid) throws IOException, InterruptedException {
+
+		if (WINDOWS) {
+			Process tasklist = new ProcessBuilder("tasklist", "/NH", "/FI", "PID eq " + pid).redirectErrorStream(true)
+					.start();
+			String output = IOUtils.readFullStream(tasklist.getInputStream());
+			tasklist.waitFor();
+			return output.contains(" " + pid + " ");
+		}
+
+		return new ProcessBuilder("kill", "-0", Long.toString(pid)).redirectErrorStream(true).start().waitFor() == 0;
+	}
+
+	/**
+	 * Asks given process to terminate and waits until it has ended.
+	 *
+	 * @throws IllegalStateException
+	 *             if process is still running when timeout expires.
+	 */
+	static void terminate(final long pid, long timeout, TimeUnit unit) throws IOException, InterruptedException {
+
+		ProcessBuilder kill = WINDOWS ? new ProcessBuilder("taskkill", "/F", "/T", "/PID", Long.toString(pid))
+				: new ProcessBuilder("kill", Long.toString(pid));
+		kill.redirectErrorStream(true).start().waitFor();
+
+		ReadinessProbe terminated = new ReadinessProbe() {
+
+			@Override
+			protected boolean probe() throws Exception {
+				return !isRunning(pid);
+			}
+		};
+
+		if (!terminated.awaitReadiness(timeout, unit)) {
+			throw new IllegalStateException("Process " + pid + " was still running " + timeout + " "
+					+ unit.name().toLowerCase() + " after being asked to terminate.");
+		}
+	}
+
+}
@@ -0,0 +1,208 @@
+package com.lordofthejars.nosqlunit.core;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.regex.Pattern;
+
+/**
+ * Reads the console output of a process keeping only its last lines, so
+ * long-running managed servers use bounded memory and never block writing to
+ * a full pipe.
+ *
+ * Futures registered with {@link #whenLogged(Pattern)} are completed with the
+ * first line matching the pattern, so lifecycle managers can go on as soon as
+ * a server logs it is ready. If output ends before any line matches, futures
+ * are completed exceptionally.
+ *
+ * By default the last {@value #DEFAULT_CAPACITY} lines are kept, which can be
+ * changed with <code>nosqlunit.console.output.lines</code> system property.
+ */
+public class ProcessOutputPump implements Runnable {
+
+	public static final String CAPACITY_PROPERTY = "nosqlunit.console.output.lines";
+
+	public static final int DEFAULT_CAPACITY = 500;
+
+	private static final AtomicInteger NUMBER_OF_PUMPS = new AtomicInteger();
+
+	private static final class ReadyLine {
+
+		private final Pattern readyPattern;
+		private final CompletableFuture<String> line = new CompletableFuture<String>();
+
+		private ReadyLine(Pattern readyPattern) {
+			this.readyPattern = readyPattern;
+		}
+
+	}
+
+	private final InputStream output;
+
+	private final String[] lines;
+	private int nextLine = 0;
+	private int numberOfLines = 0;
+
+	private final List<ReadyLine> readyLines = new ArrayList<ReadyLine>();
+	private final CountDownLatch outputEnded = new CountDownLatch(1);
+
+	public ProcessOutputPump(InputStream output, int capacity) {
+		if (capacity <= 0) {
+			throw new IllegalArgumentException("Capacity of output pump should be positive but was " + capacity);
+		}
+
+		this.output = output;
+		this.lines = new String[capacity];
+	}
+
+	/**
+	 * Starts reading output of given process in a daemon thread.
+	 */
+	public static ProcessOutputPump start(Process process) {
+		return start(process, configuredCapacity());
+	}
+
+	/**
+	 * @return number of lines kept by pumps started without an explicit
+	 *         capacity.
+	 */
+	public static int configuredCapacity() {
+		return Integer.getInteger(CAPACITY_PROPERTY, DEFAULT_CAPACITY);
+	}
+
+	public static ProcessOutputPump start(Process process, int capacity) {
+		ProcessOutputPump processOutputPump = new ProcessOutputPump(process.getInputStream(), capacity);
+
+		Thread thread = new Thread(processOutputPump, "nosqlunit-output-pump-" + NUMBER_OF_PUMPS.incrementAndGet());
+		thread.setDaemon(true);
+		thread.start();
+
+		return processOutputPump;
+	}
+
+	/**
+	 * Reads output until it ends. Called by pump thread, or directly to read
+	 * output of a short-lived process in current thread.
+	 */
+	@Override
+	public void run() {
+		try {
+			if (output != null) {
+				pump();
+			}
+		} catch (IOException e) {
+			// Output is closed when process is destroyed.
+		} finally {
+			outputEnded.countDown();
+			failPendingReadyLines();
+		}
+	}
+
+	/**
+	 * @return future completed with first line of output matching given
+	 *         pattern, including lines still kept from the output already
+	 *         read.
+	 */
+	public CompletableFuture<String> whenLogged(Pattern readyPattern) {
+
+		ReadyLine readyLine = new ReadyLine(readyPattern);
+
+		synchronized (lines) {
+			for (String line : getLines()) {
+				if (readyPattern.matcher(line).find()) {
+					readyLine.line.complete(line);
+					return readyLine.line;
+				}
+			}
+
+			readyLines.add(readyLine);
+		}
+
+		if (outputEnded.getCount() == 0) {
+			failPendingReadyLines();
+		}
+
+		return readyLine.line;
+	}
+
+	/**
+	 * @return last lines of output, oldest first.
+	 */
+	public List<String> getLines() {
+		synchronized (lines) {
+			List<String> lastLines = new ArrayList<String>(numberOfLines);
+			int firstLine = (nextLine - numberOfLines + lines.length) % lines.length;
+
+			for (int i = 0; i < numberOfLines; i++) {
+				lastLines.add(lines[(firstLine + i) % lines.length]);
+			}
+
+			return lastLines;
+		}
+	}
+
+	/**
+	 * Waits until output ends.
+	 *
+	 * @return true if output ended, false if timeout expired.
+	 */
+	public boolean awaitEnd(long timeout, TimeUnit unit) throws InterruptedException {
+		return outputEnded.await(timeout, unit);
+	}
+
+	private void pump() throws IOException {
+		BufferedReader outputReader = new BufferedReader(new InputStreamReader(output));
+
+		try {
+			String line;
+			while ((line = outputReader.readLine()) != null) {
+				addLine(line);
+			}
+		} finally {
+			outputReader.close();
+		}
+	}
+
+	private void addLine(String line) {
+		synchronized (lines) {
+			lines[nextLine] = line;
+			nextLine = (nextLine + 1) % lines.length;
+			numberOfLines = Math.min(numberOfLines + 1, lines.length);
+
+			if (readyLines.isEmpty()) {
+				return;
+			}
+
+			Iterator<ReadyLine> readyLinesIterator = readyLines.iterator();
+
+			while (readyLinesIterator.hasNext()) {
+				ReadyLine readyLine = readyLinesIterator.next();
+
+				if (readyLine.readyPattern.matcher(line).find()) {
+					readyLine.line.complete(line);
+					readyLinesIterator.remove();
+				}
+			}
+		}
+	}
+
+	private void failPendingReadyLines() {
+		synchronized (lines) {
+			for (ReadyLine readyLine : readyLines) {
+				readyLine.line.completeExceptionally(new IllegalStateException(
+						"Process output ended before a line matching " + readyLine.readyPattern + " was logged."));
+			}
+
+			readyLines.clear();
+		}
+	}
+
+}
@@ -0,0 +1,113 @@
+package com.lordofthejars.nosqlunit.core;
+
+import java.net.HttpURLConnection;
+import java.net.URL;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Checks whether an engine is ready to be used. Instead of sleeping a fixed
+ * time, lifecycle managers poll the probe with an exponential backoff, so
+ * engines are used as soon as they are ready.
+ *
+ * Polling starts every {@value #INITIAL_INTERVAL_MILLIS} ms, doubling the
+ * interval after each unsuccessful attempt up to
+ * {@value #MAX_INTERVAL_MILLIS} ms. Exceptions thrown while probing are
+ * considered as not ready yet, and the last one is kept to report why an
+ * engine never became ready.
+ */
+public abstract class ReadinessProbe {
+
+	public static final long INITIAL_INTERVAL_MILLIS = 10;
+	public static final long MAX_INTERVAL_MILLIS = 1000;
+
+	private static final int CONNECTION_TIMEOUT_MILLIS = 1000;
+
+	private volatile Exception lastFailure;
+
+	/**
+	 * @return true if engine is ready.
+	 */
+	protected abstract boolean probe() throws Exception;
+
+	public boolean isReady() {
+		try {
+			boolean ready = probe();
+			if (ready) {
+				lastFailure = null;
+			}
+			return ready;
+		} catch (Exception e) {
+			lastFailure = e;
+			return false;
+		}
+	}
+
+	/**
+	 * Polls the probe until it is ready or timeout expires.
+	 *
+	 * @return true if engine became ready, false if timeout expired.
+	 */
+	public boolean awaitReadiness(long timeout, TimeUnit unit) throws InterruptedException {
+
+		long deadline = System.nanoTime() + unit.toNanos(timeout);
+		long interval = INITIAL_INTERVAL_MILLIS;
+
+		while (!isReady()) {
+
+			long remaining = TimeUnit.NANOSECONDS.toMillis(deadline - System.nanoTime());
+
+			if (remaining <= 0) {
+				return false;
+			}
+
+			TimeUnit.MILLISECONDS.sleep(Math.min(interval, remaining));
+			interval = Math.min(interval * 2, MAX_INTERVAL_MILLIS);
+		}
+
+		return true;
+	}
+
+	/**
+	 * @return exception thrown by last unsuccessful probe, or null if it just
+	 *         returned false.
+	 */
+	public Exception getLastFailure() {
+		return lastFailure;
+	}
+
+	/**
+	 * Probe ready when given url answers with a successful HTTP status.
+	 */
+	public static ReadinessProbe httpStatus(final String url) {
+		return new ReadinessProbe() {
+
+			@Override
+			protected boolean probe() throws Exception {
+				HttpURLConnection connection = (HttpURLConnection) new URL(url).openConnection();
+				connection.setConnectTimeout(CONNECTION_TIMEOUT_MILLIS);
+				connection.setReadTimeout(CONNECTION_TIMEOUT_MILLIS);
+
+				try {
+					int status = connection.getResponseCode();
+					return status >= 200 && status < 300;
+				} finally {
+					connection.disconnect();
+				}
+			}
+		};
+	}
+
+	/**
+	 * Probe ready when given process has exited.
+	 */
+	public static ReadinessProbe processTerminated(final Process process) {
+		return new ReadinessProbe() {
+
+			@Override
+			protected boolean probe() {
+				return !process.isAlive();
+			}
+		};
+	}
+
+}
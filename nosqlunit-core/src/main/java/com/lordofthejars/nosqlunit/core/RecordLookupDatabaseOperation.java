@@ -0,0 +1,30 @@
+package com.lordofthejars.nosqlunit.core;
+
+import java.util.Map;
+
+/**
+ * Implemented by {@link RecordStreamingDatabaseOperation}s able to count
+ * stored records and to find a stored record by its key, so
+ * {@link ComparisonMode#SAMPLE} mode only reads sampled records instead of
+ * scanning whole collections.
+ */
+public interface RecordLookupDatabaseOperation {
+
+	/**
+	 * @return number of records stored in given collection.
+	 */
+	long countStoredRecords(String collection);
+
+	/**
+	 * @return key identifying given expected record, or null if it has none,
+	 *         in which case its collection is scanned.
+	 */
+	Object recordKey(Map<String, Object> record);
+
+	/**
+	 * @return record stored in given collection with given key, or null if
+	 *         there is none.
+	 */
+	Map<String, Object> storedRecord(String collection, Object key);
+
+}
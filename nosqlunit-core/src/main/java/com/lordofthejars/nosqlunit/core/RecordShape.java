@@ -0,0 +1,28 @@
+package com.lordofthejars.nosqlunit.core;
+
+/**
+ * Shape of generated records, as accepted by a
+ * {@link GeneratedDataSetOperation}.
+ */
+public enum RecordShape {
+
+	/**
+	 * Document with generated fields, stored in a collection or index.
+	 */
+	DOCUMENT,
+	/**
+	 * Key built from template and record index, with generated fields as
+	 * value.
+	 */
+	KEY_VALUE,
+	/**
+	 * Node identified by template and record index, with generated fields as
+	 * properties.
+	 */
+	GRAPH,
+	/**
+	 * Row keyed by record index with generated fields as columns.
+	 */
+	ROW
+
+}
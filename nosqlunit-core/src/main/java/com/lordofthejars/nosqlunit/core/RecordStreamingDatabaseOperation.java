@@ -0,0 +1,44 @@
+package com.lordofthejars.nosqlunit.core;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Iterator;
+import java.util.Map;
+
+/**
+ * Implemented by {@link DatabaseOperation}s whose expected datasets can be
+ * compared in {@link ComparisonMode#DIGEST} or {@link ComparisonMode#SAMPLE}
+ * modes. Records are handed one at a time, so neither expected dataset nor
+ * database content are fully held in memory.
+ *
+ * Records of both sides should be read into the same types, so equal records
+ * are equal maps.
+ */
+public interface RecordStreamingDatabaseOperation {
+
+	/**
+	 * Receives each collection of an expected dataset, followed by its
+	 * records.
+	 */
+	interface ExpectedRecordHandler {
+		void collection(String collection);
+
+		void record(String collection, Map<String, Object> record);
+	}
+
+	/**
+	 * Reads expected dataset handing each record with the name of its
+	 * collection.
+	 */
+	void readExpectedRecords(InputStream expectedData, ExpectedRecordHandler expectedRecordHandler)
+			throws IOException;
+
+	/**
+	 * @return records stored in given collection, read while they are
+	 *         iterated. Iterators holding resources, like cursors, should
+	 *         implement {@link java.io.Closeable}, so they are closed once
+	 *         comparison ends, even when it fails.
+	 */
+	Iterator<Map<String, Object>> storedRecords(String collection);
+
+}
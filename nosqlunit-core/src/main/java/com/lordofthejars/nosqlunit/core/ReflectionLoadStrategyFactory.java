@@ -2,9 +2,13 @@ package com.lordofthejars.nosqlunit.core;
 
 import java.lang.reflect.Constructor;
 import java.lang.reflect.InvocationTargetException;
+import java.util.EnumMap;
+import java.util.Map;
 
 public class ReflectionLoadStrategyFactory implements LoadStrategyFactory {
 
+	private static final Map<LoadStrategyEnum, Constructor<? extends LoadStrategyOperation>> CONSTRUCTORS = loadConstructors();
+
 	public ReflectionLoadStrategyFactory() {
 		super();
 	}
@@ -14,16 +18,16 @@ public class ReflectionLoadStrategyFactory implements LoadStrategyFactory {
 	 */
 	@Override
 	public LoadStrategyOperation getLoadStrategyInstance(LoadStrategyEnum loadStrategyEnum, DatabaseOperation databaseOperation) {
-		
+
+		Constructor<? extends LoadStrategyOperation> constructor = CONSTRUCTORS.get(loadStrategyEnum);
+
+		if (constructor == null) {
+			throw new IllegalArgumentException(new NoSuchMethodException(loadStrategyEnum.loadStrategy().getName()
+					+ ".<init>(" + DatabaseOperation.class.getName() + ")"));
+		}
+
 		try {
-			Constructor<? extends LoadStrategyOperation> constructor = loadStrategyEnum.loadStrategy().getConstructor(DatabaseOperation.class);
-			constructor.setAccessible(true);
-			
 			return constructor.newInstance(databaseOperation);
-		} catch (SecurityException e) {
-			throw new IllegalArgumentException(e);
-		} catch (NoSuchMethodException e) {
-			throw new IllegalArgumentException(e);
 		} catch (IllegalArgumentException e) {
 			throw new IllegalArgumentException(e);
 		} catch (InstantiationException e) {
@@ -34,4 +38,23 @@ public class ReflectionLoadStrategyFactory implements LoadStrategyFactory {
 			throw new IllegalArgumentException(e);
 		}
 	}
+
+	private static Map<LoadStrategyEnum, Constructor<? extends LoadStrategyOperation>> loadConstructors() {
+
+		Map<LoadStrategyEnum, Constructor<? extends LoadStrategyOperation>> constructors = new EnumMap<LoadStrategyEnum, Constructor<? extends LoadStrategyOperation>>(
+				LoadStrategyEnum.class);
+
+		for (LoadStrategyEnum loadStrategyEnum : LoadStrategyEnum.values()) {
+			try {
+				Constructor<? extends LoadStrategyOperation> constructor = loadStrategyEnum.loadStrategy()
+						.getConstructor(DatabaseOperation.class);
+				constructor.setAccessible(true);
+				constructors.put(loadStrategyEnum, constructor);
+			} catch (NoSuchMethodException e) {
+				// reported when the load strategy is requested
+			}
+		}
+
+		return constructors;
+	}
 }
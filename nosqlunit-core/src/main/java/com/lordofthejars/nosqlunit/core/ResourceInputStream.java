@@ -0,0 +1,95 @@
+package com.lordofthejars.nosqlunit.core;
+
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URL;
+import java.net.URLConnection;
+import java.util.zip.CRC32;
+
+/**
+ * Dataset stream opened from a classpath resource. It behaves as the plain
+ * resource stream but remembers where it comes from, so parsed forms of the
+ * same resource can be shared through {@link ParsedDataSetCache}.
+ */
+public class ResourceInputStream extends FilterInputStream {
+
+	private static final int BUFFER_SIZE = 8192;
+
+	private final URL resource;
+	private final DataSetCompression compression;
+	private final CompiledDataSetFormat compiledFormat;
+
+	public ResourceInputStream(URL resource) throws IOException {
+		this(resource, DataSetCompression.fromLocation(resource.getPath()));
+	}
+
+	private ResourceInputStream(URL resource, DataSetCompression compression) throws IOException {
+		super(compression.decompress(resource.openStream()));
+		this.resource = resource;
+		this.compression = compression;
+		this.compiledFormat = CompiledDataSetFormat.fromLocation(resource.getPath());
+	}
+
+	public URL getResource() {
+		return resource;
+	}
+
+	/**
+	 * Compression of the resource, which is transparently decompressed while
+	 * this stream is read.
+	 */
+	public DataSetCompression getCompression() {
+		return compression;
+	}
+
+	/**
+	 * Binary format of the resource if it has been compiled at build time, so
+	 * it must be decoded instead of parsed as text.
+	 */
+	public CompiledDataSetFormat getCompiledFormat() {
+		return compiledFormat;
+	}
+
+	/**
+	 * @return size in bytes of the resource as stored, or -1 if it is not
+	 *         known.
+	 */
+	public long length() throws IOException {
+		URLConnection connection = resource.openConnection();
+		connection.setUseCaches(false);
+
+		try {
+			return connection.getContentLengthLong();
+		} finally {
+			connection.getInputStream().close();
+		}
+	}
+
+	/**
+	 * CRC32 of the whole resource content as stored. It is read from a new stream, so
+	 * this stream is not consumed.
+	 */
+	public long checksum() throws IOException {
+		CRC32 crc = new CRC32();
+		InputStream content = resource.openStream();
+
+		try {
+			byte[] buffer = new byte[BUFFER_SIZE];
+			int read;
+			while ((read = content.read(buffer)) != -1) {
+				crc.update(buffer, 0, read);
+			}
+		} finally {
+			content.close();
+		}
+
+		return crc.getValue();
+	}
+
+	@Override
+	public String toString() {
+		return resource.toExternalForm();
+	}
+
+}
@@ -0,0 +1,122 @@
+package com.lordofthejars.nosqlunit.core;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Clean and insert datasets only when they are not the ones seeded by previous
+ * test or database has been modified since they were seeded. Database is only
+ * considered clean when its {@link DatabaseOperation} implements
+ * {@link StateTrackingDatabaseOperation}, all datasets come from classpath and
+ * the identifier of the rule is known, otherwise it behaves as
+ * {@link CleanInsertLoadStrategyOperation}.
+ */
+public class ReuseIfCleanLoadStrategyOperation implements DataSetLoadingStrategyOperation {
+
+	private static final Logger LOGGER = LoggerFactory.getLogger(ReuseIfCleanLoadStrategyOperation.class);
+
+	private DatabaseOperation databaseOperation;
+	private SeededDataSetRegistry seededDataSetRegistry;
+	private String identifier;
+	private DataSetLoader dataSetLoader = DataSetLoader.SEQUENTIAL;
+
+	public ReuseIfCleanLoadStrategyOperation(DatabaseOperation databaseOperation) {
+		this(databaseOperation, SeededDataSetRegistry.getInstance());
+	}
+
+	ReuseIfCleanLoadStrategyOperation(DatabaseOperation databaseOperation,
+			SeededDataSetRegistry seededDataSetRegistry) {
+		this.databaseOperation = databaseOperation;
+		this.seededDataSetRegistry = seededDataSetRegistry;
+	}
+
+	public void setIdentifier(String identifier) {
+		this.identifier = identifier;
+	}
+
+	@Override
+	public void setDataSetLoader(DataSetLoader dataSetLoader) {
+		this.dataSetLoader = dataSetLoader;
+	}
+
+	@Override
+	public void executeScripts(InputStream[] contentDataset) {
+
+		LOGGER.debug("Calling Reuse If Clean Load Strategy.");
+
+		List<String> fingerprint = fingerprint(contentDataset);
+
+		if (isReusable(fingerprint)) {
+
+			if (this.seededDataSetRegistry.isUnchanged(this.identifier, fingerprint, databaseState())) {
+				LOGGER.debug("Database has not been modified since datasets were inserted, reusing them.");
+				close(contentDataset);
+				return;
+			}
+
+			this.seededDataSetRegistry.forget(this.identifier);
+			cleanInsert(contentDataset);
+
+			Object databaseState = databaseState();
+			if (databaseState != null) {
+				this.seededDataSetRegistry.seeded(this.identifier, fingerprint, databaseState);
+			}
+
+		} else {
+			cleanInsert(contentDataset);
+		}
+	}
+
+	private void cleanInsert(InputStream[] contentDataset) {
+		CleanInsertLoadStrategyOperation cleanInsertLoadStrategyOperation = new CleanInsertLoadStrategyOperation(
+				this.databaseOperation);
+		cleanInsertLoadStrategyOperation.setDataSetLoader(this.dataSetLoader);
+		cleanInsertLoadStrategyOperation.executeScripts(contentDataset);
+	}
+
+	private boolean isReusable(List<String> fingerprint) {
+		return this.identifier != null && fingerprint != null
+				&& this.databaseOperation instanceof StateTrackingDatabaseOperation;
+	}
+
+	private Object databaseState() {
+		return ((StateTrackingDatabaseOperation) this.databaseOperation).databaseState();
+	}
+
+	private List<String> fingerprint(InputStream[] contentDataset) {
+
+		List<String> fingerprint = new ArrayList<String>(contentDataset.length);
+
+		for (InputStream dataScript : contentDataset) {
+			if (!(dataScript instanceof ResourceInputStream)) {
+				return null;
+			}
+
+			ResourceInputStream resourceInputStream = (ResourceInputStream) dataScript;
+			try {
+				fingerprint.add(resourceInputStream.getResource().toExternalForm() + "#"
+						+ resourceInputStream.checksum());
+			} catch (IOException e) {
+				return null;
+			}
+		}
+
+		return fingerprint;
+	}
+
+	private void close(InputStream[] contentDataset) {
+		for (InputStream dataScript : contentDataset) {
+			try {
+				dataScript.close();
+			} catch (IOException e) {
+				LOGGER.debug("Dataset stream could not be closed.", e);
+			}
+		}
+	}
+
+}
@@ -0,0 +1,46 @@
+package com.lordofthejars.nosqlunit.core;
+
+import java.io.InputStream;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Opens a transaction and inserts datasets inside it. The transaction is
+ * rolled back when the test finishes, so database is left as it was without
+ * deleting its content. Datasets are always inserted sequentially because
+ * transactions may be bound to the thread that opens them.
+ */
+public class RollbackLoadStrategyOperation implements LoadStrategyOperation {
+
+	private static final Logger LOGGER = LoggerFactory.getLogger(RollbackLoadStrategyOperation.class);
+
+	private DatabaseOperation databaseOperation;
+
+	public RollbackLoadStrategyOperation(DatabaseOperation databaseOperation) {
+		this.databaseOperation = databaseOperation;
+	}
+
+	@Override
+	public void executeScripts(InputStream[] contentDataset) {
+
+		LOGGER.debug("Calling Rollback Load Strategy.");
+
+		if (!(this.databaseOperation instanceof TransactionalDatabaseOperation)) {
+			throw new IllegalArgumentException(this.databaseOperation.getClass().getName()
+					+ " does not support transactions, so " + LoadStrategyEnum.ROLLBACK
+					+ " load strategy cannot be used.");
+		}
+
+		TransactionalDatabaseOperation transactionalDatabaseOperation = (TransactionalDatabaseOperation) this.databaseOperation;
+		transactionalDatabaseOperation.beginTransaction();
+
+		try {
+			DataSetLoader.SEQUENTIAL.insert(this.databaseOperation, contentDataset);
+		} catch (RuntimeException e) {
+			transactionalDatabaseOperation.rollbackTransaction();
+			throw e;
+		}
+	}
+
+}
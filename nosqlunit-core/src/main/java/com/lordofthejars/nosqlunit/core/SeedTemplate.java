@@ -0,0 +1,358 @@
+package com.lordofthejars.nosqlunit.core;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.FileAlreadyExistsException;
+import java.nio.file.FileVisitResult;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.SimpleFileVisitor;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Data directory of a managed engine prepared once, with schema and base
+ * fixtures, and cloned into the engine data directory before each start, so
+ * starting an engine costs a directory copy instead of a full load through the
+ * client.
+ *
+ * Templates created with seed datasets are stored in a directory named after
+ * a digest of their contents, so they are prepared again when datasets change.
+ * When template does not exist yet, the engine starts from an empty data
+ * directory and awaits its seeding: once a rule has loaded the seed datasets
+ * with <code>CLEAN_INSERT</code> strategy, so no data of previous tests is
+ * kept, the engine is restarted and its data directory becomes the template, before
+ * the test modifies it. Templates without seed datasets are only cloned, so
+ * they must be prepared beforehand.
+ */
+public class SeedTemplate {
+
+	private static final Logger LOGGER = LoggerFactory.getLogger(SeedTemplate.class);
+
+	private static final String DIGEST_ALGORITHM = "SHA-256";
+
+	private static final Map<String, List<Runnable>> PENDING_CAPTURES = new HashMap<String, List<Runnable>>();
+
+	public static final String DEFAULT_TEMPLATES_PATH = "target" + File.separatorChar + "nosqlunit-templates";
+
+	public enum CloneStrategy {
+		/**
+		 * Files are copied. Safe for engines updating data files in place.
+		 */
+		COPY,
+		/**
+		 * Files are hard linked, falling back to a copy when file system does
+		 * not support it. Only for engines that never update data files in
+		 * place, otherwise template is modified too.
+		 */
+		HARD_LINK
+	}
+
+	private final File templateDirectory;
+	private final CloneStrategy cloneStrategy;
+	private final String seedDigest;
+
+	public SeedTemplate(File templateDirectory) {
+		this(templateDirectory, CloneStrategy.COPY);
+	}
+
+	public SeedTemplate(File templateDirectory, CloneStrategy cloneStrategy) {
+		this.templateDirectory = templateDirectory;
+		this.cloneStrategy = cloneStrategy;
+		this.seedDigest = null;
+	}
+
+	/**
+	 * @param templatesDirectory
+	 *            directory where templates of each version of seed datasets
+	 *            are stored.
+	 * @param seedDataSets
+	 *            classpath locations of datasets loaded as base fixtures.
+	 */
+	public SeedTemplate(File templatesDirectory, CloneStrategy cloneStrategy, String... seedDataSets) {
+
+		if (seedDataSets.length == 0) {
+			throw new IllegalArgumentException("At least one seed dataset is required.");
+		}
+
+		List<InputStream> dataSets = new ArrayList<InputStream>();
+
+		for (String seedDataSet : seedDataSets) {
+			String location = seedDataSet.startsWith("/") ? seedDataSet : "/" + seedDataSet;
+			InputStream dataSet = IOUtils.getStreamFromClasspathBaseResource(SeedTemplate.class, location);
+
+			if (dataSet == null) {
+				closeAll(dataSets);
+				throw new IllegalArgumentException("Seed dataset " + seedDataSet + " is not present in classpath.");
+			}
+
+			dataSets.add(dataSet);
+		}
+
+		this.seedDigest = digest(dataSets);
+		this.templateDirectory = new File(templatesDirectory, this.seedDigest);
+		this.cloneStrategy = cloneStrategy;
+	}
+
+	/**
+	 * @return template stored in a directory with given name under
+	 *         {@link #DEFAULT_TEMPLATES_PATH}.
+	 */
+	public static SeedTemplate named(String name) {
+		return new SeedTemplate(new File(DEFAULT_TEMPLATES_PATH, name));
+	}
+
+	/**
+	 * @return template prepared by loading given seed datasets, stored under
+	 *         given directory, or template stored in given directory and
+	 *         prepared beforehand if there are no seed datasets.
+	 */
+	public static SeedTemplate of(File templatesDirectory, String... seedDataSets) {
+		return seedDataSets.length == 0 ? new SeedTemplate(templatesDirectory)
+				: new SeedTemplate(templatesDirectory, CloneStrategy.COPY, seedDataSets);
+	}
+
+	public boolean isPrepared() {
+		return this.templateDirectory.isDirectory();
+	}
+
+	public File getTemplateDirectory() {
+		return templateDirectory;
+	}
+
+	/**
+	 * Registers given capture to be run once a rule has loaded the seed
+	 * datasets of this template. Capture is expected to stop the engine,
+	 * call {@link #captureIfNotPrepared(File)} and start it again.
+	 *
+	 * @return true if capture has been registered, false if template is
+	 *         already prepared or has no seed datasets.
+	 */
+	public boolean awaitSeeding(Runnable capture) {
+
+		if (this.seedDigest == null || isPrepared()) {
+			return false;
+		}
+
+		synchronized (PENDING_CAPTURES) {
+			List<Runnable> captures = PENDING_CAPTURES.get(this.seedDigest);
+
+			if (captures == null) {
+				captures = new ArrayList<Runnable>();
+				PENDING_CAPTURES.put(this.seedDigest, captures);
+			}
+
+			captures.add(capture);
+		}
+
+		return true;
+	}
+
+	/**
+	 * Unregisters given capture, for example because engine is stopped
+	 * before its seed datasets have been loaded.
+	 */
+	public void cancelSeeding(Runnable capture) {
+
+		if (this.seedDigest == null) {
+			return;
+		}
+
+		synchronized (PENDING_CAPTURES) {
+			List<Runnable> captures = PENDING_CAPTURES.get(this.seedDigest);
+
+			if (captures != null && captures.remove(capture) && captures.isEmpty()) {
+				PENDING_CAPTURES.remove(this.seedDigest);
+			}
+		}
+	}
+
+	public static boolean isAwaitingSeeding() {
+		synchronized (PENDING_CAPTURES) {
+			return !PENDING_CAPTURES.isEmpty();
+		}
+	}
+
+	/**
+	 * Called by rules once given datasets have been loaded into an engine
+	 * started without data, so templates seeded with the same datasets, in
+	 * any order, are captured. Streams are closed.
+	 */
+	public static void seeded(List<InputStream> dataSets) {
+
+		String digest = digest(dataSets);
+		List<Runnable> captures;
+
+		synchronized (PENDING_CAPTURES) {
+			captures = PENDING_CAPTURES.remove(digest);
+		}
+
+		if (captures != null) {
+			for (Runnable capture : captures) {
+				capture.run();
+			}
+		}
+	}
+
+	/**
+	 * Clones template into given data directory if it is prepared.
+	 *
+	 * @return true if template was cloned, false if it is not prepared yet.
+	 */
+	public boolean cloneInto(File dataDirectory) {
+
+		if (!isPrepared()) {
+			return false;
+		}
+
+		try {
+			copyTree(this.templateDirectory.toPath(), dataDirectory.toPath(), this.cloneStrategy);
+		} catch (IOException e) {
+			throw new IllegalStateException("Seed template " + this.templateDirectory + " could not be cloned into "
+					+ dataDirectory + ".", e);
+		}
+
+		return true;
+	}
+
+	/**
+	 * Stores given data directory as template if it is not prepared yet. Data
+	 * directory should only be captured once engine has been stopped, so its
+	 * files are consistent.
+	 *
+	 * @return true if data directory has been stored as template.
+	 */
+	public boolean captureIfNotPrepared(File dataDirectory) {
+
+		if (isPrepared() || !dataDirectory.isDirectory()) {
+			return false;
+		}
+
+		File parentDirectory = this.templateDirectory.getAbsoluteFile().getParentFile();
+		File preparingDirectory = new File(parentDirectory, "." + this.templateDirectory.getName() + "-"
+				+ UUID.randomUUID());
+
+		try {
+			copyTree(dataDirectory.toPath(), preparingDirectory.toPath(), CloneStrategy.COPY);
+			Files.move(preparingDirectory.toPath(), this.templateDirectory.toPath(), StandardCopyOption.ATOMIC_MOVE);
+			return true;
+		} catch (FileAlreadyExistsException e) {
+			// Template has been prepared concurrently by another process.
+			return false;
+		} catch (IOException e) {
+			if (isPrepared()) {
+				return false;
+			}
+			throw new IllegalStateException("Seed template " + this.templateDirectory + " could not be captured from "
+					+ dataDirectory + ".", e);
+		} finally {
+			if (preparingDirectory.exists()) {
+				IOUtils.deleteDir(preparingDirectory);
+			}
+		}
+	}
+
+	/**
+	 * @return digest of given datasets which does not depend on their order.
+	 */
+	private static String digest(List<InputStream> dataSets) {
+
+		try {
+			List<String> dataSetDigests = new ArrayList<String>();
+
+			for (InputStream dataSet : dataSets) {
+				MessageDigest messageDigest = MessageDigest.getInstance(DIGEST_ALGORITHM);
+				byte[] buffer = new byte[8192];
+				int read;
+
+				while ((read = dataSet.read(buffer)) != -1) {
+					messageDigest.update(buffer, 0, read);
+				}
+
+				dataSetDigests.add(toHex(messageDigest.digest()));
+			}
+
+			Collections.sort(dataSetDigests);
+
+			MessageDigest messageDigest = MessageDigest.getInstance(DIGEST_ALGORITHM);
+
+			for (String dataSetDigest : dataSetDigests) {
+				messageDigest.update(dataSetDigest.getBytes("UTF-8"));
+			}
+
+			return toHex(messageDigest.digest());
+		} catch (NoSuchAlgorithmException e) {
+			throw new IllegalStateException(e);
+		} catch (IOException e) {
+			throw new IllegalArgumentException("Seed datasets could not be read.", e);
+		} finally {
+			closeAll(dataSets);
+		}
+	}
+
+	private static String toHex(byte[] bytes) {
+		StringBuilder hex = new StringBuilder();
+
+		for (byte value : bytes) {
+			hex.append(String.format("%02x", value));
+		}
+
+		return hex.toString();
+	}
+
+	private static void closeAll(List<InputStream> dataSets) {
+		for (InputStream dataSet : dataSets) {
+			try {
+				dataSet.close();
+			} catch (IOException e) {
+				LOGGER.debug("Seed dataset could not be closed.", e);
+			}
+		}
+	}
+
+	private static void copyTree(final Path source, final Path target, final CloneStrategy cloneStrategy)
+			throws IOException {
+
+		Files.walkFileTree(source, new SimpleFileVisitor<Path>() {
+
+			@Override
+			public FileVisitResult preVisitDirectory(Path directory, BasicFileAttributes attributes)
+					throws IOException {
+				Files.createDirectories(target.resolve(source.relativize(directory)));
+				return FileVisitResult.CONTINUE;
+			}
+
+			@Override
+			public FileVisitResult visitFile(Path file, BasicFileAttributes attributes) throws IOException {
+				Path targetFile = target.resolve(source.relativize(file));
+
+				if (cloneStrategy == CloneStrategy.HARD_LINK) {
+					try {
+						Files.createLink(targetFile, file);
+						return FileVisitResult.CONTINUE;
+					} catch (UnsupportedOperationException e) {
+						// Falls back to copy.
+					} catch (IOException e) {
+						// Falls back to copy, for example across file systems.
+					}
+				}
+
+				Files.copy(file, targetFile, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.COPY_ATTRIBUTES);
+				return FileVisitResult.CONTINUE;
+			}
+		});
+	}
+
+}
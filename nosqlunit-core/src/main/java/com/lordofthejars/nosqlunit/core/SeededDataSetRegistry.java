@@ -0,0 +1,57 @@
+package com.lordofthejars.nosqlunit.core;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Remembers which datasets were seeded by each rule identifier and the state
+ * of the database right after seeding them.
+ */
+public final class SeededDataSetRegistry {
+
+	private static final class SeededDataSets {
+
+		private final List<String> fingerprint;
+		private final Object databaseState;
+
+		public SeededDataSets(List<String> fingerprint, Object databaseState) {
+			this.fingerprint = fingerprint;
+			this.databaseState = databaseState;
+		}
+
+	}
+
+	private static SeededDataSetRegistry seededDataSetRegistry;
+
+	private final Map<String, SeededDataSets> seededDataSets = new HashMap<String, SeededDataSets>();
+
+	SeededDataSetRegistry() {
+		super();
+	}
+
+	public static synchronized SeededDataSetRegistry getInstance() {
+		if (seededDataSetRegistry == null) {
+			seededDataSetRegistry = new SeededDataSetRegistry();
+		}
+		return seededDataSetRegistry;
+	}
+
+	/**
+	 * @return true if given datasets were the last seeded ones by identifier
+	 *         and database has not been modified since then.
+	 */
+	public synchronized boolean isUnchanged(String identifier, List<String> fingerprint, Object databaseState) {
+		SeededDataSets seeded = seededDataSets.get(identifier);
+		return seeded != null && seeded.fingerprint.equals(fingerprint) && seeded.databaseState.equals(databaseState);
+	}
+
+	public synchronized void seeded(String identifier, List<String> fingerprint, Object databaseState) {
+		seededDataSets.put(identifier, new SeededDataSets(fingerprint, databaseState));
+	}
+
+	public synchronized void forget(String identifier) {
+		seededDataSets.remove(identifier);
+	}
+
+}
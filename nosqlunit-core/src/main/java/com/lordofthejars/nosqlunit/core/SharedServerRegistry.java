@@ -0,0 +1,477 @@
+package com.lordofthejars.nosqlunit.core;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.RandomAccessFile;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.channels.OverlappingFileLockException;
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Properties;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.lordofthejars.nosqlunit.core.ConnectionManagement.ConnectionCallback;
+
+/**
+ * Shares managed servers between the JVMs running tests of the same project,
+ * for example surefire forks, so a server started by a fork is reused by the
+ * others instead of being started again on each of them.
+ *
+ * Enabled with <code>nosqlunit.shared.servers</code> system property. Each
+ * server has a state file in <code>nosqlunit.shared.servers.directory</code>
+ * (<code>target/nosqlunit-servers</code> by default) recording which JVM owns
+ * it, the id of its process and which JVMs are using it, guarded by a lock
+ * file. A JVM releasing a server still used by others hands its ownership to
+ * one of them, and the last JVM releasing it stops it, terminating its process
+ * if it was started by another JVM. A process is only terminated if its start
+ * time is the one recorded with its id, so an id left by a crashed build and
+ * reused by an unrelated process is never killed. When the id of the process
+ * is unknown,
+ * ownership cannot be handed and the JVM that started the server waits for the
+ * others at most <code>nosqlunit.shared.servers.stop.timeout</code> seconds
+ * (600 by default). JVMs that died without releasing a server are detected
+ * through a lock each JVM holds while it is alive.
+ *
+ * Namespace numbers used by tests of all JVMs are also registered, so tests of
+ * different JVMs isolated on a shared server never get the same namespace.
+ */
+public final class SharedServerRegistry {
+
+	public static final String ENABLED_PROPERTY = "nosqlunit.shared.servers";
+	public static final String DIRECTORY_PROPERTY = "nosqlunit.shared.servers.directory";
+	public static final String STOP_TIMEOUT_PROPERTY = "nosqlunit.shared.servers.stop.timeout";
+
+	private static final String DEFAULT_DIRECTORY = "target" + File.separatorChar + "nosqlunit-servers";
+	private static final long DEFAULT_STOP_TIMEOUT_SECONDS = 600;
+	private static final long TERMINATION_TIMEOUT_SECONDS = 60;
+
+	private static final Logger LOGGER = LoggerFactory.getLogger(SharedServerRegistry.class);
+
+	private static final String SERVER_KEY = "server";
+	private static final String OWNER_KEY = "owner";
+	private static final String PROCESS_KEY = "process";
+	private static final String PROCESS_START_KEY = "process.start";
+	private static final String ATTACHED_KEY = "attached";
+	private static final String SEPARATOR = ",";
+
+	private static SharedServerRegistry sharedServerRegistry;
+
+	private final File directory;
+	private final long stopTimeoutSeconds;
+	private final String jvmId = UUID.randomUUID().toString();
+
+	private final Set<String> ownedServers = Collections.newSetFromMap(new ConcurrentHashMap<String, Boolean>());
+	private final Map<Integer, FileLock> namespaceLocks = new ConcurrentHashMap<Integer, FileLock>();
+
+	private FileLock aliveLock;
+
+	SharedServerRegistry(File directory, long stopTimeoutSeconds) {
+		this.directory = directory;
+		this.stopTimeoutSeconds = stopTimeoutSeconds;
+	}
+
+	public static synchronized SharedServerRegistry getInstance() {
+		if (sharedServerRegistry == null) {
+			sharedServerRegistry = new SharedServerRegistry(
+					new File(System.getProperty(DIRECTORY_PROPERTY, DEFAULT_DIRECTORY)),
+					Long.getLong(STOP_TIMEOUT_PROPERTY, DEFAULT_STOP_TIMEOUT_SECONDS));
+		}
+		return sharedServerRegistry;
+	}
+
+	public static boolean isEnabled() {
+		return Boolean.getBoolean(ENABLED_PROPERTY);
+	}
+
+	/**
+	 * Attaches to given server if another alive JVM is using it, otherwise
+	 * starts it executing given callback.
+	 */
+	public void start(final AbstractLifecycleManager lifecycleManager, final ConnectionCallback startCallback)
+			throws Throwable {
+
+		final String server = serverName(lifecycleManager);
+		final String signature = lifecycleManager.getClass().getName();
+
+		executeLocked(server, new StateAction() {
+
+			@Override
+			public boolean execute(Properties state) throws Throwable {
+
+				Set<String> attached = aliveJvms(state);
+
+				if (!attached.isEmpty()) {
+					if (!signature.equals(state.getProperty(SERVER_KEY))) {
+						throw new IllegalStateException("Server " + server + " is already started by another process as "
+								+ state.getProperty(SERVER_KEY) + " and cannot be shared as " + signature + ".");
+					}
+					if (!isAlive(state.getProperty(OWNER_KEY, ""))) {
+						state.setProperty(OWNER_KEY, attached.iterator().next());
+					}
+					attached.add(jvmId);
+					state.setProperty(ATTACHED_KEY, join(attached));
+					return true;
+				}
+
+				terminateOrphanedProcess(server, state);
+
+				startCallback.execute();
+
+				ownedServers.add(server);
+				state.clear();
+				state.setProperty(SERVER_KEY, signature);
+				state.setProperty(OWNER_KEY, jvmId);
+				state.setProperty(ATTACHED_KEY, jvmId);
+
+				long processId = ProcessIds.of(lifecycleManager.getServerProcess());
+				if (processId != ProcessIds.UNKNOWN) {
+					state.setProperty(PROCESS_KEY, Long.toString(processId));
+
+					String processStart = ProcessIds.startTime(processId);
+					if (processStart != null) {
+						state.setProperty(PROCESS_START_KEY, processStart);
+					}
+				}
+
+				return true;
+			}
+		});
+	}
+
+	/**
+	 * Detaches from given server. If no other JVM is using it, it is stopped
+	 * executing given callback, after terminating its process if it was
+	 * started by another JVM.
+	 */
+	public void stop(AbstractLifecycleManager lifecycleManager, final ConnectionCallback stopCallback)
+			throws Throwable {
+
+		final String server = serverName(lifecycleManager);
+		final boolean startedHere = ownedServers.remove(server);
+		final boolean[] waitForOthers = new boolean[1];
+
+		executeLocked(server, new StateAction() {
+
+			@Override
+			public boolean execute(Properties state) throws Throwable {
+
+				if (state.getProperty(SERVER_KEY) == null) {
+					return false;
+				}
+
+				Set<String> attached = aliveJvms(state);
+				attached.remove(jvmId);
+
+				if (attached.isEmpty()) {
+					if (!startedHere) {
+						terminateOrphanedProcess(server, state);
+					}
+					stopCallback.execute();
+					return false;
+				}
+
+				if (jvmId.equals(state.getProperty(OWNER_KEY))) {
+					if (state.getProperty(PROCESS_KEY) == null) {
+						waitForOthers[0] = true;
+						return true;
+					}
+					state.setProperty(OWNER_KEY, attached.iterator().next());
+				}
+
+				state.setProperty(ATTACHED_KEY, join(attached));
+				return true;
+			}
+		});
+
+		if (waitForOthers[0]) {
+			stopWhenUnusedByOthers(server, stopCallback);
+		}
+	}
+
+	/**
+	 * Registers given namespace number as used by this JVM.
+	 *
+	 * @return false if it is already used by another JVM.
+	 */
+	public boolean lockNamespace(int index) {
+
+		try {
+			ensureAlive();
+
+			FileChannel namespaceChannel = new RandomAccessFile(new File(directory, "namespace-" + index + ".lock"), "rw")
+					.getChannel();
+			FileLock namespaceLock = null;
+
+			try {
+				namespaceLock = namespaceChannel.tryLock();
+			} catch (OverlappingFileLockException e) {
+				// already locked by another registry of this JVM
+			}
+
+			if (namespaceLock == null) {
+				namespaceChannel.close();
+				return false;
+			}
+
+			namespaceLocks.put(index, namespaceLock);
+			return true;
+		} catch (IOException e) {
+			throw new IllegalStateException("Namespace " + index + " could not be registered in " + directory + ".", e);
+		}
+	}
+
+	public void unlockNamespace(int index) {
+
+		FileLock namespaceLock = namespaceLocks.remove(index);
+
+		if (namespaceLock != null) {
+			try {
+				namespaceLock.channel().close();
+			} catch (IOException e) {
+				throw new IllegalStateException("Namespace " + index + " could not be released in " + directory + ".", e);
+			}
+		}
+	}
+
+	private void terminateOrphanedProcess(String server, Properties state) throws Exception {
+
+		String processId = state.getProperty(PROCESS_KEY);
+
+		if (processId == null || !ProcessIds.isRunning(Long.parseLong(processId))) {
+			return;
+		}
+
+		String processStart = state.getProperty(PROCESS_START_KEY);
+
+		if (processStart == null || !processStart.equals(ProcessIds.startTime(Long.parseLong(processId)))) {
+			LOGGER.warn("Process {} recorded for server {} cannot be told apart from an unrelated process "
+					+ "with the same id, so it is not terminated.", processId, server);
+			return;
+		}
+
+		LOGGER.info("Terminating process {} of server {} started by another process.", processId, server);
+		ProcessIds.terminate(Long.parseLong(processId), TERMINATION_TIMEOUT_SECONDS, TimeUnit.SECONDS);
+	}
+
+	private void stopWhenUnusedByOthers(final String server, ConnectionCallback stopCallback) throws Throwable {
+
+		long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(stopTimeoutSeconds);
+
+		while (!stopWhenUnused(server, stopCallback, System.nanoTime() >= deadline)) {
+
+			ReadinessProbe unusedByOtherJvms = new ReadinessProbe() {
+
+				@Override
+				protected boolean probe() throws Exception {
+					return isUnusedByOtherJvms(server);
+				}
+			};
+
+			unusedByOtherJvms.awaitReadiness(Math.max(0, deadline - System.nanoTime()), TimeUnit.NANOSECONDS);
+		}
+	}
+
+	private boolean isUnusedByOtherJvms(String server) throws Exception {
+
+		final boolean[] unused = new boolean[1];
+
+		try {
+			executeLocked(server, new StateAction() {
+
+				@Override
+				public boolean execute(Properties state) {
+					Set<String> attached = aliveJvms(state);
+					attached.remove(jvmId);
+					unused[0] = attached.isEmpty();
+					return true;
+				}
+			});
+		} catch (Exception e) {
+			throw e;
+		} catch (Throwable e) {
+			throw new IllegalStateException(e);
+		}
+
+		return unused[0];
+	}
+
+	private boolean stopWhenUnused(String server, final ConnectionCallback stopCallback, final boolean force)
+			throws Throwable {
+
+		final boolean[] stopped = new boolean[1];
+
+		executeLocked(server, new StateAction() {
+
+			@Override
+			public boolean execute(Properties state) throws Throwable {
+				Set<String> attached = aliveJvms(state);
+				attached.remove(jvmId);
+
+				if (!attached.isEmpty() && !force) {
+					attached.add(jvmId);
+					state.setProperty(ATTACHED_KEY, join(attached));
+					return true;
+				}
+
+				stopCallback.execute();
+				stopped[0] = true;
+				return false;
+			}
+		});
+
+		return stopped[0];
+	}
+
+	private interface StateAction {
+		/**
+		 * @return true if state should be kept, false if it should be removed.
+		 */
+		boolean execute(Properties state) throws Throwable;
+	}
+
+	private void executeLocked(String server, StateAction stateAction) throws Throwable {
+
+		ensureAlive();
+
+		File stateFile = new File(directory, server + ".properties");
+		RandomAccessFile lockFile = new RandomAccessFile(new File(directory, server + ".lock"), "rw");
+
+		try {
+			FileLock lock = lockFile.getChannel().lock();
+
+			try {
+				Properties state = readState(stateFile);
+
+				if (stateAction.execute(state)) {
+					writeState(stateFile, state);
+				} else if (stateFile.exists() && !stateFile.delete()) {
+					throw new IllegalStateException("State file " + stateFile + " could not be deleted.");
+				}
+			} finally {
+				lock.release();
+			}
+		} finally {
+			lockFile.close();
+		}
+	}
+
+	private synchronized void ensureAlive() throws IOException {
+		if (aliveLock == null) {
+			if (!directory.isDirectory() && !directory.mkdirs() && !directory.isDirectory()) {
+				throw new IllegalStateException("Shared servers directory " + directory + " could not be created.");
+			}
+
+			File aliveFile = aliveFile(jvmId);
+			aliveFile.deleteOnExit();
+			FileChannel aliveChannel = new RandomAccessFile(aliveFile, "rw").getChannel();
+			aliveLock = aliveChannel.lock();
+		}
+	}
+
+	private boolean isAlive(String jvm) {
+
+		if (jvmId.equals(jvm)) {
+			return true;
+		}
+
+		File aliveFile = aliveFile(jvm);
+
+		if (!aliveFile.exists()) {
+			return false;
+		}
+
+		try {
+			RandomAccessFile aliveLockFile = new RandomAccessFile(aliveFile, "rw");
+			try {
+				FileLock lock = aliveLockFile.getChannel().tryLock();
+				if (lock == null) {
+					return true;
+				}
+				lock.release();
+			} finally {
+				aliveLockFile.close();
+			}
+		} catch (OverlappingFileLockException e) {
+			return true;
+		} catch (IOException e) {
+			return true;
+		}
+
+		aliveFile.delete();
+		return false;
+	}
+
+	private Set<String> aliveJvms(Properties state) {
+
+		Set<String> aliveJvms = new LinkedHashSet<String>();
+		String attached = state.getProperty(ATTACHED_KEY, "");
+
+		for (String jvm : attached.split(SEPARATOR)) {
+			if (!jvm.isEmpty() && isAlive(jvm)) {
+				aliveJvms.add(jvm);
+			}
+		}
+
+		return aliveJvms;
+	}
+
+	private File aliveFile(String jvm) {
+		return new File(directory, "jvm-" + jvm + ".alive");
+	}
+
+	private String serverName(AbstractLifecycleManager lifecycleManager) {
+		return lifecycleManager.getHost().replaceAll("[^A-Za-z0-9.-]", "_") + "-" + lifecycleManager.getPort();
+	}
+
+	private String join(Set<String> jvms) {
+
+		StringBuilder joined = new StringBuilder();
+
+		for (String jvm : jvms) {
+			if (joined.length() > 0) {
+				joined.append(SEPARATOR);
+			}
+			joined.append(jvm);
+		}
+
+		return joined.toString();
+	}
+
+	private Properties readState(File stateFile) throws IOException {
+
+		Properties state = new Properties();
+
+		if (stateFile.exists()) {
+			InputStream stateStream = new FileInputStream(stateFile);
+			try {
+				state.load(stateStream);
+			} finally {
+				stateStream.close();
+			}
+		}
+
+		return state;
+	}
+
+	private void writeState(File stateFile, Properties state) throws IOException {
+		OutputStream stateStream = new FileOutputStream(stateFile);
+		try {
+			state.store(stateStream, "NoSQLUnit shared server");
+		} finally {
+			stateStream.close();
+		}
+	}
+
+}
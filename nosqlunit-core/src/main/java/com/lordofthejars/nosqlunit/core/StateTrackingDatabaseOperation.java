@@ -0,0 +1,18 @@
+package com.lordofthejars.nosqlunit.core;
+
+/**
+ * Implemented by {@link DatabaseOperation}s able to tell whether database has
+ * been modified, so {@link LoadStrategyEnum#REUSE_IF_CLEAN} can skip reseeding
+ * a database that still contains the last inserted datasets.
+ */
+public interface StateTrackingDatabaseOperation {
+
+	/**
+	 * Returns a token of current database content. Any write operation must
+	 * produce a different token, and the token is compared using equals.
+	 * 
+	 * @return token of current state or null if it cannot be calculated.
+	 */
+	Object databaseState();
+
+}
@@ -0,0 +1,443 @@
+package com.lordofthejars.nosqlunit.core;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+import java.util.TreeMap;
+
+import com.lordofthejars.nosqlunit.core.RecordStreamingDatabaseOperation.ExpectedRecordHandler;
+
+/**
+ * Compares expected datasets in {@link ComparisonMode#DIGEST} and
+ * {@link ComparisonMode#SAMPLE} modes, streaming both expected records and
+ * stored records.
+ *
+ * Records are compared through a canonical form where keys are sorted,
+ * integral numbers are compared by value, and top level keys starting with an
+ * underscore, usually generated by the database, and ignored properties are
+ * skipped. Ignored properties are given as <code>property</code> or
+ * <code>collection.property</code>.
+ *
+ * In {@link ComparisonMode#SAMPLE} mode, operations implementing
+ * {@link RecordLookupDatabaseOperation} count stored records and find sampled
+ * ones by their key, so stored collections are not scanned.
+ */
+public final class StreamingDataSetAssertion {
+
+	private static final String SYSTEM_KEY_PREFIX = "_";
+	private static final char COLLECTION_PROPERTY_SEPARATOR = '.';
+
+	private StreamingDataSetAssertion() {
+		super();
+	}
+
+	/**
+	 * Number of records and order independent hash of their canonical forms.
+	 */
+	static final class RecordDigest {
+
+		private long count = 0;
+		private long sum = 0;
+		private long mixedSum = 0;
+
+		void add(String canonicalRecord) {
+			long hash = hash(canonicalRecord);
+			count++;
+			sum += hash;
+			mixedSum += mix(hash ^ 0x9E3779B97F4A7C15L);
+		}
+
+		long getCount() {
+			return count;
+		}
+
+		boolean hasSameContent(RecordDigest recordDigest) {
+			return count == recordDigest.count && sum == recordDigest.sum && mixedSum == recordDigest.mixedSum;
+		}
+
+		@Override
+		public String toString() {
+			return Long.toHexString(sum) + Long.toHexString(mixedSum);
+		}
+
+		private static long hash(String value) {
+			long hash = 0xCBF29CE484222325L;
+
+			for (int i = 0; i < value.length(); i++) {
+				hash ^= value.charAt(i);
+				hash *= 0x100000001B3L;
+			}
+
+			return mix(hash);
+		}
+
+		private static long mix(long value) {
+			long z = value;
+			z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+			z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+			return z ^ (z >>> 31);
+		}
+
+	}
+
+	/**
+	 * Reproducible random subset of the records of a collection, chosen while
+	 * records are read.
+	 */
+	static final class RecordSample {
+
+		private final int sampleSize;
+		private final Random random;
+		private final List<Map<String, Object>> sampledRecords = new ArrayList<Map<String, Object>>();
+		private long count = 0;
+
+		RecordSample(int sampleSize, long seed) {
+			this.sampleSize = sampleSize;
+			this.random = new Random(seed);
+		}
+
+		void add(Map<String, Object> record) {
+			count++;
+
+			if (sampledRecords.size() < sampleSize) {
+				sampledRecords.add(record);
+			} else {
+				long replacedIndex = (long) (random.nextDouble() * count);
+
+				if (replacedIndex < sampleSize) {
+					sampledRecords.set((int) replacedIndex, record);
+				}
+			}
+		}
+
+		long getCount() {
+			return count;
+		}
+
+		List<Map<String, Object>> getSampledRecords() {
+			return Collections.unmodifiableList(sampledRecords);
+		}
+
+	}
+
+	public static void assertDigestEquals(RecordStreamingDatabaseOperation recordStreamingDatabaseOperation,
+			InputStream expectedData, String[] propertiesToIgnore) throws IOException {
+
+		final Map<String, Set<String>> ignoredProperties = ignoredProperties(propertiesToIgnore);
+		final Map<String, RecordDigest> expectedDigests = new LinkedHashMap<String, RecordDigest>();
+
+		recordStreamingDatabaseOperation.readExpectedRecords(expectedData, new ExpectedRecordHandler() {
+
+			@Override
+			public void collection(String collection) {
+				digestOf(expectedDigests, collection);
+			}
+
+			@Override
+			public void record(String collection, Map<String, Object> record) {
+				digestOf(expectedDigests, collection).add(
+						canonicalRecord(record, ignoredPropertiesOf(ignoredProperties, collection)));
+			}
+		});
+
+		for (Map.Entry<String, RecordDigest> expectedDigest : expectedDigests.entrySet()) {
+			String collection = expectedDigest.getKey();
+			Set<String> ignoredPropertiesOfCollection = ignoredPropertiesOf(ignoredProperties, collection);
+
+			RecordDigest storedDigest = new RecordDigest();
+			Iterator<Map<String, Object>> storedRecords = recordStreamingDatabaseOperation.storedRecords(collection);
+
+			try {
+				while (storedRecords.hasNext()) {
+					storedDigest.add(canonicalRecord(storedRecords.next(), ignoredPropertiesOfCollection));
+				}
+			} finally {
+				close(storedRecords);
+			}
+
+			checkCount(collection, expectedDigest.getValue().getCount(), storedDigest.getCount());
+
+			if (!expectedDigest.getValue().hasSameContent(storedDigest)) {
+				throw FailureHandler.createFailure(
+						"Expected and stored records of collection %s have different digests, %s and %s.", collection,
+						expectedDigest.getValue(), storedDigest);
+			}
+		}
+	}
+
+	public static void assertSampleEquals(RecordStreamingDatabaseOperation recordStreamingDatabaseOperation,
+			InputStream expectedData, final int sampleSize, final long seed, String[] propertiesToIgnore)
+			throws IOException {
+
+		final Map<String, Set<String>> ignoredProperties = ignoredProperties(propertiesToIgnore);
+		final Map<String, RecordSample> expectedSamples = new LinkedHashMap<String, RecordSample>();
+
+		recordStreamingDatabaseOperation.readExpectedRecords(expectedData, new ExpectedRecordHandler() {
+
+			@Override
+			public void collection(String collection) {
+				sampleOf(expectedSamples, collection, sampleSize, seed);
+			}
+
+			@Override
+			public void record(String collection, Map<String, Object> record) {
+				sampleOf(expectedSamples, collection, sampleSize, seed).add(record);
+			}
+		});
+
+		for (Map.Entry<String, RecordSample> expectedSample : expectedSamples.entrySet()) {
+			String collection = expectedSample.getKey();
+			Set<String> ignoredPropertiesOfCollection = ignoredPropertiesOf(ignoredProperties, collection);
+
+			if (isLookedUpByKey(recordStreamingDatabaseOperation, expectedSample.getValue())) {
+				assertSampleLookedUp((RecordLookupDatabaseOperation) recordStreamingDatabaseOperation, collection,
+						expectedSample.getValue(), ignoredPropertiesOfCollection);
+			} else {
+				assertSampleScanned(recordStreamingDatabaseOperation, collection, expectedSample.getValue(),
+						ignoredPropertiesOfCollection);
+			}
+		}
+	}
+
+	private static boolean isLookedUpByKey(RecordStreamingDatabaseOperation recordStreamingDatabaseOperation,
+			RecordSample recordSample) {
+
+		if (!(recordStreamingDatabaseOperation instanceof RecordLookupDatabaseOperation)) {
+			return false;
+		}
+
+		for (Map<String, Object> sampledRecord : recordSample.getSampledRecords()) {
+			if (((RecordLookupDatabaseOperation) recordStreamingDatabaseOperation).recordKey(sampledRecord) == null) {
+				return false;
+			}
+		}
+
+		return true;
+	}
+
+	private static void assertSampleLookedUp(RecordLookupDatabaseOperation recordLookupDatabaseOperation,
+			String collection, RecordSample recordSample, Set<String> ignoredProperties) {
+
+		checkCount(collection, recordSample.getCount(), recordLookupDatabaseOperation.countStoredRecords(collection));
+
+		for (Map<String, Object> sampledRecord : recordSample.getSampledRecords()) {
+			String expectedRecord = canonicalRecord(sampledRecord, ignoredProperties);
+			Map<String, Object> storedRecord = recordLookupDatabaseOperation.storedRecord(collection,
+					recordLookupDatabaseOperation.recordKey(sampledRecord));
+
+			if (storedRecord == null || !expectedRecord.equals(canonicalRecord(storedRecord, ignoredProperties))) {
+				throw FailureHandler.createFailure("Sampled record %s is not found in collection %s.", expectedRecord,
+						collection);
+			}
+		}
+	}
+
+	private static void assertSampleScanned(RecordStreamingDatabaseOperation recordStreamingDatabaseOperation,
+			String collection, RecordSample recordSample, Set<String> ignoredProperties) {
+
+		Map<String, Integer> pendingRecords = occurrences(recordSample.getSampledRecords(), ignoredProperties);
+		long storedCount = 0;
+		Iterator<Map<String, Object>> storedRecords = recordStreamingDatabaseOperation.storedRecords(collection);
+
+		try {
+			while (storedRecords.hasNext()) {
+				storedCount++;
+				String storedRecord = canonicalRecord(storedRecords.next(), ignoredProperties);
+
+				if (!pendingRecords.isEmpty()) {
+					decrement(pendingRecords, storedRecord);
+				}
+			}
+		} finally {
+			close(storedRecords);
+		}
+
+		checkCount(collection, recordSample.getCount(), storedCount);
+
+		if (!pendingRecords.isEmpty()) {
+			throw FailureHandler.createFailure("Sampled record %s is not found in collection %s.", pendingRecords
+					.keySet().iterator().next(), collection);
+		}
+	}
+
+	private static void close(Iterator<Map<String, Object>> storedRecords) {
+		if (storedRecords instanceof Closeable) {
+			try {
+				((Closeable) storedRecords).close();
+			} catch (IOException e) {
+				throw new IllegalStateException(e);
+			}
+		}
+	}
+
+	/**
+	 * @return canonical form of given record, where equal records have equal
+	 *         forms.
+	 */
+	static String canonicalRecord(Map<String, Object> record, Set<String> ignoredProperties) {
+		StringBuilder canonicalRecord = new StringBuilder();
+		Map<String, Object> keptFields = new TreeMap<String, Object>();
+
+		for (Map.Entry<String, Object> field : record.entrySet()) {
+			if (!field.getKey().startsWith(SYSTEM_KEY_PREFIX) && !ignoredProperties.contains(field.getKey())) {
+				keptFields.put(field.getKey(), field.getValue());
+			}
+		}
+
+		appendCanonicalValue(canonicalRecord, keptFields);
+		return canonicalRecord.toString();
+	}
+
+	@SuppressWarnings("unchecked")
+	private static void appendCanonicalValue(StringBuilder canonicalValue, Object value) {
+		if (value instanceof Map) {
+			Map<String, Object> sortedFields = new TreeMap<String, Object>();
+
+			for (Map.Entry<?, ?> field : ((Map<?, ?>) value).entrySet()) {
+				sortedFields.put(String.valueOf(field.getKey()), field.getValue());
+			}
+
+			canonicalValue.append('{');
+			boolean first = true;
+
+			for (Map.Entry<String, Object> field : sortedFields.entrySet()) {
+				if (!first) {
+					canonicalValue.append(',');
+				}
+				appendCanonicalString(canonicalValue, field.getKey());
+				canonicalValue.append(':');
+				appendCanonicalValue(canonicalValue, field.getValue());
+				first = false;
+			}
+
+			canonicalValue.append('}');
+		} else if (value instanceof Collection) {
+			canonicalValue.append('[');
+			boolean first = true;
+
+			for (Object element : (Collection<Object>) value) {
+				if (!first) {
+					canonicalValue.append(',');
+				}
+				appendCanonicalValue(canonicalValue, element);
+				first = false;
+			}
+
+			canonicalValue.append(']');
+		} else if (value instanceof String) {
+			appendCanonicalString(canonicalValue, (String) value);
+		} else if (value instanceof Byte || value instanceof Short || value instanceof Integer
+				|| value instanceof Long) {
+			canonicalValue.append(((Number) value).longValue());
+		} else if (value instanceof Float || value instanceof Double) {
+			canonicalValue.append(((Number) value).doubleValue());
+		} else {
+			canonicalValue.append(value);
+		}
+	}
+
+	private static void appendCanonicalString(StringBuilder canonicalValue, String value) {
+		canonicalValue.append('"').append(value.replace("\\", "\\\\").replace("\"", "\\\"")).append('"');
+	}
+
+	private static void checkCount(String collection, long expectedCount, long storedCount) {
+		if (expectedCount != storedCount) {
+			throw FailureHandler.createFailure("Expected collection %s has %s elements but stored collection has %s.",
+					collection, expectedCount, storedCount);
+		}
+	}
+
+	private static RecordDigest digestOf(Map<String, RecordDigest> digests, String collection) {
+		RecordDigest recordDigest = digests.get(collection);
+
+		if (recordDigest == null) {
+			recordDigest = new RecordDigest();
+			digests.put(collection, recordDigest);
+		}
+
+		return recordDigest;
+	}
+
+	private static RecordSample sampleOf(Map<String, RecordSample> samples, String collection, int sampleSize,
+			long seed) {
+		RecordSample recordSample = samples.get(collection);
+
+		if (recordSample == null) {
+			recordSample = new RecordSample(sampleSize, seed ^ collection.hashCode());
+			samples.put(collection, recordSample);
+		}
+
+		return recordSample;
+	}
+
+	private static Map<String, Integer> occurrences(List<Map<String, Object>> records, Set<String> ignoredProperties) {
+		Map<String, Integer> occurrences = new HashMap<String, Integer>();
+
+		for (Map<String, Object> record : records) {
+			String canonicalRecord = canonicalRecord(record, ignoredProperties);
+			Integer numberOfOccurrences = occurrences.get(canonicalRecord);
+			occurrences.put(canonicalRecord, numberOfOccurrences == null ? 1 : numberOfOccurrences + 1);
+		}
+
+		return occurrences;
+	}
+
+	private static void decrement(Map<String, Integer> occurrences, String record) {
+		Integer numberOfOccurrences = occurrences.get(record);
+
+		if (numberOfOccurrences != null) {
+			if (numberOfOccurrences == 1) {
+				occurrences.remove(record);
+			} else {
+				occurrences.put(record, numberOfOccurrences - 1);
+			}
+		}
+	}
+
+	private static Map<String, Set<String>> ignoredProperties(String[] propertiesToIgnore) {
+		Map<String, Set<String>> ignoredProperties = new HashMap<String, Set<String>>();
+
+		for (String propertyToIgnore : propertiesToIgnore) {
+			int separator = propertyToIgnore.indexOf(COLLECTION_PROPERTY_SEPARATOR);
+			String collection = separator < 0 ? null : propertyToIgnore.substring(0, separator);
+			String property = separator < 0 ? propertyToIgnore : propertyToIgnore.substring(separator + 1);
+
+			Set<String> properties = ignoredProperties.get(collection);
+
+			if (properties == null) {
+				properties = new HashSet<String>();
+				ignoredProperties.put(collection, properties);
+			}
+
+			properties.add(property);
+		}
+
+		return ignoredProperties;
+	}
+
+	private static Set<String> ignoredPropertiesOf(Map<String, Set<String>> ignoredProperties, String collection) {
+		Set<String> ignoredPropertiesOfCollection = new HashSet<String>();
+
+		if (ignoredProperties.containsKey(null)) {
+			ignoredPropertiesOfCollection.addAll(ignoredProperties.get(null));
+		}
+
+		if (ignoredProperties.containsKey(collection)) {
+			ignoredPropertiesOfCollection.addAll(ignoredProperties.get(collection));
+		}
+
+		return ignoredPropertiesOfCollection;
+	}
+
+}
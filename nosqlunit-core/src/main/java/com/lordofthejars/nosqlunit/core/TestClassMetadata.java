@@ -0,0 +1,225 @@
+package com.lordofthejars.nosqlunit.core;
+
+import java.lang.annotation.Annotation;
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+import javax.inject.Inject;
+import javax.inject.Named;
+
+import org.junit.Ignore;
+import org.junit.Test;
+import org.junit.runners.model.FrameworkMethod;
+import org.junit.runners.model.TestClass;
+
+import com.lordofthejars.nosqlunit.annotation.ByContainer;
+import com.lordofthejars.nosqlunit.annotation.ConnectionManager;
+import com.lordofthejars.nosqlunit.annotation.CustomComparisonStrategy;
+import com.lordofthejars.nosqlunit.annotation.CustomInsertionStrategy;
+import com.lordofthejars.nosqlunit.annotation.GeneratedDataSet;
+import com.lordofthejars.nosqlunit.annotation.IgnorePropertyValue;
+import com.lordofthejars.nosqlunit.annotation.ShouldMatchDataSet;
+import com.lordofthejars.nosqlunit.annotation.UsingDataSet;
+import com.lordofthejars.nosqlunit.util.ReflectionUtil;
+
+/**
+ * NoSQLUnit annotations of a test class, resolved once walking the class
+ * hierarchy and shared by every test method and every rule of that class.
+ */
+public final class TestClassMetadata {
+
+	private static final ClassValue<TestClassMetadata> TEST_CLASS_METADATA = new ClassValue<TestClassMetadata>() {
+		@Override
+		protected TestClassMetadata computeValue(Class<?> testClass) {
+			return new TestClassMetadata(testClass);
+		}
+	};
+
+	/**
+	 * Field annotated to receive the connection manager of a rule.
+	 */
+	public static final class InjectableField {
+
+		private final Field field;
+		private final String name;
+
+		private InjectableField(Field field, String name) {
+			this.field = field;
+			this.name = name;
+		}
+
+		public Field getField() {
+			return field;
+		}
+
+		/**
+		 * @return value of @Named annotation, or null if field is not named.
+		 */
+		public String getName() {
+			return name;
+		}
+
+	}
+
+	private final Class<?> testClass;
+	private final UsingDataSet usingDataSet;
+	private final ShouldMatchDataSet shouldMatchDataSet;
+	private final GeneratedDataSet generatedDataSet;
+	private final CustomInsertionStrategy customInsertionStrategy;
+	private final CustomComparisonStrategy customComparisonStrategy;
+	private final IgnorePropertyValue ignorePropertyValue;
+	private final List<InjectableField> injectableFields;
+
+	private final ConcurrentMap<Method, TestMethodMetadata> testMethodsMetadata = new ConcurrentHashMap<Method, TestMethodMetadata>();
+
+	private volatile InsertionStrategy<?> customInsertionStrategyInstance;
+
+	private volatile List<FrameworkMethod> testMethods;
+
+	private TestClassMetadata(Class<?> testClass) {
+		this.testClass = testClass;
+		this.usingDataSet = classAnnotation(testClass, UsingDataSet.class);
+		this.shouldMatchDataSet = classAnnotation(testClass, ShouldMatchDataSet.class);
+		this.generatedDataSet = classAnnotation(testClass, GeneratedDataSet.class);
+		this.customInsertionStrategy = classAnnotation(testClass, CustomInsertionStrategy.class);
+		this.customComparisonStrategy = classAnnotation(testClass, CustomComparisonStrategy.class);
+		this.ignorePropertyValue = classAnnotation(testClass, IgnorePropertyValue.class);
+		this.injectableFields = injectableFields(testClass);
+	}
+
+	public static TestClassMetadata forClass(Class<?> testClass) {
+		return TEST_CLASS_METADATA.get(testClass);
+	}
+
+	public TestMethodMetadata forMethod(FrameworkMethod method) {
+		Method testMethod = method.getMethod();
+		TestMethodMetadata testMethodMetadata = testMethodsMetadata.get(testMethod);
+
+		if (testMethodMetadata == null) {
+			testMethodMetadata = new TestMethodMetadata(this, testMethod);
+			TestMethodMetadata previous = testMethodsMetadata.putIfAbsent(testMethod, testMethodMetadata);
+			if (previous != null) {
+				testMethodMetadata = previous;
+			}
+		}
+
+		return testMethodMetadata;
+	}
+
+	public Class<?> getTestClass() {
+		return testClass;
+	}
+
+	public UsingDataSet getUsingDataSet() {
+		return usingDataSet;
+	}
+
+	public ShouldMatchDataSet getShouldMatchDataSet() {
+		return shouldMatchDataSet;
+	}
+
+	public GeneratedDataSet getGeneratedDataSet() {
+		return generatedDataSet;
+	}
+
+	public CustomInsertionStrategy getCustomInsertionStrategy() {
+		return customInsertionStrategy;
+	}
+
+	public CustomComparisonStrategy getCustomComparisonStrategy() {
+		return customComparisonStrategy;
+	}
+
+	public IgnorePropertyValue getIgnorePropertyValue() {
+		return ignorePropertyValue;
+	}
+
+	public List<InjectableField> getInjectableFields() {
+		return injectableFields;
+	}
+
+	/**
+	 * Custom insertion strategy is applied to the whole test class, so it is
+	 * created once and shared by all its test methods.
+	 */
+	public InsertionStrategy<?> customInsertionStrategyInstance() {
+		InsertionStrategy<?> insertionStrategy = customInsertionStrategyInstance;
+
+		if (insertionStrategy == null) {
+			insertionStrategy = ReflectionUtil.createInstance(customInsertionStrategy.insertionStrategy());
+			customInsertionStrategyInstance = insertionStrategy;
+		}
+
+		return insertionStrategy;
+	}
+
+	/**
+	 * @return test method run after given one by default JUnit runner, or null
+	 *         if it is the last one. Filtered or reordered executions may run
+	 *         another one.
+	 */
+	public FrameworkMethod nextTestMethod(FrameworkMethod method) {
+		List<FrameworkMethod> methods = testMethods();
+		int index = methods.indexOf(method);
+
+		return index < 0 || index + 1 >= methods.size() ? null : methods.get(index + 1);
+	}
+
+	private List<FrameworkMethod> testMethods() {
+		List<FrameworkMethod> methods = testMethods;
+
+		if (methods == null) {
+			methods = new ArrayList<FrameworkMethod>();
+
+			try {
+				for (FrameworkMethod method : new TestClass(testClass).getAnnotatedMethods(Test.class)) {
+					if (method.getAnnotation(Ignore.class) == null) {
+						methods.add(method);
+					}
+				}
+			} catch (IllegalArgumentException e) {
+				// Not a JUnit test class, so no test method is known to run next.
+			}
+
+			testMethods = methods;
+		}
+
+		return methods;
+	}
+
+	private static <T extends Annotation> T classAnnotation(Class<?> testClass, Class<T> annotationClass) {
+		Class<?> annotatedClass = IOUtils.getClassWithAnnotation(testClass, annotationClass);
+		return annotatedClass == null ? null : annotatedClass.getAnnotation(annotationClass);
+	}
+
+	private static List<InjectableField> injectableFields(Class<?> testClass) {
+
+		Set<Field> fields = new LinkedHashSet<Field>();
+		fields.addAll(IOUtils.getFieldsWithAnnotation(testClass, Inject.class));
+		fields.addAll(IOUtils.getFieldsWithAnnotation(testClass, ConnectionManager.class));
+
+		List<InjectableField> injectableFields = new ArrayList<InjectableField>();
+
+		for (Field field : fields) {
+			if (isInjectedAndNotExternallyManaged(field)) {
+				Named named = field.getAnnotation(Named.class);
+				injectableFields.add(new InjectableField(field, named == null ? null : named.value()));
+			}
+		}
+
+		return Collections.unmodifiableList(injectableFields);
+	}
+
+	private static boolean isInjectedAndNotExternallyManaged(Field field) {
+		return (field.isAnnotationPresent(Inject.class) && !field.isAnnotationPresent(ByContainer.class))
+				|| field.isAnnotationPresent(ConnectionManager.class);
+	}
+
+}
@@ -0,0 +1,124 @@
+package com.lordofthejars.nosqlunit.core;
+
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import com.lordofthejars.nosqlunit.annotation.ConcurrentLoad;
+import com.lordofthejars.nosqlunit.annotation.GeneratedDataSet;
+import com.lordofthejars.nosqlunit.annotation.IgnorePropertyValue;
+import com.lordofthejars.nosqlunit.annotation.ShouldMatchDataSet;
+import com.lordofthejars.nosqlunit.annotation.UsingDataSet;
+import com.lordofthejars.nosqlunit.util.ReflectionUtil;
+
+/**
+ * NoSQLUnit annotations that apply to a test method, where method annotations
+ * take precedence over the ones of its test class.
+ */
+public final class TestMethodMetadata {
+
+	private final TestClassMetadata testClassMetadata;
+	private final Method method;
+	private final UsingDataSet usingDataSet;
+	private final ShouldMatchDataSet shouldMatchDataSet;
+	private final GeneratedDataSet generatedDataSet;
+	private final ConcurrentLoad concurrentLoad;
+	private final boolean ignorePropertyValueAnnotated;
+	private final String[] propertiesToIgnore;
+
+	private volatile ComparisonStrategy<?> customComparisonStrategyInstance;
+
+	TestMethodMetadata(TestClassMetadata testClassMetadata, Method method) {
+		this.testClassMetadata = testClassMetadata;
+		this.method = method;
+
+		UsingDataSet methodUsingDataSet = method.getAnnotation(UsingDataSet.class);
+		this.usingDataSet = methodUsingDataSet != null ? methodUsingDataSet : testClassMetadata.getUsingDataSet();
+
+		ShouldMatchDataSet methodShouldMatchDataSet = method.getAnnotation(ShouldMatchDataSet.class);
+		this.shouldMatchDataSet = methodShouldMatchDataSet != null ? methodShouldMatchDataSet : testClassMetadata
+				.getShouldMatchDataSet();
+
+		GeneratedDataSet methodGeneratedDataSet = method.getAnnotation(GeneratedDataSet.class);
+		this.generatedDataSet = methodGeneratedDataSet != null ? methodGeneratedDataSet : testClassMetadata
+				.getGeneratedDataSet();
+
+		this.concurrentLoad = method.getAnnotation(ConcurrentLoad.class);
+
+		IgnorePropertyValue methodIgnorePropertyValue = method.getAnnotation(IgnorePropertyValue.class);
+		this.ignorePropertyValueAnnotated = methodIgnorePropertyValue != null
+				|| testClassMetadata.getIgnorePropertyValue() != null;
+		this.propertiesToIgnore = propertiesToIgnore(testClassMetadata.getIgnorePropertyValue(),
+				methodIgnorePropertyValue);
+	}
+
+	public TestClassMetadata getTestClassMetadata() {
+		return testClassMetadata;
+	}
+
+	public Method getMethod() {
+		return method;
+	}
+
+	public UsingDataSet getUsingDataSet() {
+		return usingDataSet;
+	}
+
+	public ShouldMatchDataSet getShouldMatchDataSet() {
+		return shouldMatchDataSet;
+	}
+
+	public GeneratedDataSet getGeneratedDataSet() {
+		return generatedDataSet;
+	}
+
+	public ConcurrentLoad getConcurrentLoad() {
+		return concurrentLoad;
+	}
+
+	public boolean isIgnorePropertyValueAnnotated() {
+		return ignorePropertyValueAnnotated;
+	}
+
+	public String[] getPropertiesToIgnore() {
+		return propertiesToIgnore.clone();
+	}
+
+	/**
+	 * Custom comparison strategy configured with properties to ignore of this
+	 * test method. It is created once and reused every time the method runs.
+	 */
+	public ComparisonStrategy<?> customComparisonStrategyInstance() {
+		ComparisonStrategy<?> comparisonStrategy = customComparisonStrategyInstance;
+
+		if (comparisonStrategy == null) {
+			comparisonStrategy = ReflectionUtil.createInstance(testClassMetadata.getCustomComparisonStrategy()
+					.comparisonStrategy());
+
+			if (ignorePropertyValueAnnotated) {
+				comparisonStrategy.setIgnoreProperties(getPropertiesToIgnore());
+			}
+
+			customComparisonStrategyInstance = comparisonStrategy;
+		}
+
+		return comparisonStrategy;
+	}
+
+	private static String[] propertiesToIgnore(IgnorePropertyValue classIgnorePropertyValue,
+			IgnorePropertyValue methodIgnorePropertyValue) {
+		List<String> propertyValuesToIgnore = new ArrayList<String>();
+
+		if (classIgnorePropertyValue != null) {
+			propertyValuesToIgnore.addAll(Arrays.asList(classIgnorePropertyValue.properties()));
+		}
+
+		if (methodIgnorePropertyValue != null) {
+			propertyValuesToIgnore.addAll(Arrays.asList(methodIgnorePropertyValue.properties()));
+		}
+
+		return propertyValuesToIgnore.toArray(new String[propertyValuesToIgnore.size()]);
+	}
+
+}
@@ -0,0 +1,212 @@
+package com.lordofthejars.nosqlunit.core;
+
+import java.util.BitSet;
+
+/**
+ * Namespace of the database where a test is running. When namespace isolation
+ * is enabled with <code>nosqlunit.namespace.isolation</code> system property,
+ * each test running concurrently is given its own namespace, so tests executed
+ * in parallel against the same engine do not see the data of each other.
+ * 
+ * Namespaces are numbered starting from 0 and released numbers are reused, so
+ * Redis database indexes stay low. Names qualified by a namespace end with
+ * <code>_ns</code> followed by its number, while the default namespace, used
+ * when isolation is disabled, keeps configured names untouched. Rules sharing
+ * the same thread share the same namespace. When managed servers are shared
+ * between JVMs, namespace numbers are registered in
+ * {@link SharedServerRegistry}, so tests of different JVMs never get the same
+ * namespace.
+ * 
+ * When namespace buffering is enabled with
+ * <code>nosqlunit.namespace.buffers</code> system property, set to the number
+ * of namespaces to alternate, consecutive tests of a thread run on different
+ * namespaces, so the namespace of next test is cleaned and seeded in
+ * background while current test runs.
+ */
+public final class TestNamespace {
+
+	public static final String ISOLATION_PROPERTY = "nosqlunit.namespace.isolation";
+
+	public static final String BUFFERS_PROPERTY = "nosqlunit.namespace.buffers";
+
+	public static final TestNamespace DEFAULT_NAMESPACE = new TestNamespace(0, false);
+
+	private static final String SUFFIX_SEPARATOR = "_ns";
+
+	private static final class Lease {
+
+		private final TestNamespace testNamespace;
+		private int holders;
+
+		public Lease(TestNamespace testNamespace) {
+			this.testNamespace = testNamespace;
+		}
+
+	}
+
+	private static final ThreadLocal<Lease> CURRENT_LEASE = new ThreadLocal<Lease>();
+
+	private static final BitSet USED_NAMESPACES = new BitSet();
+
+	private final int index;
+	private final boolean qualified;
+
+	private TestNamespace(int index, boolean qualified) {
+		this.index = index;
+		this.qualified = qualified;
+	}
+
+	public static boolean isIsolationEnabled() {
+		return Boolean.getBoolean(ISOLATION_PROPERTY);
+	}
+
+	public static boolean isBufferingEnabled() {
+		return numberOfBuffers() > 1;
+	}
+
+	/**
+	 * @return number of namespaces alternated by each thread, or 0 if
+	 *         buffering is disabled.
+	 */
+	public static int numberOfBuffers() {
+		return Integer.getInteger(BUFFERS_PROPERTY, 0);
+	}
+
+	/**
+	 * Reserves a free namespace that is not bound to any thread and is never
+	 * released, so it can be reused by consecutive tests.
+	 */
+	static TestNamespace reserve() {
+		return new TestNamespace(nextFreeIndex(), true);
+	}
+
+	/**
+	 * @return namespace acquired by current thread or default namespace if
+	 *         none is acquired.
+	 */
+	public static TestNamespace current() {
+		Lease lease = CURRENT_LEASE.get();
+		return lease == null ? DEFAULT_NAMESPACE : lease.testNamespace;
+	}
+
+	/**
+	 * Assigns a free namespace to current thread, or returns the one already
+	 * assigned. Each call must be paired with a call to {@link #release()}.
+	 */
+	public static TestNamespace acquire() {
+		Lease lease = CURRENT_LEASE.get();
+
+		if (lease == null) {
+			lease = new Lease(new TestNamespace(nextFreeIndex(), true));
+			CURRENT_LEASE.set(lease);
+		}
+
+		lease.holders++;
+		return lease.testNamespace;
+	}
+
+	public static void release() {
+		Lease lease = CURRENT_LEASE.get();
+
+		if (lease != null && --lease.holders == 0) {
+			CURRENT_LEASE.remove();
+			freeIndex(lease.testNamespace.index);
+		}
+	}
+
+	/**
+	 * Runs given task in current thread within this namespace, so work done by
+	 * other threads on behalf of the test owning this namespace is isolated as
+	 * the test is. The namespace is not released, as it still belongs to that
+	 * test.
+	 */
+	public void runWithin(Runnable task) {
+		Lease previousLease = CURRENT_LEASE.get();
+
+		if (qualified) {
+			Lease borrowedLease = new Lease(this);
+			// never reaches zero holders, so the namespace is never freed from here
+			borrowedLease.holders = 1;
+			CURRENT_LEASE.set(borrowedLease);
+		} else {
+			CURRENT_LEASE.remove();
+		}
+
+		try {
+			task.run();
+		} finally {
+			if (previousLease == null) {
+				CURRENT_LEASE.remove();
+			} else {
+				CURRENT_LEASE.set(previousLease);
+			}
+		}
+	}
+
+	private static int nextFreeIndex() {
+		synchronized (USED_NAMESPACES) {
+			int index = USED_NAMESPACES.nextClearBit(0);
+
+			if (SharedServerRegistry.isEnabled()) {
+				while (!SharedServerRegistry.getInstance().lockNamespace(index)) {
+					index = USED_NAMESPACES.nextClearBit(index + 1);
+				}
+			}
+
+			USED_NAMESPACES.set(index);
+			return index;
+		}
+	}
+
+	private static void freeIndex(int index) {
+		synchronized (USED_NAMESPACES) {
+			USED_NAMESPACES.clear(index);
+
+			if (SharedServerRegistry.isEnabled()) {
+				SharedServerRegistry.getInstance().unlockNamespace(index);
+			}
+		}
+	}
+
+	public int getIndex() {
+		return index;
+	}
+
+	public boolean isQualified() {
+		return qualified;
+	}
+
+	/**
+	 * Returns given name qualified with this namespace, for example a database
+	 * or an index name. Default namespace does not modify names.
+	 */
+	public String qualify(String name) {
+		return qualified ? name + suffix() : name;
+	}
+
+	/**
+	 * @return true if given name has been qualified with this namespace. All
+	 *         names belong to default namespace.
+	 */
+	public boolean contains(String name) {
+		return !qualified || name.endsWith(suffix());
+	}
+
+	/**
+	 * @return wildcard expressions matching all names of this namespace, or an
+	 *         empty array for default namespace, which matches all names.
+	 */
+	public String[] wildcards() {
+		return qualified ? new String[] { "*" + suffix() } : new String[0];
+	}
+
+	private String suffix() {
+		return SUFFIX_SEPARATOR + index;
+	}
+
+	@Override
+	public String toString() {
+		return "TestNamespace [index=" + index + ", qualified=" + qualified + "]";
+	}
+
+}
@@ -0,0 +1,12 @@
+package com.lordofthejars.nosqlunit.core;
+
+/**
+ * Implemented by {@link DatabaseOperation}s whose
+ * {@link DatabaseOperation#insert(java.io.InputStream)} can be called
+ * concurrently on the same instance, so {@link DataSetLoader} can insert
+ * datasets in parallel. Datasets of any other operation are inserted one after
+ * another even if parallel loading is requested.
+ */
+public interface ThreadSafeInsertionDatabaseOperation {
+
+}
@@ -0,0 +1,211 @@
+package com.lordofthejars.nosqlunit.core;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Starts and stops the servers of a multi-node topology. Servers are grouped
+ * in stages declared in dependency order, for example config servers before
+ * mongos. Servers of the same stage are started concurrently, and a stage is
+ * started only when all servers of previous stages are ready. Topology is
+ * stopped in reverse order, servers of the same stage concurrently too.
+ */
+public class TopologyLauncher {
+
+	/**
+	 * Part of a topology started and stopped as a unit.
+	 */
+	public interface Node {
+
+		void start() throws Throwable;
+
+		void stop();
+
+	}
+
+	private static final class LauncherExecutor {
+
+		private static final ExecutorService INSTANCE = Executors.newCachedThreadPool(new ThreadFactory() {
+
+			private final AtomicInteger numberOfThreads = new AtomicInteger();
+
+			@Override
+			public Thread newThread(Runnable runnable) {
+				Thread thread = new Thread(runnable, "nosqlunit-topology-launcher-" + numberOfThreads.incrementAndGet());
+				thread.setDaemon(true);
+				return thread;
+			}
+		});
+
+	}
+
+	private final List<List<Node>> stages = new ArrayList<List<Node>>();
+
+	/**
+	 * Adds a stage with given lifecycle managers. Managers already started are
+	 * not started again, and managers already stopped are not stopped again.
+	 */
+	public TopologyLauncher stage(Collection<? extends AbstractLifecycleManager> lifecycleManagers) {
+
+		List<Node> nodes = new ArrayList<Node>();
+
+		for (AbstractLifecycleManager lifecycleManager : lifecycleManagers) {
+			nodes.add(node(lifecycleManager));
+		}
+
+		stages.add(nodes);
+		return this;
+	}
+
+	public TopologyLauncher stage(Node... nodes) {
+		stages.add(Arrays.asList(nodes));
+		return this;
+	}
+
+	/**
+	 * Starts every stage in order, waiting for all nodes of a stage before
+	 * starting the next one.
+	 *
+	 * @throws Throwable
+	 *             first failure of a stage, with failures of other nodes of
+	 *             the same stage added as suppressed.
+	 */
+	public void start() throws Throwable {
+
+		for (List<Node> stage : stages) {
+			runConcurrently(stage, true);
+		}
+
+	}
+
+	/**
+	 * Stops every stage in reverse order. All nodes are stopped even if some
+	 * of them fail.
+	 */
+	public void stop() {
+
+		List<List<Node>> reversedStages = new ArrayList<List<Node>>(stages);
+		Collections.reverse(reversedStages);
+
+		RuntimeException failure = null;
+
+		for (List<Node> stage : reversedStages) {
+			try {
+				runConcurrently(stage, false);
+			} catch (RuntimeException e) {
+				failure = addFailure(failure, e);
+			} catch (Error e) {
+				throw e;
+			} catch (Throwable e) {
+				failure = addFailure(failure, new IllegalStateException(e));
+			}
+		}
+
+		if (failure != null) {
+			throw failure;
+		}
+
+	}
+
+	public static Node node(final AbstractLifecycleManager lifecycleManager) {
+		return new Node() {
+
+			@Override
+			public void start() throws Throwable {
+				if (!lifecycleManager.isReady()) {
+					lifecycleManager.startEngine();
+				}
+			}
+
+			@Override
+			public void stop() {
+				if (lifecycleManager.isReady()) {
+					lifecycleManager.stopEngine();
+				}
+			}
+		};
+	}
+
+	private void runConcurrently(List<Node> stage, final boolean start) throws Throwable {
+
+		if (stage.size() == 1) {
+			run(stage.get(0), start);
+			return;
+		}
+
+		List<Future<Void>> executions = new ArrayList<Future<Void>>(stage.size());
+
+		for (final Node node : stage) {
+			executions.add(LauncherExecutor.INSTANCE.submit(new Callable<Void>() {
+
+				@Override
+				public Void call() throws Exception {
+					try {
+						run(node, start);
+					} catch (Exception e) {
+						throw e;
+					} catch (Error e) {
+						throw e;
+					} catch (Throwable e) {
+						throw new IllegalStateException(e);
+					}
+					return null;
+				}
+			}));
+		}
+
+		awaitExecutions(executions);
+	}
+
+	private void run(Node node, boolean start) throws Throwable {
+		if (start) {
+			node.start();
+		} else {
+			node.stop();
+		}
+	}
+
+	private void awaitExecutions(List<Future<Void>> executions) throws Throwable {
+
+		Throwable failure = null;
+
+		for (Future<Void> execution : executions) {
+			try {
+				execution.get();
+			} catch (ExecutionException e) {
+				if (failure == null) {
+					failure = e.getCause();
+				} else {
+					failure.addSuppressed(e.getCause());
+				}
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+				throw new IllegalStateException("Interrupted while waiting topology to be launched.", e);
+			}
+		}
+
+		if (failure != null) {
+			throw failure;
+		}
+	}
+
+	private RuntimeException addFailure(RuntimeException failure, RuntimeException newFailure) {
+		if (failure == null) {
+			return newFailure;
+		}
+
+		failure.addSuppressed(newFailure);
+		return failure;
+	}
+
+}
@@ -0,0 +1,26 @@
+package com.lordofthejars.nosqlunit.core;
+
+/**
+ * Implemented by {@link DatabaseOperation}s able to run a test inside a
+ * transaction, so {@link LoadStrategyEnum#ROLLBACK} can insert datasets, run
+ * the test and compare expected datasets inside it, and discard everything by
+ * rolling it back instead of deleting database content.
+ */
+public interface TransactionalDatabaseOperation {
+
+	/**
+	 * Opens a transaction used by following insertions, the test and the
+	 * comparison of expected datasets.
+	 * 
+	 * @throws IllegalStateException
+	 *             if a transaction is already open.
+	 */
+	void beginTransaction();
+
+	/**
+	 * Rolls back the open transaction. It does nothing when no transaction is
+	 * open.
+	 */
+	void rollbackTransaction();
+
+}
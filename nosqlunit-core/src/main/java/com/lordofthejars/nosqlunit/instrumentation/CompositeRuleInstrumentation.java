@@ -0,0 +1,85 @@
+package com.lordofthejars.nosqlunit.instrumentation;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.ServiceLoader;
+
+/**
+ * Dispatches phase timings to all registered instrumentations. Default
+ * instance contains the ones registered through
+ * <code>java.util.ServiceLoader</code>, like Java Flight Recorder events of
+ * <code>nosqlunit-jfr</code> module, and a {@link PhaseTimingReport} when
+ * <code>nosqlunit.phase.report</code> system property sets the file where it
+ * is written.
+ */
+public class CompositeRuleInstrumentation implements RuleInstrumentation {
+
+	public static final String REPORT_PROPERTY = "nosqlunit.phase.report";
+
+	private static final Measurement NO_MEASUREMENT = new Measurement() {
+
+		@Override
+		public void stop() {
+		}
+	};
+
+	private static CompositeRuleInstrumentation defaultInstrumentation;
+
+	private final RuleInstrumentation[] ruleInstrumentations;
+
+	public CompositeRuleInstrumentation(List<RuleInstrumentation> ruleInstrumentations) {
+		this.ruleInstrumentations = ruleInstrumentations.toArray(new RuleInstrumentation[ruleInstrumentations.size()]);
+	}
+
+	public static synchronized CompositeRuleInstrumentation getDefault() {
+		if (defaultInstrumentation == null) {
+			defaultInstrumentation = new CompositeRuleInstrumentation(defaultInstrumentations());
+		}
+		return defaultInstrumentation;
+	}
+
+	@Override
+	public Measurement start(RulePhase phase, String identifier, String testName, String dataSets) {
+
+		switch (ruleInstrumentations.length) {
+		case 0:
+			return NO_MEASUREMENT;
+		case 1:
+			return ruleInstrumentations[0].start(phase, identifier, testName, dataSets);
+		default:
+			final Measurement[] measurements = new Measurement[ruleInstrumentations.length];
+			for (int i = 0; i < ruleInstrumentations.length; i++) {
+				measurements[i] = ruleInstrumentations[i].start(phase, identifier, testName, dataSets);
+			}
+
+			return new Measurement() {
+
+				@Override
+				public void stop() {
+					for (int i = measurements.length - 1; i >= 0; i--) {
+						measurements[i].stop();
+					}
+				}
+			};
+		}
+	}
+
+	private static List<RuleInstrumentation> defaultInstrumentations() {
+
+		List<RuleInstrumentation> ruleInstrumentations = new ArrayList<RuleInstrumentation>();
+
+		for (RuleInstrumentation ruleInstrumentation : ServiceLoader.load(RuleInstrumentation.class)) {
+			ruleInstrumentations.add(ruleInstrumentation);
+		}
+
+		String reportLocation = System.getProperty(REPORT_PROPERTY);
+		if (reportLocation != null && !"".equals(reportLocation.trim())) {
+			PhaseTimingReport phaseTimingReport = new PhaseTimingReport();
+			phaseTimingReport.writeOnShutdown(reportLocation);
+			ruleInstrumentations.add(phaseTimingReport);
+		}
+
+		return ruleInstrumentations;
+	}
+
+}
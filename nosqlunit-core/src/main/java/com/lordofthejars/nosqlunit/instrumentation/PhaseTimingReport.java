@@ -0,0 +1,243 @@
+package com.lordofthejars.nosqlunit.instrumentation;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Collects duration of every phase grouped by rule identifier, phase and
+ * datasets, and reports number of executions, median (p50), 99th percentile
+ * (p99) and total time of each group.
+ */
+public class PhaseTimingReport implements RuleInstrumentation {
+
+	private static final Logger LOGGER = LoggerFactory.getLogger(PhaseTimingReport.class);
+
+	private static final String HEADER = "identifier\tphase\tdatasets\tcount\tp50 (ms)\tp99 (ms)\ttotal (ms)";
+	private static final double NANOS_PER_MILLI = 1000000.0d;
+	private static final int INITIAL_CAPACITY = 16;
+
+	private static final class Key {
+
+		private final String identifier;
+		private final RulePhase phase;
+		private final String dataSets;
+
+		public Key(String identifier, RulePhase phase, String dataSets) {
+			this.identifier = String.valueOf(identifier);
+			this.phase = phase;
+			this.dataSets = dataSets == null ? "" : dataSets;
+		}
+
+		@Override
+		public int hashCode() {
+			final int prime = 31;
+			int result = 1;
+			result = prime * result + identifier.hashCode();
+			result = prime * result + phase.hashCode();
+			result = prime * result + dataSets.hashCode();
+			return result;
+		}
+
+		@Override
+		public boolean equals(Object obj) {
+			if (this == obj)
+				return true;
+			if (obj == null || getClass() != obj.getClass())
+				return false;
+			Key other = (Key) obj;
+			return phase == other.phase && identifier.equals(other.identifier) && dataSets.equals(other.dataSets);
+		}
+
+	}
+
+	private static final class Durations {
+
+		private long[] values = new long[INITIAL_CAPACITY];
+		private int size;
+
+		public synchronized void add(long duration) {
+			if (size == values.length) {
+				values = Arrays.copyOf(values, size * 2);
+			}
+			values[size++] = duration;
+		}
+
+		public synchronized long[] sorted() {
+			long[] sorted = Arrays.copyOf(values, size);
+			Arrays.sort(sorted);
+			return sorted;
+		}
+
+	}
+
+	private final ConcurrentMap<Key, Durations> durations = new ConcurrentHashMap<Key, Durations>();
+
+	@Override
+	public Measurement start(final RulePhase phase, final String identifier, String testName, final String dataSets) {
+
+		final long start = System.nanoTime();
+
+		return new Measurement() {
+
+			@Override
+			public void stop() {
+				record(phase, identifier, dataSets, System.nanoTime() - start);
+			}
+		};
+	}
+
+	public void record(RulePhase phase, String identifier, String dataSets, long durationInNanos) {
+
+		Key key = new Key(identifier, phase, dataSets);
+		Durations keyDurations = durations.get(key);
+
+		if (keyDurations == null) {
+			keyDurations = new Durations();
+			Durations previous = durations.putIfAbsent(key, keyDurations);
+			if (previous != null) {
+				keyDurations = previous;
+			}
+		}
+
+		keyDurations.add(durationInNanos);
+	}
+
+	/**
+	 * Writes a tab separated line for each group, sorted by identifier, phase
+	 * and datasets.
+	 */
+	public void write(Writer writer) throws IOException {
+
+		List<Map.Entry<Key, Durations>> entries = new ArrayList<Map.Entry<Key, Durations>>(durations.entrySet());
+		Collections.sort(entries, new Comparator<Map.Entry<Key, Durations>>() {
+
+			@Override
+			public int compare(Map.Entry<Key, Durations> o1, Map.Entry<Key, Durations> o2) {
+				Key key1 = o1.getKey();
+				Key key2 = o2.getKey();
+
+				int comparison = key1.identifier.compareTo(key2.identifier);
+				if (comparison == 0) {
+					comparison = key1.phase.compareTo(key2.phase);
+				}
+				if (comparison == 0) {
+					comparison = key1.dataSets.compareTo(key2.dataSets);
+				}
+				return comparison;
+			}
+		});
+
+		writer.write(HEADER);
+		writer.write('\n');
+
+		for (Map.Entry<Key, Durations> entry : entries) {
+			Key key = entry.getKey();
+			long[] sorted = entry.getValue().sorted();
+
+			writer.write(key.identifier + '\t' + key.phase + '\t' + key.dataSets + '\t' + sorted.length + '\t'
+					+ millis(percentile(sorted, 0.50d)) + '\t' + millis(percentile(sorted, 0.99d)) + '\t'
+					+ millis(total(sorted)));
+			writer.write('\n');
+		}
+
+		writer.flush();
+	}
+
+	/**
+	 * Writes the report when JVM exits, which is at the end of the test suite,
+	 * into given file with the process id added to its name, so parallel
+	 * test JVMs (surefire forks) do not overwrite reports of each other.
+	 */
+	public void writeOnShutdown(final String reportLocation) {
+		Runtime.getRuntime().addShutdownHook(new Thread("nosqlunit-phase-report") {
+
+			@Override
+			public void run() {
+				writeTo(new File(processReportLocation(reportLocation, currentProcessId())));
+			}
+		});
+	}
+
+	/**
+	 * @return given location with process id added before the extension of
+	 *         the file name, for example <code>phases-1234.txt</code>.
+	 */
+	static String processReportLocation(String reportLocation, String processId) {
+
+		int nameStart = Math.max(reportLocation.lastIndexOf('/'), reportLocation.lastIndexOf(File.separatorChar)) + 1;
+		int extensionStart = reportLocation.lastIndexOf('.');
+
+		if (extensionStart <= nameStart) {
+			return reportLocation + '-' + processId;
+		}
+
+		return reportLocation.substring(0, extensionStart) + '-' + processId + reportLocation.substring(extensionStart);
+	}
+
+	/**
+	 * Runtime name is <code>pid@hostname</code> on known virtual machines.
+	 */
+	private static String currentProcessId() {
+		String runtimeName = ManagementFactory.getRuntimeMXBean().getName();
+		int separator = runtimeName.indexOf('@');
+
+		return separator > 0 ? runtimeName.substring(0, separator) : runtimeName;
+	}
+
+	private void writeTo(File reportFile) {
+
+		File parent = reportFile.getAbsoluteFile().getParentFile();
+		if (parent != null) {
+			parent.mkdirs();
+		}
+
+		try {
+			Writer writer = new OutputStreamWriter(new FileOutputStream(reportFile), "UTF-8");
+			try {
+				write(writer);
+			} finally {
+				writer.close();
+			}
+		} catch (IOException e) {
+			LOGGER.warn("Phase timing report could not be written to " + reportFile, e);
+		}
+	}
+
+	static long percentile(long[] sorted, double percentile) {
+		if (sorted.length == 0) {
+			return 0;
+		}
+
+		int rank = (int) Math.ceil(percentile * sorted.length);
+		return sorted[Math.max(rank, 1) - 1];
+	}
+
+	private static long total(long[] values) {
+		long total = 0;
+		for (long value : values) {
+			total += value;
+		}
+		return total;
+	}
+
+	private static String millis(long nanos) {
+		return String.format(Locale.ROOT, "%.3f", nanos / NANOS_PER_MILLI);
+	}
+
+}
@@ -0,0 +1,36 @@
+package com.lordofthejars.nosqlunit.instrumentation;
+
+/**
+ * Receives timings of the phases executed by rules. Implementations can be
+ * registered using <code>java.util.ServiceLoader</code>, through a
+ * <code>META-INF/services/com.lordofthejars.nosqlunit.instrumentation.RuleInstrumentation</code>
+ * file, and must be thread safe.
+ */
+public interface RuleInstrumentation {
+
+	/**
+	 * Measurement of a running phase.
+	 */
+	interface Measurement {
+
+		void stop();
+
+	}
+
+	/**
+	 * Called when a phase starts.
+	 * 
+	 * @param phase
+	 *            phase being executed.
+	 * @param identifier
+	 *            identifier of the rule.
+	 * @param testName
+	 *            test class and method name.
+	 * @param dataSets
+	 *            datasets used by the test, or empty if none is used.
+	 * @return measurement that is stopped when phase finishes, even if it
+	 *         fails.
+	 */
+	Measurement start(RulePhase phase, String identifier, String testName, String dataSets);
+
+}
@@ -0,0 +1,10 @@
+package com.lordofthejars.nosqlunit.instrumentation;
+
+/**
+ * Phases executed by a NoSQLUnit rule around each test.
+ */
+public enum RulePhase {
+
+	LOAD_DATASET, INJECTION, TEST, EXPECTATION, CLOSE;
+
+}
@@ -3,8 +3,11 @@ package com.lordofthejars.nosqlunit.objects;
 import com.lordofthejars.nosqlunit.util.ReflectionUtil;
 import org.codehaus.jackson.JsonNode;
 import org.codehaus.jackson.JsonParseException;
+import org.codehaus.jackson.JsonParser;
+import org.codehaus.jackson.JsonToken;
 import org.codehaus.jackson.map.JsonMappingException;
 import org.codehaus.jackson.map.ObjectMapper;
+import org.codehaus.jackson.map.ObjectReader;
 
 import java.io.IOException;
 import java.io.InputStream;
@@ -13,21 +16,62 @@ import java.util.Collection;
 import java.util.HashMap;
 import java.util.Iterator;
 import java.util.Map;
-
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Reads key-value datasets. Datasets are parsed as a stream, and each key and
+ * value is handed as soon as its element is read. Implementation classes and
+ * their readers are resolved once and cached.
+ */
 public class KeyValueObjectMapper {
 
 	private static final String NO_IMPLEMENTATION_PROVIDED = "";
 	private static final ObjectMapper OBJECT_MAPPER = new ObjectMapper();
 
+	private static final ConcurrentMap<String, Class<?>> IMPLEMENTATION_CLASSES = new ConcurrentHashMap<String, Class<?>>();
+
+	private static final ClassValue<ObjectReader> OBJECT_READERS = new ClassValue<ObjectReader>() {
+		@Override
+		protected ObjectReader computeValue(Class<?> type) {
+			return OBJECT_MAPPER.reader(type);
+		}
+	};
+
+	/**
+	 * Receives each key and value of a dataset as soon as it is read.
+	 */
+	public interface KeyValueHandler {
+		void keyValue(Object key, Object value);
+	}
+
 	public Map<Object, Object> readValues(InputStream dataStream) {
 
-		Map<Object, Object> objects = new HashMap<Object, Object>();
+		final Map<Object, Object> objects = new HashMap<Object, Object>();
+
+		readValues(dataStream, new KeyValueHandler() {
+
+			@Override
+			public void keyValue(Object key, Object value) {
+				objects.put(key, value);
+			}
+		});
+
+		return objects;
+
+	}
+
+	public void readValues(InputStream dataStream, KeyValueHandler keyValueHandler) {
 
 		try {
 
-			Iterator<JsonNode> elements = dataElements(dataStream);
+			JsonParser parser = OBJECT_MAPPER.getJsonFactory().createJsonParser(dataStream);
 
-			objects.putAll(readElements(elements));
+			try {
+				readDataElements(parser, keyValueHandler);
+			} finally {
+				parser.close();
+			}
 
 		} catch (JsonParseException e) {
 			throw new IllegalArgumentException(e);
@@ -39,25 +83,78 @@ public class KeyValueObjectMapper {
 			throw new IllegalArgumentException("Implementation class is not found in classpath", e);
 		}
 
-		return objects;
+	}
+
+	private void readDataElements(JsonParser parser, KeyValueHandler keyValueHandler) throws IOException,
+			JsonParseException, JsonMappingException, ClassNotFoundException {
 
+		if (parser.nextToken() != JsonToken.START_OBJECT) {
+			throw new IllegalArgumentException("Given dataset is not a JSON object.");
+		}
+
+		while (parser.nextToken() == JsonToken.FIELD_NAME) {
+			String field = parser.getCurrentName();
+			JsonToken token = parser.nextToken();
+
+			if (KeyValueTokens.DATA_TOKEN.equals(field) && token == JsonToken.START_ARRAY) {
+				while (parser.nextToken() == JsonToken.START_OBJECT) {
+					readDataElement(parser, keyValueHandler);
+				}
+			} else {
+				parser.skipChildren();
+			}
+		}
 	}
 
-	private Map<Object, Object> readElements(Iterator<JsonNode> elements) throws IOException,
+	/**
+	 * Object values whose implementation is given before them are read
+	 * directly from the stream. Other keys and values are read as a tree of
+	 * their own element.
+	 */
+	private void readDataElement(JsonParser parser, KeyValueHandler keyValueHandler) throws IOException,
 			JsonParseException, JsonMappingException, ClassNotFoundException {
-		
-		Map<Object, Object> objects = new HashMap<Object, Object>();
-		
-		while (elements.hasNext()) {
-			JsonNode element = elements.next();
-			
-			Object keyValue = keyValue(element);
-			Object readValue = readValue(element);
-			
-			objects.put(keyValue, readValue);
+
+		String implementationValue = NO_IMPLEMENTATION_PROVIDED;
+		String implementationKey = NO_IMPLEMENTATION_PROVIDED;
+		JsonNode key = null;
+		JsonNode value = null;
+		Object readValue = null;
+		boolean valueRead = false;
+
+		while (parser.nextToken() == JsonToken.FIELD_NAME) {
+			String field = parser.getCurrentName();
+			JsonToken token = parser.nextToken();
+
+			if (KeyValueTokens.VALUE_TOKEN.equals(field)) {
+				if (token == JsonToken.START_OBJECT && !NO_IMPLEMENTATION_PROVIDED.equals(implementationValue)) {
+					readValue = objectReader(implementationValue).readValue(parser);
+					valueRead = true;
+				} else {
+					value = parser.readValueAsTree();
+				}
+			} else if (KeyValueTokens.KEY_TOKEN.equals(field)) {
+				key = parser.readValueAsTree();
+			} else if (KeyValueTokens.IMPLEMENTATION_TOKEN.equals(field)) {
+				implementationValue = parser.getText().trim();
+			} else if (KeyValueTokens.IMPLEMENTATION_KEY_TOKEN.equals(field)) {
+				implementationKey = parser.getText().trim();
+			} else {
+				parser.skipChildren();
+			}
 		}
-		
-		return objects;
+
+		if (key == null) {
+			throw new IllegalArgumentException("Given dataset does not contain "+KeyValueTokens.KEY_TOKEN+" token.");
+		}
+
+		if (!valueRead) {
+			if (value == null) {
+				throw new IllegalArgumentException("Given dataset does not contain "+KeyValueTokens.VALUE_TOKEN+" token.");
+			}
+			readValue = readElement(value, implementationValue);
+		}
+
+		keyValueHandler.keyValue(readElement(key, implementationKey), readValue);
 	}
 
 	private Object readValue(JsonNode element) throws IOException, JsonParseException, JsonMappingException,
@@ -101,7 +198,22 @@ public class KeyValueObjectMapper {
 			throw new IllegalArgumentException("No implementation class has been provided.");
 		}
 		
-		return OBJECT_MAPPER.readValue(value, Class.forName(implementationValue));
+		return objectReader(implementationValue).readValue(value);
+	}
+
+	private ObjectReader objectReader(String implementationValue) throws ClassNotFoundException {
+		return OBJECT_READERS.get(implementationClass(implementationValue));
+	}
+
+	private Class<?> implementationClass(String implementationValue) throws ClassNotFoundException {
+		Class<?> implementationClass = IMPLEMENTATION_CLASSES.get(implementationValue);
+
+		if (implementationClass == null) {
+			implementationClass = Class.forName(implementationValue);
+			IMPLEMENTATION_CLASSES.putIfAbsent(implementationValue, implementationClass);
+		}
+
+		return implementationClass;
 	}
 
 	private Object readArray(JsonNode value, String implementationValue) throws IOException, JsonParseException,
@@ -120,15 +232,6 @@ public class KeyValueObjectMapper {
 		return readObject;
 	}
 
-	private String implementationKeyClass(JsonNode element) {
-		String implementationValue = NO_IMPLEMENTATION_PROVIDED;
-
-		if (element.has(KeyValueTokens.IMPLEMENTATION_KEY_TOKEN)) {
-			implementationValue = element.path(KeyValueTokens.IMPLEMENTATION_KEY_TOKEN).getTextValue();
-		}
-		return implementationValue.trim();
-	}
-	
 	private String implementationClass(JsonNode element) {
 		String implementationValue = NO_IMPLEMENTATION_PROVIDED;
 
@@ -146,11 +249,11 @@ public class KeyValueObjectMapper {
 		}
 	}
 
-	private Collection<Object> collection(String implementation) {
+	private Collection<Object> collection(String implementation) throws ClassNotFoundException {
 		if(implementation.equals(NO_IMPLEMENTATION_PROVIDED)) {
 			return new ArrayList<Object>();
 		} else {
-			return ReflectionUtil.createInstance(implementation);
+			return ReflectionUtil.createInstance(implementationClass(implementation));
 		}
 	}
 	
@@ -176,25 +279,5 @@ public class KeyValueObjectMapper {
 			return simpleValue.getTextValue();
 		}
 	}
-	
-	private Object keyValue(JsonNode element) throws JsonParseException, JsonMappingException, IOException, ClassNotFoundException {
-		Object keyValue;
-		if (element.has(KeyValueTokens.KEY_TOKEN)) {
-			String implementationKey = implementationKeyClass(element);
-			keyValue = readElement(element.path(KeyValueTokens.KEY_TOKEN), implementationKey);
-		} else {
-			throw new IllegalArgumentException("Given dataset does not contain "+KeyValueTokens.KEY_TOKEN+" token.");
-		}
-		return keyValue;
-	}
-
-	private Iterator<JsonNode> dataElements(InputStream dataStream) throws IOException, JsonParseException,
-			JsonMappingException {
-		JsonNode rootNode = OBJECT_MAPPER.readValue(dataStream, JsonNode.class);
-		JsonNode dataNode = rootNode.path(KeyValueTokens.DATA_TOKEN);
-
-		Iterator<JsonNode> elements = dataNode.getElements();
-		return elements;
-	}
 
 }
@@ -1,37 +1,43 @@
 package com.lordofthejars.nosqlunit.proxy;
 
-import com.lordofthejars.nosqlunit.util.ReflectionUtil;
-import net.sf.cglib.proxy.Enhancer;
 import net.sf.cglib.proxy.MethodInterceptor;
 import net.sf.cglib.proxy.MethodProxy;
 
-import java.lang.reflect.InvocationTargetException;
 import java.lang.reflect.Method;
-import java.util.Arrays;
 
 public class RedirectProxy<S, D> {
 	
-	@SuppressWarnings("unchecked")
+	/**
+	 * Proxy classes and redirected methods are cached per source and
+	 * destination types by {@link RedirectProxyFactory}.
+	 */
 	public static <S, D> S createProxy(Class<S> source, D destination, Object ... arguments) {
-		return (S) Enhancer.create(source, new RedirectMethod(destination));
+		return RedirectProxyFactory.forTypes(source, destination.getClass()).createProxy(destination);
 	}
 
 	public static class RedirectMethod<D> implements MethodInterceptor {
 
 		private D destination;
+		private RedirectProxyFactory<?> redirectProxyFactory;
 
 		public RedirectMethod(D destination) {
+			this(destination, null);
+		}
+
+		RedirectMethod(D destination, RedirectProxyFactory<?> redirectProxyFactory) {
 			this.destination = destination;
+			this.redirectProxyFactory = redirectProxyFactory;
 		}
 
 		public Object intercept(Object object, Method method, Object[] arguments, MethodProxy proxy) throws Throwable {
-			try {
-				return ReflectionUtil.callMethod(destination, method, arguments);
+			RedirectProxyFactory<?> factory = redirectProxyFactory;
 
-			} catch (InvocationTargetException e) {
-				throw new UnsupportedOperationException("The method " + method.getName() + " with parameters "
-						+ Arrays.toString(arguments) + " does not exist on class " + destination.getClass());
+			if (factory == null) {
+				factory = RedirectProxyFactory.forTypes(method.getDeclaringClass(), destination.getClass());
+				redirectProxyFactory = factory;
 			}
+
+			return factory.redirect(destination, method, arguments);
 		}
 
 	}
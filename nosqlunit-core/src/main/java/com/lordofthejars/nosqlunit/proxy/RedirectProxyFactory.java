@@ -0,0 +1,151 @@
+package com.lordofthejars.nosqlunit.proxy;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Method;
+import java.util.Arrays;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+import net.sf.cglib.proxy.Enhancer;
+import net.sf.cglib.proxy.Factory;
+
+/**
+ * Creates proxies of a source type redirecting their calls to instances of a
+ * destination type. Proxy class is generated once per pair of types, and
+ * further proxies are instantiated from it. Each source method is resolved
+ * once into a {@link MethodHandle} of the destination method with same name
+ * and parameter types, so redirected calls are not looked up again.
+ */
+public final class RedirectProxyFactory<S> {
+
+	private static final MethodType REDIRECTED_METHOD_TYPE = MethodType.methodType(Object.class, Object.class,
+			Object[].class);
+
+	private static final ClassValue<ConcurrentMap<Class<?>, RedirectProxyFactory<?>>> FACTORIES = new ClassValue<ConcurrentMap<Class<?>, RedirectProxyFactory<?>>>() {
+		@Override
+		protected ConcurrentMap<Class<?>, RedirectProxyFactory<?>> computeValue(Class<?> source) {
+			return new ConcurrentHashMap<Class<?>, RedirectProxyFactory<?>>();
+		}
+	};
+
+	private final Class<S> source;
+	private final Class<?> destination;
+	private final ConcurrentMap<Method, RedirectedMethod> redirectedMethods = new ConcurrentHashMap<Method, RedirectedMethod>();
+
+	private volatile Factory prototype;
+
+	private RedirectProxyFactory(Class<S> source, Class<?> destination) {
+		this.source = source;
+		this.destination = destination;
+
+		for (Method method : source.getMethods()) {
+			redirectedMethods.put(method, resolve(method));
+		}
+	}
+
+	@SuppressWarnings("unchecked")
+	public static <S> RedirectProxyFactory<S> forTypes(Class<S> source, Class<?> destination) {
+		ConcurrentMap<Class<?>, RedirectProxyFactory<?>> factoriesOfSource = FACTORIES.get(source);
+		RedirectProxyFactory<?> factory = factoriesOfSource.get(destination);
+
+		if (factory == null) {
+			factory = new RedirectProxyFactory<S>(source, destination);
+			RedirectProxyFactory<?> previousFactory = factoriesOfSource.putIfAbsent(destination, factory);
+
+			if (previousFactory != null) {
+				factory = previousFactory;
+			}
+		}
+
+		return (RedirectProxyFactory<S>) factory;
+	}
+
+	@SuppressWarnings("unchecked")
+	public S createProxy(Object destinationInstance) {
+		if (!destination.isInstance(destinationInstance)) {
+			throw new IllegalArgumentException(destinationInstance + " is not an instance of " + destination.getName());
+		}
+
+		RedirectProxy.RedirectMethod<Object> redirectMethod = new RedirectProxy.RedirectMethod<Object>(
+				destinationInstance, this);
+		Factory currentPrototype = prototype;
+
+		if (currentPrototype == null) {
+			currentPrototype = (Factory) Enhancer.create(source, redirectMethod);
+			prototype = currentPrototype;
+			return (S) currentPrototype;
+		}
+
+		return (S) currentPrototype.newInstance(redirectMethod);
+	}
+
+	Object redirect(Object destinationInstance, Method method, Object[] arguments) throws Throwable {
+		RedirectedMethod redirectedMethod = redirectedMethods.get(method);
+
+		if (redirectedMethod == null) {
+			redirectedMethod = resolve(method);
+			redirectedMethods.putIfAbsent(method, redirectedMethod);
+		}
+
+		return redirectedMethod.invoke(destinationInstance, arguments);
+	}
+
+	private RedirectedMethod resolve(Method method) {
+		Method destinationMethod = findDestinationMethod(method);
+
+		if (destinationMethod == null) {
+			return new RedirectedMethod(method, null);
+		}
+
+		try {
+			destinationMethod.setAccessible(true);
+			MethodHandle methodHandle = MethodHandles.lookup().unreflect(destinationMethod)
+					.asSpreader(Object[].class, destinationMethod.getParameterTypes().length)
+					.asType(REDIRECTED_METHOD_TYPE);
+			return new RedirectedMethod(method, methodHandle);
+		} catch (IllegalAccessException e) {
+			throw new IllegalArgumentException(e);
+		}
+	}
+
+	private Method findDestinationMethod(Method method) {
+		for (Class<?> type = destination; type != null; type = type.getSuperclass()) {
+			try {
+				return type.getDeclaredMethod(method.getName(), method.getParameterTypes());
+			} catch (NoSuchMethodException e) {
+				// looks up in superclass
+			}
+		}
+
+		try {
+			return destination.getMethod(method.getName(), method.getParameterTypes());
+		} catch (NoSuchMethodException e) {
+			return null;
+		}
+	}
+
+	private final class RedirectedMethod {
+
+		private final Method method;
+		private final MethodHandle methodHandle;
+
+		private RedirectedMethod(Method method, MethodHandle methodHandle) {
+			this.method = method;
+			this.methodHandle = methodHandle;
+		}
+
+		private Object invoke(Object destinationInstance, Object[] arguments) throws Throwable {
+			if (methodHandle == null) {
+				throw new UnsupportedOperationException("The method " + method.getName() + " with parameters "
+						+ Arrays.toString(arguments) + " does not exist on class " + destination);
+			}
+
+			Object[] redirectedArguments = arguments == null ? new Object[0] : arguments;
+			return (Object) methodHandle.invokeExact(destinationInstance, redirectedArguments);
+		}
+
+	}
+
+}
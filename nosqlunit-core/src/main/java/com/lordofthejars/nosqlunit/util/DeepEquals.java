@@ -1,16 +1,21 @@
 package com.lordofthejars.nosqlunit.util;
 
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
 import java.lang.reflect.Array;
 import java.lang.reflect.Field;
 import java.lang.reflect.Modifier;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collection;
-import java.util.Deque;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.Iterator;
 import java.util.LinkedList;
+import java.util.List;
 import java.util.Map;
+import java.util.RandomAccess;
 import java.util.Map.Entry;
 import java.util.Set;
 import java.util.SortedMap;
@@ -33,7 +38,8 @@ import java.util.concurrent.ConcurrentHashMap;
  * This method will handle cycles correctly, for example A->B->C->A.  Suppose a and
  * a' are two separate instances of A with the same values for all fields on
  * A, B, and C.  Then a.deepEquals(a') will return true.  It uses cycle detection
- * storing visited objects in a Set to prevent endless loops.
+ * storing visited pairs, by identity, to prevent endless loops.  How each class
+ * is compared, including method handles reading its fields, is resolved once.
  *  
  * @author John DeRegnaucourt (jdereg@gmail.com)
  *         <br/>
@@ -57,389 +63,607 @@ public class DeepEquals
     private static final Map<Class<?>, Boolean> _customHash = new ConcurrentHashMap<Class<?>, Boolean>();
     private static final Map<Class<?>, Collection<Field>> _reflectedFields = new ConcurrentHashMap<Class<?>, Collection<Field>>();
     
-    private static class DualKey
+    private static final ClassValue<ClassComparison> _classComparisons = new ClassValue<ClassComparison>()
     {
-        private final Object _key1;
-        private final Object _key2;
-        
-        private DualKey(Object k1, Object k2)
+        @Override
+        protected ClassComparison computeValue(Class<?> c)
         {
-            _key1 = k1;
-            _key2 = k2;
+            return new ClassComparison(c);
         }
-        
-        public boolean equals(Object other)
+    };
+
+    private static final MethodType REFERENCE_GETTER = MethodType.methodType(Object.class, Object.class);
+    private static final MethodType INTEGRAL_GETTER = MethodType.methodType(long.class, Object.class);
+    private static final MethodType FLOATING_GETTER = MethodType.methodType(double.class, Object.class);
+    private static final MethodType BOOLEAN_GETTER = MethodType.methodType(boolean.class, Object.class);
+
+    private static final MethodHandle[] NO_GETTERS = new MethodHandle[0];
+
+    private enum ComparisonKind
+    {
+        OBJECT_ARRAY, PRIMITIVE_ARRAY, SORTED_SET, SET, COLLECTION, SORTED_MAP, MAP, CUSTOM_EQUALS, FIELDS
+    }
+
+    /**
+     * How instances of a class are compared, resolved once per class.  Fields
+     * are read through method handles, and primitive fields are compared
+     * without boxing them.
+     */
+    private static final class ClassComparison
+    {
+        private final ComparisonKind _kind;
+        private final boolean _lookupByEquals;
+        private final MethodHandle[] _referenceGetters;
+        private final MethodHandle[] _integralGetters;
+        private final MethodHandle[] _floatingGetters;
+        private final MethodHandle[] _booleanGetters;
+
+        private ClassComparison(Class<?> c)
         {
-            if (other == null)
+            _kind = kindOf(c);
+            // Instances can be looked up in hash based collections instead of being deeply compared.
+            _lookupByEquals = _kind == ComparisonKind.CUSTOM_EQUALS && hasCustomHashCode(c);
+
+            if (_kind != ComparisonKind.FIELDS)
             {
-                return false;
+                _referenceGetters = NO_GETTERS;
+                _integralGetters = NO_GETTERS;
+                _floatingGetters = NO_GETTERS;
+                _booleanGetters = NO_GETTERS;
+                return;
             }
-            
-            if (!(other instanceof DualKey))
+
+            List<MethodHandle> referenceGetters = new ArrayList<MethodHandle>();
+            List<MethodHandle> integralGetters = new ArrayList<MethodHandle>();
+            List<MethodHandle> floatingGetters = new ArrayList<MethodHandle>();
+            List<MethodHandle> booleanGetters = new ArrayList<MethodHandle>();
+
+            for (Field field : getDeepDeclaredFields(c))
             {
-                return false;
+                MethodHandle getter;
+                try
+                {
+                    getter = MethodHandles.lookup().unreflectGetter(field);
+                }
+                catch (IllegalAccessException ignored)
+                {   // Fields that cannot be read are not compared.
+                    continue;
+                }
+
+                Class<?> type = field.getType();
+                if (!type.isPrimitive())
+                {
+                    referenceGetters.add(getter.asType(REFERENCE_GETTER));
+                }
+                else if (type == boolean.class)
+                {
+                    booleanGetters.add(getter.asType(BOOLEAN_GETTER));
+                }
+                else if (type == float.class || type == double.class)
+                {
+                    floatingGetters.add(getter.asType(FLOATING_GETTER));
+                }
+                else
+                {
+                    integralGetters.add(getter.asType(INTEGRAL_GETTER));
+                }
             }
-            
-            DualKey that = (DualKey) other;
-            return _key1 == that._key1 && _key2 == that._key2;
+
+            _referenceGetters = referenceGetters.toArray(NO_GETTERS);
+            _integralGetters = integralGetters.toArray(NO_GETTERS);
+            _floatingGetters = floatingGetters.toArray(NO_GETTERS);
+            _booleanGetters = booleanGetters.toArray(NO_GETTERS);
         }
-        
-        public int hashCode()
+
+        private static ComparisonKind kindOf(Class<?> c)
         {
-            int h1 = _key1 != null ? _key1.hashCode() : 0;
-            int h2 = _key2 != null ? _key2.hashCode() : 0;
-            return h1 + h2;
+            if (c.isArray())
+            {
+                return c.getComponentType().isPrimitive() ? ComparisonKind.PRIMITIVE_ARRAY : ComparisonKind.OBJECT_ARRAY;
+            }
+            if (SortedSet.class.isAssignableFrom(c))
+            {
+                return ComparisonKind.SORTED_SET;
+            }
+            if (Set.class.isAssignableFrom(c))
+            {
+                return ComparisonKind.SET;
+            }
+            if (Collection.class.isAssignableFrom(c))
+            {
+                return ComparisonKind.COLLECTION;
+            }
+            if (SortedMap.class.isAssignableFrom(c))
+            {
+                return ComparisonKind.SORTED_MAP;
+            }
+            if (Map.class.isAssignableFrom(c))
+            {
+                return ComparisonKind.MAP;
+            }
+            if (hasCustomEquals(c))
+            {
+                return ComparisonKind.CUSTOM_EQUALS;
+            }
+            return ComparisonKind.FIELDS;
         }
     }
 
     /**
-     * Compare two objects with a 'deep' comparison.  This will traverse the
-     * Object graph and perform either a field-by-field comparison on each
-     * object (if no .equals() method has been overridden from Object), or it
-     * will call the customized .equals() method if it exists.  This method will
-     * allow object graphs loaded at different times (with different object ids)
-     * to be reliably compared.  Object.equals() / Object.hashCode() rely on the
-     * object's identity, which would not consider to equivalent objects necessarily
-     * equals.  This allows graphs containing instances of Classes that did no
-     * overide .equals() / .hashCode() to be compared.  For example, testing for
-     * existence in a cache.  Relying on an objects identity will not locate an
-     * object in cache, yet relying on it being equivalent will.<br/><br/>
-     *
-     * This method will handle cycles correctly, for example A->B->C->A.  Suppose a and
-     * a' are two separate instances of the A with the same values for all fields on
-     * A, B, and C.  Then a.deepEquals(a') will return true.  It uses cycle detection
-     * storing visited objects in a Set to prevent endless loops.
-     * @param a Object one to compare
-     * @param b Object two to compare
-     * @return true if a is equivalent to b, false otherwise.  Equivalent means that
-     * all field values of both subgraphs are the same, either at the field level
-     * or via the respectively encountered overridden .equals() methods during
-     * traversal.
+     * Set of compared pairs, identified by the identity of both objects.  Pairs
+     * are stored in an open addressing table, so adding them does not allocate.
      */
-    public static boolean deepEquals(Object a, Object b)
+    private static final class IdentityPairSet
     {
-        Set<DualKey> visited = new HashSet<DualKey>();
-        Deque<DualKey> stack = new LinkedList<DualKey>();
-        stack.addFirst(new DualKey(a, b));
+        private Object[] _table = new Object[64];
+        private int _size = 0;
 
-        while (!stack.isEmpty())
-        {            
-            DualKey dualKey = stack.removeFirst();        
-            visited.add(dualKey);
-            
-            if (dualKey._key1 == dualKey._key2)
-            {   // Same instance is always equal to itself.
-                continue;
-            }
-            
-            if (dualKey._key1 == null || dualKey._key2 == null)
-            {   // If either one is null, not equal (both can't be null, due to above comparison).
-                return false;
-            }
-                            
-            if (!dualKey._key1.getClass().equals(dualKey._key2.getClass()))
-            {   // Must be same class
-                return false;
+        /**
+         * @return true if the pair was not already present.
+         */
+        private boolean add(Object a, Object b)
+        {
+            if ((_size + 1) * 4 > _table.length)
+            {
+                resize();
             }
-            
-            // Handle all [] types.  In order to be equal, the arrays must be the same 
-            // length, be of the same type, be in the same order, and all elements within
-            // the array must be deeply equivalent.
-            if (dualKey._key1.getClass().isArray())
+
+            int mask = _table.length - 1;
+            int i = index(a, b, mask);
+
+            while (_table[i] != null)
             {
-                if (!compareArrays(dualKey._key1, dualKey._key2, stack, visited))
+                if (_table[i] == a && _table[i + 1] == b)
                 {
                     return false;
                 }
-                continue;
+                i = (i + 2) & mask;
             }
-            
-            // Special handle SortedSets because they are fast to compare because their
-            // elements must be in the same order to be equivalent Sets.
-            if (dualKey._key1 instanceof SortedSet)
+
+            _table[i] = a;
+            _table[i + 1] = b;
+            _size++;
+            return true;
+        }
+
+        private void resize()
+        {
+            Object[] oldTable = _table;
+            _table = new Object[oldTable.length * 2];
+            int mask = _table.length - 1;
+
+            for (int j = 0; j < oldTable.length; j += 2)
             {
-                if (!compareOrderedCollection((Collection<Object>) dualKey._key1, (Collection<Object>) dualKey._key2, stack, visited))
+                if (oldTable[j] != null)
                 {
-                    return false;
+                    int i = index(oldTable[j], oldTable[j + 1], mask);
+                    while (_table[i] != null)
+                    {
+                        i = (i + 2) & mask;
+                    }
+                    _table[i] = oldTable[j];
+                    _table[i + 1] = oldTable[j + 1];
                 }
-                continue;
             }
-            
-            // Handled unordered Sets.  This is a slightly more expensive comparison because order cannot
-            // be assumed, a temporary Map must be created, however the comparison still runs in O(N) time.
-            if (dualKey._key1 instanceof Set)
+        }
+
+        private static int index(Object a, Object b, int mask)
+        {
+            int h = System.identityHashCode(a) * 31 + System.identityHashCode(b);
+            h ^= h >>> 16;
+            h *= 0x85EBCA6B;
+            h ^= h >>> 13;
+            return (h << 1) & mask;
+        }
+    }
+
+    /**
+     * State of one deep comparison: pairs pending to be compared, kept in an
+     * array backed stack, and pairs already compared.  Pairs that can be compared
+     * at once, like the ones with a custom .equals() method or primitive arrays,
+     * are never pushed.
+     */
+    private static final class Comparison
+    {
+        private Object[] _stack = new Object[32];
+        private int _stackSize = 0;
+        private final IdentityPairSet _visited = new IdentityPairSet();
+
+        private boolean deepEquals(Object a, Object b)
+        {
+            if (!push(a, b))
+            {
+                return false;
+            }
+
+            while (_stackSize > 0)
             {
-                if (!compareUnorderedCollection((Collection<Object>) dualKey._key1, (Collection<Object>) dualKey._key2, stack, visited))
+                Object key2 = _stack[--_stackSize];
+                Object key1 = _stack[--_stackSize];
+                _stack[_stackSize] = null;
+                _stack[_stackSize + 1] = null;
+
+                if (_visited.add(key1, key2) && !compareStructure(key1, key2))
                 {
                     return false;
                 }
-                continue;
             }
-            
-            // Check any Collection that is not a Set.  In these cases, element order
-            // matters, therefore this comparison is faster than using unordered comparison.
-            if (dualKey._key1 instanceof Collection)
+
+            return true;
+        }
+
+        /**
+         * Compares the pair at once when possible, otherwise pushes it for a
+         * structural comparison.
+         * @return false if the pair is for certain not equal.
+         */
+        private boolean push(Object a, Object b)
+        {
+            if (a == b)
+            {   // Same instance is always equal to itself.
+                return true;
+            }
+
+            if (a == null || b == null)
+            {   // If either one is null, not equal (both can't be null, due to above comparison).
+                return false;
+            }
+
+            Class<?> c = a.getClass();
+            if (c != b.getClass())
+            {   // Must be same class
+                return false;
+            }
+
+            switch (_classComparisons.get(c)._kind)
             {
-                if (!compareOrderedCollection((Collection<Object>) dualKey._key1, (Collection<Object>) dualKey._key2, stack, visited))
-                {
-                    return false;
-                }                                
-                continue;
+                case CUSTOM_EQUALS:
+                    return a.equals(b);
+                case PRIMITIVE_ARRAY:
+                    return comparePrimitiveArrays(a, b);
+                default:
+                    if (_stackSize + 2 > _stack.length)
+                    {
+                        _stack = Arrays.copyOf(_stack, _stack.length * 2);
+                    }
+                    _stack[_stackSize++] = a;
+                    _stack[_stackSize++] = b;
+                    return true;
             }
-            
-            // Compare two SortedMaps.  This takes advantage of the fact that these
-            // Maps can be compared in O(N) time due to their ordering.
-            if (dualKey._key1 instanceof SortedMap)
+        }
+
+        @SuppressWarnings("unchecked")
+        private boolean compareStructure(Object a, Object b)
+        {
+            ClassComparison classComparison = _classComparisons.get(a.getClass());
+
+            switch (classComparison._kind)
             {
-                if (!compareSortedMap((SortedMap<Object, Object>) dualKey._key1, (SortedMap<Object, Object>) dualKey._key2, stack, visited))
-                {
-                    return false;
-                }
-                continue;
+                case OBJECT_ARRAY:
+                    return compareArrays((Object[]) a, (Object[]) b);
+                case SORTED_SET:
+                case COLLECTION:
+                    return compareOrderedCollection((Collection<Object>) a, (Collection<Object>) b);
+                case SET:
+                    return compareUnorderedCollection((Collection<Object>) a, (Collection<Object>) b);
+                case SORTED_MAP:
+                    return compareSortedMap((SortedMap<Object, Object>) a, (SortedMap<Object, Object>) b);
+                case MAP:
+                    return compareUnorderedMap((Map<Object, Object>) a, (Map<Object, Object>) b);
+                default:
+                    return compareFields(classComparison, a, b);
             }
-            
-            // Compare two Unordered Maps. This is a slightly more expensive comparison because
-            // order cannot be assumed, therefore a temporary Map must be created, however the
-            // comparison still runs in O(N) time.
-            if (dualKey._key1 instanceof Map)
+        }
+
+        /**
+         * Deeply compare to Arrays [].  Both arrays must be of the same type, same length, and all
+         * elements within the arrays must be deeply equal in order to return true.
+         */
+        private boolean compareArrays(Object[] array1, Object[] array2)
+        {
+            int len = array1.length;
+            if (len != array2.length)
             {
-                if (!compareUnorderedMap((Map<Object, Object>) dualKey._key1, (Map<Object, Object>) dualKey._key2, stack, visited))
-                {
-                    return false;
-                }
-                continue;
+                return false;
             }
-            
-            if (hasCustomEquals(dualKey._key1.getClass()))
+
+            for (int i = 0; i < len; i++)
             {
-                if (!dualKey._key1.equals(dualKey._key2))
+                if (!push(array1[i], array2[i]))
                 {
                     return false;
                 }
-                continue;
-            }        
-            
-            Collection<Field> fields = getDeepDeclaredFields(dualKey._key1.getClass());               
-            
-            for (Field field : fields)
+            }
+            return true;
+        }
+
+        /**
+         * Deeply compare two Collections that must be same length and in same order.
+         * Random access lists are walked by index.
+         */
+        private boolean compareOrderedCollection(Collection<Object> col1, Collection<Object> col2)
+        {
+            int size = col1.size();
+            if (size != col2.size())
             {
-                try
+                return false;
+            }
+
+            if (col1 instanceof RandomAccess && col1 instanceof List)
+            {
+                List<Object> list1 = (List<Object>) col1;
+                List<Object> list2 = (List<Object>) col2;
+
+                for (int i = 0; i < size; i++)
                 {
-                    DualKey dk = new DualKey(field.get(dualKey._key1), field.get(dualKey._key2));
-                    if (!visited.contains(dk))
+                    if (!push(list1.get(i), list2.get(i)))
                     {
-                        stack.addFirst(dk);
+                        return false;
                     }
                 }
-                catch (Exception ignored)
-                { }
+                return true;
             }
-        }
 
-        return true;
-    }
-
-    /**
-     * Deeply compare to Arrays []. Both arrays must be of the same type, same length, and all
-     * elements within the arrays must be deeply equal in order to return true.
-     * @param array1 [] type (Object[], String[], etc.)
-     * @param array2 [] type (Object[], String[], etc.)
-     * @param stack add items to compare to the Stack (Stack versus recursion)
-     * @param visited Set of objects already compared (prevents cycles)
-     * @return true if the two arrays are the same length and contain deeply equivalent items.
-     */
-    private static boolean compareArrays(Object array1, Object array2, Deque<DualKey> stack, Set<DualKey> visited)
-    {
-        // Same instance check already performed...
+            Iterator<Object> i1 = col1.iterator();
+            Iterator<Object> i2 = col2.iterator();
 
-        int len = Array.getLength(array1);
-        if (len != Array.getLength(array2))
-        {
-            return false;
+            while (i1.hasNext())
+            {
+                if (!push(i1.next(), i2.next()))
+                {
+                    return false;
+                }
+            }
+            return true;
         }
 
-        for (int i = 0; i < len; i++)
+        /**
+         * Deeply compare two unordered sets.  Items with custom .equals() and
+         * .hashCode() methods are looked up directly in hash based sets; other
+         * items are looked up in a temporary Map by deepHashCode(), so the
+         * comparison runs in O(N) time.
+         */
+        private boolean compareUnorderedCollection(Collection<Object> col1, Collection<Object> col2)
         {
-            DualKey dk = new DualKey(Array.get(array1, i), Array.get(array2, i));
-            if (!visited.contains(dk))
-            {   // push contents for further comparison
-                stack.addFirst(dk);
+            if (col1.size() != col2.size())
+            {
+                return false;
             }
-        }
-        return true;
-    }
 
-    /**
-     * Deeply compare two Collections that must be same length and in same order.
-     * @param col1 First collection of items to compare
-     * @param col2 Second collection of items to compare
-     * @param stack add items to compare to the Stack (Stack versus recursion)
-     * @param visited Set of objects already compared (prevents cycles)
-     * value of 'true' indicates that the Collections may be equal, and the sets
-     * items will be added to the Stack for further comparison.
-     */
-    private static boolean compareOrderedCollection(Collection<Object> col1, Collection<Object> col2, Deque<DualKey> stack, Set<DualKey> visited)
-    {
-        // Same instance check already performed...
+            boolean hashBased = isHashBased(col2);
+            Map<Integer, Object> fastLookup = null;
 
-        if (col1.size() != col2.size())
-        {
-            return false;
-        }
-                        
-        Iterator<Object> i1 = col1.iterator();
-        Iterator<Object> i2 = col2.iterator();
-        
-        while (i1.hasNext())
-        {
-            DualKey dk = new DualKey(i1.next(), i2.next());
-            if (!visited.contains(dk))
-            {   // push contents for further comparison
-                stack.addFirst(dk);
+            for (Object o : col1)
+            {
+                if (hashBased && isLookedUpByEquals(o))
+                {
+                    if (!col2.contains(o))
+                    {
+                        return false;
+                    }
+                    continue;
+                }
+
+                if (fastLookup == null)
+                {
+                    fastLookup = new HashMap<Integer, Object>();
+                    for (Object other : col2)
+                    {
+                        fastLookup.put(deepHashCode(other), other);
+                    }
+                }
+
+                Object other = fastLookup.get(deepHashCode(o));
+                if (other == null || !push(o, other))
+                {   // Item not even found in other Collection, no need to continue.
+                    return false;
+                }
             }
+            return true;
         }
-        return true;
-    }
-        
-    /**
-     * Deeply compare the two sets referenced by dualKey.  This method attempts
-     * to quickly determine inequality by length, then if lengths match, it
-     * places one collection into a temporary Map by deepHashCode(), so that it
-     * can walk the other collection and look for each item in the map, which
-     * runs in O(N) time, rather than an O(N^2) lookup that would occur if each
-     * item from collection one was scanned for in collection two.
-     * @param col1 First collection of items to compare
-     * @param col2 Second collection of items to compare
-     * @param stack add items to compare to the Stack (Stack versus recursion)
-     * @param visited Set containing items that have already been compared,
-     * so as to prevent cycles.
-     * @return boolean false if the Collections are for certain not equals. A
-     * value of 'true' indicates that the Collections may be equal, and the sets
-     * items will be added to the Stack for further comparison.
-     */
-    private static boolean compareUnorderedCollection(Collection<Object> col1, Collection<Object> col2, Deque<DualKey> stack, Set<DualKey> visited)
-    {
-        // Same instance check already performed...
 
-        if (col1.size() != col2.size())
+        /**
+         * Deeply compare two SortedMap instances.  This method walks the Maps in order,
+         * taking advantage of the fact that they Maps are SortedMaps.
+         */
+        private boolean compareSortedMap(SortedMap<Object, Object> map1, SortedMap<Object, Object> map2)
         {
-            return false;
-        }
+            if (map1.size() != map2.size())
+            {
+                return false;
+            }
 
-        Map<Integer, Object> fastLookup = new HashMap<Integer, Object>();
-        for (Object o : col2)
-        {
-            fastLookup.put(deepHashCode(o), o);
+            Iterator<Entry<Object, Object>> i1 = map1.entrySet().iterator();
+            Iterator<Entry<Object, Object>> i2 = map2.entrySet().iterator();
+
+            while (i1.hasNext())
+            {
+                Map.Entry<Object, Object> entry1 = i1.next();
+                Map.Entry<Object, Object> entry2 = i2.next();
+
+                // Must split the Key and Value so that Map.Entry's equals() method is not used.
+                if (!push(entry1.getKey(), entry2.getKey()) || !push(entry1.getValue(), entry2.getValue()))
+                {
+                    return false;
+                }
+            }
+            return true;
         }
 
-        for (Object o : col1)
+        /**
+         * Deeply compare two Map instances.  Keys with custom .equals() and
+         * .hashCode() methods are looked up directly in hash based maps; other
+         * keys are looked up in a temporary Map by deepHashCode(), so the
+         * comparison runs in O(N) time.
+         */
+        private boolean compareUnorderedMap(Map<Object, Object> map1, Map<Object, Object> map2)
         {
-            Object other = fastLookup.get(deepHashCode(o));
-            if (other == null)
-            {   // Item not even found in other Collection, no need to continue.
+            if (map1.size() != map2.size())
+            {
                 return false;
             }
 
-            DualKey dk = new DualKey(o, other);
-            if (!visited.contains(dk))
-            {   // Place items on 'stack' for further comparison.
-                stack.addFirst(dk);
+            boolean hashBased = isHashBased(map2);
+            Map<Integer, Map.Entry<Object, Object>> fastLookup = null;
+
+            for (Map.Entry<Object, Object> entry : map1.entrySet())
+            {
+                Object key = entry.getKey();
+
+                if (hashBased && isLookedUpByEquals(key))
+                {
+                    Object otherValue = map2.get(key);
+                    if ((otherValue == null && !map2.containsKey(key)) || !push(entry.getValue(), otherValue))
+                    {
+                        return false;
+                    }
+                    continue;
+                }
+
+                if (fastLookup == null)
+                {
+                    fastLookup = new HashMap<Integer, Map.Entry<Object, Object>>();
+                    for (Map.Entry<Object, Object> other : map2.entrySet())
+                    {
+                        fastLookup.put(deepHashCode(other.getKey()), other);
+                    }
+                }
+
+                Map.Entry<Object, Object> other = fastLookup.get(deepHashCode(key));
+                if (other == null || !push(key, other.getKey()) || !push(entry.getValue(), other.getValue()))
+                {
+                    return false;
+                }
             }
-        }
-        return true;
-    }
 
-    /**
-     * Deeply compare two SortedMap instances.  This method walks the Maps in order,
-     * taking advantage of the fact that they Maps are SortedMaps.
-     * @param map1 SortedMap one
-     * @param map2 SortedMap two
-     * @param stack add items to compare to the Stack (Stack versus recursion)
-     * @param visited Set containing items that have already been compared, to prevent cycles.
-     * @return false if the Maps are for certain not equals.  'true' indicates that 'on the surface' the maps
-     * are equal, however, it will place the contents of the Maps on the stack for further comparisons.
-     */
-    private static boolean compareSortedMap(SortedMap<Object, Object> map1, SortedMap<Object, Object> map2, Deque<DualKey> stack, Set<DualKey> visited)
-    {
-        // Same instance check already performed...
+            return true;
+        }
 
-        if (map1.size() != map2.size())
+        private boolean compareFields(ClassComparison classComparison, Object a, Object b)
         {
-            return false;
-        }
+            try
+            {
+                for (MethodHandle getter : classComparison._integralGetters)
+                {
+                    if ((long) getter.invokeExact(a) != (long) getter.invokeExact(b))
+                    {
+                        return false;
+                    }
+                }
 
-        Iterator<Entry<Object, Object>> i1 = map1.entrySet().iterator();
-        Iterator<Entry<Object, Object>> i2 = map2.entrySet().iterator();
+                for (MethodHandle getter : classComparison._floatingGetters)
+                {
+                    // Same comparison as Double.equals(), NaN is equal to itself.
+                    if (Double.doubleToLongBits((double) getter.invokeExact(a)) != Double.doubleToLongBits((double) getter.invokeExact(b)))
+                    {
+                        return false;
+                    }
+                }
 
-        while (i1.hasNext())
-        {
-            Map.Entry<Object, Object> entry1 = i1.next();
-            Map.Entry<Object, Object> entry2 = i2.next();
+                for (MethodHandle getter : classComparison._booleanGetters)
+                {
+                    if ((boolean) getter.invokeExact(a) != (boolean) getter.invokeExact(b))
+                    {
+                        return false;
+                    }
+                }
 
-            // Must split the Key and Value so that Map.Entry's equals() method is not used.
-            DualKey dk = new DualKey(entry1.getKey(), entry2.getKey());
-            if (!visited.contains(dk))
-            {   // Push Keys for further comparison
-                stack.addFirst(dk);
+                for (MethodHandle getter : classComparison._referenceGetters)
+                {
+                    if (!push((Object) getter.invokeExact(a), (Object) getter.invokeExact(b)))
+                    {
+                        return false;
+                    }
+                }
             }
-
-            dk = new DualKey(entry1.getValue(), entry2.getValue());
-            if (!visited.contains(dk))
-            {   // Push values for further comparison
-                stack.addFirst(dk);
+            catch (RuntimeException e)
+            {
+                throw e;
+            }
+            catch (Error e)
+            {
+                throw e;
+            }
+            catch (Throwable t)
+            {
+                throw new IllegalStateException(t);
             }
-        }
-        return true;
-    }
 
-    /**
-     * Deeply compare two Map instances.  After quick short-circuit tests, this method
-     * uses a temporary Map so that this method can run in O(N) time.
-     * @param map1 Map one
-     * @param map2 Map two
-     * @param stack add items to compare to the Stack (Stack versus recursion)
-     * @param visited Set containing items that have already been compared, to prevent cycles.
-     * @return false if the Maps are for certain not equals.  'true' indicates that 'on the surface' the maps
-     * are equal, however, it will place the contents of the Maps on the stack for further comparisons.
-     */
-    private static boolean compareUnorderedMap(Map<Object, Object> map1, Map<Object, Object> map2, Deque<DualKey> stack, Set<DualKey> visited)
-    {
-        // Same instance check already performed...
+            return true;
+        }
 
-        if (map1.size() != map2.size())
+        private static boolean isHashBased(Object collection)
         {
-            return false;
+            return collection instanceof HashMap || collection instanceof HashSet
+                    || collection instanceof ConcurrentHashMap;
         }
 
-        Map<Integer, Map.Entry<Object, Object>> fastLookup = new HashMap<Integer, Map.Entry<Object, Object>>();
-
-        for (Map.Entry<Object, Object> entry : map2.entrySet())
+        private static boolean isLookedUpByEquals(Object o)
         {
-            fastLookup.put(deepHashCode(entry.getKey()), entry);
+            return o != null && _classComparisons.get(o.getClass())._lookupByEquals;
         }
 
-        for (Map.Entry<Object, Object> entry : map1.entrySet())
+        private static boolean comparePrimitiveArrays(Object array1, Object array2)
         {
-            Map.Entry<Object, Object> other = fastLookup.get(deepHashCode(entry.getKey()));
-            if (other == null)
+            if (array1 instanceof int[])
             {
-                return false;
+                return Arrays.equals((int[]) array1, (int[]) array2);
             }
-
-            DualKey dk = new DualKey(entry.getKey(), other.getKey());
-            if (!visited.contains(dk))
-            {   // Push keys for further comparison
-                stack.addFirst(dk);
+            if (array1 instanceof long[])
+            {
+                return Arrays.equals((long[]) array1, (long[]) array2);
             }
-
-            dk = new DualKey(entry.getValue(), other.getValue());
-            if (!visited.contains(dk))
-            {   // Push values for further comparison
-                stack.addFirst(dk);
+            if (array1 instanceof byte[])
+            {
+                return Arrays.equals((byte[]) array1, (byte[]) array2);
+            }
+            if (array1 instanceof char[])
+            {
+                return Arrays.equals((char[]) array1, (char[]) array2);
+            }
+            if (array1 instanceof double[])
+            {
+                return Arrays.equals((double[]) array1, (double[]) array2);
             }
+            if (array1 instanceof float[])
+            {
+                return Arrays.equals((float[]) array1, (float[]) array2);
+            }
+            if (array1 instanceof short[])
+            {
+                return Arrays.equals((short[]) array1, (short[]) array2);
+            }
+            return Arrays.equals((boolean[]) array1, (boolean[]) array2);
         }
+    }
 
-        return true;
+    /**
+     * Compare two objects with a 'deep' comparison.  This will traverse the
+     * Object graph and perform either a field-by-field comparison on each
+     * object (if no .equals() method has been overridden from Object), or it
+     * will call the customized .equals() method if it exists.  This method will
+     * allow object graphs loaded at different times (with different object ids)
+     * to be reliably compared.  Object.equals() / Object.hashCode() rely on the
+     * object's identity, which would not consider to equivalent objects necessarily
+     * equals.  This allows graphs containing instances of Classes that did no
+     * overide .equals() / .hashCode() to be compared.  For example, testing for
+     * existence in a cache.  Relying on an objects identity will not locate an
+     * object in cache, yet relying on it being equivalent will.<br/><br/>
+     *
+     * This method will handle cycles correctly, for example A->B->C->A.  Suppose a and
+     * a' are two separate instances of the A with the same values for all fields on
+     * A, B, and C.  Then a.deepEquals(a') will return true.  It uses cycle detection
+     * storing visited pairs, by identity, to prevent endless loops.
+     * @param a Object one to compare
+     * @param b Object two to compare
+     * @return true if a is equivalent to b, false otherwise.  Equivalent means that
+     * all field values of both subgraphs are the same, either at the field level
+     * or via the respectively encountered overridden .equals() methods during
+     * traversal.
+     */
+    public static boolean deepEquals(Object a, Object b)
+    {
+        return new Comparison().deepEquals(a, b);
     }
 
     /**
@@ -1,27 +1,46 @@
 package com.lordofthejars.nosqlunit.util;
 
+import java.lang.reflect.Constructor;
 import java.lang.reflect.InvocationTargetException;
 import java.lang.reflect.Method;
 
 public class ReflectionUtil {
 
+   private static final ClassValue<Constructor<?>> DEFAULT_CONSTRUCTORS = new ClassValue<Constructor<?>>() {
+      @Override
+      protected Constructor<?> computeValue(Class<?> clazz) {
+         try {
+            Constructor<?> constructor = clazz.getDeclaredConstructor();
+            constructor.setAccessible(true);
+            return constructor;
+         } catch (NoSuchMethodException e) {
+            return null;
+         }
+      }
+   };
+
    public static <T> T createInstance(Class<?> clazz) {
+      Constructor<?> constructor = DEFAULT_CONSTRUCTORS.get(clazz);
+
+      if (constructor == null) {
+         throw new IllegalArgumentException(new InstantiationException(clazz.getName()
+               + " does not have a default constructor."));
+      }
+
       try {
-         return (T) clazz.newInstance();
+         return (T) constructor.newInstance();
       } catch (InstantiationException e) {
          throw new IllegalArgumentException(e);
       } catch (IllegalAccessException e) {
          throw new IllegalArgumentException(e);
+      } catch (InvocationTargetException e) {
+         throw new IllegalArgumentException(e.getCause());
       }
    }
 
    public static <T> T createInstance(String clazz) {
       try {
-         return (T) Class.forName(clazz).newInstance();
-      } catch (InstantiationException e) {
-         throw new IllegalArgumentException(e);
-      } catch (IllegalAccessException e) {
-         throw new IllegalArgumentException(e);
+         return createInstance(Class.forName(clazz));
       } catch (ClassNotFoundException e) {
          throw new IllegalArgumentException(e);
       }
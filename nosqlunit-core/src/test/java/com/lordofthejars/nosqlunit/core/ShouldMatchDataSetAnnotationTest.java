@@ -33,4 +33,19 @@ public class ShouldMatchDataSetAnnotationTest implements Annotation, com.lordoft
 		return selectiveMatchers;
 	}
 
+	@Override
+	public ComparisonMode mode() {
+		return ComparisonMode.EXACT;
+	}
+
+	@Override
+	public int sampleSize() {
+		return 100;
+	}
+
+	@Override
+	public long sampleSeed() {
+		return 0L;
+	}
+
 }
@@ -1,6 +1,7 @@
 package com.lordofthejars.nosqlunit.core;
 
 import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.sameInstance;
 import static org.junit.Assert.assertThat;
 
 import java.util.ArrayList;
@@ -29,6 +30,30 @@ public class WhenARedirectProxyIsRequired {
 		
 	}
 	
+	@Test
+	public void redirect_proxies_of_same_types_should_share_proxy_class_and_call_their_own_destination() {
+		
+		MyNewList firstDestination = new MyNewList();
+		MyNewList secondDestination = new MyNewList();
+		secondDestination.addString("a");
+		
+		ArrayList firstList = RedirectProxy.createProxy(ArrayList.class, firstDestination);
+		ArrayList secondList = RedirectProxy.createProxy(ArrayList.class, secondDestination);
+		
+		assertThat((Object) secondList.getClass(), sameInstance((Object) firstList.getClass()));
+		assertThat(firstList.size(), is(2));
+		assertThat(secondList.size(), is(3));
+		
+	}
+	
+	@Test(expected=IllegalStateException.class)
+	public void exception_of_destination_method_should_be_thrown_by_redirect_proxy() {
+		
+		ArrayList list = RedirectProxy.createProxy(ArrayList.class, new MyNewList());
+		list.isEmpty();
+		
+	}
+	
 	private class MyNewList {
 		
 		List<String> list = new ArrayList<String>();
@@ -40,6 +65,10 @@ public class WhenARedirectProxyIsRequired {
 		public int size() {
 			return this.list.size()+2;
 		}
+		
+		public boolean isEmpty() {
+			throw new IllegalStateException();
+		}
 	}
 	
 }
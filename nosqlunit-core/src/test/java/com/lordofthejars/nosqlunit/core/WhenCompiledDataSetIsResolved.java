@@ -0,0 +1,110 @@
+package com.lordofthejars.nosqlunit.core;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.junit.Assert.assertThat;
+
+import java.io.ByteArrayInputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+
+import org.junit.Test;
+import org.junit.runners.model.FrameworkMethod;
+
+import com.lordofthejars.nosqlunit.annotation.UsingDataSet;
+
+public class WhenCompiledDataSetIsResolved {
+
+	@Test
+	@UsingDataSet
+	public void compiled_dataset_should_be_preferred_over_text_dataset() throws Exception {
+
+		FrameworkMethod method = new FrameworkMethod(
+				WhenCompiledDataSetIsResolved.class.getMethod("compiled_dataset_should_be_preferred_over_text_dataset"));
+
+		String location = new DefaultDataSetLocationResolver(WhenCompiledDataSetIsResolved.class,
+				CompiledDataSetFormat.BSON).resolveDefaultDataSetLocation(method.getAnnotation(UsingDataSet.class), method, ".json");
+
+		assertThat(location, is("/com/lordofthejars/nosqlunit/core/WhenCompiledDataSetIsResolved.json.bson"));
+
+	}
+
+	@Test
+	public void explicit_location_should_be_resolved_to_compiled_dataset_only_if_it_exists() {
+
+		DefaultDataSetLocationResolver defaultDataSetLocationResolver = new DefaultDataSetLocationResolver(
+				WhenCompiledDataSetIsResolved.class, CompiledDataSetFormat.BSON);
+
+		assertThat(defaultDataSetLocationResolver.resolveDataSetLocations(new String[] { "explicitContent.json",
+				"textContent.json" }), is(new String[] { "explicitContent.json.bson", "textContent.json" }));
+
+	}
+
+	@Test
+	public void compiled_dataset_should_not_be_resolved_if_backend_cannot_read_its_format() throws Exception {
+
+		FrameworkMethod method = new FrameworkMethod(
+				WhenCompiledDataSetIsResolved.class.getMethod("compiled_dataset_should_be_preferred_over_text_dataset"));
+
+		DefaultDataSetLocationResolver defaultDataSetLocationResolver = new DefaultDataSetLocationResolver(
+				WhenCompiledDataSetIsResolved.class, CompiledDataSetFormat.SMILE);
+
+		assertThat(defaultDataSetLocationResolver.resolveDataSetLocation("explicitContent.json"),
+				is("explicitContent.json"));
+		assertThat(defaultDataSetLocationResolver.resolveDefaultDataSetLocation(method.getAnnotation(UsingDataSet.class),
+				method, ".json"), is("/com/lordofthejars/nosqlunit/core/WhenCompiledDataSetIsResolved.json"));
+		assertThat(new DefaultDataSetLocationResolver(WhenCompiledDataSetIsResolved.class)
+				.resolveDataSetLocation("explicitContent.json"), is("explicitContent.json"));
+
+	}
+
+	@Test
+	public void compiled_dataset_should_not_be_resolved_if_its_source_is_newer() throws Exception {
+
+		File source = new File(WhenCompiledDataSetIsResolved.class.getResource("staleContent.json").toURI());
+		File compiled = new File(WhenCompiledDataSetIsResolved.class.getResource("staleContent.json.bson").toURI());
+
+		DefaultDataSetLocationResolver defaultDataSetLocationResolver = new DefaultDataSetLocationResolver(
+				WhenCompiledDataSetIsResolved.class, CompiledDataSetFormat.BSON);
+
+		long now = System.currentTimeMillis() / 1000 * 1000;
+
+		compiled.setLastModified(now - 60000);
+		source.setLastModified(now);
+		assertThat(defaultDataSetLocationResolver.resolveDataSetLocation("staleContent.json"), is("staleContent.json"));
+
+		compiled.setLastModified(now - 1000);
+		assertThat(defaultDataSetLocationResolver.resolveDataSetLocation("staleContent.json"),
+				is("staleContent.json.bson"));
+
+	}
+
+	@Test
+	public void compressed_explicit_location_should_be_resolved_to_compiled_dataset_of_uncompressed_name() {
+
+		DefaultDataSetLocationResolver defaultDataSetLocationResolver = new DefaultDataSetLocationResolver(
+				WhenCompiledDataSetIsResolved.class, CompiledDataSetFormat.BSON);
+
+		assertThat(defaultDataSetLocationResolver.resolveDataSetLocation("explicitContent.json.gz"),
+				is("explicitContent.json.bson"));
+
+	}
+
+	@Test
+	public void compiled_resource_should_report_its_format() throws IOException {
+
+		InputStream compiledContent = IOUtils.getStreamFromClasspathBaseResource(WhenCompiledDataSetIsResolved.class,
+				"explicitContent.json.bson");
+		InputStream textContent = IOUtils.getStreamFromClasspathBaseResource(WhenCompiledDataSetIsResolved.class,
+				"textContent.json");
+
+		assertThat(CompiledDataSetFormat.of(compiledContent), is(CompiledDataSetFormat.BSON));
+		assertThat(CompiledDataSetFormat.of(textContent), is(CompiledDataSetFormat.NONE));
+		assertThat(CompiledDataSetFormat.of(new ByteArrayInputStream(new byte[0])), is(CompiledDataSetFormat.NONE));
+
+		compiledContent.close();
+		textContent.close();
+
+	}
+
+}
@@ -0,0 +1,126 @@
+package com.lordofthejars.nosqlunit.core;
+
+import static org.hamcrest.CoreMatchers.containsString;
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.nullValue;
+import static org.junit.Assert.assertThat;
+import static org.junit.Assert.fail;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+
+import org.junit.Test;
+import org.junit.runners.model.FrameworkMethod;
+
+import com.github.luben.zstd.ZstdOutputStream;
+import com.lordofthejars.nosqlunit.annotation.UsingDataSet;
+
+public class WhenCompressedDataSetIsRead {
+
+	@Test
+	public void gzip_resource_should_be_decompressed_transparently() throws IOException {
+
+		String content = IOUtils.readAllStreamFromClasspathBaseResource(WhenCompressedDataSetIsRead.class,
+				"compressedContent.txt.gz");
+
+		assertThat(content, is("Hello My Name is Jimmy Pop"));
+
+	}
+
+	@Test
+	public void xz_resource_should_be_decompressed_transparently() throws IOException {
+
+		InputStream content = IOUtils.getStreamFromClasspathBaseResource(WhenCompressedDataSetIsRead.class,
+				"compressedContent.txt.xz");
+
+		assertThat(((ResourceInputStream) content).getCompression(), is(DataSetCompression.XZ));
+		assertThat(IOUtils.readFullStream(content), is("Hello My Name is Jimmy Pop"));
+
+	}
+
+	@Test
+	public void zstd_stream_should_be_decompressed() throws IOException {
+
+		ByteArrayOutputStream compressed = new ByteArrayOutputStream();
+		OutputStream zstdOutputStream = new ZstdOutputStream(compressed);
+		zstdOutputStream.write("Hello My Name is Jimmy Pop".getBytes("UTF-8"));
+		zstdOutputStream.close();
+
+		DataSetCompression compression = DataSetCompression.fromLocation("dataset.json.zst");
+		InputStream content = compression.decompress(new ByteArrayInputStream(compressed.toByteArray()));
+
+		assertThat(compression, is(DataSetCompression.ZSTD));
+		assertThat(IOUtils.readFullStream(content), is("Hello My Name is Jimmy Pop"));
+
+	}
+
+	@Test
+	public void compressed_resources_should_not_be_cached() throws IOException {
+
+		InputStream content = IOUtils.getStreamFromClasspathBaseResource(WhenCompressedDataSetIsRead.class,
+				"compressedContent.txt.gz");
+
+		assertThat(new ParsedDataSetCache(10).isCacheable(content), is(false));
+
+	}
+
+	@Test
+	public void corrupt_compressed_resource_should_fail_naming_its_location() {
+
+		try {
+			IOUtils.getAllStreamsFromClasspathBaseResource(WhenCompressedDataSetIsRead.class,
+					new String[] { "compressedContent.txt.gz", "corruptContent.txt.gz" });
+			fail();
+		} catch (IllegalArgumentException e) {
+			assertThat(e.getMessage(), containsString("corruptContent.txt.gz"));
+		}
+
+	}
+
+	@Test
+	@UsingDataSet
+	public void method_dataset_should_be_resolved_when_only_compressed_file_exists() throws Exception {
+
+		FrameworkMethod method = frameworkMethod("method_dataset_should_be_resolved_when_only_compressed_file_exists");
+
+		String location = new DefaultDataSetLocationResolver(WhenCompressedDataSetIsRead.class)
+				.resolveDefaultDataSetLocation(method.getAnnotation(UsingDataSet.class), method, ".json");
+
+		assertThat(location, is("/com/lordofthejars/nosqlunit/core/WhenCompressedDataSetIsRead#method_dataset_should_be_resolved_when_only_compressed_file_exists.json.gz"));
+
+	}
+
+	@Test
+	@UsingDataSet
+	public void class_dataset_should_be_resolved_when_only_compressed_file_exists() throws Exception {
+
+		FrameworkMethod method = frameworkMethod("class_dataset_should_be_resolved_when_only_compressed_file_exists");
+
+		String location = new DefaultDataSetLocationResolver(WhenCompressedDataSetIsRead.class)
+				.resolveDefaultDataSetLocation(method.getAnnotation(UsingDataSet.class), method, ".json");
+
+		assertThat(location, is("/com/lordofthejars/nosqlunit/core/WhenCompressedDataSetIsRead.json.xz"));
+
+	}
+
+	@Test
+	@UsingDataSet
+	public void no_location_should_be_resolved_when_no_file_exists() throws Exception {
+
+		FrameworkMethod method = frameworkMethod("no_location_should_be_resolved_when_no_file_exists");
+
+		String location = new DefaultDataSetLocationResolver(WhenCompressedDataSetIsRead.class)
+				.resolveDefaultDataSetLocation(method.getAnnotation(UsingDataSet.class), method, "-expected.json");
+
+		assertThat(location, is(nullValue()));
+
+	}
+
+	private FrameworkMethod frameworkMethod(String name) throws NoSuchMethodException {
+		return new FrameworkMethod(WhenCompressedDataSetIsRead.class.getMethod(name));
+	}
+
+}
@@ -0,0 +1,238 @@
+package com.lordofthejars.nosqlunit.core;
+
+import static org.hamcrest.CoreMatchers.containsString;
+import static org.hamcrest.CoreMatchers.is;
+import static org.junit.Assert.assertThat;
+import static org.junit.Assert.fail;
+
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.Test;
+import org.junit.runners.model.FrameworkMethod;
+import org.junit.runners.model.Statement;
+
+import com.lordofthejars.nosqlunit.annotation.ConcurrentLoad;
+import com.lordofthejars.nosqlunit.annotation.UsingDataSet;
+
+public class WhenConcurrentLoadIsRun {
+
+	@ConcurrentLoad(threads = 3, iterations = 10, warmup = 2)
+	public void load() {
+	}
+
+	@ConcurrentLoad(threads = 2, iterations = 5, minThroughput = 1000000000)
+	public void unreachableThroughput() {
+	}
+
+	@ConcurrentLoad(threads = 2, iterations = 5, maxLatencyMillis = 1, latencyPercentile = 50.0)
+	public void slowLatency() {
+	}
+
+	@ConcurrentLoad(threads = 0)
+	public void noThreads() {
+	}
+
+	@Test
+	public void test_body_should_be_run_by_every_thread_and_only_measured_iterations_recorded() throws Throwable {
+
+		CountingStatement statement = new CountingStatement(0);
+
+		ConcurrentLoadReport concurrentLoadReport = new ConcurrentLoadRunner(concurrentLoad("load"), "Test#load")
+				.run(statement);
+
+		assertThat(statement.executions.get(), is(36));
+		assertThat(concurrentLoadReport.getOperations(), is(30L));
+		assertThat(concurrentLoadReport.getThroughput() > 0, is(true));
+
+	}
+
+	@Test
+	public void test_body_should_be_run_within_namespace_of_the_test() throws Throwable {
+
+		final List<TestNamespace> namespaces = Collections.synchronizedList(new ArrayList<TestNamespace>());
+
+		TestNamespace testNamespace = TestNamespace.acquire();
+		try {
+			new ConcurrentLoadRunner(concurrentLoad("load"), "Test#load").run(new Statement() {
+
+				@Override
+				public void evaluate() throws Throwable {
+					namespaces.add(TestNamespace.current());
+				}
+			});
+		} finally {
+			TestNamespace.release();
+		}
+
+		assertThat(namespaces.size(), is(36));
+		for (TestNamespace namespace : namespaces) {
+			assertThat(namespace, is(testNamespace));
+		}
+
+	}
+
+	@Test
+	public void first_failure_of_test_body_should_be_rethrown() throws Throwable {
+
+		final IllegalStateException failure = new IllegalStateException("DAO failed");
+
+		try {
+			new ConcurrentLoadRunner(concurrentLoad("load"), "Test#load").run(new Statement() {
+
+				@Override
+				public void evaluate() throws Throwable {
+					throw failure;
+				}
+			});
+			fail();
+		} catch (IllegalStateException e) {
+			assertThat(e.getMessage(), is("DAO failed"));
+		}
+
+	}
+
+	@Test
+	public void load_should_fail_when_throughput_is_below_budget() throws Throwable {
+
+		ConcurrentLoadRunner concurrentLoadRunner = new ConcurrentLoadRunner(concurrentLoad("unreachableThroughput"),
+				"Test#unreachableThroughput");
+		ConcurrentLoadReport concurrentLoadReport = concurrentLoadRunner.run(new CountingStatement(1));
+
+		try {
+			concurrentLoadRunner.assertWithinBudgets(concurrentLoadReport);
+			fail();
+		} catch (NoSqlAssertionError e) {
+			assertThat(e.getMessage(), containsString("Throughput of Test#unreachableThroughput"));
+		}
+
+	}
+
+	@Test
+	public void load_should_fail_when_latency_is_above_budget() throws Throwable {
+
+		ConcurrentLoadRunner concurrentLoadRunner = new ConcurrentLoadRunner(concurrentLoad("slowLatency"),
+				"Test#slowLatency");
+		ConcurrentLoadReport concurrentLoadReport = concurrentLoadRunner.run(new CountingStatement(5));
+
+		try {
+			concurrentLoadRunner.assertWithinBudgets(concurrentLoadReport);
+			fail();
+		} catch (NoSqlAssertionError e) {
+			assertThat(e.getMessage(), containsString("Latency p50.0 of Test#slowLatency"));
+		}
+
+	}
+
+	@Test
+	public void load_of_test_with_two_rules_should_be_run_once_after_loading_datasets_of_both_rules()
+			throws Throwable {
+
+		CountingDatabaseOperation innerDatabaseOperation = new CountingDatabaseOperation();
+		CountingDatabaseOperation outerDatabaseOperation = new CountingDatabaseOperation();
+		CountingStatement statement = new CountingStatement(0);
+
+		FrameworkMethod testMethod = new FrameworkMethod(TwoRulesTest.class.getMethod("my_loaded_test"));
+		TwoRulesTest testObject = new TwoRulesTest();
+
+		Statement innerRuleStatement = rule(innerDatabaseOperation).apply(statement, testMethod, testObject);
+		rule(outerDatabaseOperation).apply(innerRuleStatement, testMethod, testObject).evaluate();
+
+		assertThat(statement.executions.get(), is(6));
+		assertThat(innerDatabaseOperation.deletions.get(), is(1));
+		assertThat(innerDatabaseOperation.insertions.get(), is(1));
+		assertThat(outerDatabaseOperation.deletions.get(), is(1));
+		assertThat(outerDatabaseOperation.insertions.get(), is(1));
+
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void load_without_threads_should_not_be_run() throws NoSuchMethodException {
+
+		new ConcurrentLoadRunner(concurrentLoad("noThreads"), "Test#noThreads");
+
+	}
+
+	private static class CountingStatement extends Statement {
+
+		private final AtomicInteger executions = new AtomicInteger();
+		private final long sleepMillis;
+
+		CountingStatement(long sleepMillis) {
+			this.sleepMillis = sleepMillis;
+		}
+
+		@Override
+		public void evaluate() throws Throwable {
+			executions.incrementAndGet();
+
+			if (sleepMillis > 0) {
+				Thread.sleep(sleepMillis);
+			}
+		}
+
+	}
+
+	@UsingDataSet(locations = "classpathContent.txt", loadStrategy = LoadStrategyEnum.CLEAN_INSERT)
+	public static class TwoRulesTest {
+
+		@ConcurrentLoad(threads = 2, iterations = 3)
+		public void my_loaded_test() {
+		}
+
+	}
+
+	private static class CountingDatabaseOperation implements DatabaseOperation<Object> {
+
+		private final AtomicInteger insertions = new AtomicInteger();
+		private final AtomicInteger deletions = new AtomicInteger();
+
+		@Override
+		public void insert(InputStream dataScript) {
+			insertions.incrementAndGet();
+		}
+
+		@Override
+		public void deleteAll() {
+			deletions.incrementAndGet();
+		}
+
+		@Override
+		public boolean databaseIs(InputStream expectedData) {
+			return true;
+		}
+
+		@Override
+		public Object connectionManager() {
+			return null;
+		}
+
+	}
+
+	private AbstractNoSqlTestRule rule(final DatabaseOperation<?> databaseOperation) {
+		return new AbstractNoSqlTestRule("") {
+
+			@Override
+			public DatabaseOperation getDatabaseOperation() {
+				return databaseOperation;
+			}
+
+			@Override
+			public String getWorkingExtension() {
+				return "txt";
+			}
+
+			@Override
+			public void close() {
+			}
+		};
+	}
+
+	private ConcurrentLoad concurrentLoad(String methodName) throws NoSuchMethodException {
+		return WhenConcurrentLoadIsRun.class.getMethod(methodName).getAnnotation(ConcurrentLoad.class);
+	}
+
+}
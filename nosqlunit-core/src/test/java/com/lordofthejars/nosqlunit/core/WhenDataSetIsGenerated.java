@@ -0,0 +1,119 @@
+package com.lordofthejars.nosqlunit.core;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.not;
+import static org.junit.Assert.assertThat;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.Writer;
+import java.util.Iterator;
+
+import org.junit.Test;
+
+import com.lordofthejars.nosqlunit.annotation.GeneratedDataSet;
+import com.lordofthejars.nosqlunit.annotation.GeneratedField;
+
+public class WhenDataSetIsGenerated {
+
+	private static class CountingGeneratedDataSetOperation implements GeneratedDataSetOperation {
+
+		private int renderedBatches = 0;
+
+		@Override
+		public RecordShape[] acceptedRecordShapes() {
+			return new RecordShape[] { RecordShape.DOCUMENT };
+		}
+
+		@Override
+		public void writeGeneratedRecords(RecordShape recordShape, String template, Iterator<GeneratedRecord> records,
+				Writer writer) throws IOException {
+			renderedBatches++;
+
+			while (records.hasNext()) {
+				writer.write(template + records.next().getIndex() + ";");
+			}
+		}
+
+	}
+
+	@GeneratedDataSet(template = "book", count = 5, seed = 7, batchSize = 2, fields = {
+			@GeneratedField(name = "id"),
+			@GeneratedField(name = "pages", generator = FieldGenerator.INTEGER, min = 10, max = 20),
+			@GeneratedField(name = "title", generator = FieldGenerator.STRING, length = 12),
+			@GeneratedField(name = "genre", generator = FieldGenerator.ONE_OF, values = { "drama", "poetry" }) })
+	public void books() {
+	}
+
+	@GeneratedDataSet(template = "book", count = 5, seed = 8, fields = { @GeneratedField(name = "title", generator = FieldGenerator.STRING) })
+	public void otherBooks() {
+	}
+
+	@GeneratedDataSet(template = "book", count = 5, shape = RecordShape.GRAPH)
+	public void bookGraph() {
+	}
+
+	@Test
+	public void same_records_should_be_generated_with_same_seed() throws NoSuchMethodException {
+
+		DataSetGenerator dataSetGenerator = new DataSetGenerator(generatedDataSet("books"));
+
+		assertThat(dataSetGenerator.record(3).getFields(), is(new DataSetGenerator(generatedDataSet("books")).record(3)
+				.getFields()));
+		assertThat(dataSetGenerator.record(3).getFields(), is(not(dataSetGenerator.record(4).getFields())));
+		assertThat(new DataSetGenerator(generatedDataSet("otherBooks")).record(3).getFields().get("title"),
+				is(not(dataSetGenerator.record(3).getFields().get("title"))));
+
+	}
+
+	@Test
+	public void fields_should_be_generated_within_their_bounds() throws NoSuchMethodException {
+
+		Iterator<GeneratedRecord> records = new DataSetGenerator(generatedDataSet("books")).records(0, 5);
+
+		while (records.hasNext()) {
+			GeneratedRecord record = records.next();
+
+			assertThat(record.getFields().get("id"), is((Object) record.getIndex()));
+
+			long pages = (Long) record.getFields().get("pages");
+			assertThat(pages >= 10 && pages <= 20, is(true));
+
+			assertThat(((String) record.getFields().get("title")).length(), is(12));
+
+			String genre = (String) record.getFields().get("genre");
+			assertThat(genre.equals("drama") || genre.equals("poetry"), is(true));
+		}
+
+	}
+
+	@Test
+	public void records_should_be_rendered_in_batches_when_they_are_read() throws NoSuchMethodException, IOException {
+
+		CountingGeneratedDataSetOperation generatedDataSetOperation = new CountingGeneratedDataSetOperation();
+
+		InputStream[] batches = new DataSetGenerator(generatedDataSet("books")).batches(generatedDataSetOperation);
+
+		assertThat(batches.length, is(3));
+		assertThat(generatedDataSetOperation.renderedBatches, is(0));
+
+		assertThat(IOUtils.readFullStream(batches[2]), is("book4;"));
+		assertThat(generatedDataSetOperation.renderedBatches, is(1));
+
+		assertThat(IOUtils.readFullStream(batches[0]), is("book0;book1;"));
+		assertThat(generatedDataSetOperation.renderedBatches, is(2));
+
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void records_with_shape_not_accepted_by_database_should_not_be_generated() throws NoSuchMethodException {
+
+		new DataSetGenerator(generatedDataSet("bookGraph")).batches(new CountingGeneratedDataSetOperation());
+
+	}
+
+	private GeneratedDataSet generatedDataSet(String methodName) throws NoSuchMethodException {
+		return WhenDataSetIsGenerated.class.getMethod(methodName).getAnnotation(GeneratedDataSet.class);
+	}
+
+}
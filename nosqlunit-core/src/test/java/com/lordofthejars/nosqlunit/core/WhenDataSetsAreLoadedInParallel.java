@@ -0,0 +1,317 @@
+package com.lordofthejars.nosqlunit.core;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.sameInstance;
+import static org.junit.Assert.assertThat;
+import static org.junit.Assert.fail;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.Writer;
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.Test;
+import org.junit.runners.model.FrameworkMethod;
+import org.junit.runners.model.Statement;
+
+import com.lordofthejars.nosqlunit.annotation.GeneratedDataSet;
+import com.lordofthejars.nosqlunit.annotation.UsingDataSet;
+
+public class WhenDataSetsAreLoadedInParallel {
+
+	@Test
+	public void independent_datasets_should_be_inserted_concurrently() {
+
+		final CountDownLatch allInserting = new CountDownLatch(2);
+		final List<Boolean> concurrentInsertions = Collections.synchronizedList(new ArrayList<Boolean>());
+
+		InsertLoadStrategyOperation insertLoadStrategyOperation = new InsertLoadStrategyOperation(
+				new RecordingDatabaseOperation() {
+					@Override
+					public void insert(InputStream dataScript) {
+						allInserting.countDown();
+						try {
+							concurrentInsertions.add(allInserting.await(5, TimeUnit.SECONDS));
+						} catch (InterruptedException e) {
+							Thread.currentThread().interrupt();
+						}
+					}
+				});
+		insertLoadStrategyOperation.setDataSetLoader(DataSetLoader.parallel(0));
+
+		insertLoadStrategyOperation.executeScripts(streams("a", "b"));
+
+		assertThat(concurrentInsertions.toString(), is("[true, true]"));
+
+	}
+
+	@Test
+	public void dependent_datasets_should_be_inserted_in_order_after_independent_ones() {
+
+		RecordingDatabaseOperation databaseOperation = new RecordingDatabaseOperation();
+
+		CleanInsertLoadStrategyOperation cleanInsertLoadStrategyOperation = new CleanInsertLoadStrategyOperation(
+				databaseOperation);
+		cleanInsertLoadStrategyOperation.setDataSetLoader(DataSetLoader.parallel(3));
+
+		cleanInsertLoadStrategyOperation.executeScripts(streams("a", "b", "c", "x", "y", "z"));
+
+		assertThat(databaseOperation.insertions.size(), is(6));
+		assertThat(databaseOperation.insertions.subList(3, 6).toString(), is("[x, y, z]"));
+
+	}
+
+	@Test
+	public void datasets_of_operations_not_inserting_concurrently_should_be_inserted_sequentially() {
+
+		final List<Thread> insertingThreads = Collections.synchronizedList(new ArrayList<Thread>());
+
+		InsertLoadStrategyOperation insertLoadStrategyOperation = new InsertLoadStrategyOperation(
+				new NotThreadSafeDatabaseOperation() {
+					@Override
+					public void insert(InputStream dataScript) {
+						insertingThreads.add(Thread.currentThread());
+						super.insert(dataScript);
+					}
+				});
+		insertLoadStrategyOperation.setDataSetLoader(DataSetLoader.parallel(0));
+
+		insertLoadStrategyOperation.executeScripts(streams("a", "b", "c"));
+
+		assertThat(insertingThreads.size(), is(3));
+		for (Thread insertingThread : insertingThreads) {
+			assertThat(insertingThread, sameInstance(Thread.currentThread()));
+		}
+
+	}
+
+	@Test
+	public void failures_should_be_rethrown_as_they_are() throws IOException {
+
+		InsertLoadStrategyOperation insertLoadStrategyOperation = new InsertLoadStrategyOperation(
+				new RecordingDatabaseOperation() {
+					@Override
+					public void insert(InputStream dataScript) {
+						throw new IllegalStateException("Duplicate key");
+					}
+				});
+		insertLoadStrategyOperation.setDataSetLoader(DataSetLoader.parallel(0));
+
+		InputStream[] contentDataset = new InputStream[] {
+				IOUtils.getStreamFromClasspathBaseResource(WhenDataSetsAreLoadedInParallel.class, "classpathContent.txt"),
+				new ByteArrayInputStream("b".getBytes()) };
+
+		try {
+			insertLoadStrategyOperation.executeScripts(contentDataset);
+			fail("Insertion failures should be reported.");
+		} catch (IllegalStateException e) {
+			assertThat(e.getMessage(), is("Duplicate key"));
+			assertThat(e.getSuppressed().length, is(1));
+		}
+
+	}
+
+	@Test
+	public void missing_dependent_datasets_should_fail_naming_their_location() throws Throwable {
+
+		final RecordingDatabaseOperation databaseOperation = new RecordingDatabaseOperation();
+
+		AbstractNoSqlTestRule rule = new AbstractNoSqlTestRule("") {
+
+			@Override
+			public DatabaseOperation getDatabaseOperation() {
+				return databaseOperation;
+			}
+
+			@Override
+			public String getWorkingExtension() {
+				return "txt";
+			}
+
+			@Override
+			public void close() {
+			}
+		};
+
+		Method testMethod = MissingDependentDataSetTest.class.getMethod("my_unknown_test");
+
+		try {
+			rule.apply(new Statement() {
+
+				@Override
+				public void evaluate() {
+				}
+			}, new FrameworkMethod(testMethod), new MissingDependentDataSetTest()).evaluate();
+			fail("Missing dependent datasets should be reported.");
+		} catch (IllegalArgumentException e) {
+			assertThat(
+					e.getMessage(),
+					is("File unknownContent.txt specified in dependentLocations property is not present in classpath."));
+		}
+
+		assertThat(databaseOperation.insertions.size(), is(0));
+
+	}
+
+	@Test
+	public void generated_batches_of_operations_not_inserting_concurrently_should_be_inserted_sequentially()
+			throws Throwable {
+
+		final List<Thread> insertingThreads = Collections.synchronizedList(new ArrayList<Thread>());
+
+		final GeneratingDatabaseOperation databaseOperation = new GeneratingDatabaseOperation() {
+			@Override
+			public void insert(InputStream dataScript) {
+				insertingThreads.add(Thread.currentThread());
+				super.insert(dataScript);
+			}
+		};
+
+		AbstractNoSqlTestRule rule = new AbstractNoSqlTestRule("") {
+
+			@Override
+			public DatabaseOperation getDatabaseOperation() {
+				return databaseOperation;
+			}
+
+			@Override
+			public String getWorkingExtension() {
+				return "txt";
+			}
+
+			@Override
+			public void close() {
+			}
+		};
+
+		Method testMethod = GeneratedDataSetTest.class.getMethod("my_generated_test");
+
+		rule.apply(new Statement() {
+
+			@Override
+			public void evaluate() {
+			}
+		}, new FrameworkMethod(testMethod), new GeneratedDataSetTest()).evaluate();
+
+		assertThat(databaseOperation.insertions, is((List<String>) Arrays.asList("book0;book1;",
+				"book2;book3;", "book4;")));
+		for (Thread insertingThread : insertingThreads) {
+			assertThat(insertingThread, sameInstance(Thread.currentThread()));
+		}
+
+	}
+
+	@Test
+	public void datasets_should_be_inserted_within_namespace_of_the_test() {
+
+		final List<TestNamespace> namespaces = Collections.synchronizedList(new ArrayList<TestNamespace>());
+
+		InsertLoadStrategyOperation insertLoadStrategyOperation = new InsertLoadStrategyOperation(
+				new RecordingDatabaseOperation() {
+					@Override
+					public void insert(InputStream dataScript) {
+						namespaces.add(TestNamespace.current());
+					}
+				});
+		insertLoadStrategyOperation.setDataSetLoader(DataSetLoader.parallel(0));
+
+		TestNamespace testNamespace = TestNamespace.acquire();
+		try {
+			insertLoadStrategyOperation.executeScripts(streams("a", "b"));
+		} finally {
+			TestNamespace.release();
+		}
+
+		assertThat(namespaces.get(0), is(testNamespace));
+		assertThat(namespaces.get(1), is(testNamespace));
+
+	}
+
+	private InputStream[] streams(String... contents) {
+
+		InputStream[] streams = new InputStream[contents.length];
+
+		for (int i = 0; i < contents.length; i++) {
+			streams[i] = new ByteArrayInputStream(contents[i].getBytes());
+		}
+
+		return streams;
+	}
+
+	@UsingDataSet(locations = "classpathContent.txt", dependentLocations = "unknownContent.txt", loadStrategy = LoadStrategyEnum.INSERT)
+	public static class MissingDependentDataSetTest {
+
+		public void my_unknown_test() {
+		}
+
+	}
+
+	public static class GeneratedDataSetTest {
+
+		@GeneratedDataSet(template = "book", count = 5, batchSize = 2, parallelLoad = true)
+		public void my_generated_test() {
+		}
+
+	}
+
+	private static class GeneratingDatabaseOperation extends NotThreadSafeDatabaseOperation implements
+			GeneratedDataSetOperation {
+
+		@Override
+		public RecordShape[] acceptedRecordShapes() {
+			return new RecordShape[] { RecordShape.DOCUMENT };
+		}
+
+		@Override
+		public void writeGeneratedRecords(RecordShape recordShape, String template, Iterator<GeneratedRecord> records,
+				Writer writer) throws IOException {
+			while (records.hasNext()) {
+				writer.write(template + records.next().getIndex() + ";");
+			}
+		}
+
+	}
+
+	private static class RecordingDatabaseOperation extends NotThreadSafeDatabaseOperation implements
+			ThreadSafeInsertionDatabaseOperation {
+
+	}
+
+	private static class NotThreadSafeDatabaseOperation implements DatabaseOperation<Object> {
+
+		final List<String> insertions = Collections.synchronizedList(new ArrayList<String>());
+
+		@Override
+		public void insert(InputStream dataScript) {
+			try {
+				insertions.add(IOUtils.readFullStream(dataScript));
+			} catch (IOException e) {
+				throw new IllegalArgumentException(e);
+			}
+		}
+
+		@Override
+		public void deleteAll() {
+		}
+
+		@Override
+		public boolean databaseIs(InputStream expectedData) {
+			return true;
+		}
+
+		@Override
+		public Object connectionManager() {
+			return null;
+		}
+
+	}
+
+}
@@ -3,6 +3,15 @@ package com.lordofthejars.nosqlunit.core;
 import static org.junit.Assert.assertThat;
 import static org.hamcrest.CoreMatchers.is;
 
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
 import org.junit.Test;
 
 public class WhenEngineLifecycleIsManaged {
@@ -58,6 +67,83 @@ public class WhenEngineLifecycleIsManaged {
 		
 	}
 
+	@Test
+	public void concurrent_start_and_stop_should_be_executed_only_once() throws Throwable {
+
+		final int numberOfThreads = 8;
+		final CountingLifecycle countingLifecycle = new CountingLifecycle();
+		final CountDownLatch startSignal = new CountDownLatch(1);
+
+		ExecutorService executorService = Executors.newFixedThreadPool(numberOfThreads);
+		List<Future<Void>> futures = new ArrayList<Future<Void>>();
+
+		try {
+			for (int i = 0; i < numberOfThreads; i++) {
+				futures.add(executorService.submit(new Callable<Void>() {
+
+					@Override
+					public Void call() throws Exception {
+						startSignal.await();
+						try {
+							countingLifecycle.startEngine();
+						} catch (Throwable e) {
+							throw new IllegalStateException(e);
+						}
+						countingLifecycle.stopEngine();
+						return null;
+					}
+				}));
+			}
+
+			startSignal.countDown();
+
+			for (Future<Void> future : futures) {
+				future.get();
+			}
+		} finally {
+			executorService.shutdown();
+		}
+
+		assertThat(countingLifecycle.starts.get(), is(countingLifecycle.stops.get()));
+		assertThat(countingLifecycle.running.get(), is(0));
+		assertThat(countingLifecycle.overlapped, is(false));
+		assertThat(ConnectionManagement.getInstance().isConnectionRegistered("localhost", 1), is(false));
+
+	}
+
+	private class CountingLifecycle extends AbstractLifecycleManager {
+
+		final AtomicInteger starts = new AtomicInteger();
+		final AtomicInteger stops = new AtomicInteger();
+		final AtomicInteger running = new AtomicInteger();
+		volatile boolean overlapped;
+
+		@Override
+		public String getHost() {
+			return "localhost";
+		}
+
+		@Override
+		public int getPort() {
+			return 1;
+		}
+
+		@Override
+		public void doStart() throws Throwable {
+			starts.incrementAndGet();
+			if (running.incrementAndGet() > 1) {
+				overlapped = true;
+			}
+		}
+
+		@Override
+		public void doStop() {
+			stops.incrementAndGet();
+			running.decrementAndGet();
+		}
+
+	}
+
 	private class MockLifecycle extends AbstractLifecycleManager {
 
 		int number;
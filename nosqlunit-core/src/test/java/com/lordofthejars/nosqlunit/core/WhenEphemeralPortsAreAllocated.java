@@ -0,0 +1,76 @@
+package com.lordofthejars.nosqlunit.core;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.not;
+import static org.junit.Assert.assertThat;
+
+import java.io.IOException;
+import java.net.ServerSocket;
+
+import org.junit.Test;
+
+public class WhenEphemeralPortsAreAllocated {
+
+	@Test
+	public void allocated_ports_should_be_free_and_different() throws IOException {
+
+		int firstPort = EphemeralPorts.allocate();
+		int secondPort = EphemeralPorts.allocate();
+
+		assertThat(firstPort, is(not(secondPort)));
+
+		ServerSocket serverSocket = new ServerSocket(firstPort);
+		serverSocket.close();
+
+	}
+
+	@Test
+	public void fixed_port_should_be_kept() {
+
+		EphemeralPorts.publish("fixed-engine", "target/fixed", 1234);
+
+		assertThat(EphemeralPorts.resolve("fixed-engine", 27017), is(27017));
+
+	}
+
+	@Test
+	public void automatic_port_should_be_resolved_to_published_port() {
+
+		int port = EphemeralPorts.allocate();
+		EphemeralPorts.publish("automatic-engine", "target/automatic", port);
+
+		assertThat(EphemeralPorts.resolve("automatic-engine", EphemeralPorts.AUTO), is(port));
+
+	}
+
+	@Test
+	public void automatic_port_should_be_resolved_to_port_published_by_given_server() {
+
+		int firstPort = EphemeralPorts.allocate();
+		int secondPort = EphemeralPorts.allocate();
+		EphemeralPorts.publish("replicated-engine", "target/first", firstPort);
+		EphemeralPorts.publish("replicated-engine", "target/second", secondPort);
+
+		assertThat(EphemeralPorts.resolve("replicated-engine", "target/first", EphemeralPorts.AUTO), is(firstPort));
+		assertThat(EphemeralPorts.resolve("replicated-engine", "target/second", EphemeralPorts.AUTO), is(secondPort));
+
+	}
+
+	@Test(expected = IllegalStateException.class)
+	public void automatic_port_should_not_be_resolved_without_server_when_several_servers_are_started() {
+
+		EphemeralPorts.publish("ambiguous-engine", "target/first", EphemeralPorts.allocate());
+		EphemeralPorts.publish("ambiguous-engine", "target/second", EphemeralPorts.allocate());
+
+		EphemeralPorts.resolve("ambiguous-engine", EphemeralPorts.AUTO);
+
+	}
+
+	@Test(expected = IllegalStateException.class)
+	public void automatic_port_should_not_be_resolved_when_engine_has_not_been_started() {
+
+		EphemeralPorts.resolve("not-started-engine", EphemeralPorts.AUTO);
+
+	}
+
+}
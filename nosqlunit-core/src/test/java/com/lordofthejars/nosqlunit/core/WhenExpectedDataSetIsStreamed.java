@@ -0,0 +1,291 @@
+package com.lordofthejars.nosqlunit.core;
+
+import static org.hamcrest.CoreMatchers.containsString;
+import static org.hamcrest.CoreMatchers.is;
+import static org.junit.Assert.assertThat;
+import static org.junit.Assert.fail;
+
+import java.io.ByteArrayInputStream;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.Test;
+
+public class WhenExpectedDataSetIsStreamed {
+
+	private static class InMemoryRecordStreamingDatabaseOperation implements RecordStreamingDatabaseOperation {
+
+		private final Map<String, List<Map<String, Object>>> expectedRecords = new LinkedHashMap<String, List<Map<String, Object>>>();
+		private final Map<String, List<Map<String, Object>>> storedRecords = new LinkedHashMap<String, List<Map<String, Object>>>();
+
+		@Override
+		public void readExpectedRecords(InputStream expectedData, ExpectedRecordHandler expectedRecordHandler)
+				throws IOException {
+			for (Map.Entry<String, List<Map<String, Object>>> collection : expectedRecords.entrySet()) {
+				expectedRecordHandler.collection(collection.getKey());
+
+				for (Map<String, Object> record : collection.getValue()) {
+					expectedRecordHandler.record(collection.getKey(), record);
+				}
+			}
+		}
+
+		@Override
+		public Iterator<Map<String, Object>> storedRecords(String collection) {
+			List<Map<String, Object>> records = storedRecords.get(collection);
+			return records == null ? Collections.<Map<String, Object>> emptyList().iterator() : records.iterator();
+		}
+
+		void expect(String collection, Map<String, Object> record) {
+			add(expectedRecords, collection, record);
+		}
+
+		void store(String collection, Map<String, Object> record) {
+			add(storedRecords, collection, record);
+		}
+
+		private static void add(Map<String, List<Map<String, Object>>> records, String collection,
+				Map<String, Object> record) {
+			if (!records.containsKey(collection)) {
+				records.put(collection, new ArrayList<Map<String, Object>>());
+			}
+
+			records.get(collection).add(record);
+		}
+
+	}
+
+	@Test
+	public void digest_should_match_stored_records_in_any_order_and_with_generated_keys() throws IOException {
+
+		InMemoryRecordStreamingDatabaseOperation databaseOperation = new InMemoryRecordStreamingDatabaseOperation();
+		databaseOperation.expect("books", book("The Hobbit", 293));
+		databaseOperation.expect("books", book("The Silmarillion", 365));
+
+		Map<String, Object> storedBook = book("The Silmarillion", 365L);
+		storedBook.put("_id", "1234");
+		databaseOperation.store("books", storedBook);
+		databaseOperation.store("books", book("The Hobbit", 293));
+
+		StreamingDataSetAssertion.assertDigestEquals(databaseOperation, emptyStream(), new String[0]);
+
+	}
+
+	@Test
+	public void digest_should_fail_when_stored_records_have_different_content() throws IOException {
+
+		InMemoryRecordStreamingDatabaseOperation databaseOperation = new InMemoryRecordStreamingDatabaseOperation();
+		databaseOperation.expect("books", book("The Hobbit", 293));
+		databaseOperation.store("books", book("The Hobbit", 294));
+
+		try {
+			StreamingDataSetAssertion.assertDigestEquals(databaseOperation, emptyStream(), new String[0]);
+			fail();
+		} catch (NoSqlAssertionError e) {
+			assertThat(e.getMessage(), containsString("different digests"));
+		}
+
+	}
+
+	@Test
+	public void digest_should_skip_ignored_properties() throws IOException {
+
+		InMemoryRecordStreamingDatabaseOperation databaseOperation = new InMemoryRecordStreamingDatabaseOperation();
+		databaseOperation.expect("books", book("The Hobbit", 293));
+		databaseOperation.store("books", book("The Hobbit", 294));
+
+		StreamingDataSetAssertion.assertDigestEquals(databaseOperation, emptyStream(), new String[] { "books.pages" });
+
+	}
+
+	@Test
+	public void digest_should_fail_when_collections_have_different_number_of_records() throws IOException {
+
+		InMemoryRecordStreamingDatabaseOperation databaseOperation = new InMemoryRecordStreamingDatabaseOperation();
+		databaseOperation.expect("books", book("The Hobbit", 293));
+		databaseOperation.expect("authors", book("Tolkien", 0));
+		databaseOperation.store("books", book("The Hobbit", 293));
+
+		try {
+			StreamingDataSetAssertion.assertDigestEquals(databaseOperation, emptyStream(), new String[0]);
+			fail();
+		} catch (NoSqlAssertionError e) {
+			assertThat(e.getMessage(), is("Expected collection authors has 1 elements but stored collection has 0."));
+		}
+
+	}
+
+	private static class InMemoryRecordLookupDatabaseOperation extends InMemoryRecordStreamingDatabaseOperation
+			implements RecordLookupDatabaseOperation {
+
+		@Override
+		public Iterator<Map<String, Object>> storedRecords(String collection) {
+			throw new AssertionError("Collection " + collection + " should not be scanned.");
+		}
+
+		@Override
+		public long countStoredRecords(String collection) {
+			List<Map<String, Object>> records = super.storedRecords.get(collection);
+			return records == null ? 0 : records.size();
+		}
+
+		@Override
+		public Object recordKey(Map<String, Object> record) {
+			return record.get("_id");
+		}
+
+		@Override
+		public Map<String, Object> storedRecord(String collection, Object key) {
+			for (Map<String, Object> record : super.storedRecords.get(collection)) {
+				if (key.equals(record.get("_id"))) {
+					return record;
+				}
+			}
+
+			return null;
+		}
+
+	}
+
+	@Test
+	public void sample_should_look_up_sampled_records_by_key_instead_of_scanning_collection() throws IOException {
+
+		InMemoryRecordLookupDatabaseOperation databaseOperation = new InMemoryRecordLookupDatabaseOperation();
+
+		for (int i = 0; i < 50; i++) {
+			databaseOperation.expect("books", book(i, "Book " + i, i));
+			databaseOperation.store("books", book(49 - i, "Book " + (49 - i), 49L - i));
+		}
+
+		StreamingDataSetAssertion.assertSampleEquals(databaseOperation, emptyStream(), 5, 42L, new String[0]);
+
+	}
+
+	@Test
+	public void sample_should_fail_when_looked_up_record_has_different_content() throws IOException {
+
+		InMemoryRecordLookupDatabaseOperation databaseOperation = new InMemoryRecordLookupDatabaseOperation();
+
+		for (int i = 0; i < 10; i++) {
+			databaseOperation.expect("books", book(i, "Book " + i, i));
+			databaseOperation.store("books", book(i, "Other Book " + i, i));
+		}
+
+		try {
+			StreamingDataSetAssertion.assertSampleEquals(databaseOperation, emptyStream(), 3, 42L, new String[0]);
+			fail();
+		} catch (NoSqlAssertionError e) {
+			assertThat(e.getMessage(), containsString("is not found in collection books"));
+		}
+
+	}
+
+	@Test
+	public void stored_records_should_be_closed_when_reading_them_fails() throws IOException {
+
+		final List<Boolean> closed = new ArrayList<Boolean>();
+
+		InMemoryRecordStreamingDatabaseOperation databaseOperation = new InMemoryRecordStreamingDatabaseOperation() {
+
+			@Override
+			public Iterator<Map<String, Object>> storedRecords(String collection) {
+				return new FailingStoredRecords() {
+
+					@Override
+					public void close() {
+						closed.add(true);
+					}
+				};
+			}
+		};
+		databaseOperation.expect("books", book("The Hobbit", 293));
+
+		try {
+			StreamingDataSetAssertion.assertDigestEquals(databaseOperation, emptyStream(), new String[0]);
+			fail();
+		} catch (IllegalStateException e) {
+			assertThat(closed.size(), is(1));
+		}
+
+	}
+
+	private abstract static class FailingStoredRecords implements Iterator<Map<String, Object>>, Closeable {
+
+		@Override
+		public boolean hasNext() {
+			return true;
+		}
+
+		@Override
+		public Map<String, Object> next() {
+			throw new IllegalStateException("Connection lost");
+		}
+
+		@Override
+		public void remove() {
+			throw new UnsupportedOperationException();
+		}
+
+		@Override
+		public abstract void close();
+
+	}
+
+	@Test
+	public void sample_should_match_when_sampled_records_are_stored() throws IOException {
+
+		InMemoryRecordStreamingDatabaseOperation databaseOperation = new InMemoryRecordStreamingDatabaseOperation();
+
+		for (int i = 0; i < 50; i++) {
+			databaseOperation.expect("books", book("Book " + i, i));
+			databaseOperation.store("books", book("Book " + (49 - i), 49 - i));
+		}
+
+		StreamingDataSetAssertion.assertSampleEquals(databaseOperation, emptyStream(), 5, 42L, new String[0]);
+
+	}
+
+	@Test
+	public void sample_should_fail_when_a_sampled_record_is_not_stored() throws IOException {
+
+		InMemoryRecordStreamingDatabaseOperation databaseOperation = new InMemoryRecordStreamingDatabaseOperation();
+
+		for (int i = 0; i < 10; i++) {
+			databaseOperation.expect("books", book("Book " + i, i));
+			databaseOperation.store("books", book("Other Book " + i, i));
+		}
+
+		try {
+			StreamingDataSetAssertion.assertSampleEquals(databaseOperation, emptyStream(), 3, 42L, new String[0]);
+			fail();
+		} catch (NoSqlAssertionError e) {
+			assertThat(e.getMessage(), containsString("is not found in collection books"));
+		}
+
+	}
+
+	private static Map<String, Object> book(String title, Object pages) {
+		Map<String, Object> book = new LinkedHashMap<String, Object>();
+		book.put("title", title);
+		book.put("pages", pages);
+		return book;
+	}
+
+	private static Map<String, Object> book(int id, String title, Object pages) {
+		Map<String, Object> book = book(title, pages);
+		book.put("_id", id);
+		return book;
+	}
+
+	private static InputStream emptyStream() {
+		return new ByteArrayInputStream(new byte[0]);
+	}
+
+}
@@ -0,0 +1,126 @@
+package com.lordofthejars.nosqlunit.core;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.nullValue;
+import static org.junit.Assert.assertThat;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.codehaus.jackson.JsonParseException;
+import org.junit.Test;
+
+public class WhenJsonDataSetIsStreamed {
+
+	private static final String DATASET = "{\n" +
+			"  \"users\": [\n" +
+			"    {\"name\": \"alex\", \"age\": 36},\n" +
+			"    {\"name\": \"soto\", \"tags\": [\"a\", \"b\"]}\n" +
+			"  ],\n" +
+			"  \"products\": {\n" +
+			"    \"indexes\": [{\"index\": {\"code\": 1}}],\n" +
+			"    \"data\": [{\"code\": \"x\"}]\n" +
+			"  },\n" +
+			"  \"ignored\": {\"data\": [1, 2, 3]}\n" +
+			"}";
+
+	@Test
+	public void records_should_be_handed_one_by_one() throws IOException {
+
+		JsonDataSetReader dataSetReader = new JsonDataSetReader(stream(DATASET));
+		RecordCollector recordCollector = new RecordCollector();
+
+		assertThat(dataSetReader.nextField(), is("users"));
+		assertThat(dataSetReader.isArrayValue(), is(true));
+		assertThat(dataSetReader.readRecords(recordCollector), is(2L));
+
+		assertThat(recordCollector.records.get(0), is("{\"name\":\"alex\",\"age\":36}"));
+		assertThat(recordCollector.records.get(1), is("{\"name\":\"soto\",\"tags\":[\"a\",\"b\"]}"));
+
+		dataSetReader.close();
+	}
+
+	@Test
+	public void nested_objects_should_be_read_field_by_field() throws IOException {
+
+		JsonDataSetReader dataSetReader = new JsonDataSetReader(stream(DATASET));
+		RecordCollector recordCollector = new RecordCollector();
+
+		dataSetReader.nextField();
+		assertThat(dataSetReader.nextField(), is("products"));
+		assertThat(dataSetReader.isObjectValue(), is(true));
+
+		dataSetReader.beginObject();
+		assertThat(dataSetReader.nextField(), is("indexes"));
+		assertThat(dataSetReader.readValueAsJson(), is("[{\"index\":{\"code\":1}}]"));
+		assertThat(dataSetReader.nextField(), is("data"));
+		dataSetReader.readRecords(recordCollector);
+		assertThat(dataSetReader.nextField(), is(nullValue()));
+
+		assertThat(dataSetReader.nextField(), is("ignored"));
+		assertThat(dataSetReader.nextField(), is(nullValue()));
+		assertThat(recordCollector.records.size(), is(1));
+
+		dataSetReader.close();
+	}
+
+	@Test
+	public void values_not_consumed_should_be_skipped() throws IOException {
+
+		JsonDataSetReader dataSetReader = new JsonDataSetReader(stream(DATASET));
+
+		List<String> fields = new ArrayList<String>();
+		String field;
+		while ((field = dataSetReader.nextField()) != null) {
+			fields.add(field);
+		}
+
+		assertThat(fields.toString(), is("[users, products, ignored]"));
+
+		dataSetReader.close();
+	}
+
+	@Test
+	public void trailing_commas_should_be_accepted() throws IOException {
+
+		JsonDataSetReader dataSetReader = new JsonDataSetReader(stream("{\"users\": [{\"name\": \"a,}\",},\n],}"));
+		RecordCollector recordCollector = new RecordCollector();
+
+		dataSetReader.nextField();
+		dataSetReader.readRecords(recordCollector);
+
+		assertThat(recordCollector.records.toString(), is("[{\"name\":\"a,}\"}]"));
+		assertThat(dataSetReader.nextField(), is(nullValue()));
+
+		dataSetReader.close();
+	}
+
+	@Test(expected = JsonParseException.class)
+	public void datasets_not_being_an_object_should_be_rejected() throws IOException {
+		new JsonDataSetReader(stream("[{\"name\": \"alex\"}]"));
+	}
+
+	@Test
+	public void full_stream_should_keep_line_separators() throws IOException {
+		assertThat(IOUtils.readFullStream(stream("{\n\"a\": 1\n}")), is("{\n\"a\": 1\n}"));
+	}
+
+	private InputStream stream(String content) {
+		return new ByteArrayInputStream(content.getBytes());
+	}
+
+	private static class RecordCollector implements JsonDataSetReader.RecordHandler {
+
+		List<String> records = new ArrayList<String>();
+
+		@Override
+		public void record(String record) {
+			records.add(record);
+		}
+
+	}
+
+}
@@ -0,0 +1,137 @@
+package com.lordofthejars.nosqlunit.core;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.not;
+import static org.hamcrest.CoreMatchers.nullValue;
+import static org.hamcrest.CoreMatchers.sameInstance;
+import static org.junit.Assert.assertThat;
+
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.junit.FixMethodOrder;
+import org.junit.Ignore;
+import org.junit.Test;
+import org.junit.runners.MethodSorters;
+import org.junit.runners.model.FrameworkMethod;
+
+public class WhenNamespacesAreBuffered {
+
+	@FixMethodOrder(MethodSorters.NAME_ASCENDING)
+	public static class OrderedTest {
+
+		@Test
+		public void a_first() {
+		}
+
+		@Ignore
+		@Test
+		public void b_ignored() {
+		}
+
+		@Test
+		public void c_second() {
+		}
+
+	}
+
+	@Test
+	public void each_test_should_run_on_next_namespace_of_the_ring() {
+
+		NamespaceBuffer namespaceBuffer = new NamespaceBuffer(TestNamespace.reserve(), TestNamespace.reserve());
+
+		Object firstTest = new Object();
+		Object secondTest = new Object();
+
+		TestNamespace firstNamespace = namespaceBuffer.namespaceFor(firstTest);
+
+		assertThat(namespaceBuffer.namespaceFor(firstTest), sameInstance(firstNamespace));
+		assertThat(namespaceBuffer.nextNamespace(), not(sameInstance(firstNamespace)));
+
+		TestNamespace secondNamespace = namespaceBuffer.namespaceFor(secondTest);
+
+		assertThat(secondNamespace, not(sameInstance(firstNamespace)));
+		assertThat(namespaceBuffer.namespaceFor(new Object()), sameInstance(firstNamespace));
+
+	}
+
+	@Test
+	public void namespace_prepared_in_background_should_be_used_by_next_test() {
+
+		NamespaceBuffer namespaceBuffer = new NamespaceBuffer(TestNamespace.reserve(), TestNamespace.reserve());
+		namespaceBuffer.namespaceFor(new Object());
+
+		final AtomicReference<TestNamespace> preparedNamespace = new AtomicReference<TestNamespace>();
+
+		namespaceBuffer.prepare("rule", "Test#second", new Runnable() {
+
+			@Override
+			public void run() {
+				preparedNamespace.set(TestNamespace.current());
+			}
+		});
+
+		TestNamespace nextNamespace = namespaceBuffer.namespaceFor(new Object());
+
+		assertThat(namespaceBuffer.isPreparedFor("rule", "Test#second"), is(true));
+		assertThat(preparedNamespace.get(), sameInstance(nextNamespace));
+
+	}
+
+	@Test
+	public void namespace_prepared_for_another_test_should_not_be_used() {
+
+		NamespaceBuffer namespaceBuffer = new NamespaceBuffer(TestNamespace.reserve(), TestNamespace.reserve());
+		namespaceBuffer.namespaceFor(new Object());
+
+		namespaceBuffer.prepare("rule", "Test#second", new Runnable() {
+
+			@Override
+			public void run() {
+			}
+		});
+
+		namespaceBuffer.namespaceFor(new Object());
+
+		assertThat(namespaceBuffer.isPreparedFor("rule", "Test#third"), is(false));
+		assertThat(namespaceBuffer.isPreparedFor("rule", "Test#second"), is(false));
+
+	}
+
+	@Test
+	public void failed_preparation_should_not_be_used() {
+
+		NamespaceBuffer namespaceBuffer = new NamespaceBuffer(TestNamespace.reserve(), TestNamespace.reserve());
+		namespaceBuffer.namespaceFor(new Object());
+
+		namespaceBuffer.prepare("rule", "Test#second", new Runnable() {
+
+			@Override
+			public void run() {
+				throw new IllegalStateException("Dataset cannot be loaded.");
+			}
+		});
+
+		namespaceBuffer.awaitPreparation("rule");
+		namespaceBuffer.namespaceFor(new Object());
+
+		assertThat(namespaceBuffer.isPreparedFor("rule", "Test#second"), is(false));
+
+	}
+
+	@Test
+	public void next_test_method_should_skip_ignored_methods() throws NoSuchMethodException {
+
+		TestClassMetadata testClassMetadata = TestClassMetadata.forClass(OrderedTest.class);
+
+		FrameworkMethod nextMethod = testClassMetadata.nextTestMethod(frameworkMethod("a_first"));
+
+		assertThat(nextMethod.getName(), is("c_second"));
+		assertThat(testClassMetadata.nextTestMethod(frameworkMethod("c_second")), nullValue());
+
+	}
+
+	private FrameworkMethod frameworkMethod(String name) throws NoSuchMethodException {
+		return new FrameworkMethod(OrderedTest.class.getMethod(name));
+	}
+
+}
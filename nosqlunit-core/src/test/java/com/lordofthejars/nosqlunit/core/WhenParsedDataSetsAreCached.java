@@ -0,0 +1,104 @@
+package com.lordofthejars.nosqlunit.core;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.junit.Assert.assertThat;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+
+import org.junit.Test;
+
+public class WhenParsedDataSetsAreCached {
+
+	@Test
+	public void same_classpath_resource_should_be_parsed_only_once() throws IOException {
+
+		ParsedDataSetCache parsedDataSetCache = new ParsedDataSetCache(10);
+		CountingParser countingParser = new CountingParser();
+
+		String firstModel = parsedDataSetCache.parse(classpathContent(), countingParser);
+		String secondModel = parsedDataSetCache.parse(classpathContent(), countingParser);
+
+		assertThat(firstModel, is("Hello My Name is Jimmy Pop"));
+		assertThat(secondModel, is("Hello My Name is Jimmy Pop"));
+		assertThat(countingParser.numberOfParses, is(1));
+
+	}
+
+	@Test
+	public void streams_not_coming_from_classpath_should_be_always_parsed() throws IOException {
+
+		ParsedDataSetCache parsedDataSetCache = new ParsedDataSetCache(10);
+		CountingParser countingParser = new CountingParser();
+
+		parsedDataSetCache.parse(new ByteArrayInputStream("Jimmy Pop".getBytes()), countingParser);
+		parsedDataSetCache.parse(new ByteArrayInputStream("Jimmy Pop".getBytes()), countingParser);
+
+		assertThat(countingParser.numberOfParses, is(2));
+		assertThat(parsedDataSetCache.size(), is(0));
+
+	}
+
+	@Test
+	public void least_recently_used_model_should_be_evicted_when_cache_is_full() throws IOException {
+
+		ParsedDataSetCache parsedDataSetCache = new ParsedDataSetCache(1);
+		CountingParser countingParser = new CountingParser();
+
+		parsedDataSetCache.parse(classpathContent(), countingParser);
+		parsedDataSetCache.parse(IOUtils.getStreamFromClasspathBaseResource(WhenParsedDataSetsAreCached.class,
+				"integration/test"), countingParser);
+		parsedDataSetCache.parse(classpathContent(), countingParser);
+
+		assertThat(parsedDataSetCache.size(), is(1));
+		assertThat(countingParser.numberOfParses, is(3));
+
+	}
+
+	@Test
+	public void cache_should_be_disabled_with_zero_size() throws IOException {
+
+		ParsedDataSetCache parsedDataSetCache = new ParsedDataSetCache(0);
+		CountingParser countingParser = new CountingParser();
+
+		parsedDataSetCache.parse(classpathContent(), countingParser);
+		parsedDataSetCache.parse(classpathContent(), countingParser);
+
+		assertThat(countingParser.numberOfParses, is(2));
+
+	}
+
+	@Test
+	public void resources_bigger_than_max_cacheable_size_should_not_be_cached() throws IOException {
+
+		ParsedDataSetCache parsedDataSetCache = new ParsedDataSetCache(10, 10);
+		CountingParser countingParser = new CountingParser();
+
+		assertThat(parsedDataSetCache.isCacheable(classpathContent()), is(false));
+
+		parsedDataSetCache.parse(classpathContent(), countingParser);
+		parsedDataSetCache.parse(classpathContent(), countingParser);
+
+		assertThat(countingParser.numberOfParses, is(2));
+		assertThat(parsedDataSetCache.size(), is(0));
+
+	}
+
+	private InputStream classpathContent() {
+		return IOUtils.getStreamFromClasspathBaseResource(WhenParsedDataSetsAreCached.class, "classpathContent.txt");
+	}
+
+	private static class CountingParser implements DataSetModelParser<String> {
+
+		int numberOfParses;
+
+		@Override
+		public String parse(InputStream dataset) throws IOException {
+			numberOfParses++;
+			return IOUtils.readFullStream(dataset);
+		}
+
+	}
+
+}
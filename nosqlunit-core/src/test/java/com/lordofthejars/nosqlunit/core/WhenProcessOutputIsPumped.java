@@ -0,0 +1,118 @@
+package com.lordofthejars.nosqlunit.core;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.junit.Assert.assertThat;
+import static org.junit.Assert.fail;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.PipedInputStream;
+import java.io.PipedOutputStream;
+import java.util.Arrays;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Pattern;
+
+import org.junit.Test;
+
+public class WhenProcessOutputIsPumped {
+
+	private static final Pattern READY_PATTERN = Pattern.compile("ready to accept connections");
+
+	@Test
+	public void only_last_lines_should_be_kept() throws IOException {
+
+		ProcessOutputPump processOutputPump = new ProcessOutputPump(new ByteArrayInputStream(
+				"line1\nline2\nline3\nline4\nline5\n".getBytes()), 3);
+
+		processOutputPump.run();
+
+		assertThat(processOutputPump.getLines(), is(Arrays.asList("line3", "line4", "line5")));
+
+	}
+
+	@Test
+	public void ready_future_should_be_completed_as_soon_as_ready_line_is_logged() throws Exception {
+
+		PipedOutputStream processOutput = new PipedOutputStream();
+		Process process = mock(Process.class);
+		when(process.getInputStream()).thenReturn(new PipedInputStream(processOutput));
+
+		ProcessOutputPump processOutputPump = ProcessOutputPump.start(process);
+		CompletableFuture<String> readyLine = processOutputPump.whenLogged(READY_PATTERN);
+
+		processOutput.write("Server started\n".getBytes());
+		processOutput.flush();
+
+		assertThat(readyLine.isDone(), is(false));
+
+		processOutput.write("The server is now ready to accept connections on port 6379\n".getBytes());
+		processOutput.flush();
+
+		assertThat(readyLine.get(5, TimeUnit.SECONDS),
+				is("The server is now ready to accept connections on port 6379"));
+		assertThat(processOutputPump.awaitEnd(10, TimeUnit.MILLISECONDS), is(false));
+
+		processOutput.close();
+
+	}
+
+	@Test
+	public void ready_future_should_be_completed_with_lines_already_read() throws Exception {
+
+		ProcessOutputPump processOutputPump = new ProcessOutputPump(new ByteArrayInputStream(
+				"Ready to accept connections\n".getBytes()), 10);
+
+		processOutputPump.run();
+
+		assertThat(processOutputPump.whenLogged(Pattern.compile("(?i)ready")).get(), is("Ready to accept connections"));
+
+	}
+
+	@Test
+	public void ready_future_should_fail_when_output_ends_without_ready_line() throws Exception {
+
+		ProcessOutputPump processOutputPump = new ProcessOutputPump(new ByteArrayInputStream(
+				"Address already in use\n".getBytes()), 10);
+
+		CompletableFuture<String> readyLine = processOutputPump.whenLogged(READY_PATTERN);
+		processOutputPump.run();
+
+		try {
+			readyLine.get();
+			fail("Ready line should never be logged.");
+		} catch (ExecutionException e) {
+			assertThat(e.getCause() instanceof IllegalStateException, is(true));
+		}
+
+	}
+
+	@Test
+	public void console_output_of_a_finished_process_should_be_read() throws IOException {
+
+		Process process = mock(Process.class);
+		when(process.getInputStream()).thenReturn(new ByteArrayInputStream("Time to relax.\n".getBytes()));
+
+		assertThat(new CommandLineExecutor().getConsoleOutput(process), is(Arrays.asList("Time to relax.")));
+
+	}
+
+	@Test
+	public void number_of_console_output_lines_kept_should_be_configurable() throws IOException {
+
+		Process process = mock(Process.class);
+		when(process.getInputStream()).thenReturn(new ByteArrayInputStream("line1\nline2\nline3\n".getBytes()));
+
+		System.setProperty(ProcessOutputPump.CAPACITY_PROPERTY, "2");
+		try {
+			assertThat(new CommandLineExecutor().getConsoleOutput(process), is(Arrays.asList("line2", "line3")));
+		} finally {
+			System.clearProperty(ProcessOutputPump.CAPACITY_PROPERTY);
+		}
+
+	}
+
+}
@@ -0,0 +1,122 @@
+package com.lordofthejars.nosqlunit.core;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.nullValue;
+import static org.junit.Assert.assertThat;
+import static org.junit.Assert.fail;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.Test;
+
+public class WhenReadinessIsProbed {
+
+	private static class CountingReadinessProbe extends ReadinessProbe {
+
+		private final int attemptsToBeReady;
+		private int attempts = 0;
+
+		CountingReadinessProbe(int attemptsToBeReady) {
+			this.attemptsToBeReady = attemptsToBeReady;
+		}
+
+		@Override
+		protected boolean probe() throws Exception {
+			attempts++;
+			if (attempts < attemptsToBeReady) {
+				throw new IOException("Connection refused");
+			}
+			return true;
+		}
+
+	}
+
+	@Test
+	public void engine_should_be_usable_as_soon_as_probe_is_ready() throws InterruptedException {
+
+		CountingReadinessProbe readinessProbe = new CountingReadinessProbe(4);
+
+		long start = System.nanoTime();
+		boolean ready = readinessProbe.awaitReadiness(10, TimeUnit.SECONDS);
+		long elapsedMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+
+		assertThat(ready, is(true));
+		assertThat(readinessProbe.attempts, is(4));
+		assertThat(elapsedMillis < 1000, is(true));
+		assertThat(readinessProbe.getLastFailure(), nullValue());
+
+	}
+
+	@Test
+	public void probe_should_report_not_ready_with_last_failure_when_timeout_expires() throws InterruptedException {
+
+		CountingReadinessProbe readinessProbe = new CountingReadinessProbe(Integer.MAX_VALUE);
+
+		boolean ready = readinessProbe.awaitReadiness(100, TimeUnit.MILLISECONDS);
+
+		assertThat(ready, is(false));
+		assertThat(readinessProbe.getLastFailure().getMessage(), is("Connection refused"));
+
+	}
+
+	@Test
+	public void lifecycle_manager_should_fail_when_engine_is_never_ready() throws Throwable {
+
+		AbstractLifecycleManager lifecycleManager = new AbstractLifecycleManager() {
+
+			@Override
+			public String getHost() {
+				return "localhost";
+			}
+
+			@Override
+			public int getPort() {
+				return 1;
+			}
+
+			@Override
+			public void doStart() throws Throwable {
+				waitUntilReady(new CountingReadinessProbe(Integer.MAX_VALUE), 50, TimeUnit.MILLISECONDS);
+			}
+
+			@Override
+			public void doStop() {
+			}
+		};
+
+		try {
+			lifecycleManager.doStart();
+			fail("Engine never ready should fail to start.");
+		} catch (IllegalStateException e) {
+			assertThat(e.getCause().getMessage(), is("Connection refused"));
+		}
+
+	}
+
+	@Test
+	public void process_probe_should_be_ready_when_process_has_exited() {
+
+		Process process = mock(Process.class);
+		when(process.isAlive()).thenReturn(true, false);
+
+		ReadinessProbe readinessProbe = ReadinessProbe.processTerminated(process);
+
+		assertThat(readinessProbe.isReady(), is(false));
+		assertThat(readinessProbe.isReady(), is(true));
+
+	}
+
+	@Test
+	public void http_probe_should_not_be_ready_when_nothing_is_listening() {
+
+		ReadinessProbe readinessProbe = ReadinessProbe.httpStatus("http://localhost:1/ping");
+
+		assertThat(readinessProbe.isReady(), is(false));
+		assertThat(readinessProbe.getLastFailure() instanceof IOException, is(true));
+
+	}
+
+}
@@ -0,0 +1,105 @@
+package com.lordofthejars.nosqlunit.core;
+
+import static org.mockito.Matchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import static org.mockito.Mockito.withSettings;
+
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+
+import org.junit.Before;
+import org.junit.Test;
+
+public class WhenReuseIfCleanOperationIsExecuted {
+
+	private DatabaseOperation databaseOperation;
+	private SeededDataSetRegistry seededDataSetRegistry;
+
+	@Before
+	public void setUp() {
+		databaseOperation = mock(DatabaseOperation.class,
+				withSettings().extraInterfaces(StateTrackingDatabaseOperation.class));
+		seededDataSetRegistry = new SeededDataSetRegistry();
+	}
+
+	@Test
+	public void unchanged_database_should_not_be_reseeded() {
+
+		when(((StateTrackingDatabaseOperation) databaseOperation).databaseState()).thenReturn("seeded");
+
+		executeScripts(classpathContent());
+		executeScripts(classpathContent());
+
+		verify(databaseOperation, times(1)).deleteAll();
+		verify(databaseOperation, times(1)).insert(any(InputStream.class));
+
+	}
+
+	@Test
+	public void modified_database_should_be_reseeded() {
+
+		when(((StateTrackingDatabaseOperation) databaseOperation).databaseState()).thenReturn("seeded", "modified",
+				"seeded");
+
+		executeScripts(classpathContent());
+		executeScripts(classpathContent());
+
+		verify(databaseOperation, times(2)).deleteAll();
+		verify(databaseOperation, times(2)).insert(any(InputStream.class));
+
+	}
+
+	@Test
+	public void different_datasets_should_be_reseeded() {
+
+		when(((StateTrackingDatabaseOperation) databaseOperation).databaseState()).thenReturn("seeded");
+
+		executeScripts(classpathContent());
+		executeScripts(IOUtils.getStreamFromClasspathBaseResource(WhenReuseIfCleanOperationIsExecuted.class,
+				"integration/test"));
+
+		verify(databaseOperation, times(2)).deleteAll();
+		verify(databaseOperation, times(2)).insert(any(InputStream.class));
+
+	}
+
+	@Test
+	public void datasets_not_coming_from_classpath_should_be_always_reseeded() {
+
+		when(((StateTrackingDatabaseOperation) databaseOperation).databaseState()).thenReturn("seeded");
+
+		executeScripts(new ByteArrayInputStream("Jimmy Pop".getBytes()));
+		executeScripts(new ByteArrayInputStream("Jimmy Pop".getBytes()));
+
+		verify(databaseOperation, times(2)).deleteAll();
+		verify(databaseOperation, times(2)).insert(any(InputStream.class));
+
+	}
+
+	@Test
+	public void database_without_state_should_be_always_reseeded() {
+
+		executeScripts(classpathContent());
+		executeScripts(classpathContent());
+
+		verify(databaseOperation, times(2)).deleteAll();
+		verify(databaseOperation, times(2)).insert(any(InputStream.class));
+
+	}
+
+	private void executeScripts(InputStream content) {
+		ReuseIfCleanLoadStrategyOperation reuseIfCleanLoadStrategyOperation = new ReuseIfCleanLoadStrategyOperation(
+				databaseOperation, seededDataSetRegistry);
+		reuseIfCleanLoadStrategyOperation.setIdentifier("default");
+		reuseIfCleanLoadStrategyOperation.executeScripts(new InputStream[] { content });
+	}
+
+	private InputStream classpathContent() {
+		return IOUtils.getStreamFromClasspathBaseResource(WhenReuseIfCleanOperationIsExecuted.class,
+				"classpathContent.txt");
+	}
+
+}
@@ -0,0 +1,76 @@
+package com.lordofthejars.nosqlunit.core;
+
+import static org.junit.Assert.fail;
+import static org.mockito.Matchers.any;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.withSettings;
+
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.InOrder;
+
+public class WhenRollbackOperationIsExecuted {
+
+	private DatabaseOperation databaseOperation;
+	private TransactionalDatabaseOperation transactionalDatabaseOperation;
+
+	@Before
+	public void setUp() {
+		databaseOperation = mock(DatabaseOperation.class,
+				withSettings().extraInterfaces(TransactionalDatabaseOperation.class));
+		transactionalDatabaseOperation = (TransactionalDatabaseOperation) databaseOperation;
+	}
+
+	@Test
+	public void datasets_should_be_inserted_inside_a_transaction_which_is_kept_open() {
+
+		RollbackLoadStrategyOperation rollbackLoadStrategyOperation = new RollbackLoadStrategyOperation(
+				databaseOperation);
+		rollbackLoadStrategyOperation.executeScripts(new InputStream[] {
+				new ByteArrayInputStream("Jimmy Pop".getBytes()), new ByteArrayInputStream("Joey Jordison".getBytes()) });
+
+		InOrder inOrder = inOrder(databaseOperation, transactionalDatabaseOperation);
+		inOrder.verify(transactionalDatabaseOperation).beginTransaction();
+		inOrder.verify(databaseOperation, times(2)).insert(any(InputStream.class));
+		verify(transactionalDatabaseOperation, never()).rollbackTransaction();
+		verify(databaseOperation, never()).deleteAll();
+
+	}
+
+	@Test
+	public void transaction_should_be_rolled_back_when_insertion_fails() {
+
+		doThrow(new IllegalStateException("Insertion failed")).when(databaseOperation).insert(any(InputStream.class));
+
+		RollbackLoadStrategyOperation rollbackLoadStrategyOperation = new RollbackLoadStrategyOperation(
+				databaseOperation);
+
+		try {
+			rollbackLoadStrategyOperation.executeScripts(new InputStream[] { new ByteArrayInputStream("Jimmy Pop"
+					.getBytes()) });
+			fail();
+		} catch (IllegalStateException e) {
+			verify(transactionalDatabaseOperation).rollbackTransaction();
+		}
+
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void databases_without_transactions_should_not_be_loaded() {
+
+		RollbackLoadStrategyOperation rollbackLoadStrategyOperation = new RollbackLoadStrategyOperation(
+				mock(DatabaseOperation.class));
+		rollbackLoadStrategyOperation.executeScripts(new InputStream[] { new ByteArrayInputStream("Jimmy Pop"
+				.getBytes()) });
+
+	}
+
+}
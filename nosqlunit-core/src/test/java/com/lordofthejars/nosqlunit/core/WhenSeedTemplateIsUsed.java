@@ -0,0 +1,287 @@
+package com.lordofthejars.nosqlunit.core;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.not;
+import static org.junit.Assert.assertThat;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.junit.runners.model.FrameworkMethod;
+import org.junit.runners.model.Statement;
+
+import com.lordofthejars.nosqlunit.annotation.UsingDataSet;
+import com.lordofthejars.nosqlunit.core.SeedTemplate.CloneStrategy;
+
+public class WhenSeedTemplateIsUsed {
+
+	@Rule
+	public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+	@Test
+	public void data_directory_should_be_captured_when_template_is_not_prepared() throws IOException {
+
+		File dataDirectory = dataDirectoryWith("collection.ns", "books");
+		SeedTemplate seedTemplate = new SeedTemplate(new File(temporaryFolder.getRoot(), "template"));
+
+		assertThat(seedTemplate.isPrepared(), is(false));
+		assertThat(seedTemplate.captureIfNotPrepared(dataDirectory), is(true));
+
+		assertThat(seedTemplate.isPrepared(), is(true));
+		assertThat(content(new File(seedTemplate.getTemplateDirectory(), "db/collection.ns")), is("books"));
+
+	}
+
+	@Test
+	public void prepared_template_should_not_be_captured_again() throws IOException {
+
+		SeedTemplate seedTemplate = new SeedTemplate(new File(temporaryFolder.getRoot(), "template"));
+		seedTemplate.captureIfNotPrepared(dataDirectoryWith("collection.ns", "books"));
+
+		assertThat(seedTemplate.captureIfNotPrepared(dataDirectoryWith("collection.ns", "movies")), is(false));
+		assertThat(content(new File(seedTemplate.getTemplateDirectory(), "db/collection.ns")), is("books"));
+
+	}
+
+	@Test
+	public void prepared_template_should_be_cloned_into_data_directory() throws IOException {
+
+		SeedTemplate seedTemplate = new SeedTemplate(new File(temporaryFolder.getRoot(), "template"));
+		seedTemplate.captureIfNotPrepared(dataDirectoryWith("collection.ns", "books"));
+
+		File clonedDirectory = new File(temporaryFolder.getRoot(), "cloned");
+
+		assertThat(seedTemplate.cloneInto(clonedDirectory), is(true));
+		assertThat(content(new File(clonedDirectory, "db/collection.ns")), is("books"));
+
+		Files.write(new File(clonedDirectory, "db/collection.ns").toPath(), "movies".getBytes(StandardCharsets.UTF_8));
+		assertThat(content(new File(seedTemplate.getTemplateDirectory(), "db/collection.ns")), is("books"));
+
+	}
+
+	@Test
+	public void template_should_be_cloned_with_hard_links_when_configured() throws IOException {
+
+		File templateDirectory = dataDirectoryWith("sstable.db", "books");
+		SeedTemplate seedTemplate = new SeedTemplate(templateDirectory, CloneStrategy.HARD_LINK);
+
+		File clonedDirectory = new File(temporaryFolder.getRoot(), "cloned");
+		seedTemplate.cloneInto(clonedDirectory);
+
+		assertThat(Files.isSameFile(new File(templateDirectory, "db/sstable.db").toPath(),
+				new File(clonedDirectory, "db/sstable.db").toPath()), is(true));
+
+	}
+
+	@Test
+	public void not_prepared_template_should_not_be_cloned() {
+
+		SeedTemplate seedTemplate = new SeedTemplate(new File(temporaryFolder.getRoot(), "template"));
+		File clonedDirectory = new File(temporaryFolder.getRoot(), "cloned");
+
+		assertThat(seedTemplate.cloneInto(clonedDirectory), is(false));
+		assertThat(clonedDirectory.exists(), is(false));
+
+	}
+
+	@Test
+	public void seeded_template_should_be_stored_under_digest_of_its_datasets() {
+
+		File templatesDirectory = new File(temporaryFolder.getRoot(), "templates");
+
+		SeedTemplate seedTemplate = new SeedTemplate(templatesDirectory, CloneStrategy.COPY,
+				"com/lordofthejars/nosqlunit/core/classpathContent.txt", "com/lordofthejars/nosqlunit/core/textContent.json");
+		SeedTemplate reorderedSeedTemplate = new SeedTemplate(templatesDirectory, CloneStrategy.COPY,
+				"/com/lordofthejars/nosqlunit/core/textContent.json", "/com/lordofthejars/nosqlunit/core/classpathContent.txt");
+		SeedTemplate changedSeedTemplate = new SeedTemplate(templatesDirectory, CloneStrategy.COPY,
+				"com/lordofthejars/nosqlunit/core/classpathContent.txt");
+
+		assertThat(seedTemplate.getTemplateDirectory().getParentFile(), is(templatesDirectory));
+		assertThat(reorderedSeedTemplate.getTemplateDirectory(), is(seedTemplate.getTemplateDirectory()));
+		assertThat(changedSeedTemplate.getTemplateDirectory(), is(not(seedTemplate.getTemplateDirectory())));
+
+	}
+
+	@Test
+	public void seeded_template_should_be_captured_once_its_datasets_are_loaded() {
+
+		SeedTemplate seedTemplate = new SeedTemplate(new File(temporaryFolder.getRoot(), "templates"),
+				CloneStrategy.COPY, "com/lordofthejars/nosqlunit/core/classpathContent.txt",
+				"com/lordofthejars/nosqlunit/core/textContent.json");
+
+		final AtomicInteger captures = new AtomicInteger();
+		Runnable capture = new Runnable() {
+
+			@Override
+			public void run() {
+				captures.incrementAndGet();
+			}
+		};
+
+		try {
+			assertThat(seedTemplate.awaitSeeding(capture), is(true));
+			assertThat(SeedTemplate.isAwaitingSeeding(), is(true));
+
+			SeedTemplate.seeded(Arrays.asList(dataSet("textContent.json")));
+			assertThat(captures.get(), is(0));
+
+			SeedTemplate.seeded(Arrays.asList(dataSet("textContent.json"), dataSet("classpathContent.txt")));
+			assertThat(captures.get(), is(1));
+			assertThat(SeedTemplate.isAwaitingSeeding(), is(false));
+		} finally {
+			seedTemplate.cancelSeeding(capture);
+		}
+
+	}
+
+	@Test
+	public void seeded_template_should_only_be_captured_after_clean_insert() throws Throwable {
+
+		SeedTemplate seedTemplate = new SeedTemplate(new File(temporaryFolder.getRoot(), "templates"),
+				CloneStrategy.COPY, "com/lordofthejars/nosqlunit/core/classpathContent.txt");
+
+		final AtomicInteger captures = new AtomicInteger();
+		Runnable capture = new Runnable() {
+
+			@Override
+			public void run() {
+				captures.incrementAndGet();
+			}
+		};
+
+		try {
+			seedTemplate.awaitSeeding(capture);
+
+			evaluateRule(new InsertSeedTest());
+			assertThat(captures.get(), is(0));
+
+			evaluateRule(new CleanInsertSeedTest());
+			assertThat(captures.get(), is(1));
+		} finally {
+			seedTemplate.cancelSeeding(capture);
+		}
+
+	}
+
+	@Test
+	public void cancelled_seeding_should_not_capture_template() {
+
+		SeedTemplate seedTemplate = new SeedTemplate(new File(temporaryFolder.getRoot(), "templates"),
+				CloneStrategy.COPY, "com/lordofthejars/nosqlunit/core/classpathContent.txt");
+
+		final AtomicInteger captures = new AtomicInteger();
+		Runnable capture = new Runnable() {
+
+			@Override
+			public void run() {
+				captures.incrementAndGet();
+			}
+		};
+
+		seedTemplate.awaitSeeding(capture);
+		seedTemplate.cancelSeeding(capture);
+
+		assertThat(SeedTemplate.isAwaitingSeeding(), is(false));
+
+		SeedTemplate.seeded(Arrays.asList(dataSet("classpathContent.txt")));
+		assertThat(captures.get(), is(0));
+
+	}
+
+	@Test
+	public void template_without_seed_datasets_should_not_await_seeding() {
+
+		SeedTemplate seedTemplate = new SeedTemplate(new File(temporaryFolder.getRoot(), "template"));
+
+		assertThat(seedTemplate.awaitSeeding(new Runnable() {
+
+			@Override
+			public void run() {
+			}
+		}), is(false));
+
+	}
+
+	@UsingDataSet(locations = "classpathContent.txt", loadStrategy = LoadStrategyEnum.INSERT)
+	public static class InsertSeedTest {
+
+		public void my_seeding_test() {
+		}
+
+	}
+
+	@UsingDataSet(locations = "classpathContent.txt", loadStrategy = LoadStrategyEnum.CLEAN_INSERT)
+	public static class CleanInsertSeedTest extends InsertSeedTest {
+	}
+
+	private void evaluateRule(Object testObject) throws Throwable {
+
+		AbstractNoSqlTestRule rule = new AbstractNoSqlTestRule("") {
+
+			@Override
+			public DatabaseOperation getDatabaseOperation() {
+				return new DatabaseOperation<Object>() {
+
+					@Override
+					public void insert(InputStream dataScript) {
+					}
+
+					@Override
+					public void deleteAll() {
+					}
+
+					@Override
+					public boolean databaseIs(InputStream expectedData) {
+						return true;
+					}
+
+					@Override
+					public Object connectionManager() {
+						return null;
+					}
+				};
+			}
+
+			@Override
+			public String getWorkingExtension() {
+				return "txt";
+			}
+
+			@Override
+			public void close() {
+			}
+		};
+
+		rule.apply(new Statement() {
+
+			@Override
+			public void evaluate() {
+			}
+		}, new FrameworkMethod(InsertSeedTest.class.getMethod("my_seeding_test")), testObject).evaluate();
+	}
+
+	private InputStream dataSet(String location) {
+		return IOUtils.getStreamFromClasspathBaseResource(WhenSeedTemplateIsUsed.class, location);
+	}
+
+	private File dataDirectoryWith(String fileName, String content) throws IOException {
+		File dataDirectory = temporaryFolder.newFolder();
+		File dbDirectory = new File(dataDirectory, "db");
+		dbDirectory.mkdirs();
+		Files.write(new File(dbDirectory, fileName).toPath(), content.getBytes(StandardCharsets.UTF_8));
+		return dataDirectory;
+	}
+
+	private String content(File file) throws IOException {
+		return new String(Files.readAllBytes(file.toPath()), StandardCharsets.UTF_8);
+	}
+
+}
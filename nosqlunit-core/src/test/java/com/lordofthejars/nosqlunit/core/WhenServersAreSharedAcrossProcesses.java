@@ -0,0 +1,262 @@
+package com.lordofthejars.nosqlunit.core;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.junit.Assert.assertThat;
+import static org.junit.Assert.fail;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.Properties;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import com.lordofthejars.nosqlunit.core.ConnectionManagement.ConnectionCallback;
+
+public class WhenServersAreSharedAcrossProcesses {
+
+	@Rule
+	public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+	private final AtomicInteger numberOfStarts = new AtomicInteger();
+	private final AtomicInteger numberOfStops = new AtomicInteger();
+
+	private final ConnectionCallback start = new ConnectionCallback() {
+		@Override
+		public void execute() {
+			numberOfStarts.incrementAndGet();
+		}
+	};
+
+	private final ConnectionCallback stop = new ConnectionCallback() {
+		@Override
+		public void execute() {
+			numberOfStops.incrementAndGet();
+		}
+	};
+
+	private static class ManagedServerLifecycleManager extends AbstractLifecycleManager {
+
+		@Override
+		public String getHost() {
+			return "localhost";
+		}
+
+		@Override
+		public int getPort() {
+			return 27017;
+		}
+
+		@Override
+		public void doStart() {
+		}
+
+		@Override
+		public void doStop() {
+		}
+
+	}
+
+	private static class OtherManagedServerLifecycleManager extends ManagedServerLifecycleManager {
+	}
+
+	private static class ProcessLifecycleManager extends ManagedServerLifecycleManager {
+
+		private Process process;
+
+		@Override
+		public void doStart() {
+			try {
+				process = new ProcessBuilder("sleep", "60").start();
+			} catch (IOException e) {
+				throw new IllegalStateException(e);
+			}
+		}
+
+		@Override
+		protected Process getServerProcess() {
+			return process;
+		}
+
+	}
+
+	@Test
+	public void server_started_by_a_process_should_be_reused_by_others() throws Throwable {
+
+		SharedServerRegistry firstFork = new SharedServerRegistry(temporaryFolder.getRoot(), 10);
+		SharedServerRegistry secondFork = new SharedServerRegistry(temporaryFolder.getRoot(), 10);
+
+		firstFork.start(new ManagedServerLifecycleManager(), start);
+		secondFork.start(new ManagedServerLifecycleManager(), start);
+
+		assertThat(numberOfStarts.get(), is(1));
+
+	}
+
+	@Test
+	public void server_should_be_stopped_when_last_process_releases_it() throws Throwable {
+
+		SharedServerRegistry firstFork = new SharedServerRegistry(temporaryFolder.getRoot(), 10);
+		final SharedServerRegistry secondFork = new SharedServerRegistry(temporaryFolder.getRoot(), 10);
+
+		firstFork.start(new ManagedServerLifecycleManager(), start);
+		secondFork.start(new ManagedServerLifecycleManager(), start);
+
+		Thread secondForkFinishing = new Thread(new Runnable() {
+
+			@Override
+			public void run() {
+				try {
+					Thread.sleep(200);
+					secondFork.stop(new ManagedServerLifecycleManager(), stop);
+				} catch (Throwable e) {
+					throw new IllegalStateException(e);
+				}
+			}
+		});
+		secondForkFinishing.start();
+
+		firstFork.stop(new ManagedServerLifecycleManager(), stop);
+
+		assertThat(secondForkFinishing.isAlive(), is(false));
+		assertThat(numberOfStops.get(), is(1));
+
+	}
+
+	@Test
+	public void server_should_be_handed_to_a_process_still_using_it_and_stopped_by_the_last_one() throws Throwable {
+
+		SharedServerRegistry firstFork = new SharedServerRegistry(temporaryFolder.getRoot(), 600);
+		SharedServerRegistry secondFork = new SharedServerRegistry(temporaryFolder.getRoot(), 600);
+
+		final ProcessLifecycleManager firstLifecycleManager = new ProcessLifecycleManager();
+		firstFork.start(firstLifecycleManager, new ConnectionCallback() {
+
+			@Override
+			public void execute() throws Throwable {
+				firstLifecycleManager.doStart();
+			}
+		});
+		secondFork.start(new ProcessLifecycleManager(), start);
+
+		try {
+			firstFork.stop(firstLifecycleManager, stop);
+
+			assertThat(numberOfStops.get(), is(0));
+			assertThat(ProcessIds.isRunning(ProcessIds.of(firstLifecycleManager.process)), is(true));
+
+			secondFork.stop(new ProcessLifecycleManager(), stop);
+
+			assertThat(numberOfStops.get(), is(1));
+			assertThat(firstLifecycleManager.process.waitFor(5, TimeUnit.SECONDS), is(true));
+		} finally {
+			firstLifecycleManager.process.destroy();
+		}
+
+	}
+
+	@Test
+	public void namespaces_should_not_be_used_by_two_processes() {
+
+		SharedServerRegistry firstFork = new SharedServerRegistry(temporaryFolder.getRoot(), 10);
+		SharedServerRegistry secondFork = new SharedServerRegistry(temporaryFolder.getRoot(), 10);
+
+		assertThat(firstFork.lockNamespace(0), is(true));
+		assertThat(secondFork.lockNamespace(0), is(false));
+		assertThat(secondFork.lockNamespace(1), is(true));
+
+		firstFork.unlockNamespace(0);
+
+		assertThat(secondFork.lockNamespace(0), is(true));
+
+		secondFork.unlockNamespace(0);
+		secondFork.unlockNamespace(1);
+
+	}
+
+	@Test
+	public void server_should_be_stopped_when_timeout_expires_even_if_still_used() throws Throwable {
+
+		SharedServerRegistry firstFork = new SharedServerRegistry(temporaryFolder.getRoot(), 0);
+		SharedServerRegistry secondFork = new SharedServerRegistry(temporaryFolder.getRoot(), 0);
+
+		firstFork.start(new ManagedServerLifecycleManager(), start);
+		secondFork.start(new ManagedServerLifecycleManager(), start);
+
+		firstFork.stop(new ManagedServerLifecycleManager(), stop);
+
+		assertThat(numberOfStops.get(), is(1));
+
+	}
+
+	@Test
+	public void server_registered_by_a_dead_process_should_be_started_again() throws Throwable {
+
+		Properties state = new Properties();
+		state.setProperty("server", ManagedServerLifecycleManager.class.getName());
+		state.setProperty("owner", "dead-fork");
+		state.setProperty("attached", "dead-fork");
+		writeState(new File(temporaryFolder.getRoot(), "localhost-27017.properties"), state);
+
+		new SharedServerRegistry(temporaryFolder.getRoot(), 10).start(new ManagedServerLifecycleManager(), start);
+
+		assertThat(numberOfStarts.get(), is(1));
+
+	}
+
+	@Test
+	public void process_recorded_by_a_dead_process_should_not_be_terminated_if_its_id_was_reused() throws Throwable {
+
+		Process unrelatedProcess = new ProcessBuilder("sleep", "60").start();
+
+		try {
+			Properties state = new Properties();
+			state.setProperty("server", ManagedServerLifecycleManager.class.getName());
+			state.setProperty("owner", "dead-fork");
+			state.setProperty("attached", "dead-fork");
+			state.setProperty("process", Long.toString(ProcessIds.of(unrelatedProcess)));
+			state.setProperty("process.start", "proc:0");
+			writeState(new File(temporaryFolder.getRoot(), "localhost-27017.properties"), state);
+
+			new SharedServerRegistry(temporaryFolder.getRoot(), 10).start(new ManagedServerLifecycleManager(), start);
+
+			assertThat(numberOfStarts.get(), is(1));
+			assertThat(ProcessIds.isRunning(ProcessIds.of(unrelatedProcess)), is(true));
+		} finally {
+			unrelatedProcess.destroy();
+		}
+
+	}
+
+	@Test
+	public void server_should_not_be_shared_with_a_different_kind_of_server() throws Throwable {
+
+		SharedServerRegistry firstFork = new SharedServerRegistry(temporaryFolder.getRoot(), 10);
+		SharedServerRegistry secondFork = new SharedServerRegistry(temporaryFolder.getRoot(), 10);
+
+		firstFork.start(new ManagedServerLifecycleManager(), start);
+
+		try {
+			secondFork.start(new OtherManagedServerLifecycleManager(), start);
+			fail("Different servers on same address should not be shared.");
+		} catch (IllegalStateException e) {
+			assertThat(numberOfStarts.get(), is(1));
+		}
+
+	}
+
+	private void writeState(File stateFile, Properties state) throws IOException {
+		OutputStream stateStream = new FileOutputStream(stateFile);
+		try {
+			state.store(stateStream, null);
+		} finally {
+			stateStream.close();
+		}
+	}
+
+}
@@ -0,0 +1,80 @@
+package com.lordofthejars.nosqlunit.core;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.sameInstance;
+import static org.junit.Assert.assertThat;
+
+import org.junit.Test;
+import org.junit.runners.model.FrameworkMethod;
+
+import com.lordofthejars.nosqlunit.annotation.IgnorePropertyValue;
+import com.lordofthejars.nosqlunit.annotation.UsingDataSet;
+
+public class WhenTestMetadataIsResolved {
+
+	@UsingDataSet(locations = "class.json")
+	@IgnorePropertyValue(properties = "a")
+	public static class AnnotatedTest {
+
+		public void classDataSet() {
+		}
+
+		@UsingDataSet(locations = "method.json")
+		@IgnorePropertyValue(properties = "b")
+		public void methodDataSet() {
+		}
+
+	}
+
+	public static class InheritedTest extends AnnotatedTest {
+	}
+
+	@Test
+	public void metadata_should_be_resolved_once_per_class_and_method() throws NoSuchMethodException {
+
+		TestClassMetadata testClassMetadata = TestClassMetadata.forClass(AnnotatedTest.class);
+		FrameworkMethod method = frameworkMethod("classDataSet");
+
+		assertThat(TestClassMetadata.forClass(AnnotatedTest.class), sameInstance(testClassMetadata));
+		assertThat(testClassMetadata.forMethod(method), sameInstance(testClassMetadata.forMethod(method)));
+
+	}
+
+	@Test
+	public void method_annotations_should_take_precedence_over_class_ones() throws NoSuchMethodException {
+
+		TestClassMetadata testClassMetadata = TestClassMetadata.forClass(AnnotatedTest.class);
+
+		assertThat(testClassMetadata.forMethod(frameworkMethod("classDataSet")).getUsingDataSet().locations()[0],
+				is("class.json"));
+		assertThat(testClassMetadata.forMethod(frameworkMethod("methodDataSet")).getUsingDataSet().locations()[0],
+				is("method.json"));
+
+	}
+
+	@Test
+	public void class_annotations_should_be_inherited() throws NoSuchMethodException {
+
+		TestMethodMetadata testMethodMetadata = TestClassMetadata.forClass(InheritedTest.class).forMethod(
+				frameworkMethod("classDataSet"));
+
+		assertThat(testMethodMetadata.getUsingDataSet().locations()[0], is("class.json"));
+
+	}
+
+	@Test
+	public void properties_to_ignore_should_combine_class_and_method_ones() throws NoSuchMethodException {
+
+		TestMethodMetadata testMethodMetadata = TestClassMetadata.forClass(AnnotatedTest.class).forMethod(
+				frameworkMethod("methodDataSet"));
+
+		assertThat(testMethodMetadata.isIgnorePropertyValueAnnotated(), is(true));
+		assertThat(testMethodMetadata.getPropertiesToIgnore(), is(new String[] { "a", "b" }));
+
+	}
+
+	private FrameworkMethod frameworkMethod(String name) throws NoSuchMethodException {
+		return new FrameworkMethod(AnnotatedTest.class.getMethod(name));
+	}
+
+}
@@ -0,0 +1,103 @@
+package com.lordofthejars.nosqlunit.core;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.not;
+import static org.hamcrest.CoreMatchers.sameInstance;
+import static org.junit.Assert.assertThat;
+
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import org.junit.Test;
+
+public class WhenTestNamespaceIsAcquired {
+
+	@Test
+	public void default_namespace_should_not_modify_names() {
+
+		TestNamespace testNamespace = TestNamespace.current();
+
+		assertThat(testNamespace, sameInstance(TestNamespace.DEFAULT_NAMESPACE));
+		assertThat(testNamespace.qualify("test"), is("test"));
+		assertThat(testNamespace.contains("test_ns1"), is(true));
+		assertThat(testNamespace.wildcards().length, is(0));
+
+	}
+
+	@Test
+	public void acquired_namespace_should_qualify_names() {
+
+		TestNamespace testNamespace = TestNamespace.acquire();
+
+		try {
+			String qualifiedName = testNamespace.qualify("test");
+
+			assertThat(qualifiedName, is("test_ns" + testNamespace.getIndex()));
+			assertThat(testNamespace.contains(qualifiedName), is(true));
+			assertThat(testNamespace.contains("test"), is(false));
+			assertThat(testNamespace.wildcards()[0], is("*_ns" + testNamespace.getIndex()));
+		} finally {
+			TestNamespace.release();
+		}
+
+	}
+
+	@Test
+	public void same_thread_should_share_namespace_until_last_release() {
+
+		TestNamespace testNamespace = TestNamespace.acquire();
+		TestNamespace.acquire();
+
+		assertThat(TestNamespace.current(), sameInstance(testNamespace));
+
+		TestNamespace.release();
+		assertThat(TestNamespace.current(), sameInstance(testNamespace));
+
+		TestNamespace.release();
+		assertThat(TestNamespace.current(), sameInstance(TestNamespace.DEFAULT_NAMESPACE));
+
+	}
+
+	@Test
+	public void concurrent_threads_should_get_different_namespaces() throws Exception {
+
+		TestNamespace testNamespace = TestNamespace.acquire();
+		ExecutorService executorService = Executors.newSingleThreadExecutor();
+
+		try {
+			int otherIndex = executorService.submit(new Callable<Integer>() {
+
+				@Override
+				public Integer call() throws Exception {
+					try {
+						return TestNamespace.acquire().getIndex();
+					} finally {
+						TestNamespace.release();
+					}
+				}
+			}).get();
+
+			assertThat(otherIndex, is(not(testNamespace.getIndex())));
+		} finally {
+			executorService.shutdown();
+			TestNamespace.release();
+		}
+
+	}
+
+	@Test
+	public void released_namespace_should_be_reused() {
+
+		int index = TestNamespace.acquire().getIndex();
+		TestNamespace.release();
+
+		try {
+			assertThat(TestNamespace.acquire().getIndex(), is(index));
+		} finally {
+			TestNamespace.release();
+		}
+
+	}
+
+}
@@ -0,0 +1,139 @@
+package com.lordofthejars.nosqlunit.core;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.junit.Assert.assertThat;
+import static org.junit.Assert.fail;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.Test;
+
+public class WhenTopologyIsLaunched {
+
+	private final List<String> events = Collections.synchronizedList(new ArrayList<String>());
+
+	private class RecordingNode implements TopologyLauncher.Node {
+
+		private final String name;
+
+		RecordingNode(String name) {
+			this.name = name;
+		}
+
+		@Override
+		public void start() throws Throwable {
+			events.add("start " + name);
+		}
+
+		@Override
+		public void stop() {
+			events.add("stop " + name);
+		}
+
+	}
+
+	@Test
+	public void nodes_of_same_stage_should_be_started_concurrently() throws Throwable {
+
+		final CountDownLatch allStarting = new CountDownLatch(3);
+
+		TopologyLauncher.Node[] nodes = new TopologyLauncher.Node[3];
+
+		for (int i = 0; i < nodes.length; i++) {
+			nodes[i] = new RecordingNode("shard" + i) {
+				@Override
+				public void start() throws Throwable {
+					allStarting.countDown();
+					if (!allStarting.await(5, TimeUnit.SECONDS)) {
+						throw new IllegalStateException("Nodes were started sequentially.");
+					}
+				}
+			};
+		}
+
+		new TopologyLauncher().stage(nodes).start();
+
+	}
+
+	@Test
+	public void stages_should_be_started_in_order_and_stopped_in_reverse_order() throws Throwable {
+
+		TopologyLauncher topologyLauncher = new TopologyLauncher().stage(new RecordingNode("config"))
+				.stage(new RecordingNode("mongos"));
+
+		topologyLauncher.start();
+		topologyLauncher.stop();
+
+		assertThat(events, is(Arrays.asList("start config", "start mongos", "stop mongos", "stop config")));
+
+	}
+
+	@Test
+	public void next_stages_should_not_be_started_when_a_node_fails_to_start() throws Throwable {
+
+		TopologyLauncher topologyLauncher = new TopologyLauncher().stage(new RecordingNode("shard0") {
+			@Override
+			public void start() throws Throwable {
+				throw new IllegalStateException("Port already in use");
+			}
+		}, new RecordingNode("config")).stage(new RecordingNode("mongos"));
+
+		try {
+			topologyLauncher.start();
+			fail("Failures starting a node should be reported.");
+		} catch (IllegalStateException e) {
+			assertThat(e.getMessage(), is("Port already in use"));
+		}
+
+		assertThat(events, is(Arrays.asList("start config")));
+
+	}
+
+	@Test
+	public void all_nodes_should_be_stopped_even_when_one_fails() {
+
+		TopologyLauncher topologyLauncher = new TopologyLauncher().stage(new RecordingNode("config"))
+				.stage(new RecordingNode("mongos") {
+					@Override
+					public void stop() {
+						throw new IllegalStateException("Mongos not responding");
+					}
+				});
+
+		try {
+			topologyLauncher.stop();
+			fail("Failures stopping a node should be reported.");
+		} catch (IllegalStateException e) {
+			assertThat(e.getMessage(), is("Mongos not responding"));
+		}
+
+		assertThat(events, is(Arrays.asList("stop config")));
+
+	}
+
+	@Test
+	public void lifecycle_managers_should_only_be_started_when_stopped() throws Throwable {
+
+		AbstractLifecycleManager startedServer = mock(AbstractLifecycleManager.class);
+		when(startedServer.isReady()).thenReturn(true);
+
+		AbstractLifecycleManager stoppedServer = mock(AbstractLifecycleManager.class);
+		when(stoppedServer.isReady()).thenReturn(false);
+
+		new TopologyLauncher().stage(Arrays.asList(startedServer, stoppedServer)).start();
+
+		verify(startedServer, never()).startEngine();
+		verify(stoppedServer).startEngine();
+
+	}
+
+}
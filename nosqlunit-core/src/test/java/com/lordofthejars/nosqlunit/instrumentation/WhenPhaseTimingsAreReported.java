@@ -0,0 +1,60 @@
+package com.lordofthejars.nosqlunit.instrumentation;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.junit.Assert.assertThat;
+
+import java.io.IOException;
+import java.io.StringWriter;
+
+import org.junit.Test;
+
+public class WhenPhaseTimingsAreReported {
+
+	@Test
+	public void percentiles_should_use_nearest_rank() {
+
+		long[] sorted = new long[100];
+		for (int i = 0; i < sorted.length; i++) {
+			sorted[i] = i + 1;
+		}
+
+		assertThat(PhaseTimingReport.percentile(sorted, 0.50d), is(50L));
+		assertThat(PhaseTimingReport.percentile(sorted, 0.99d), is(99L));
+		assertThat(PhaseTimingReport.percentile(new long[] { 7 }, 0.99d), is(7L));
+		assertThat(PhaseTimingReport.percentile(new long[0], 0.50d), is(0L));
+
+	}
+
+	@Test
+	public void report_location_should_be_named_after_process() {
+
+		assertThat(PhaseTimingReport.processReportLocation("target/nosqlunit-phases.txt", "1234"),
+				is("target/nosqlunit-phases-1234.txt"));
+		assertThat(PhaseTimingReport.processReportLocation("target.d/nosqlunit-phases", "1234"),
+				is("target.d/nosqlunit-phases-1234"));
+		assertThat(PhaseTimingReport.processReportLocation("phases", "1234"), is("phases-1234"));
+
+	}
+
+	@Test
+	public void timings_should_be_grouped_by_identifier_phase_and_datasets() throws IOException {
+
+		PhaseTimingReport phaseTimingReport = new PhaseTimingReport();
+		phaseTimingReport.record(RulePhase.TEST, "mongo", "books.json", 2000000L);
+		phaseTimingReport.record(RulePhase.LOAD_DATASET, "mongo", "books.json", 1000000L);
+		phaseTimingReport.record(RulePhase.LOAD_DATASET, "mongo", "books.json", 3000000L);
+		phaseTimingReport.record(RulePhase.LOAD_DATASET, "mongo", "authors.json", 5000000L);
+
+		StringWriter report = new StringWriter();
+		phaseTimingReport.write(report);
+
+		String[] lines = report.toString().split("\n");
+
+		assertThat(lines.length, is(4));
+		assertThat(lines[1], is("mongo\tLOAD_DATASET\tauthors.json\t1\t5.000\t5.000\t5.000"));
+		assertThat(lines[2], is("mongo\tLOAD_DATASET\tbooks.json\t2\t1.000\t3.000\t4.000"));
+		assertThat(lines[3], is("mongo\tTEST\tbooks.json\t1\t2.000\t2.000\t2.000"));
+
+	}
+
+}
@@ -1,6 +1,7 @@
 package com.lordofthejars.nosqlunit.objects;
 
 import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.Matchers.contains;
 import static org.hamcrest.Matchers.containsInAnyOrder;
 import static org.hamcrest.Matchers.instanceOf;
 import static org.junit.Assert.assertThat;
@@ -108,6 +109,21 @@ public class WhenObjectsAreUnmarshalled {
 			"}\n" + 
 			"";
 	
+	private static final String OBJECT_DATA_WITH_IMPLEMENTATION_AFTER_VALUE = "{\n" + 
+			"	\"data\": [\n" + 
+			"			{\n" + 
+			"				\"key\":\"key1\",\n" + 
+			"				\"value\": {\"login\":\"alex\",\"password\":\"soto\"},\n" + 
+			"				\"implementation\":\"com.lordofthejars.nosqlunit.objects.User\"\n" + 
+			"			},\n" + 
+			"			{\n" + 
+			"				\"key\":\"key2\",\n" + 
+			"				\"implementation\":\"com.lordofthejars.nosqlunit.objects.User\",\n" + 
+			"				\"value\": {\"login\":\"ALEX\",\"password\":\"SOTO\"}\n" + 
+			"			}\n" + 
+			"		]\n" + 
+			"}";
+	
 	
 	@Test
 	public void native_data_should_be_read() throws JsonParseException, IOException, ClassNotFoundException {
@@ -197,4 +213,35 @@ public class WhenObjectsAreUnmarshalled {
 		Map<Object, Object> elements = keyValueObjectMapper.readValues(new ByteArrayInputStream(OBJECT_DATA_WITHOUT_IMPLEMENTATION.getBytes()));
 	}
 	
+	@Test
+	public void implementation_should_be_applied_even_if_it_is_given_after_value() {
+		
+		KeyValueObjectMapper keyValueObjectMapper = new KeyValueObjectMapper();
+		
+		Map<Object, Object> elements = keyValueObjectMapper.readValues(new ByteArrayInputStream(OBJECT_DATA_WITH_IMPLEMENTATION_AFTER_VALUE.getBytes()));
+		
+		assertThat((User) elements.get("key1"), is(new User("alex", "soto")));
+		assertThat((User) elements.get("key2"), is(new User("ALEX", "SOTO")));
+	}
+	
+	@Test
+	public void key_values_should_be_handed_in_dataset_order() {
+		
+		KeyValueObjectMapper keyValueObjectMapper = new KeyValueObjectMapper();
+		final List<Object> keys = new ArrayList<Object>();
+		final List<Object> values = new ArrayList<Object>();
+		
+		keyValueObjectMapper.readValues(new ByteArrayInputStream(OBJECT_DATA_WITH_IMPLEMENTATION_AFTER_VALUE.getBytes()), new KeyValueObjectMapper.KeyValueHandler() {
+			
+			@Override
+			public void keyValue(Object key, Object value) {
+				keys.add(key);
+				values.add(value);
+			}
+		});
+		
+		assertThat(keys, contains((Object) "key1", "key2"));
+		assertThat(values, contains((Object) new User("alex", "soto"), new User("ALEX", "SOTO")));
+	}
+	
 }
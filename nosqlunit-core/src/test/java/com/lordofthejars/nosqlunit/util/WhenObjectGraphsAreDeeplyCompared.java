@@ -0,0 +1,124 @@
+package com.lordofthejars.nosqlunit.util;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.junit.Assert.assertThat;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+import org.junit.Test;
+
+public class WhenObjectGraphsAreDeeplyCompared {
+
+	private static class Book {
+
+		private String title;
+		private int pages;
+		private double price;
+		private boolean published;
+		private Book sequel;
+		private List<String> authors = new ArrayList<String>();
+
+		Book(String title, int pages, double price, boolean published) {
+			this.title = title;
+			this.pages = pages;
+			this.price = price;
+			this.published = published;
+		}
+
+	}
+
+	private static class Key {
+
+		private String name;
+
+		Key(String name) {
+			this.name = name;
+		}
+
+	}
+
+	@Test
+	public void objects_without_equals_should_be_compared_field_by_field() {
+
+		Book book = new Book("The Hobbit", 293, 10.5, true);
+		book.authors.add("Tolkien");
+		Book sameBook = new Book("The Hobbit", 293, 10.5, true);
+		sameBook.authors.add("Tolkien");
+
+		assertThat(DeepEquals.deepEquals(book, sameBook), is(true));
+
+		assertThat(DeepEquals.deepEquals(book, new Book("The Hobbit", 294, 10.5, true)), is(false));
+		assertThat(DeepEquals.deepEquals(book, new Book("The Hobbit", 293, 10.6, true)), is(false));
+		assertThat(DeepEquals.deepEquals(book, new Book("The Hobbit", 293, 10.5, false)), is(false));
+		assertThat(DeepEquals.deepEquals(book, new Book("The Hobbit", 293, 10.5, true)), is(false));
+
+	}
+
+	@Test
+	public void cyclic_graphs_should_be_compared() {
+
+		Book hobbit = new Book("The Hobbit", 293, 10.5, true);
+		Book lordOfTheRings = new Book("The Lord of the Rings", 1178, 25, true);
+		hobbit.sequel = lordOfTheRings;
+		lordOfTheRings.sequel = hobbit;
+
+		Book otherHobbit = new Book("The Hobbit", 293, 10.5, true);
+		Book otherLordOfTheRings = new Book("The Lord of the Rings", 1178, 25, true);
+		otherHobbit.sequel = otherLordOfTheRings;
+		otherLordOfTheRings.sequel = otherHobbit;
+
+		assertThat(DeepEquals.deepEquals(hobbit, otherHobbit), is(true));
+
+		otherLordOfTheRings.pages = 1177;
+
+		assertThat(DeepEquals.deepEquals(hobbit, otherHobbit), is(false));
+
+	}
+
+	@Test
+	public void collections_and_arrays_should_be_compared_by_their_elements() {
+
+		assertThat(DeepEquals.deepEquals(Arrays.asList(1, 2, 3), Arrays.asList(1, 2, 3)), is(true));
+		assertThat(DeepEquals.deepEquals(new LinkedList<Integer>(Arrays.asList(1, 2)), new LinkedList<Integer>(
+				Arrays.asList(2, 1))), is(false));
+		assertThat(DeepEquals.deepEquals(new HashSet<Integer>(Arrays.asList(1, 2)), new HashSet<Integer>(Arrays.asList(
+				2, 1))), is(true));
+		assertThat(DeepEquals.deepEquals(new int[] { 1, 2 }, new int[] { 1, 2 }), is(true));
+		assertThat(DeepEquals.deepEquals(new double[] { Double.NaN }, new double[] { Double.NaN }), is(true));
+		assertThat(DeepEquals.deepEquals(new Object[] { "a", new int[] { 1 } }, new Object[] { "a", new int[] { 2 } }),
+				is(false));
+
+	}
+
+	@Test
+	public void maps_should_be_compared_by_their_entries() {
+
+		Map<String, Object> map = new HashMap<String, Object>();
+		map.put("name", "alex");
+		map.put("values", Arrays.asList(1, 2));
+		Map<String, Object> sameMap = new HashMap<String, Object>(map);
+		Map<String, Object> otherMap = new HashMap<String, Object>(map);
+		otherMap.put("values", Arrays.asList(1, 3));
+
+		assertThat(DeepEquals.deepEquals(map, sameMap), is(true));
+		assertThat(DeepEquals.deepEquals(map, otherMap), is(false));
+		assertThat(DeepEquals.deepEquals(new TreeMap<String, Object>(map), new TreeMap<String, Object>(sameMap)),
+				is(true));
+
+		Map<Key, String> mapWithKeys = new HashMap<Key, String>();
+		mapWithKeys.put(new Key("name"), "alex");
+		Map<Key, String> sameMapWithKeys = new HashMap<Key, String>();
+		sameMapWithKeys.put(new Key("name"), "alex");
+
+		assertThat(DeepEquals.deepEquals(mapWithKeys, sameMapWithKeys), is(true));
+
+	}
+
+}
@@ -3,10 +3,12 @@ package com.lordofthejars.nosqlunit.couchbase;
 import com.couchbase.client.java.Bucket;
 import com.lordofthejars.nosqlunit.core.AbstractCustomizableDatabaseOperation;
 import com.lordofthejars.nosqlunit.core.NoSqlAssertionError;
+import com.lordofthejars.nosqlunit.core.ThreadSafeInsertionDatabaseOperation;
 
 import java.io.InputStream;
 
-public class CouchbaseOperation extends AbstractCustomizableDatabaseOperation<CouchBaseClientCallback, Bucket> {
+public class CouchbaseOperation extends AbstractCustomizableDatabaseOperation<CouchBaseClientCallback, Bucket>
+        implements ThreadSafeInsertionDatabaseOperation {
 
     private final Bucket bucket;
 
@@ -5,6 +5,7 @@ import com.couchbase.client.java.document.JsonDocument;
 import com.couchbase.client.java.document.json.JsonArray;
 import com.couchbase.client.java.document.json.JsonObject;
 import com.lordofthejars.nosqlunit.core.IOUtils;
+import com.lordofthejars.nosqlunit.core.JsonDataSetReader;
 import com.lordofthejars.nosqlunit.couchbase.model.Document;
 import org.codehaus.jackson.map.ObjectMapper;
 
@@ -17,6 +18,11 @@ import java.util.stream.StreamSupport;
 
 public class DataLoader {
 
+    private static final String DATA = "data";
+    private static final String KEY = "key";
+    private static final String DOCUMENT = "document";
+    private static final String EXPIRATION_SECS = "expirationSecs";
+
     private Bucket bucket;
 
     public DataLoader(Bucket bucket) {
@@ -25,27 +31,33 @@ public class DataLoader {
     }
 
     public void load(final InputStream dataScript) {
-        final Map<String, Document> documentsIterator = getDocuments(dataScript);
-        insertDocuments(documentsIterator);
+        try (final JsonDataSetReader dataSetReader = new JsonDataSetReader(dataScript)) {
+            String field;
+            while ((field = dataSetReader.nextField()) != null) {
+                if (DATA.equals(field)) {
+                    dataSetReader.readRecords(record -> insertDocument(JsonObject.fromJson(record)));
+                }
+            }
+        } catch (IOException e) {
+            throw new IllegalStateException(e);
+        }
     }
 
-    private void insertDocuments(final Map<String, Document> documentsIterator) {
-        for (final Map.Entry<String, Document> documentEntry : documentsIterator.entrySet()) {
-            final Document document = documentEntry.getValue();
-            final JsonDocument jsonDocument = JsonDocument.create(documentEntry.getKey(), document.getExpirationSecs(), document.getDocument());
-            bucket.upsert(jsonDocument, 15, TimeUnit.SECONDS);
-        }
+    private void insertDocument(final JsonObject data) {
+        final Document document = new Document(data.getObject(DOCUMENT), data.getInt(EXPIRATION_SECS));
+        final JsonDocument jsonDocument = JsonDocument.create(data.getString(KEY), document.getExpirationSecs(), document.getDocument());
+        bucket.upsert(jsonDocument, 15, TimeUnit.SECONDS);
     }
 
     public static Map<String, Document> getDocuments(final InputStream dataScript) {
 
         try {
             final JsonObject jsonObject = JsonObject.fromJson(IOUtils.readFullStream(dataScript));
-            final JsonArray data = jsonObject.getArray("data");
+            final JsonArray data = jsonObject.getArray(DATA);
             return StreamSupport.stream(data.spliterator(), false)
                     .map(o -> (JsonObject) o)
-                    .collect(Collectors.toMap(o -> o.getString("key"),
-                            o -> new Document(o.getObject("document"), o.getInt("expirationSecs"))));
+                    .collect(Collectors.toMap(o -> o.getString(KEY),
+                            o -> new Document(o.getObject(DOCUMENT), o.getInt(EXPIRATION_SECS))));
 
         } catch (IOException e) {
             throw new IllegalStateException(e);
@@ -1,13 +1,47 @@
 package com.lordofthejars.nosqlunit.couchdb;
 
 import com.lordofthejars.nosqlunit.core.AbstractCustomizableDatabaseOperation;
+import com.lordofthejars.nosqlunit.core.GeneratedDataSetOperation;
+import com.lordofthejars.nosqlunit.core.GeneratedRecord;
+import com.lordofthejars.nosqlunit.core.JsonDataSetReader;
 import com.lordofthejars.nosqlunit.core.NoSqlAssertionError;
+import com.lordofthejars.nosqlunit.core.RecordShape;
+import com.lordofthejars.nosqlunit.core.RecordLookupDatabaseOperation;
+import com.lordofthejars.nosqlunit.core.RecordStreamingDatabaseOperation;
+import com.lordofthejars.nosqlunit.core.ThreadSafeInsertionDatabaseOperation;
+import java.io.Closeable;
+import java.io.IOException;
 import java.io.InputStream;
+import java.io.Writer;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import org.codehaus.jackson.JsonFactory;
+import org.codehaus.jackson.JsonGenerator;
+import org.codehaus.jackson.map.ObjectMapper;
 import org.ektorp.CouchDbConnector;
+import org.ektorp.DocumentNotFoundException;
+import org.ektorp.StreamingViewResult;
+import org.ektorp.ViewQuery;
+import org.ektorp.ViewResult;
 import org.ektorp.http.HttpClient;
 import org.ektorp.http.RestTemplate;
 
-public class CouchDbOperation extends AbstractCustomizableDatabaseOperation<CouchDbConnectionCallback, CouchDbConnector> {
+public class CouchDbOperation extends AbstractCustomizableDatabaseOperation<CouchDbConnectionCallback, CouchDbConnector>
+        implements GeneratedDataSetOperation, RecordStreamingDatabaseOperation, RecordLookupDatabaseOperation,
+        ThreadSafeInsertionDatabaseOperation {
+
+    private static final JsonFactory JSON_FACTORY = new JsonFactory();
+
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+
+    private static final com.fasterxml.jackson.databind.ObjectMapper DOCUMENT_MAPPER = new com.fasterxml.jackson.databind.ObjectMapper();
+
+    private static final String DESIGN_DOCUMENT_PREFIX = "_design/";
+
+    private static final String ID_FIELD = "_id";
+
+    private static final String DESIGN_DOCUMENTS_END = "_design0";
 
     private CouchDbConnector couchDbConnector;
 
@@ -70,6 +104,175 @@ public class CouchDbOperation extends AbstractCustomizableDatabaseOperation<Couc
         }
     }
 
+    @Override
+    public RecordShape[] acceptedRecordShapes() {
+        return new RecordShape[] { RecordShape.DOCUMENT };
+    }
+
+    /**
+     * Records are written as documents identified by template and record
+     * index.
+     */
+    @Override
+    public void writeGeneratedRecords(RecordShape recordShape, String template, Iterator<GeneratedRecord> records,
+            Writer writer) throws IOException {
+        JsonGenerator jsonGenerator = JSON_FACTORY.createJsonGenerator(writer);
+
+        jsonGenerator.writeStartObject();
+        jsonGenerator.writeArrayFieldStart(DataLoader.ROOT_ELEMENT);
+
+        while (records.hasNext()) {
+            GeneratedRecord record = records.next();
+
+            jsonGenerator.writeStartObject();
+            jsonGenerator.writeStringField(ID_FIELD, template + "-" + record.getIndex());
+
+            for (Map.Entry<String, Object> field : record.getFields().entrySet()) {
+                jsonGenerator.writeFieldName(field.getKey());
+                GeneratedRecord.writeValue(jsonGenerator, field.getValue());
+            }
+
+            jsonGenerator.writeEndObject();
+        }
+
+        jsonGenerator.writeEndArray();
+        jsonGenerator.writeEndObject();
+        jsonGenerator.flush();
+    }
+
+    /**
+     * All documents of a database belong to a single collection, named as the
+     * root element of datasets.
+     */
+    @Override
+    public void readExpectedRecords(InputStream expectedData, final ExpectedRecordHandler expectedRecordHandler)
+            throws IOException {
+        JsonDataSetReader dataSetReader = new JsonDataSetReader(expectedData);
+
+        try {
+            String field;
+
+            while ((field = dataSetReader.nextField()) != null) {
+                if (DataLoader.ROOT_ELEMENT.equals(field)) {
+                    expectedRecordHandler.collection(DataLoader.ROOT_ELEMENT);
+                    dataSetReader.readRecords(new JsonDataSetReader.RecordHandler() {
+
+                        @Override
+                        @SuppressWarnings("unchecked")
+                        public void record(String record) throws IOException {
+                            expectedRecordHandler.record(DataLoader.ROOT_ELEMENT, MAPPER.readValue(record, Map.class));
+                        }
+                    });
+                }
+            }
+        } finally {
+            dataSetReader.close();
+        }
+    }
+
+    /**
+     * Documents are streamed from all documents view, skipping design
+     * documents.
+     */
+    @Override
+    public Iterator<Map<String, Object>> storedRecords(String collection) {
+        final StreamingViewResult allDocuments = couchDbConnector.queryForStreamingView(new ViewQuery().allDocs()
+                .includeDocs(true));
+        final Iterator<ViewResult.Row> rows = allDocuments.iterator();
+
+        return new StoredRecordsIterator() {
+
+            private ViewResult.Row nextRow = null;
+
+            @Override
+            public void close() {
+                allDocuments.close();
+            }
+
+            @Override
+            public boolean hasNext() {
+                while (nextRow == null && rows.hasNext()) {
+                    ViewResult.Row row = rows.next();
+
+                    if (!row.getId().startsWith(DESIGN_DOCUMENT_PREFIX)) {
+                        nextRow = row;
+                    }
+                }
+
+                if (nextRow == null) {
+                    allDocuments.close();
+                    return false;
+                }
+
+                return true;
+            }
+
+            @Override
+            @SuppressWarnings("unchecked")
+            public Map<String, Object> next() {
+                if (!hasNext()) {
+                    throw new NoSuchElementException();
+                }
+
+                ViewResult.Row row = nextRow;
+                nextRow = null;
+                return DOCUMENT_MAPPER.convertValue(row.getDocAsNode(), Map.class);
+            }
+
+            @Override
+            public void remove() {
+                throw new UnsupportedOperationException();
+            }
+        };
+    }
+
+    /**
+     * Design documents are not counted.
+     */
+    @Override
+    public long countStoredRecords(String collection) {
+        int numberOfDesignDocuments = couchDbConnector.queryView(new ViewQuery().allDocs()
+            .startKey(DESIGN_DOCUMENT_PREFIX).endKey(DESIGN_DOCUMENTS_END)).getSize();
+
+        return couchDbConnector.getDbInfo().getDocCount() - numberOfDesignDocuments;
+    }
+
+    @Override
+    public Object recordKey(Map<String, Object> record) {
+        return record.get(ID_FIELD);
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public Map<String, Object> storedRecord(String collection, Object key) {
+        InputStream document;
+
+        try {
+            document = couchDbConnector.getAsStream(String.valueOf(key));
+        } catch (DocumentNotFoundException e) {
+            return null;
+        }
+
+        try {
+            return DOCUMENT_MAPPER.readValue(document, Map.class);
+        } catch (IOException e) {
+            throw new IllegalStateException(e);
+        } finally {
+            try {
+                document.close();
+            } catch (IOException e) {
+                // document has already been read
+            }
+        }
+    }
+
+    private interface StoredRecordsIterator extends Iterator<Map<String, Object>>, Closeable {
+
+        @Override
+        void close();
+
+    }
+
     @Override
     public CouchDbConnector connectionManager() {
         return this.couchDbConnector;
@@ -1,7 +1,11 @@
 package com.lordofthejars.nosqlunit.couchdb;
 
+import java.io.File;
+
 import org.junit.rules.ExternalResource;
 
+import com.lordofthejars.nosqlunit.core.SeedTemplate;
+
 public class ManagedCouchDb extends ExternalResource {
 
     protected ManagedCouchDbLifecycleManager managedCouchDbLifecycleManager;
@@ -32,6 +36,21 @@ public class ManagedCouchDb extends ExternalResource {
             return this;
         }
 
+        /**
+         * @param templatePath
+         *            directory where templates cloned as target path before
+         *            starting CouchDb are stored. CouchDb database directory
+         *            should be relative to target path.
+         * @param seedDataSets
+         *            classpath locations of base fixtures. Template is captured
+         *            once a rule has loaded them, and prepared again when they
+         *            change. Without them, template must be prepared beforehand.
+         */
+        public ManagedCouchDbRuleBuilder seedTemplate(String templatePath, String... seedDataSets) {
+            this.managedCouchDbLifecycleManager.setSeedTemplate(SeedTemplate.of(new File(templatePath), seedDataSets));
+            return this;
+        }
+
         public ManagedCouchDbRuleBuilder couchDbPath(String couchPath) {
             this.managedCouchDbLifecycleManager.setCouchDbPath(couchPath);
             return this;
@@ -5,6 +5,8 @@ import com.lordofthejars.nosqlunit.core.CommandLineExecutor;
 import com.lordofthejars.nosqlunit.core.OperatingSystem;
 import com.lordofthejars.nosqlunit.core.OperatingSystemResolver;
 import com.lordofthejars.nosqlunit.core.OsNameSystemPropertyOperatingSystemResolver;
+import com.lordofthejars.nosqlunit.core.ReadinessProbe;
+import com.lordofthejars.nosqlunit.core.SeedTemplate;
 import com.lordofthejars.nosqlunit.env.SystemEnvironmentVariables;
 import java.io.File;
 import java.io.IOException;
@@ -13,7 +15,6 @@ import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.concurrent.CountDownLatch;
-import java.util.concurrent.TimeUnit;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -48,6 +49,16 @@ public class ManagedCouchDbLifecycleManager extends AbstractLifecycleManager {
 
     private int port = DEFAULT_PORT;
 
+    private SeedTemplate seedTemplate;
+
+    private final Runnable seedTemplateCapture = new Runnable() {
+
+        @Override
+        public void run() {
+            captureSeedTemplate();
+        }
+    };
+
     private Map<String, String> extraCommandArguments = new HashMap<String, String>();
     private List<String> singleCommandArguments = new ArrayList<String>();
 
@@ -61,6 +72,16 @@ public class ManagedCouchDbLifecycleManager extends AbstractLifecycleManager {
         return port;
     }
 
+    @Override
+    protected boolean isShareableAcrossProcesses() {
+        return true;
+    }
+
+    @Override
+    protected Process getServerProcess() {
+        return pwd;
+    }
+
     @Override
     public void doStart() throws Throwable {
 
@@ -69,7 +90,9 @@ public class ManagedCouchDbLifecycleManager extends AbstractLifecycleManager {
         File targetPathDirectory = ensureTargetPathDoesNotExitsAndReturnCompositePath();
 
         if (targetPathDirectory.mkdirs()) {
+            cloneSeedTemplate(targetPathDirectory);
             startCouchDb();
+            awaitSeeding();
         } else {
             throw new IllegalStateException("Target Path " + targetPathDirectory + " could not be created.");
         }
@@ -173,6 +196,9 @@ public class ManagedCouchDbLifecycleManager extends AbstractLifecycleManager {
         LOGGER.info("Stopping {} HBase instance.", couchDbPath);
 
         try {
+            if (this.seedTemplate != null) {
+                this.seedTemplate.cancelSeeding(this.seedTemplateCapture);
+            }
             stopCouchDb();
         } catch (InterruptedException e) {
             throw new IllegalArgumentException(e);
@@ -186,10 +212,46 @@ public class ManagedCouchDbLifecycleManager extends AbstractLifecycleManager {
     private void stopCouchDb() throws InterruptedException {
         if (isProcessAlive()) {
             pwd.destroy();
-            TimeUnit.SECONDS.sleep(2);
+            ReadinessProbe.processTerminated(pwd).awaitReadiness(2, SECONDS);
         }
     }
 
+    private void cloneSeedTemplate(File targetPathDirectory) {
+        if (this.seedTemplate != null && this.seedTemplate.cloneInto(targetPathDirectory)) {
+            LOGGER.info("Cloned seed template {} into {}.", this.seedTemplate.getTemplateDirectory(), targetPathDirectory);
+        }
+    }
+
+    private void awaitSeeding() {
+        if (this.seedTemplate != null && !isSharedAcrossProcesses()
+            && this.seedTemplate.awaitSeeding(this.seedTemplateCapture)) {
+            LOGGER.info("Seed template {} will be captured once its seed datasets are loaded.",
+                this.seedTemplate.getTemplateDirectory());
+        }
+    }
+
+    /**
+     * Restarts CouchDb once seed datasets have been loaded, so its data files
+     * are consistent when they are stored as template.
+     */
+    private void captureSeedTemplate() {
+        try {
+            stopCouchDb();
+        } catch (InterruptedException e) {
+            throw new IllegalStateException(e);
+        }
+
+        if (isProcessAlive() && !pwd.isAlive()) {
+            this.seedTemplate.captureIfNotPrepared(new File(targetPath));
+            LOGGER.info("Captured seed template {}.", this.seedTemplate.getTemplateDirectory());
+        } else {
+            LOGGER.warn("Seed template {} not captured because CouchDb did not stop.",
+                this.seedTemplate.getTemplateDirectory());
+        }
+
+        startCouchDb();
+    }
+
     private boolean isProcessAlive() {
         return pwd != null;
     }
@@ -202,6 +264,10 @@ public class ManagedCouchDbLifecycleManager extends AbstractLifecycleManager {
         this.port = port;
     }
 
+    public void setSeedTemplate(SeedTemplate seedTemplate) {
+        this.seedTemplate = seedTemplate;
+    }
+
     public void setCouchDbPath(String couchDbPath) {
         this.couchDbPath = couchDbPath;
     }
@@ -1,15 +1,23 @@
 package com.lordofthejars.nosqlunit.couchdb;
 
 import com.lordofthejars.nosqlunit.core.CommandLineExecutor;
+import com.lordofthejars.nosqlunit.core.IOUtils;
 import com.lordofthejars.nosqlunit.core.ConnectionManagement;
 import com.lordofthejars.nosqlunit.core.OperatingSystem;
 import com.lordofthejars.nosqlunit.core.OperatingSystemResolver;
+import com.lordofthejars.nosqlunit.core.SeedTemplate;
+import java.io.File;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
 import org.junit.Before;
+import org.junit.Rule;
 import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
+import org.mockito.invocation.InvocationOnMock;
+import org.mockito.stubbing.Answer;
 
 import static com.lordofthejars.nosqlunit.couchdb.ManagedCouchDb.ManagedCouchDbRuleBuilder.newManagedCouchDbRule;
 import static org.hamcrest.CoreMatchers.is;
@@ -22,6 +30,11 @@ import static org.mockito.Mockito.when;
 
 public class WhenManagedCouchDbLifecycleIsManaged {
 
+    private static final String SEED_DATASET = "com/lordofthejars/nosqlunit/couchdb/books.json";
+
+    @Rule
+    public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
     @Mock
     private OperatingSystemResolver operatingSystemResolver;
 
@@ -196,6 +209,50 @@ public class WhenManagedCouchDbLifecycleIsManaged {
             getExpectedWindowsCommand());
     }
 
+    @Test
+    public void managed_couchdb_should_be_started_from_seed_template_captured_once_seeded() throws Throwable {
+
+        when(operatingSystemResolver.currentOperatingSystem()).thenReturn(OperatingSystem.LINUX_OS);
+
+        final File targetPath = new File(temporaryFolder.getRoot(), "couchdb-temp");
+        File templatePath = new File(temporaryFolder.getRoot(), "couchdb-template");
+
+        final Process mockProcess = mock(Process.class);
+        when(mockProcess.exitValue()).thenReturn(0);
+
+        final List<Boolean> seededStarts = new ArrayList<Boolean>();
+        CommandLineExecutor commandLineExecutor = mock(CommandLineExecutor.class);
+
+        when(commandLineExecutor.startProcessInDirectoryAndArguments(anyString(), anyList())).thenAnswer(
+            new Answer<Process>() {
+                @Override
+                public Process answer(InvocationOnMock invocation) throws Throwable {
+                    File database = new File(targetPath, "books.couch");
+                    seededStarts.add(database.exists());
+                    database.createNewFile();
+                    return mockProcess;
+                }
+            });
+
+        for (int i = 0; i < 2; i++) {
+            ManagedCouchDb managedCouchDb = newManagedCouchDbRule().couchDbPath("/usr/local")
+                .targetPath(targetPath.getPath()).seedTemplate(templatePath.getPath(), SEED_DATASET).build();
+
+            managedCouchDb.managedCouchDbLifecycleManager.setCommandLineExecutor(commandLineExecutor);
+            managedCouchDb.managedCouchDbLifecycleManager.setOperatingSystemResolver(operatingSystemResolver);
+            managedCouchDb.before();
+            SeedTemplate.seeded(Arrays.asList(IOUtils.getStreamFromClasspathBaseResource(
+                WhenManagedCouchDbLifecycleIsManaged.class, "/" + SEED_DATASET)));
+            managedCouchDb.after();
+        }
+
+        File seedTemplateDirectory = SeedTemplate.of(templatePath, SEED_DATASET).getTemplateDirectory();
+
+        assertThat(new File(seedTemplateDirectory, "books.couch").exists(), is(true));
+        assertThat(seededStarts, is(Arrays.asList(false, true, true)));
+        assertThat(SeedTemplate.isAwaitingSeeding(), is(false));
+    }
+
     private List<String> getExpectedWindowsCommand() {
 
         List<String> expectedCommand = new ArrayList<String>();
@@ -5,6 +5,7 @@ import java.lang.annotation.Annotation;
 
 import com.lordofthejars.nosqlunit.annotation.SelectiveMatcher;
 import com.lordofthejars.nosqlunit.annotation.ShouldMatchDataSet;
+import com.lordofthejars.nosqlunit.core.ComparisonMode;
 
 public class ShouldMatchDataSetAnnotationTest
         implements Annotation, com.lordofthejars.nosqlunit.annotation.ShouldMatchDataSet {
@@ -32,4 +33,19 @@ public class ShouldMatchDataSetAnnotationTest
         return selectiveMatchers;
     }
 
+    @Override
+    public ComparisonMode mode() {
+        return ComparisonMode.EXACT;
+    }
+
+    @Override
+    public int sampleSize() {
+        return 100;
+    }
+
+    @Override
+    public long sampleSeed() {
+        return 0L;
+    }
+
 }
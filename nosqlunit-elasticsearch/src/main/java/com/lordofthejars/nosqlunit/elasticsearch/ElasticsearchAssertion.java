@@ -16,6 +16,7 @@ import org.elasticsearch.action.get.GetResponse;
 import org.elasticsearch.client.Client;
 
 import com.lordofthejars.nosqlunit.core.FailureHandler;
+import com.lordofthejars.nosqlunit.core.TestNamespace;
 import com.lordofthejars.nosqlunit.elasticsearch.parser.DataReader;
 import com.lordofthejars.nosqlunit.util.DeepEquals;
 
@@ -121,7 +122,7 @@ public class ElasticsearchAssertion {
 		GetRequestBuilder prepareGet = client.prepareGet();
 
 		if (indexInformation.containsKey(DataReader.INDEX_NAME_ELEMENT)) {
-			prepareGet.setIndex(indexInformation.get(DataReader.INDEX_NAME_ELEMENT));
+			prepareGet.setIndex(TestNamespace.current().qualify(indexInformation.get(DataReader.INDEX_NAME_ELEMENT)));
 		}
 
 		if (indexInformation.containsKey(DataReader.INDEX_TYPE_ELEMENT)) {
@@ -142,7 +143,7 @@ public class ElasticsearchAssertion {
 
 	private static final long numberOfInsertedDocuments(Client client) {
 
-		CountResponse numberOfElements = client.prepareCount().execute().actionGet();
+		CountResponse numberOfElements = client.prepareCount(TestNamespace.current().wildcards()).execute().actionGet();
 		return numberOfElements.getCount();
 	}
 
@@ -5,34 +5,32 @@ import java.util.concurrent.TimeUnit;
 import org.elasticsearch.client.transport.TransportClient;
 import org.elasticsearch.common.transport.InetSocketTransportAddress;
 
+import com.lordofthejars.nosqlunit.core.ReadinessProbe;
+
 public class LowLevelElasticSearchOperations {
 
 
-	private static final int NUM_RETRIES_TO_CHECK_SERVER_UP = 3;
+	private static final int SECONDS_TO_CHECK_SERVER_UP = 21;
 	
 	public boolean assertThatConnectionToElasticsearchIsPossible(String host, int port) throws InterruptedException {
-		TransportClient transportClient = new TransportClient();
+		final TransportClient transportClient = new TransportClient();
 		
 		try {
 			transportClient.addTransportAddress(new InetSocketTransportAddress(host, port));
-			for (int i = 0; i < NUM_RETRIES_TO_CHECK_SERVER_UP; i++) {
-
-				try {
-					
-					transportClient.admin().cluster().prepareState().execute().actionGet();
-					return true;
-					
-				} catch(Exception e) {
-					TimeUnit.SECONDS.sleep(7);
-				}				
-
-			}
-
+			return clusterHealth(transportClient).awaitReadiness(SECONDS_TO_CHECK_SERVER_UP, TimeUnit.SECONDS);
 		} finally {
 			transportClient.close();
 		}
-		
-		return false;
+	}
+
+	private ReadinessProbe clusterHealth(final TransportClient transportClient) {
+		return new ReadinessProbe() {
+
+			@Override
+			protected boolean probe() {
+				return !transportClient.admin().cluster().prepareHealth().execute().actionGet().isTimedOut();
+			}
+		};
 	}
 	
 }
@@ -13,6 +13,8 @@ import org.codehaus.jackson.map.ObjectMapper;
 import org.elasticsearch.action.index.IndexRequestBuilder;
 import org.elasticsearch.client.Client;
 
+import com.lordofthejars.nosqlunit.core.TestNamespace;
+
 public class DataReader {
 
 	private static final ObjectMapper MAPPER = new ObjectMapper();
@@ -102,7 +104,7 @@ public class DataReader {
 		IndexRequestBuilder prepareIndex = client.prepareIndex();
 
 		if (indexInformation.containsKey(INDEX_NAME_ELEMENT)) {
-			prepareIndex.setIndex(indexInformation.get(INDEX_NAME_ELEMENT));
+			prepareIndex.setIndex(TestNamespace.current().qualify(indexInformation.get(INDEX_NAME_ELEMENT)));
 		}
 
 		if (indexInformation.containsKey(INDEX_TYPE_ELEMENT)) {
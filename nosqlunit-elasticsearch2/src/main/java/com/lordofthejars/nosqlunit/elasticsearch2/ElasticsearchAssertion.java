@@ -2,6 +2,7 @@ package com.lordofthejars.nosqlunit.elasticsearch2;
 
 import com.lordofthejars.nosqlunit.elasticsearch2.parser.DataReader;
 import com.lordofthejars.nosqlunit.core.FailureHandler;
+import com.lordofthejars.nosqlunit.core.TestNamespace;
 import com.lordofthejars.nosqlunit.util.DeepEquals;
 import org.codehaus.jackson.map.ObjectMapper;
 import org.elasticsearch.action.count.CountResponse;
@@ -110,7 +111,7 @@ public class ElasticsearchAssertion {
 		GetRequestBuilder prepareGet = client.prepareGet();
 
 		if (indexInformation.containsKey(DataReader.INDEX_NAME_ELEMENT)) {
-			prepareGet.setIndex(indexInformation.get(DataReader.INDEX_NAME_ELEMENT));
+			prepareGet.setIndex(TestNamespace.current().qualify(indexInformation.get(DataReader.INDEX_NAME_ELEMENT)));
 		}
 
 		if (indexInformation.containsKey(DataReader.INDEX_TYPE_ELEMENT)) {
@@ -130,7 +131,7 @@ public class ElasticsearchAssertion {
 	}
 
 	private static long numberOfInsertedDocuments(Client client) {
-		final CountResponse numberOfElements = client.prepareCount().execute().actionGet();
+		final CountResponse numberOfElements = client.prepareCount(TestNamespace.current().wildcards()).execute().actionGet();
 		return numberOfElements.getCount();
 	}
 }
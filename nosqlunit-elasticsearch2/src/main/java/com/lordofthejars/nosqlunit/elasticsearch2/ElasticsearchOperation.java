@@ -2,7 +2,19 @@ package com.lordofthejars.nosqlunit.elasticsearch2;
 
 import com.google.common.primitives.Ints;
 import com.lordofthejars.nosqlunit.core.AbstractCustomizableDatabaseOperation;
+import com.lordofthejars.nosqlunit.core.CompiledDataSetDatabaseOperation;
+import com.lordofthejars.nosqlunit.core.CompiledDataSetFormat;
+import com.lordofthejars.nosqlunit.core.DatabaseOperation;
+import com.lordofthejars.nosqlunit.core.GeneratedDataSetOperation;
+import com.lordofthejars.nosqlunit.core.GeneratedRecord;
+import com.lordofthejars.nosqlunit.core.NamespaceForkableDatabaseOperation;
 import com.lordofthejars.nosqlunit.core.NoSqlAssertionError;
+import com.lordofthejars.nosqlunit.core.RecordShape;
+import com.lordofthejars.nosqlunit.core.TestNamespace;
+import com.lordofthejars.nosqlunit.core.ThreadSafeInsertionDatabaseOperation;
+import com.lordofthejars.nosqlunit.elasticsearch2.parser.DataReader;
+import org.codehaus.jackson.JsonFactory;
+import org.codehaus.jackson.JsonGenerator;
 import org.elasticsearch.action.bulk.BulkRequestBuilder;
 import org.elasticsearch.action.bulk.BulkResponse;
 import org.elasticsearch.action.count.CountResponse;
@@ -13,13 +25,21 @@ import org.elasticsearch.common.unit.TimeValue;
 import org.elasticsearch.index.query.QueryBuilders;
 import org.elasticsearch.search.SearchHit;
 
+import java.io.IOException;
 import java.io.InputStream;
+import java.io.Writer;
+import java.util.Iterator;
 import java.util.concurrent.TimeUnit;
 
 public class ElasticsearchOperation extends
-		AbstractCustomizableDatabaseOperation<ElasticsearchConnectionCallback, Client> {
+		AbstractCustomizableDatabaseOperation<ElasticsearchConnectionCallback, Client> implements
+		NamespaceForkableDatabaseOperation, GeneratedDataSetOperation, ThreadSafeInsertionDatabaseOperation,
+		CompiledDataSetDatabaseOperation {
+
+	private static final JsonFactory JSON_FACTORY = new JsonFactory();
 
 	private Client client;
+	private TestNamespace testNamespace = TestNamespace.DEFAULT_NAMESPACE;
 
 	public ElasticsearchOperation(Client client) {
 		this.client = client;
@@ -53,7 +73,7 @@ public class ElasticsearchOperation extends
 
 	private void clearDocuments() {
 		if (isAnyIndexPresent()) {
-			final SearchResponse countResponse = client.prepareSearch()
+			final SearchResponse countResponse = client.prepareSearch(testNamespace.wildcards())
 					.setSearchType(SearchType.QUERY_THEN_FETCH)
 					.setQuery(QueryBuilders.matchAllQuery())
 					.setSize(0)
@@ -61,7 +81,7 @@ public class ElasticsearchOperation extends
 					.actionGet();
 
 			int docCount = Ints.saturatedCast(countResponse.getHits().totalHits());
-			final SearchResponse scrollResponse = client.prepareSearch()
+			final SearchResponse scrollResponse = client.prepareSearch(testNamespace.wildcards())
 					.setSearchType(SearchType.SCAN)
 					.setScroll(new TimeValue(1L, TimeUnit.MINUTES))
 					.setQuery(QueryBuilders.matchAllQuery())
@@ -96,7 +116,7 @@ public class ElasticsearchOperation extends
 	}
 
 	private boolean isAnyIndexPresent() {
-		CountResponse numberOfElements = client.prepareCount().execute().actionGet();
+		CountResponse numberOfElements = client.prepareCount(testNamespace.wildcards()).execute().actionGet();
 		return numberOfElements.getCount() > 0;
 	}
 
@@ -104,6 +124,72 @@ public class ElasticsearchOperation extends
 		client.admin().indices().prepareRefresh().execute().actionGet();
 	}
 
+	/**
+	 * Namespace is applied as a suffix of index names defined in datasets, and
+	 * only documents of indexes of the namespace are deleted.
+	 */
+	@Override
+	public void useNamespace(TestNamespace testNamespace) {
+		this.testNamespace = testNamespace;
+	}
+
+	/**
+	 * Returned operation shares the client of this operation.
+	 */
+	@Override
+	public DatabaseOperation<?> forNamespace(TestNamespace testNamespace) {
+		ElasticsearchOperation elasticsearchOperation = new ElasticsearchOperation(client);
+		elasticsearchOperation.setInsertionStrategy(this.insertionStrategy);
+		elasticsearchOperation.setComparisonStrategy(this.comparisonStrategy);
+		elasticsearchOperation.useNamespace(testNamespace);
+		return elasticsearchOperation;
+	}
+
+	@Override
+	public RecordShape[] acceptedRecordShapes() {
+		return new RecordShape[] { RecordShape.DOCUMENT };
+	}
+
+	/**
+	 * Records are written as documents of the index named as template, with
+	 * record index as identifier.
+	 */
+	@Override
+	public void writeGeneratedRecords(RecordShape recordShape, String template, Iterator<GeneratedRecord> records,
+			Writer writer) throws IOException {
+		JsonGenerator jsonGenerator = JSON_FACTORY.createJsonGenerator(writer);
+
+		jsonGenerator.writeStartObject();
+		jsonGenerator.writeArrayFieldStart(DataReader.DOCUMENTS_ELEMENT);
+
+		while (records.hasNext()) {
+			GeneratedRecord record = records.next();
+
+			jsonGenerator.writeStartObject();
+			jsonGenerator.writeArrayFieldStart(DataReader.DOCUMENT_ELEMENT);
+
+			jsonGenerator.writeStartObject();
+			jsonGenerator.writeObjectFieldStart(DataReader.INDEX_ELEMENT);
+			jsonGenerator.writeStringField(DataReader.INDEX_NAME_ELEMENT, template);
+			jsonGenerator.writeStringField(DataReader.INDEX_TYPE_ELEMENT, template);
+			jsonGenerator.writeStringField(DataReader.INDEX_ID_ELEMENT, Long.toString(record.getIndex()));
+			jsonGenerator.writeEndObject();
+			jsonGenerator.writeEndObject();
+
+			jsonGenerator.writeStartObject();
+			jsonGenerator.writeFieldName(DataReader.DATA_ELEMENT);
+			record.writeFields(jsonGenerator);
+			jsonGenerator.writeEndObject();
+
+			jsonGenerator.writeEndArray();
+			jsonGenerator.writeEndObject();
+		}
+
+		jsonGenerator.writeEndArray();
+		jsonGenerator.writeEndObject();
+		jsonGenerator.flush();
+	}
+
 	@Override
 	public boolean databaseIs(InputStream expectedData) {
 		try {
@@ -121,6 +207,11 @@ public class ElasticsearchOperation extends
 		}
 	}
 
+	@Override
+	public CompiledDataSetFormat[] readableCompiledFormats() {
+		return new CompiledDataSetFormat[] { CompiledDataSetFormat.SMILE };
+	}
+
 	@Override
 	public Client connectionManager() {
 		return client;
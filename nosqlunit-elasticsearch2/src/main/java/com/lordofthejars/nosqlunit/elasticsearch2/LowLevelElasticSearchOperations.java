@@ -1,5 +1,6 @@
 package com.lordofthejars.nosqlunit.elasticsearch2;
 
+import com.lordofthejars.nosqlunit.core.ReadinessProbe;
 import org.elasticsearch.client.transport.TransportClient;
 import org.elasticsearch.common.transport.InetSocketTransportAddress;
 
@@ -7,23 +8,24 @@ import java.net.InetSocketAddress;
 import java.util.concurrent.TimeUnit;
 
 public class LowLevelElasticSearchOperations {
-	private static final int NUM_RETRIES_TO_CHECK_SERVER_UP = 3;
+	private static final int SECONDS_TO_CHECK_SERVER_UP = 21;
 
 	public boolean assertThatConnectionToElasticsearchIsPossible(String host, int port) throws InterruptedException {
 		final InetSocketAddress address = new InetSocketAddress(host, port);
 
-		try (TransportClient transportClient = TransportClient.builder().build()) {
+		try (final TransportClient transportClient = TransportClient.builder().build()) {
 			transportClient.addTransportAddress(new InetSocketTransportAddress(address));
-			for (int i = 0; i < NUM_RETRIES_TO_CHECK_SERVER_UP; i++) {
-				try {
-					transportClient.admin().cluster().prepareState().execute().actionGet();
-					return true;
-				} catch (Exception e) {
-					TimeUnit.SECONDS.sleep(7);
-				}
-			}
+			return clusterHealth(transportClient).awaitReadiness(SECONDS_TO_CHECK_SERVER_UP, TimeUnit.SECONDS);
 		}
+	}
 
-		return false;
+	private ReadinessProbe clusterHealth(final TransportClient transportClient) {
+		return new ReadinessProbe() {
+
+			@Override
+			protected boolean probe() {
+				return !transportClient.admin().cluster().prepareHealth().execute().actionGet().isTimedOut();
+			}
+		};
 	}
 }
@@ -7,6 +7,7 @@ import com.lordofthejars.nosqlunit.core.OperatingSystem;
 import com.lordofthejars.nosqlunit.core.OperatingSystemFamily;
 import com.lordofthejars.nosqlunit.core.OperatingSystemResolver;
 import com.lordofthejars.nosqlunit.core.OsNameSystemPropertyOperatingSystemResolver;
+import com.lordofthejars.nosqlunit.core.ProcessOutputPump;
 import com.lordofthejars.nosqlunit.env.SystemEnvironmentVariables;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -61,6 +62,16 @@ public class ManagedElasticsearchLifecycleManager extends AbstractLifecycleManag
 		return port;
 	}
 
+	@Override
+	protected boolean isShareableAcrossProcesses() {
+		return true;
+	}
+
+	@Override
+	protected Process getServerProcess() {
+		return processRunnable == null ? null : processRunnable.getProcess();
+	}
+
 	@Override
 	public void doStart() throws Throwable {
 
@@ -212,6 +223,7 @@ public class ManagedElasticsearchLifecycleManager extends AbstractLifecycleManag
 		public void run() {
 			try {
 				process = startProcess();
+				ProcessOutputPump.start(process);
 			} catch (IOException e) {
 				throw prepareException(e);
 			} finally {
@@ -227,6 +239,10 @@ public class ManagedElasticsearchLifecycleManager extends AbstractLifecycleManag
 
 		}
 
+		public Process getProcess() {
+			return process;
+		}
+
 		public void destroyProcess() {
 			if (this.process != null) {
 				this.process.destroy();
@@ -1,9 +1,14 @@
 package com.lordofthejars.nosqlunit.elasticsearch2.parser;
 
+import com.lordofthejars.nosqlunit.core.CompiledDataSetFormat;
+import com.lordofthejars.nosqlunit.core.TestNamespace;
 import org.codehaus.jackson.map.ObjectMapper;
 import org.codehaus.jackson.type.TypeReference;
 import org.elasticsearch.action.index.IndexRequestBuilder;
 import org.elasticsearch.client.Client;
+import org.elasticsearch.common.xcontent.XContentFactory;
+import org.elasticsearch.common.xcontent.XContentParser;
+import org.elasticsearch.common.xcontent.XContentType;
 
 import java.io.IOException;
 import java.io.InputStream;
@@ -92,7 +97,7 @@ public class DataReader {
 		final IndexRequestBuilder prepareIndex = client.prepareIndex();
 
 		if (indexInformation.containsKey(INDEX_NAME_ELEMENT)) {
-			prepareIndex.setIndex(indexInformation.get(INDEX_NAME_ELEMENT));
+			prepareIndex.setIndex(TestNamespace.current().qualify(indexInformation.get(INDEX_NAME_ELEMENT)));
 		}
 
 		if (indexInformation.containsKey(INDEX_TYPE_ELEMENT)) {
@@ -108,8 +113,7 @@ public class DataReader {
 
 	@SuppressWarnings("unchecked")
 	public static List<Map<String, Object>> getDocuments(InputStream data) throws IOException {
-		final Map<String, Object> rootNode = MAPPER.readValue(data, new TypeReference<Map<String, Object>>() {
-		});
+		final Map<String, Object> rootNode = readRootNode(data);
 		final Object dataElements = rootNode.get(DOCUMENTS_ELEMENT);
 
 		if (dataElements instanceof List) {
@@ -118,4 +122,23 @@ public class DataReader {
 			throw new IllegalArgumentException("Array of documents are required.");
 		}
 	}
+
+	/**
+	 * Reads the root of a JSON dataset, or of a dataset compiled into Smile
+	 * by {@link ElasticsearchDataSetCompiler}.
+	 */
+	static Map<String, Object> readRootNode(InputStream data) throws IOException {
+		if (CompiledDataSetFormat.of(data) == CompiledDataSetFormat.SMILE) {
+			final XContentParser parser = XContentFactory.xContent(XContentType.SMILE).createParser(data);
+
+			try {
+				return parser.mapOrdered();
+			} finally {
+				parser.close();
+			}
+		}
+
+		return MAPPER.readValue(data, new TypeReference<Map<String, Object>>() {
+		});
+	}
 }
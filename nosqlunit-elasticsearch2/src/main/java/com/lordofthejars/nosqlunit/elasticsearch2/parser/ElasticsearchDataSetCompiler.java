@@ -0,0 +1,41 @@
+package com.lordofthejars.nosqlunit.elasticsearch2.parser;
+
+import com.lordofthejars.nosqlunit.core.CompiledDataSetFormat;
+import com.lordofthejars.nosqlunit.core.DataSetCompiler;
+import org.elasticsearch.common.xcontent.XContentBuilder;
+import org.elasticsearch.common.xcontent.XContentFactory;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+
+/**
+ * Compiles Elasticsearch JSON datasets into Smile, the binary JSON format
+ * Elasticsearch reads natively, so {@link DataReader} reads them without
+ * parsing text.
+ */
+public class ElasticsearchDataSetCompiler implements DataSetCompiler {
+
+	@Override
+	public String getName() {
+		return "elasticsearch2";
+	}
+
+	@Override
+	public CompiledDataSetFormat getFormat() {
+		return CompiledDataSetFormat.SMILE;
+	}
+
+	@Override
+	public void compile(InputStream dataset, OutputStream compiledDataSet) throws IOException {
+		final XContentBuilder smileBuilder = XContentFactory.smileBuilder(compiledDataSet);
+
+		try {
+			smileBuilder.map(DataReader.readRootNode(dataset));
+			smileBuilder.flush();
+		} finally {
+			smileBuilder.close();
+		}
+	}
+
+}
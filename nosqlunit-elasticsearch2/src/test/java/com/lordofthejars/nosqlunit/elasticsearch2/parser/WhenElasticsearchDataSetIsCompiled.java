@@ -0,0 +1,53 @@
+package com.lordofthejars.nosqlunit.elasticsearch2.parser;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.junit.Assert.assertThat;
+
+import java.io.ByteArrayInputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import com.lordofthejars.nosqlunit.core.ResourceInputStream;
+
+public class WhenElasticsearchDataSetIsCompiled {
+
+	private static final String DATA = "{\"documents\":[" 
+			+ "{\"document\":[{\"index\":{\"indexName\":\"books\",\"indexType\":\"book\",\"indexId\":\"1\"}},"
+			+ "{\"data\":{\"title\":\"The Hobbit\",\"pages\":293,\"price\":10.5,\"authors\":[\"Tolkien\"],\"published\":true}}]},"
+			+ "{\"document\":[{\"index\":{\"indexName\":\"books\",\"indexType\":\"book\",\"indexId\":\"2\"}},"
+			+ "{\"data\":{\"title\":\"The Silmarillion\",\"pages\":365}}]}"
+			+ "]}";
+
+	@Rule
+	public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+	@Test
+	public void compiled_dataset_should_be_read_as_json_dataset() throws IOException {
+
+		File compiledFile = temporaryFolder.newFile("dataset.json.smile");
+		OutputStream compiledContent = new FileOutputStream(compiledFile);
+
+		try {
+			new ElasticsearchDataSetCompiler().compile(new ByteArrayInputStream(DATA.getBytes("UTF-8")), compiledContent);
+		} finally {
+			compiledContent.close();
+		}
+
+		InputStream compiledDataSet = new ResourceInputStream(compiledFile.toURI().toURL());
+		List<Map<String, Object>> documents = DataReader.getDocuments(compiledDataSet);
+		compiledDataSet.close();
+
+		assertThat(documents, is(DataReader.getDocuments(new ByteArrayInputStream(DATA.getBytes("UTF-8")))));
+
+	}
+
+}
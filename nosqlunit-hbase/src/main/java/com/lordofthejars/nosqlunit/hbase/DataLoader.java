@@ -1,6 +1,7 @@
 package com.lordofthejars.nosqlunit.hbase;
 
 import java.io.IOException;
+import java.util.ArrayList;
 import java.util.List;
 
 import org.apache.hadoop.conf.Configuration;
@@ -25,36 +26,13 @@ public class DataLoader {
 
     public void load(ParsedDataModel parsedDataModel) throws IOException {
 
-        HBaseAdmin hBaseAdmin = new HBaseAdmin(configuration);
-
         byte[] tableName = parsedDataModel.getName().getBytes();
-
-        if (!hBaseAdmin.tableExists(tableName)) {
-            hBaseAdmin.createTable(new HTableDescriptor(tableName));
-        }
-
-        hBaseAdmin.disableTable(tableName);
-        HTableDescriptor tableDescriptor = hBaseAdmin.getTableDescriptor(tableName);
-
         List<ParsedColumnFamilyModel> columnFamilies = parsedDataModel.getColumnFamilies();
 
-        for (ParsedColumnFamilyModel parsedColumnFamilyModel : columnFamilies) {
-
-            byte[] familyName = parsedColumnFamilyModel.getName().getBytes();
-
-            HColumnDescriptor hColumnDescriptor = new HColumnDescriptor(familyName);
-
-            if (existsColumnFamily(tableDescriptor, parsedColumnFamilyModel)) {
-                hBaseAdmin.modifyColumn(tableName, hColumnDescriptor);
-            } else {
-                hBaseAdmin.addColumn(tableName, hColumnDescriptor);
-            }
-
-        }
-
-        hBaseAdmin.enableTable(tableName);
+        ensureTableWithColumnFamilies(tableName, columnFamilies);
 
         HTable table = new HTable(configuration, tableName);
+        List<Put> puts = new ArrayList<Put>();
 
         for (ParsedColumnFamilyModel parsedColumnFamilyModel : columnFamilies) {
             byte[] familyName = parsedColumnFamilyModel.getName().getBytes();
@@ -75,14 +53,67 @@ public class DataLoader {
                     column.add(familyName, columnName, columnValuee);
                 }
 
-                table.put(column);
-                table.flushCommits();
+                puts.add(column);
             }
 
         }
 
-        table.close();
+        try {
+            table.put(puts);
+            table.flushCommits();
+        } finally {
+            table.close();
+        }
+
+    }
+
+    /**
+     * Table is created with its column families, and only altered when some
+     * of them are missing, so datasets loaded in several batches, like
+     * generated ones, do not disable and enable the table for each batch.
+     */
+    private void ensureTableWithColumnFamilies(byte[] tableName, List<ParsedColumnFamilyModel> columnFamilies)
+            throws IOException {
+
+        HBaseAdmin hBaseAdmin = new HBaseAdmin(configuration);
+
+        try {
+            if (!hBaseAdmin.tableExists(tableName)) {
+                HTableDescriptor tableDescriptor = new HTableDescriptor(tableName);
+
+                for (ParsedColumnFamilyModel parsedColumnFamilyModel : columnFamilies) {
+                    tableDescriptor.addFamily(new HColumnDescriptor(parsedColumnFamilyModel.getName().getBytes()));
+                }
+
+                hBaseAdmin.createTable(tableDescriptor);
+                return;
+            }
 
+            HTableDescriptor tableDescriptor = hBaseAdmin.getTableDescriptor(tableName);
+            List<HColumnDescriptor> missingColumnFamilies = new ArrayList<HColumnDescriptor>();
+
+            for (ParsedColumnFamilyModel parsedColumnFamilyModel : columnFamilies) {
+                if (!existsColumnFamily(tableDescriptor, parsedColumnFamilyModel)) {
+                    HColumnDescriptor hColumnDescriptor = new HColumnDescriptor(parsedColumnFamilyModel.getName().getBytes());
+                    tableDescriptor.addFamily(hColumnDescriptor);
+                    missingColumnFamilies.add(hColumnDescriptor);
+                }
+            }
+
+            if (missingColumnFamilies.isEmpty()) {
+                return;
+            }
+
+            hBaseAdmin.disableTable(tableName);
+
+            for (HColumnDescriptor hColumnDescriptor : missingColumnFamilies) {
+                hBaseAdmin.addColumn(tableName, hColumnDescriptor);
+            }
+
+            hBaseAdmin.enableTable(tableName);
+        } finally {
+            hBaseAdmin.close();
+        }
     }
 
     private boolean existsColumnFamily(HTableDescriptor tableDescriptor, ParsedColumnFamilyModel parsedColumnFamilyModel) {
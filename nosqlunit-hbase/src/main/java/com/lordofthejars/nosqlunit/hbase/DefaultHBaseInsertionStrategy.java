@@ -2,7 +2,7 @@ package com.lordofthejars.nosqlunit.hbase;
 
 import java.io.InputStream;
 
-import com.lordofthejars.nosqlunit.hbase.model.DataSetParser;
+import com.lordofthejars.nosqlunit.core.ParsedDataSetCache;
 import com.lordofthejars.nosqlunit.hbase.model.JsonDataSetParser;
 import com.lordofthejars.nosqlunit.hbase.model.ParsedDataModel;
 
@@ -10,8 +10,7 @@ public class DefaultHBaseInsertionStrategy implements HBaseInsertionStrategy {
 
 	@Override
 	public void insert(HBaseConnectionCallback connection, InputStream dataset) throws Throwable {
-		DataSetParser dataSetParser = new JsonDataSetParser();
-		ParsedDataModel parsedDataset = dataSetParser.parse(dataset);
+		ParsedDataModel parsedDataset = ParsedDataSetCache.getInstance().parse(dataset, new JsonDataSetParser());
 		
 		DataLoader dataLoader = new DataLoader(connection.configuration());
 		dataLoader.load(parsedDataset);
@@ -25,7 +25,7 @@ import org.apache.hadoop.hbase.client.coprocessor.AggregationClient;
 import ch.lambdaj.function.convert.Converter;
 
 import com.lordofthejars.nosqlunit.core.FailureHandler;
-import com.lordofthejars.nosqlunit.hbase.model.DataSetParser;
+import com.lordofthejars.nosqlunit.core.ParsedDataSetCache;
 import com.lordofthejars.nosqlunit.hbase.model.JsonDataSetParser;
 import com.lordofthejars.nosqlunit.hbase.model.ParsedColumnFamilyModel;
 import com.lordofthejars.nosqlunit.hbase.model.ParsedColumnModel;
@@ -37,8 +37,7 @@ public class HBaseAssertion {
 
 	public static void strictAssertEquals(HConnection connection, InputStream dataset) throws Throwable {
 
-		DataSetParser dataSetParser = new JsonDataSetParser();
-		ParsedDataModel parsedDataset = dataSetParser.parse(dataset);
+		ParsedDataModel parsedDataset = ParsedDataSetCache.getInstance().parse(dataset, new JsonDataSetParser());
 
 		Configuration configuration = connection.getConfiguration();
 
@@ -2,6 +2,9 @@ package com.lordofthejars.nosqlunit.hbase;
 
 import java.io.IOException;
 import java.io.InputStream;
+import java.io.Writer;
+import java.util.Iterator;
+import java.util.Map;
 
 import org.apache.hadoop.conf.Configuration;
 import org.apache.hadoop.hbase.HTableDescriptor;
@@ -10,11 +13,22 @@ import org.apache.hadoop.hbase.ZooKeeperConnectionException;
 import org.apache.hadoop.hbase.client.HBaseAdmin;
 import org.apache.hadoop.hbase.client.HConnection;
 import org.apache.hadoop.hbase.client.HConnectionManager;
+import org.codehaus.jackson.JsonFactory;
+import org.codehaus.jackson.JsonGenerator;
 
 import com.lordofthejars.nosqlunit.core.AbstractCustomizableDatabaseOperation;
+import com.lordofthejars.nosqlunit.core.GeneratedDataSetOperation;
+import com.lordofthejars.nosqlunit.core.GeneratedRecord;
 import com.lordofthejars.nosqlunit.core.NoSqlAssertionError;
+import com.lordofthejars.nosqlunit.core.RecordShape;
 
-public class HBaseOperation extends AbstractCustomizableDatabaseOperation<HBaseConnectionCallback, Configuration> {
+public class HBaseOperation extends AbstractCustomizableDatabaseOperation<HBaseConnectionCallback, Configuration>
+		implements GeneratedDataSetOperation {
+
+	private static final JsonFactory JSON_FACTORY = new JsonFactory();
+
+	private static final String DEFAULT_GENERATED_COLUMN_FAMILY = "data";
+	private static final String COLUMN_FAMILY_SEPARATOR = ":";
 
 	private Configuration configuration;
 	
@@ -87,6 +101,62 @@ public class HBaseOperation extends AbstractCustomizableDatabaseOperation<HBaseC
 		}
 	}
 
+	@Override
+	public RecordShape[] acceptedRecordShapes() {
+		return new RecordShape[] { RecordShape.ROW };
+	}
+
+	/**
+	 * Template is the table name, optionally followed by a colon and the
+	 * column family of generated columns, data by default. Rows are keyed by
+	 * record index.
+	 */
+	@Override
+	public void writeGeneratedRecords(RecordShape recordShape, String template, Iterator<GeneratedRecord> records,
+			Writer writer) throws IOException {
+		int separator = template.indexOf(COLUMN_FAMILY_SEPARATOR);
+		String tableName = separator < 0 ? template : template.substring(0, separator);
+		String columnFamily = separator < 0 ? DEFAULT_GENERATED_COLUMN_FAMILY : template.substring(separator + 1);
+
+		JsonGenerator jsonGenerator = JSON_FACTORY.createJsonGenerator(writer);
+
+		jsonGenerator.writeStartObject();
+		jsonGenerator.writeStringField("name", tableName);
+		jsonGenerator.writeArrayFieldStart("columnFamilies");
+		jsonGenerator.writeStartObject();
+		jsonGenerator.writeStringField("name", columnFamily);
+		jsonGenerator.writeArrayFieldStart("rows");
+
+		while (records.hasNext()) {
+			GeneratedRecord record = records.next();
+
+			jsonGenerator.writeStartObject();
+			jsonGenerator.writeStringField("key", Long.toString(record.getIndex()));
+			jsonGenerator.writeArrayFieldStart("columns");
+
+			for (Map.Entry<String, Object> field : record.getFields().entrySet()) {
+				jsonGenerator.writeStartObject();
+				jsonGenerator.writeStringField("name", field.getKey());
+				jsonGenerator.writeStringField("value", String.valueOf(field.getValue()));
+
+				if (!(field.getValue() instanceof String)) {
+					jsonGenerator.writeStringField("valueType", field.getValue().getClass().getSimpleName());
+				}
+
+				jsonGenerator.writeEndObject();
+			}
+
+			jsonGenerator.writeEndArray();
+			jsonGenerator.writeEndObject();
+		}
+
+		jsonGenerator.writeEndArray();
+		jsonGenerator.writeEndObject();
+		jsonGenerator.writeEndArray();
+		jsonGenerator.writeEndObject();
+		jsonGenerator.flush();
+	}
+
 	@Override
 	public Configuration connectionManager() {
 		return configuration;
@@ -1,7 +1,11 @@
 package com.lordofthejars.nosqlunit.hbase;
 
+import java.io.File;
+
 import org.junit.rules.ExternalResource;
 
+import com.lordofthejars.nosqlunit.core.SeedTemplate;
+
 public class ManagedHBase extends ExternalResource {
 
 	protected ManagedHBaseLifecycleManager managedHBaseLifecycleManager;
@@ -29,6 +33,21 @@ public class ManagedHBase extends ExternalResource {
 			return this;
 		}
 
+		/**
+		 * @param templatePath
+		 *            directory where templates cloned as target path before
+		 *            starting HBase are stored. HBase root directory should be
+		 *            relative to target path.
+		 * @param seedDataSets
+		 *            classpath locations of base fixtures. Template is captured
+		 *            once a rule has loaded them, and prepared again when they
+		 *            change. Without them, template must be prepared beforehand.
+		 */
+		public HBaseRuleBuilder seedTemplate(String templatePath, String... seedDataSets) {
+			this.managedHBaseServerBaseLifecycleManager.setSeedTemplate(SeedTemplate.of(new File(templatePath), seedDataSets));
+			return this;
+		}
+
 		public HBaseRuleBuilder port(int port) {
 			this.managedHBaseServerBaseLifecycleManager.setPort(port);
 			return this;
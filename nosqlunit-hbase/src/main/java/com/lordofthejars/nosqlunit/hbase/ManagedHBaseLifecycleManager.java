@@ -21,6 +21,7 @@ import com.lordofthejars.nosqlunit.core.CommandLineExecutor;
 import com.lordofthejars.nosqlunit.core.OperatingSystem;
 import com.lordofthejars.nosqlunit.core.OperatingSystemResolver;
 import com.lordofthejars.nosqlunit.core.OsNameSystemPropertyOperatingSystemResolver;
+import com.lordofthejars.nosqlunit.core.SeedTemplate;
 import com.lordofthejars.nosqlunit.env.SystemEnvironmentVariables;
 
 public class ManagedHBaseLifecycleManager extends AbstractLifecycleManager {
@@ -48,6 +49,16 @@ public class ManagedHBaseLifecycleManager extends AbstractLifecycleManager {
 	private String hBasePath = SystemEnvironmentVariables.getEnvironmentOrPropertyVariable("HBASE_HOME");
 
 	private int port = HConstants.DEFAULT_MASTER_PORT;
+
+	private SeedTemplate seedTemplate;
+
+	private final Runnable seedTemplateCapture = new Runnable() {
+
+		@Override
+		public void run() {
+			captureSeedTemplate();
+		}
+	};
 	
 	private Map<String, String> extraCommandArguments = new HashMap<String, String>();
 	private List<String> singleCommandArguments = new ArrayList<String>();
@@ -71,8 +82,10 @@ public class ManagedHBaseLifecycleManager extends AbstractLifecycleManager {
 		File targetPathDirectory = ensureTargetPathDoesNotExitsAndReturnCompositePath();
 
 		if (targetPathDirectory.mkdirs()) {
+			cloneSeedTemplate(targetPathDirectory);
 			startHBaseAsADaemon();
 			checkRunningServer();
+			awaitSeeding();
 
 		} else {	
 			throw new IllegalStateException("Target Path " + targetPathDirectory
@@ -99,7 +112,10 @@ public class ManagedHBaseLifecycleManager extends AbstractLifecycleManager {
 		LOGGER.info("Stopping {} HBase instance.", hBasePath);
 		
 		try {
-			stopHBase();			
+			if (this.seedTemplate != null) {
+				this.seedTemplate.cancelSeeding(this.seedTemplateCapture);
+			}
+			stopHBase();
 		} catch(InterruptedException e) {
 			throw new IllegalArgumentException(e);
 		} finally {
@@ -109,6 +125,36 @@ public class ManagedHBaseLifecycleManager extends AbstractLifecycleManager {
 		LOGGER.info("Stopped {} HBase instance.", hBasePath);
 	}
 	
+	private void cloneSeedTemplate(File targetPathDirectory) {
+		if (this.seedTemplate != null && this.seedTemplate.cloneInto(targetPathDirectory)) {
+			LOGGER.info("Cloned seed template {} into {}.", this.seedTemplate.getTemplateDirectory(), targetPathDirectory);
+		}
+	}
+
+	private void awaitSeeding() {
+		if (this.seedTemplate != null && !isSharedAcrossProcesses()
+				&& this.seedTemplate.awaitSeeding(this.seedTemplateCapture)) {
+			LOGGER.info("Seed template {} will be captured once its seed datasets are loaded.",
+					this.seedTemplate.getTemplateDirectory());
+		}
+	}
+
+	/**
+	 * Restarts HBase once seed datasets have been loaded, so its data files
+	 * are consistent when they are stored as template.
+	 */
+	private void captureSeedTemplate() {
+		try {
+			stopHBase();
+			this.seedTemplate.captureIfNotPrepared(new File(targetPath));
+			LOGGER.info("Captured seed template {}.", this.seedTemplate.getTemplateDirectory());
+			startHBaseAsADaemon();
+			checkRunningServer();
+		} catch (InterruptedException e) {
+			throw new IllegalStateException(e);
+		}
+	}
+
 	private List<String> startHBaseAsADaemon() throws InterruptedException {
 		Process pwd;
 		try {
@@ -247,6 +293,10 @@ public class ManagedHBaseLifecycleManager extends AbstractLifecycleManager {
 		this.targetPath = targetPath;
 	}
 	
+	public void setSeedTemplate(SeedTemplate seedTemplate) {
+		this.seedTemplate = seedTemplate;
+	}
+	
 	public void setHBasePath(String hBasePath) {
 		this.hBasePath = hBasePath;
 	}
@@ -7,14 +7,16 @@ import org.codehaus.jackson.JsonParseException;
 import org.codehaus.jackson.map.JsonMappingException;
 import org.codehaus.jackson.map.ObjectMapper;
 
-public class JsonDataSetParser implements DataSetParser {
+import com.lordofthejars.nosqlunit.core.DataSetModelParser;
+
+public class JsonDataSetParser implements DataSetParser, DataSetModelParser<ParsedDataModel> {
+
+	private static final ObjectMapper OBJECT_MAPPER = new ObjectMapper();
 
 	public ParsedDataModel parse(InputStream inputStream) {
 		
-		ObjectMapper mapper = new ObjectMapper();
-		
 		try {
-			return mapper.readValue(inputStream, ParsedDataModel.class);
+			return OBJECT_MAPPER.readValue(inputStream, ParsedDataModel.class);
 		} catch (JsonParseException e) {
 			throw new IllegalArgumentException(e);
 		} catch (JsonMappingException e) {
@@ -1,22 +1,39 @@
 package com.lordofthejars.nosqlunit.infinispan;
 
 import java.io.InputStream;
+import java.util.HashMap;
 import java.util.Map;
 
+import org.infinispan.commons.api.BasicCache;
+
 import com.lordofthejars.nosqlunit.objects.KeyValueObjectMapper;
 
 public class DefaultInfinispanInsertionStrategy implements InfinispanInsertionStrategy {
 
+	private static final int PUT_ALL_CHUNK_SIZE = 1000;
+
 	@Override
 	public void insert(InfinispanConnectionCallback connection, InputStream dataset) throws Throwable {
-		Map<Object, Object> values = loadMap(dataset);
-		connection.basicCache().putAll(values);
-	}
+		final BasicCache<Object, Object> basicCache = connection.basicCache();
+		final Map<Object, Object> chunk = new HashMap<Object, Object>();
 
-	private Map<Object, Object> loadMap(InputStream dataScript) {
 		KeyValueObjectMapper keyValueObjectMapper = new KeyValueObjectMapper();
-		Map<Object, Object> values = keyValueObjectMapper.readValues(dataScript);
-		return values;
+		keyValueObjectMapper.readValues(dataset, new KeyValueObjectMapper.KeyValueHandler() {
+
+			@Override
+			public void keyValue(Object key, Object value) {
+				chunk.put(key, value);
+
+				if (chunk.size() >= PUT_ALL_CHUNK_SIZE) {
+					basicCache.putAll(chunk);
+					chunk.clear();
+				}
+			}
+		});
+
+		if (!chunk.isEmpty()) {
+			basicCache.putAll(chunk);
+		}
 	}
-	
+
 }
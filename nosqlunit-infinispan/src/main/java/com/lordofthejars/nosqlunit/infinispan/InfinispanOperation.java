@@ -6,8 +6,10 @@ import org.infinispan.commons.api.BasicCache;
 
 import com.lordofthejars.nosqlunit.core.AbstractCustomizableDatabaseOperation;
 import com.lordofthejars.nosqlunit.core.NoSqlAssertionError;
+import com.lordofthejars.nosqlunit.core.ThreadSafeInsertionDatabaseOperation;
 
-public class InfinispanOperation extends AbstractCustomizableDatabaseOperation<InfinispanConnectionCallback, BasicCache<Object, Object>> { 
+public class InfinispanOperation extends AbstractCustomizableDatabaseOperation<InfinispanConnectionCallback, BasicCache<Object, Object>> implements
+		ThreadSafeInsertionDatabaseOperation {
 
 	private BasicCache<Object, Object> cache;
 	
@@ -10,16 +10,18 @@ import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.concurrent.CountDownLatch;
-import java.util.concurrent.TimeUnit;
+import java.util.regex.Pattern;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import com.lordofthejars.nosqlunit.core.AbstractLifecycleManager;
 import com.lordofthejars.nosqlunit.core.CommandLineExecutor;
+import com.lordofthejars.nosqlunit.core.ProcessOutputPump;
 import com.lordofthejars.nosqlunit.core.OperatingSystem;
 import com.lordofthejars.nosqlunit.core.OperatingSystemResolver;
 import com.lordofthejars.nosqlunit.core.OsNameSystemPropertyOperatingSystemResolver;
+import com.lordofthejars.nosqlunit.core.ReadinessProbe;
 import com.lordofthejars.nosqlunit.env.SystemEnvironmentVariables;
 
 public class ManagedInfinispanLifecycleManager extends AbstractLifecycleManager {
@@ -29,6 +31,8 @@ public class ManagedInfinispanLifecycleManager extends AbstractLifecycleManager
 	Process pwd;
 	
 	private static final String LOCALHOST = "127.0.0.1";
+
+	private static final Pattern READY_PATTERN = Pattern.compile("started in \\d+ms");
 	public static final int DEFAULT_PORT = 11222;
 	
 	protected static final String DEFAULT_INFINISPAN_TARGET_PATH = "target" + File.separatorChar + "infinispan-temp";
@@ -65,6 +69,16 @@ public class ManagedInfinispanLifecycleManager extends AbstractLifecycleManager
 		return port;
 	}
 
+	@Override
+	protected boolean isShareableAcrossProcesses() {
+		return true;
+	}
+
+	@Override
+	protected Process getServerProcess() {
+		return pwd;
+	}
+
 	@Override
 	public void doStart() throws Throwable {
 		
@@ -88,7 +102,7 @@ public class ManagedInfinispanLifecycleManager extends AbstractLifecycleManager
 			@Override
 			public void run() {
 				try {
-					startInfinispanProcess();
+					startInfinispanProcess(startupLatch);
 					startupLatch.countDown();
 				} catch (InterruptedException e) {
 					throw new IllegalStateException(e);
@@ -104,12 +118,20 @@ public class ManagedInfinispanLifecycleManager extends AbstractLifecycleManager
 		}
 	}
 
-	private List<String> startInfinispanProcess() throws InterruptedException {
+	private List<String> startInfinispanProcess(final CountDownLatch startupLatch) throws InterruptedException {
 		try {
 			pwd = startProcess();
+			ProcessOutputPump outputPump = ProcessOutputPump.start(pwd);
+			outputPump.whenLogged(READY_PATTERN).thenRun(new Runnable() {
+				@Override
+				public void run() {
+					startupLatch.countDown();
+				}
+			});
 			pwd.waitFor();
 			if (pwd.exitValue() != 0) {
-				List<String> consoleOutput = getConsoleOutput(pwd);
+				outputPump.awaitEnd(1, SECONDS);
+				List<String> consoleOutput = outputPump.getLines();
 				throw new IllegalStateException("Infinispan [" + infinispanPath + " at port " + port + " and protocol "+protocol
 						+ "] could not be started. Next console message was thrown: " + consoleOutput);
 			}
@@ -209,7 +231,7 @@ public class ManagedInfinispanLifecycleManager extends AbstractLifecycleManager
 	private void stopInfinispan() throws InterruptedException {
 		if (isProcessAlive()) {
 			pwd.destroy();
-			TimeUnit.SECONDS.sleep(2);
+			ReadinessProbe.processTerminated(pwd).awaitReadiness(2, SECONDS);
 		}
 	}
 
@@ -2,6 +2,8 @@ package com.lordofthejars.nosqlunit.influxdb;
 
 import org.junit.rules.ExternalResource;
 
+import com.lordofthejars.nosqlunit.core.EphemeralPorts;
+
 public class InMemoryInfluxDb extends ExternalResource {
 
     protected InMemoryInfluxDbLifecycleManager inMemoryInfluxDbLifecycleManager = null;
@@ -27,6 +29,26 @@ public class InMemoryInfluxDb extends ExternalResource {
             return this;
         }
 
+        /**
+         * @param port
+         *            HTTP port of InfluxDb, or {@link EphemeralPorts#AUTO} to
+         *            start it on a free port.
+         */
+        public InMemoryInfluxRuleBuilder port(final int port) {
+            this.inMemoryInfluxDbLifecycleManager.setPort(port);
+            return this;
+        }
+
+        /**
+         * @param backupPort
+         *            backup and restore port of InfluxDb, or
+         *            {@link EphemeralPorts#AUTO} to start it on a free port.
+         */
+        public InMemoryInfluxRuleBuilder backupPort(final int backupPort) {
+            this.inMemoryInfluxDbLifecycleManager.setBackupPort(backupPort);
+            return this;
+        }
+
 
         public InMemoryInfluxDb build() {
 
@@ -3,6 +3,7 @@ package com.lordofthejars.nosqlunit.influxdb;
 
 import java.io.File;
 import java.io.IOException;
+import java.util.concurrent.TimeUnit;
 
 import org.influxdb.InfluxDB;
 import org.influxdb.InfluxDBFactory;
@@ -10,6 +11,8 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import com.lordofthejars.nosqlunit.core.AbstractLifecycleManager;
+import com.lordofthejars.nosqlunit.core.EphemeralPorts;
+import com.lordofthejars.nosqlunit.core.ReadinessProbe;
 
 import io.apisense.embed.influx.InfluxServer;
 import io.apisense.embed.influx.ServerAlreadyRunningException;
@@ -21,17 +24,23 @@ public class InMemoryInfluxDbLifecycleManager extends AbstractLifecycleManager {
 
     private static final String LOCALHOST = "localhost";
 
-    private static final int PORT = 8086;
+    public static final int DEFAULT_PORT = 8086;
 
-    private static final int BACKUP_PORT = 8088;
+    public static final int DEFAULT_BACKUP_PORT = 8088;
 
-    private static final String URL = String.format("http://%s:%d", LOCALHOST, PORT);
+    static final String ENGINE = "influxdb";
+
+    private static final int STARTUP_TIMEOUT_SECONDS = 30;
 
     public static final String INMEMORY_INFLUX_TARGET_PATH = "target" + File.separatorChar + "influx-data"
             + File.separatorChar + "impermanent-db";
 
     private String targetPath = INMEMORY_INFLUX_TARGET_PATH;
 
+    private int port = DEFAULT_PORT;
+
+    private int backupPort = DEFAULT_BACKUP_PORT;
+
     private InfluxServer server;
 
     @Override
@@ -40,8 +49,12 @@ public class InMemoryInfluxDbLifecycleManager extends AbstractLifecycleManager {
     }
 
     @Override
-    public int getPort() {
-        return PORT;
+    public synchronized int getPort() {
+        if (EphemeralPorts.isAuto(this.port)) {
+            this.port = EphemeralPorts.allocate();
+            EphemeralPorts.publish(ENGINE, this.targetPath, this.port);
+        }
+        return port;
     }
 
     @Override
@@ -53,9 +66,15 @@ public class InMemoryInfluxDbLifecycleManager extends AbstractLifecycleManager {
 
     private InfluxDB embeddedInfluxDb(final String targetPath)
             throws IOException, ServerAlreadyRunningException, InterruptedException {
+        if (EphemeralPorts.isAuto(backupPort)) {
+            backupPort = EphemeralPorts.allocate();
+        }
+
+        final String url = String.format("http://%s:%d", LOCALHOST, getPort());
+
         final InfluxConfigurationWriter config = new InfluxConfigurationWriter.Builder() //
-                .setHttp(PORT) // be default auth is disabled
-                .setBackupAndRestorePort(BACKUP_PORT) //
+                .setHttp(getPort()) // be default auth is disabled
+                .setBackupAndRestorePort(backupPort) //
                 .setDataPath(new File(targetPath)) //
                 .build();
 
@@ -65,10 +84,9 @@ public class InMemoryInfluxDbLifecycleManager extends AbstractLifecycleManager {
 
         server.start();
 
-        // wait for server to start
-        Thread.sleep(5000);
+        waitUntilReady(ReadinessProbe.httpStatus(url + "/ping"), STARTUP_TIMEOUT_SECONDS, TimeUnit.SECONDS);
 
-        return InfluxDBFactory.connect(URL);
+        return InfluxDBFactory.connect(url);
 
     }
 
@@ -94,4 +112,12 @@ public class InMemoryInfluxDbLifecycleManager extends AbstractLifecycleManager {
         return targetPath;
     }
 
+    public void setPort(final int port) {
+        this.port = port;
+    }
+
+    public void setBackupPort(final int backupPort) {
+        this.backupPort = backupPort;
+    }
+
 }
@@ -0,0 +1,54 @@
+package com.lordofthejars.nosqlunit.jfr;
+
+import com.lordofthejars.nosqlunit.instrumentation.RuleInstrumentation;
+import com.lordofthejars.nosqlunit.instrumentation.RulePhase;
+
+/**
+ * Emits a {@link RulePhaseEvent} for each phase. Events are only created when
+ * a recording has them enabled, and they can be disabled setting
+ * <code>nosqlunit.instrumentation.jfr</code> system property to false. It is
+ * registered through <code>java.util.ServiceLoader</code>, so adding this
+ * module to test classpath is enough.
+ */
+public class JfrRuleInstrumentation implements RuleInstrumentation {
+
+	public static final String JFR_PROPERTY = "nosqlunit.instrumentation.jfr";
+
+	private static final Measurement NO_MEASUREMENT = new Measurement() {
+
+		@Override
+		public void stop() {
+		}
+	};
+
+	private final boolean enabled = Boolean.parseBoolean(System.getProperty(JFR_PROPERTY, "true"));
+
+	@Override
+	public Measurement start(RulePhase phase, String identifier, String testName, String dataSets) {
+
+		if (!enabled) {
+			return NO_MEASUREMENT;
+		}
+
+		final RulePhaseEvent rulePhaseEvent = new RulePhaseEvent();
+
+		if (!rulePhaseEvent.isEnabled()) {
+			return NO_MEASUREMENT;
+		}
+
+		rulePhaseEvent.phase = phase.name();
+		rulePhaseEvent.identifier = identifier;
+		rulePhaseEvent.testName = testName;
+		rulePhaseEvent.dataSets = dataSets;
+		rulePhaseEvent.begin();
+
+		return new Measurement() {
+
+			@Override
+			public void stop() {
+				rulePhaseEvent.commit();
+			}
+		};
+	}
+
+}
@@ -0,0 +1,32 @@
+package com.lordofthejars.nosqlunit.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * Java Flight Recorder event of a rule phase.
+ */
+@Name(RulePhaseEvent.NAME)
+@Label("Rule Phase")
+@Category("NoSQLUnit")
+@Description("Phase executed by a NoSQLUnit rule around a test")
+class RulePhaseEvent extends Event {
+
+	static final String NAME = "com.lordofthejars.nosqlunit.RulePhase";
+
+	@Label("Phase")
+	String phase;
+
+	@Label("Identifier")
+	String identifier;
+
+	@Label("Test")
+	String testName;
+
+	@Label("Datasets")
+	String dataSets;
+
+}
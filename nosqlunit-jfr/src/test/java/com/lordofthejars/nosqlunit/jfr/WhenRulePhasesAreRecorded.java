@@ -0,0 +1,72 @@
+package com.lordofthejars.nosqlunit.jfr;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.junit.Assert.assertThat;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.ServiceLoader;
+
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import com.lordofthejars.nosqlunit.instrumentation.RuleInstrumentation;
+import com.lordofthejars.nosqlunit.instrumentation.RulePhase;
+
+public class WhenRulePhasesAreRecorded {
+
+	@Rule
+	public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+	@Test
+	public void each_phase_should_be_emitted_as_an_event() throws IOException {
+
+		File recordingFile = temporaryFolder.newFile("phases.jfr");
+
+		Recording recording = new Recording();
+		try {
+			recording.enable(RulePhaseEvent.NAME);
+			recording.start();
+
+			new JfrRuleInstrumentation().start(RulePhase.LOAD_DATASET, "mongo", "Test#test", "users.json").stop();
+
+			recording.stop();
+			recording.dump(recordingFile.toPath());
+		} finally {
+			recording.close();
+		}
+
+		List<RecordedEvent> events = new ArrayList<RecordedEvent>();
+		for (RecordedEvent recordedEvent : RecordingFile.readAllEvents(recordingFile.toPath())) {
+			if (RulePhaseEvent.NAME.equals(recordedEvent.getEventType().getName())) {
+				events.add(recordedEvent);
+			}
+		}
+
+		assertThat(events.size(), is(1));
+		assertThat(events.get(0).getString("phase"), is("LOAD_DATASET"));
+		assertThat(events.get(0).getString("identifier"), is("mongo"));
+		assertThat(events.get(0).getString("dataSets"), is("users.json"));
+
+	}
+
+	@Test
+	public void instrumentation_should_be_registered_as_a_service() {
+
+		boolean registered = false;
+		for (RuleInstrumentation ruleInstrumentation : ServiceLoader.load(RuleInstrumentation.class)) {
+			registered |= ruleInstrumentation instanceof JfrRuleInstrumentation;
+		}
+
+		assertThat(registered, is(true));
+
+	}
+
+}
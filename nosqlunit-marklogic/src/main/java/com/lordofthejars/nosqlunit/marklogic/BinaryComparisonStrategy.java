@@ -33,7 +33,8 @@ class BinaryComparisonStrategy implements MarkLogicComparisonStrategy {
     @Override
     public boolean compare(MarkLogicConnectionCallback connection, InputStream dataSet) throws NoSqlAssertionError {
         PassThroughParser parser = new PassThroughParser(target);
-        DataSetReader reader = new DataSetReader(connection.databaseClient().newBinaryDocumentManager(), contentHandleFactory);
+        DataSetReader reader = new DataSetReader(connection.databaseClient().newBinaryDocumentManager(), contentHandleFactory,
+                connection.transaction());
         Set<Content> expectedData;
         final Map<String, PassThroughContent> actualData = new HashMap<>();
         try {
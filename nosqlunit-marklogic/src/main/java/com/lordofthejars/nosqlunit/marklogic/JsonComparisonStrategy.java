@@ -42,7 +42,8 @@ class JsonComparisonStrategy implements MarkLogicComparisonStrategy {
     @Override
     public boolean compare(MarkLogicConnectionCallback connection, InputStream dataSet) throws NoSqlAssertionError {
         JsonParser parser = new JsonParser(mapper);
-        DataSetReader reader = new DataSetReader(connection.databaseClient().newJSONDocumentManager(), contentHandleFactory);
+        DataSetReader reader = new DataSetReader(connection.databaseClient().newJSONDocumentManager(), contentHandleFactory,
+                connection.transaction());
         Set<Content> expectedData;
         final Map<String, JsonContent> actualData = new HashMap<>();
         try {
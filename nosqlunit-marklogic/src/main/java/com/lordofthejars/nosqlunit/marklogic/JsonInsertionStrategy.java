@@ -28,6 +28,10 @@ public class JsonInsertionStrategy implements MarkLogicInsertionStrategy {
     public void insert(MarkLogicConnectionCallback connection, InputStream dataSet) {
         JsonParser parser = new JsonParser(mapper);
         DataSetWriter writer = new DataSetWriter(connection.databaseClient().newJSONDocumentManager(), contentHandleFactory);
+        if (connection.transaction() != null) {
+            writer.write(parser.parse(dataSet), connection.transaction());
+            return;
+        }
         Transaction tx = connection.databaseClient().openTransaction();
         try {
             writer.write(parser.parse(dataSet), tx);
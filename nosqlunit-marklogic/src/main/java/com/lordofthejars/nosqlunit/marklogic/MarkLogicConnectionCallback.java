@@ -1,7 +1,18 @@
 package com.lordofthejars.nosqlunit.marklogic;
 
 import com.marklogic.client.DatabaseClient;
+import com.marklogic.client.Transaction;
 
 public interface MarkLogicConnectionCallback {
     DatabaseClient databaseClient();
+
+    /**
+     * Transaction opened by {@link com.lordofthejars.nosqlunit.core.LoadStrategyEnum#ROLLBACK}, which insertions
+     * and comparisons must use instead of committing their own.
+     *
+     * @return the open transaction or null if there is none.
+     */
+    default Transaction transaction() {
+        return null;
+    }
 }
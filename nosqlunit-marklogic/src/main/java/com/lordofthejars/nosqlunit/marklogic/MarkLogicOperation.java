@@ -2,8 +2,10 @@ package com.lordofthejars.nosqlunit.marklogic;
 
 import com.lordofthejars.nosqlunit.core.AbstractCustomizableDatabaseOperation;
 import com.lordofthejars.nosqlunit.core.NoSqlAssertionError;
+import com.lordofthejars.nosqlunit.core.TransactionalDatabaseOperation;
 import com.marklogic.client.DatabaseClient;
 import com.marklogic.client.MarkLogicIOException;
+import com.marklogic.client.Transaction;
 import com.marklogic.client.query.DeleteQueryDefinition;
 import com.marklogic.client.query.QueryManager;
 import org.slf4j.Logger;
@@ -15,7 +17,8 @@ import java.util.Set;
 
 import static java.util.Arrays.asList;
 
-public final class MarkLogicOperation extends AbstractCustomizableDatabaseOperation<MarkLogicConnectionCallback, DatabaseClient> {
+public final class MarkLogicOperation extends AbstractCustomizableDatabaseOperation<MarkLogicConnectionCallback, DatabaseClient>
+        implements TransactionalDatabaseOperation {
 
     private static final Logger LOGGER = LoggerFactory.getLogger(MarkLogicOperation.class);
 
@@ -23,6 +26,8 @@ public final class MarkLogicOperation extends AbstractCustomizableDatabaseOperat
 
     private MarkLogicConfiguration marklogicConfiguration;
 
+    private Transaction transaction;
+
     public MarkLogicOperation(MarkLogicConfiguration marklogicConfiguration) {
         this(marklogicConfiguration.getDatabaseClient(), marklogicConfiguration, null);
     }
@@ -50,6 +55,11 @@ public final class MarkLogicOperation extends AbstractCustomizableDatabaseOperat
                 public DatabaseClient databaseClient() {
                     return databaseClient;
                 }
+
+                @Override
+                public Transaction transaction() {
+                    return transaction;
+                }
             }, contentStream);
         } catch (Throwable e) {
             throw new IllegalArgumentException("Unexpected error inserting data set file.", e);
@@ -103,6 +113,11 @@ public final class MarkLogicOperation extends AbstractCustomizableDatabaseOperat
                 public DatabaseClient databaseClient() {
                     return databaseClient;
                 }
+
+                @Override
+                public Transaction transaction() {
+                    return transaction;
+                }
             }, contentStream);
             return true;
         } catch (NoSqlAssertionError e) {
@@ -116,4 +131,35 @@ public final class MarkLogicOperation extends AbstractCustomizableDatabaseOperat
     public DatabaseClient connectionManager() {
         return databaseClient;
     }
+
+    @Override
+    public void beginTransaction() {
+        if (transaction != null) {
+            throw new IllegalStateException("A transaction is already open.");
+        }
+        transaction = databaseClient.openTransaction();
+    }
+
+    @Override
+    public void rollbackTransaction() {
+        if (transaction == null) {
+            return;
+        }
+        try {
+            transaction.rollback();
+        } finally {
+            transaction = null;
+        }
+    }
+
+    /**
+     * Returns the transaction opened by {@link com.lordofthejars.nosqlunit.core.LoadStrategyEnum#ROLLBACK}. Unlike
+     * Neo4j transactions, it is not bound to the thread, so tests must pass it to their document managers to see
+     * inserted documents and to have their own writes rolled back.
+     *
+     * @return the open transaction or null if there is none.
+     */
+    public Transaction getTransaction() {
+        return transaction;
+    }
 }
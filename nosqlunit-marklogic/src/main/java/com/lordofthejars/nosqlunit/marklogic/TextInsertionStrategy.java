@@ -26,6 +26,10 @@ class TextInsertionStrategy implements MarkLogicInsertionStrategy {
     public void insert(MarkLogicConnectionCallback connection, InputStream dataSet) {
         PassThroughParser parser = new PassThroughParser(target);
         DataSetWriter writer = new DataSetWriter(connection.databaseClient().newTextDocumentManager(), contentHandleFactory);
+        if (connection.transaction() != null) {
+            writer.write(parser.parse(dataSet), connection.transaction());
+            return;
+        }
         Transaction tx = connection.databaseClient().openTransaction();
         try {
             writer.write(parser.parse(dataSet), tx);
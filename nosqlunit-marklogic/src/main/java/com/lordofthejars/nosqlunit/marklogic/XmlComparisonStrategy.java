@@ -45,7 +45,8 @@ class XmlComparisonStrategy implements MarkLogicComparisonStrategy {
     @Override
     public boolean compare(MarkLogicConnectionCallback connection, InputStream dataSet) throws NoSqlAssertionError {
         XmlParser parser = new XmlParser(documentBuilderFactory, transformerFactory);
-        DataSetReader reader = new DataSetReader(connection.databaseClient().newXMLDocumentManager(), contentHandleFactory);
+        DataSetReader reader = new DataSetReader(connection.databaseClient().newXMLDocumentManager(), contentHandleFactory,
+                connection.transaction());
         Set<Content> expectedData;
         final Map<String, XmlContent> actualData = new HashMap<>();
         try {
@@ -30,6 +30,10 @@ class XmlInsertionStrategy implements MarkLogicInsertionStrategy {
     public void insert(MarkLogicConnectionCallback connection, InputStream dataSet) {
         XmlParser parser = new XmlParser(documentBuilderFactory, transformerFactory);
         DataSetWriter writer = new DataSetWriter(connection.databaseClient().newXMLDocumentManager(), contentHandleFactory);
+        if (connection.transaction() != null) {
+            writer.write(parser.parse(dataSet), connection.transaction());
+            return;
+        }
         Transaction tx = connection.databaseClient().openTransaction();
         try {
             writer.write(parser.parse(dataSet), tx);
@@ -1,5 +1,6 @@
 package com.lordofthejars.nosqlunit.marklogic.content;
 
+import com.marklogic.client.Transaction;
 import com.marklogic.client.document.DocumentManager;
 import com.marklogic.client.io.marker.ContentHandle;
 import com.marklogic.client.io.marker.ContentHandleFactory;
@@ -15,14 +16,24 @@ public class DataSetReader {
 
     private ContentHandleFactory contentHandleFactory;
 
+    private Transaction transaction;
+
     public DataSetReader(DocumentManager documentManager, ContentHandleFactory contentHandleFactory) {
+        this(documentManager, contentHandleFactory, null);
+    }
+
+    /**
+     * Documents are read inside given transaction, so documents written by it and not committed yet are visible.
+     */
+    public DataSetReader(DocumentManager documentManager, ContentHandleFactory contentHandleFactory, Transaction transaction) {
         this.documentManager = documentManager;
         this.contentHandleFactory = contentHandleFactory;
+        this.transaction = transaction;
     }
 
     public <C> Map<String, ContentHandle<C>> read(Set<Content> contents, Class<C> type) {
         return contents.stream().collect(toMap(Content::getUri, c ->
-                        (ContentHandle<C>) documentManager.read(c.getUri(), contentHandleFactory.newHandle(type))
+                        (ContentHandle<C>) documentManager.read(c.getUri(), contentHandleFactory.newHandle(type), transaction)
                 )
         );
     }
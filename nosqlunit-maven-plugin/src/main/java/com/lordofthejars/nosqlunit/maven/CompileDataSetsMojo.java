@@ -0,0 +1,146 @@
+package com.lordofthejars.nosqlunit.maven;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.ServiceLoader;
+
+import org.apache.maven.plugin.AbstractMojo;
+import org.apache.maven.plugin.MojoExecutionException;
+import org.apache.maven.plugins.annotations.LifecyclePhase;
+import org.apache.maven.plugins.annotations.Mojo;
+import org.apache.maven.plugins.annotations.Parameter;
+import org.codehaus.plexus.util.DirectoryScanner;
+
+import com.lordofthejars.nosqlunit.core.DataSetCompiler;
+import com.lordofthejars.nosqlunit.core.DataSetCompression;
+
+/**
+ * Compiles the datasets copied into test output directory with the
+ * {@link DataSetCompiler} of a backend, so tests read them without text
+ * parsing. Compiled datasets are written next to their sources, with the
+ * compression extension replaced by the extension of the compiled format
+ * (<code>users.json.gz</code> is compiled into <code>users.json.bson</code>),
+ * and they are only compiled again when their source is newer.
+ *
+ * Compilers are looked up using <code>java.util.ServiceLoader</code>, so the
+ * backend module, and its driver if it is a provided dependency, must be added
+ * as dependencies of this plugin.
+ */
+@Mojo(name = "compile-datasets", defaultPhase = LifecyclePhase.PROCESS_TEST_RESOURCES, threadSafe = true)
+public class CompileDataSetsMojo extends AbstractMojo {
+
+	private static final String[] DEFAULT_INCLUDES = { "**/*.json", "**/*.json.gz", "**/*.json.zst", "**/*.json.xz" };
+
+	/**
+	 * Name of the compiler, for example <code>mongodb</code> or
+	 * <code>elasticsearch2</code>.
+	 */
+	@Parameter(property = "nosqlunit.datasets.compiler", required = true)
+	private String compiler;
+
+	@Parameter(defaultValue = "${project.build.testOutputDirectory}", required = true)
+	private File directory;
+
+	@Parameter
+	private String[] includes;
+
+	@Parameter
+	private String[] excludes;
+
+	@Parameter(property = "nosqlunit.datasets.compile.skip", defaultValue = "false")
+	private boolean skip;
+
+	@Override
+	public void execute() throws MojoExecutionException {
+
+		if (skip) {
+			getLog().info("Datasets compilation is skipped.");
+			return;
+		}
+
+		if (!directory.isDirectory()) {
+			getLog().info("No datasets to compile in " + directory);
+			return;
+		}
+
+		DataSetCompiler dataSetCompiler = dataSetCompiler();
+		int compiledDataSets = 0;
+
+		for (String dataSet : dataSets()) {
+			if (compileDataSet(dataSetCompiler, new File(directory, dataSet))) {
+				compiledDataSets++;
+			}
+		}
+
+		getLog().info("Compiled " + compiledDataSets + " datasets into " + dataSetCompiler.getFormat() + " with "
+				+ dataSetCompiler.getName() + " compiler.");
+	}
+
+	private String[] dataSets() {
+		DirectoryScanner directoryScanner = new DirectoryScanner();
+		directoryScanner.setBasedir(directory);
+		directoryScanner.setIncludes(includes == null || includes.length == 0 ? DEFAULT_INCLUDES : includes);
+		directoryScanner.setExcludes(excludes);
+		directoryScanner.scan();
+
+		return directoryScanner.getIncludedFiles();
+	}
+
+	private boolean compileDataSet(DataSetCompiler dataSetCompiler, File dataSet) throws MojoExecutionException {
+		DataSetCompression compression = DataSetCompression.fromLocation(dataSet.getName());
+		String uncompressedPath = dataSet.getPath().substring(0,
+				dataSet.getPath().length() - compression.getExtension().length());
+		File compiledDataSet = new File(uncompressedPath + dataSetCompiler.getFormat().getExtension());
+
+		if (compiledDataSet.lastModified() >= dataSet.lastModified()) {
+			getLog().debug(compiledDataSet + " is up to date.");
+			return false;
+		}
+
+		try {
+			InputStream dataSetContent = compression.decompress(new FileInputStream(dataSet));
+
+			try {
+				OutputStream compiledDataSetContent = new FileOutputStream(compiledDataSet);
+
+				try {
+					dataSetCompiler.compile(dataSetContent, compiledDataSetContent);
+				} finally {
+					compiledDataSetContent.close();
+				}
+			} finally {
+				dataSetContent.close();
+			}
+		} catch (IOException e) {
+			compiledDataSet.delete();
+			throw new MojoExecutionException("Dataset " + dataSet + " could not be compiled.", e);
+		} catch (RuntimeException e) {
+			compiledDataSet.delete();
+			throw new MojoExecutionException("Dataset " + dataSet + " could not be compiled.", e);
+		}
+
+		return true;
+	}
+
+	private DataSetCompiler dataSetCompiler() throws MojoExecutionException {
+		List<String> availableCompilers = new ArrayList<String>();
+
+		for (DataSetCompiler dataSetCompiler : ServiceLoader.load(DataSetCompiler.class, getClass().getClassLoader())) {
+			if (dataSetCompiler.getName().equals(compiler)) {
+				return dataSetCompiler;
+			}
+
+			availableCompilers.add(dataSetCompiler.getName());
+		}
+
+		throw new MojoExecutionException("No dataset compiler named " + compiler + " is found. Available compilers are "
+				+ availableCompilers + ", add the backend module as dependency of the plugin.");
+	}
+
+}
@@ -0,0 +1,39 @@
+package com.lordofthejars.nosqlunit.maven;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+
+import com.lordofthejars.nosqlunit.core.CompiledDataSetFormat;
+import com.lordofthejars.nosqlunit.core.DataSetCompiler;
+
+/**
+ * Copies datasets as they are, failing after having written the first byte of
+ * datasets starting with <code>!</code>.
+ */
+public class CopyingDataSetCompiler implements DataSetCompiler {
+
+	@Override
+	public String getName() {
+		return "copying";
+	}
+
+	@Override
+	public CompiledDataSetFormat getFormat() {
+		return CompiledDataSetFormat.BSON;
+	}
+
+	@Override
+	public void compile(InputStream dataset, OutputStream compiledDataSet) throws IOException {
+		int character;
+
+		while ((character = dataset.read()) != -1) {
+			compiledDataSet.write(character);
+
+			if (character == '!') {
+				throw new IOException("Dataset cannot be compiled.");
+			}
+		}
+	}
+
+}
@@ -0,0 +1,125 @@
+package com.lordofthejars.nosqlunit.maven;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.junit.Assert.assertThat;
+import static org.junit.Assert.fail;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.lang.reflect.Field;
+import java.util.zip.GZIPOutputStream;
+
+import org.apache.maven.plugin.MojoExecutionException;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import com.lordofthejars.nosqlunit.core.IOUtils;
+
+public class WhenDataSetsAreCompiled {
+
+	@Rule
+	public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+	@Test
+	public void datasets_should_be_compiled_next_to_their_uncompressed_source() throws Exception {
+
+		File directory = temporaryFolder.newFolder("test-classes");
+		write(new FileOutputStream(new File(directory, "users.json")), "{\"users\":[]}");
+		write(new GZIPOutputStream(new FileOutputStream(new File(directory, "books.json.gz"))), "{\"books\":[]}");
+
+		compileDataSetsMojo(directory).execute();
+
+		assertThat(read(new File(directory, "users.json.bson")), is("{\"users\":[]}"));
+		assertThat(read(new File(directory, "books.json.bson")), is("{\"books\":[]}"));
+		assertThat(new File(directory, "books.json.gz.bson").exists(), is(false));
+
+	}
+
+	@Test
+	public void datasets_should_only_be_compiled_again_when_their_source_is_newer() throws Exception {
+
+		File directory = temporaryFolder.newFolder("test-classes");
+		File dataSet = new File(directory, "users.json");
+		File compiledDataSet = new File(directory, "users.json.bson");
+
+		write(new FileOutputStream(dataSet), "{\"users\":[]}");
+		write(new FileOutputStream(compiledDataSet), "up to date");
+
+		long now = System.currentTimeMillis() / 1000 * 1000;
+		dataSet.setLastModified(now - 60000);
+		compiledDataSet.setLastModified(now);
+
+		compileDataSetsMojo(directory).execute();
+
+		assertThat(read(compiledDataSet), is("up to date"));
+
+		dataSet.setLastModified(now + 60000);
+
+		compileDataSetsMojo(directory).execute();
+
+		assertThat(read(compiledDataSet), is("{\"users\":[]}"));
+
+	}
+
+	@Test
+	public void partially_compiled_dataset_should_be_removed_when_compilation_fails() throws Exception {
+
+		File directory = temporaryFolder.newFolder("test-classes");
+		write(new FileOutputStream(new File(directory, "users.json")), "{\"users\":[!]}");
+
+		try {
+			compileDataSetsMojo(directory).execute();
+			fail();
+		} catch (MojoExecutionException e) {
+			assertThat(new File(directory, "users.json.bson").exists(), is(false));
+		}
+
+	}
+
+	@Test(expected = MojoExecutionException.class)
+	public void unknown_compiler_should_fail_the_build() throws Exception {
+
+		CompileDataSetsMojo compileDataSetsMojo = compileDataSetsMojo(temporaryFolder.newFolder("test-classes"));
+		set(compileDataSetsMojo, "compiler", "unknown");
+
+		compileDataSetsMojo.execute();
+
+	}
+
+	private CompileDataSetsMojo compileDataSetsMojo(File directory) throws Exception {
+		CompileDataSetsMojo compileDataSetsMojo = new CompileDataSetsMojo();
+		set(compileDataSetsMojo, "compiler", "copying");
+		set(compileDataSetsMojo, "directory", directory);
+		return compileDataSetsMojo;
+	}
+
+	private void set(CompileDataSetsMojo compileDataSetsMojo, String parameter, Object value) throws Exception {
+		Field field = CompileDataSetsMojo.class.getDeclaredField(parameter);
+		field.setAccessible(true);
+		field.set(compileDataSetsMojo, value);
+	}
+
+	private void write(OutputStream outputStream, String content) throws IOException {
+		try {
+			outputStream.write(content.getBytes("UTF-8"));
+		} finally {
+			outputStream.close();
+		}
+	}
+
+	private String read(File file) throws IOException {
+		InputStream inputStream = new FileInputStream(file);
+
+		try {
+			return IOUtils.readFullStream(inputStream);
+		} finally {
+			inputStream.close();
+		}
+	}
+
+}
@@ -3,29 +3,27 @@ package com.lordofthejars.nosqlunit.mongodb;
 import java.io.IOException;
 import java.io.InputStream;
 
-import com.lordofthejars.nosqlunit.core.IOUtils;
+import com.lordofthejars.nosqlunit.core.DataSetModelParser;
+import com.lordofthejars.nosqlunit.core.ParsedDataSetCache;
 import com.mongodb.DBObject;
 import com.mongodb.util.JSON;
 import org.bson.Document;
 
 public class DefaultComparisonStrategy implements MongoComparisonStrategy {
 
+	private static final DataSetModelParser<Document> DATASET_PARSER = new DocumentDataSetParser();
+
 	@Override
 	public boolean compare(MongoDbConnectionCallback connection, InputStream dataset) throws IOException {
-		String expectedJsonData = loadContentFromInputStream(dataset);
-		Document parsedData = parseData(expectedJsonData);
+		Document parsedData = parseData(dataset);
 
 		MongoDbAssertion.strictAssertEquals(parsedData, connection.db());
 		
 		return true;
 	}
 
-	private String loadContentFromInputStream(InputStream inputStreamContent) throws IOException {
-		return IOUtils.readFullStream(inputStreamContent);
-	}
-	
-	private Document parseData(String jsonData) throws IOException {
-		return Document.parse(jsonData);
+	private Document parseData(InputStream dataset) throws IOException {
+		return ParsedDataSetCache.getInstance().parse(dataset, DATASET_PARSER);
 	}
 
     @Override
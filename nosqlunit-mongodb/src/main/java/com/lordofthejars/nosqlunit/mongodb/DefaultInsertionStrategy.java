@@ -1,6 +1,9 @@
 package com.lordofthejars.nosqlunit.mongodb;
 
-import com.lordofthejars.nosqlunit.core.IOUtils;
+import com.lordofthejars.nosqlunit.core.CompiledDataSetFormat;
+import com.lordofthejars.nosqlunit.core.DataSetModelParser;
+import com.lordofthejars.nosqlunit.core.JsonDataSetReader;
+import com.lordofthejars.nosqlunit.core.ParsedDataSetCache;
 import com.mongodb.*;
 import com.mongodb.client.MongoCollection;
 import com.mongodb.client.MongoDatabase;
@@ -23,21 +26,24 @@ public class DefaultInsertionStrategy implements MongoInsertionStrategy {
     private static final String DATA = "data";
     private static final String DATABASE_COLLECTION_SEPARATOR = ".";
 
+    private static final DataSetModelParser<Document> DATASET_PARSER = new DocumentDataSetParser();
+
     @Override
     public void insert(MongoDbConnectionCallback connection, InputStream dataset) throws IOException {
-        String jsonData = loadContentFromInputStream(dataset);
-        Document parsedData = parseData(jsonData);
-
-        insertParsedData(parsedData, connection.db(), connection.mongoClient());
+        if (ParsedDataSetCache.getInstance().isCacheable(dataset) || isCompiled(dataset)) {
+            Document parsedData = parseData(dataset);
+            insertParsedData(parsedData, connection.db(), connection.mongoClient());
+        } else {
+            insertStreamedData(dataset, connection.db(), connection.mongoClient());
+        }
     }
 
-    private String loadContentFromInputStream(InputStream inputStreamContent) throws IOException {
-        return IOUtils.readFullStream(inputStreamContent);
+    private boolean isCompiled(InputStream dataset) {
+        return CompiledDataSetFormat.of(dataset) == CompiledDataSetFormat.BSON;
     }
 
-    private Document parseData(String jsonData) throws IOException {
-        Document parsedData = Document.parse(jsonData);
-        return parsedData;
+    private Document parseData(InputStream dataset) throws IOException {
+        return ParsedDataSetCache.getInstance().parse(dataset, DATASET_PARSER);
     }
 
     private void insertParsedData(Document parsedData, MongoDatabase mongoDb, MongoClient mongoClient) {
@@ -61,6 +67,61 @@ public class DefaultInsertionStrategy implements MongoInsertionStrategy {
         }
     }
 
+    /**
+     * Inserts documents while they are read from the dataset, so datasets not
+     * cached are never fully held in memory. Indexes and shard key patterns
+     * are applied in the order they appear in the collection, so they should
+     * be defined before its data.
+     */
+    private void insertStreamedData(InputStream dataset, MongoDatabase mongoDb, MongoClient mongoClient) throws IOException {
+        ShellJsonDataSetReader dataSetReader = new ShellJsonDataSetReader(dataset);
+
+        try {
+            String collectionName;
+
+            while ((collectionName = dataSetReader.nextField()) != null) {
+                if (dataSetReader.isArrayValue()) {
+                    insertStreamedCollection(dataSetReader, mongoDb, collectionName);
+                } else {
+                    dataSetReader.beginObject();
+                    insertStreamedCollectionWithOptions(dataSetReader, mongoDb, mongoClient, collectionName);
+                }
+            }
+        } finally {
+            dataSetReader.close();
+        }
+    }
+
+    private void insertStreamedCollectionWithOptions(ShellJsonDataSetReader dataSetReader, MongoDatabase mongoDb, MongoClient mongoClient, String collectionName) throws IOException {
+        String property;
+
+        while ((property = dataSetReader.nextField()) != null) {
+            if (DATA.equals(property)) {
+                insertStreamedCollection(dataSetReader, mongoDb, collectionName);
+            } else if (SHARD_KEY_PATTERN.equals(property) || INDEXES.equals(property)) {
+                Document collectionOption = Document.parse("{\"" + property + "\":" + dataSetReader.readValueAsJson() + "}");
+
+                if (isShardedCollection(collectionOption)) {
+                    insertShardKeyPattern(mongoDb, mongoClient, collectionName, collectionOption);
+                } else {
+                    insertIndexes(mongoDb, collectionName, collectionOption);
+                }
+            }
+        }
+    }
+
+    private void insertStreamedCollection(ShellJsonDataSetReader dataSetReader, MongoDatabase mongoDb, String collectionName) throws IOException {
+        final MongoCollection<Document> dbCollection = mongoDb.getCollection(collectionName);
+
+        dataSetReader.readRecords(new JsonDataSetReader.RecordHandler() {
+
+            @Override
+            public void record(String record) {
+                dbCollection.insertOne(Document.parse(record));
+            }
+        });
+    }
+
     private void insertCollection(Document parsedData, MongoDatabase mongoDb, String collectionName) {
         List<Document> data;
         if (isDataDirectly(parsedData.get(collectionName))) { // Insert
@@ -189,7 +250,8 @@ public class DefaultInsertionStrategy implements MongoInsertionStrategy {
         MongoCollection<Document> dbCollection = mongoDb.getCollection(collectionName);
 
         for (Document dataObject : dataObjects) {
-            dbCollection.insertOne(dataObject);
+            // insertOne adds the generated _id, so the shared parsed document is copied first
+            dbCollection.insertOne(new Document(dataObject));
         }
     }
 
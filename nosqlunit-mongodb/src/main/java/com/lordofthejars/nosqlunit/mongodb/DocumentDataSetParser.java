@@ -0,0 +1,57 @@
+package com.lordofthejars.nosqlunit.mongodb;
+
+import com.lordofthejars.nosqlunit.core.CompiledDataSetFormat;
+import com.lordofthejars.nosqlunit.core.DataSetModelParser;
+import com.lordofthejars.nosqlunit.core.IOUtils;
+import org.bson.BsonBinaryReader;
+import org.bson.Document;
+import org.bson.codecs.DecoderContext;
+import org.bson.codecs.DocumentCodec;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+
+/**
+ * Parses JSON datasets, or decodes datasets compiled into BSON by
+ * {@link MongoDbDataSetCompiler}.
+ */
+public class DocumentDataSetParser implements DataSetModelParser<Document> {
+
+    private static final int BUFFER_SIZE = 8192;
+
+    private static final DocumentCodec DOCUMENT_CODEC = new DocumentCodec();
+
+    @Override
+    public Document parse(InputStream dataset) throws IOException {
+        if (CompiledDataSetFormat.of(dataset) == CompiledDataSetFormat.BSON) {
+            return decode(dataset);
+        }
+
+        return Document.parse(IOUtils.readFullStream(dataset));
+    }
+
+    private Document decode(InputStream dataset) throws IOException {
+        BsonBinaryReader bsonReader = new BsonBinaryReader(ByteBuffer.wrap(readFullBytes(dataset)));
+
+        try {
+            return DOCUMENT_CODEC.decode(bsonReader, DecoderContext.builder().build());
+        } finally {
+            bsonReader.close();
+        }
+    }
+
+    private byte[] readFullBytes(InputStream dataset) throws IOException {
+        ByteArrayOutputStream content = new ByteArrayOutputStream();
+        byte[] buffer = new byte[BUFFER_SIZE];
+        int read;
+
+        while ((read = dataset.read(buffer)) != -1) {
+            content.write(buffer, 0, read);
+        }
+
+        return content.toByteArray();
+    }
+
+}
@@ -1,7 +1,11 @@
 package com.lordofthejars.nosqlunit.mongodb;
 
+import java.io.File;
+
 import org.junit.rules.ExternalResource;
 
+import com.lordofthejars.nosqlunit.core.SeedTemplate;
+
 /**
  * Run a mongodb server before each test suite.
  */
@@ -59,6 +63,20 @@ public class ManagedMongoDb extends ExternalResource {
 			return this;
 		}
 
+		/**
+		 * @param templatePath
+		 *            directory where templates cloned as db path before
+		 *            starting MongoDb are stored.
+		 * @param seedDataSets
+		 *            classpath locations of base fixtures. Template is captured
+		 *            once a rule has loaded them, and prepared again when they
+		 *            change. Without them, template must be prepared beforehand.
+		 */
+		public MongoServerRuleBuilder seedTemplate(String templatePath, String... seedDataSets) {
+			this.managedMongoDbLifecycleManager.setSeedTemplate(SeedTemplate.of(new File(templatePath), seedDataSets));
+			return this;
+		}
+
 
 		public MongoServerRuleBuilder appendCommandLineArguments(
 				String argumentName, String argumentValue) {
@@ -10,15 +10,20 @@ import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import com.lordofthejars.nosqlunit.core.AbstractLifecycleManager;
 import com.lordofthejars.nosqlunit.core.CommandLineExecutor;
+import com.lordofthejars.nosqlunit.core.EphemeralPorts;
 import com.lordofthejars.nosqlunit.core.OperatingSystem;
 import com.lordofthejars.nosqlunit.core.OperatingSystemResolver;
 import com.lordofthejars.nosqlunit.core.OsNameSystemPropertyOperatingSystemResolver;
+import com.lordofthejars.nosqlunit.core.ProcessOutputPump;
+import com.lordofthejars.nosqlunit.core.ReadinessProbe;
+import com.lordofthejars.nosqlunit.core.SeedTemplate;
 import com.lordofthejars.nosqlunit.env.SystemEnvironmentVariables;
 
 public class ManagedMongoDbLifecycleManager extends AbstractLifecycleManager {
@@ -52,8 +57,14 @@ public class ManagedMongoDbLifecycleManager extends AbstractLifecycleManager {
 	protected static final String MONGODB_EXECUTABLE_W = "mongod.exe";
 	protected static final int DEFAULT_PORT = 27017;
 
+	static final String ENGINE = "mongodb";
+
+	private static final long STOP_TIMEOUT_SECONDS = 30;
+
 	private String mongodPath = SystemEnvironmentVariables.getEnvironmentOrPropertyVariable("MONGO_HOME");
 	private int port = DEFAULT_PORT;
+
+	private SeedTemplate seedTemplate;
 	
 	private String targetPath = DEFAULT_MONGO_TARGET_PATH;
 	private String dbRelativePath = DEFAULT_MONGO_DBPATH;
@@ -72,6 +83,14 @@ public class ManagedMongoDbLifecycleManager extends AbstractLifecycleManager {
 	private MongoDbLowLevelOps mongoDbLowLevelOps = MongoDbLowLevelOpsFactory.getSingletonInstance();
 
 	private ProcessRunnable processRunnable;
+
+	private final Runnable seedTemplateCapture = new Runnable() {
+
+		@Override
+		public void run() {
+			captureSeedTemplate();
+		}
+	};
 	
 	@Override
 	public String getHost() {
@@ -79,10 +98,24 @@ public class ManagedMongoDbLifecycleManager extends AbstractLifecycleManager {
 	}
 
 	@Override
-	public int getPort() {
+	public synchronized int getPort() {
+		if (EphemeralPorts.isAuto(this.port)) {
+			this.port = EphemeralPorts.allocate();
+			EphemeralPorts.publish(ENGINE, this.targetPath, this.port);
+		}
 		return this.port;
 	}
 
+	@Override
+	protected boolean isShareableAcrossProcesses() {
+		return true;
+	}
+
+	@Override
+	protected Process getServerProcess() {
+		return processRunnable == null ? null : processRunnable.getProcess();
+	}
+
 	@Override
 	public void doStart() throws Throwable {
 		
@@ -91,6 +124,7 @@ public class ManagedMongoDbLifecycleManager extends AbstractLifecycleManager {
 		File dbPath = ensureDbPathDoesNotExitsAndReturnCompositePath();
 
 		if (dbPath.mkdirs()) {
+			cloneSeedTemplate(dbPath);
 			startMongoDBAsADaemon();
 			boolean isServerUp = assertThatConnectionToMongoDbIsPossible();
 
@@ -101,6 +135,8 @@ public class ManagedMongoDbLifecycleManager extends AbstractLifecycleManager {
 								+ " server at /127.0.0.1:"+port);
 			}
 
+			awaitSeeding();
+
 		} else {
 			throw new IllegalStateException("Db Path " + dbPath
 					+ " could not be created.");
@@ -115,6 +151,9 @@ public class ManagedMongoDbLifecycleManager extends AbstractLifecycleManager {
 		LOGGER.info("Stopping {} MongoDb instance.", mongodPath);
 		
 		try {
+			if (this.seedTemplate != null) {
+				this.seedTemplate.cancelSeeding(this.seedTemplateCapture);
+			}
 			if(this.processRunnable != null) {
 				this.processRunnable.destroyProcess();
 			}
@@ -125,6 +164,52 @@ public class ManagedMongoDbLifecycleManager extends AbstractLifecycleManager {
 		LOGGER.info("Stopped {} MongoDb instance.", mongodPath);
 	}
 
+	private void cloneSeedTemplate(File dbPath) {
+		if (this.seedTemplate != null && this.seedTemplate.cloneInto(dbPath)) {
+			LOGGER.info("Cloned seed template {} into {}.", this.seedTemplate.getTemplateDirectory(), dbPath);
+		}
+	}
+
+	private void awaitSeeding() {
+		if (this.seedTemplate != null && !isSharedAcrossProcesses()
+				&& this.seedTemplate.awaitSeeding(this.seedTemplateCapture)) {
+			LOGGER.info("Seed template {} will be captured once its seed datasets are loaded.",
+					this.seedTemplate.getTemplateDirectory());
+		}
+	}
+
+	/**
+	 * Restarts MongoDb once seed datasets have been loaded, so its data files
+	 * are consistent when they are stored as template.
+	 */
+	private void captureSeedTemplate() {
+
+		Process process = this.processRunnable.process;
+		this.processRunnable.destroyProcess();
+
+		try {
+			if (process != null && ReadinessProbe.processTerminated(process).awaitReadiness(
+					STOP_TIMEOUT_SECONDS, TimeUnit.SECONDS)) {
+				this.seedTemplate.captureIfNotPrepared(new File(targetPath + File.separatorChar + dbRelativePath));
+				LOGGER.info("Captured seed template {}.", this.seedTemplate.getTemplateDirectory());
+			} else {
+				LOGGER.warn("Seed template {} not captured because MongoDb did not stop in {} seconds.",
+						this.seedTemplate.getTemplateDirectory(), STOP_TIMEOUT_SECONDS);
+			}
+
+			startMongoDBAsADaemon();
+
+			if (!assertThatConnectionToMongoDbIsPossible()) {
+				throw new IllegalStateException("Couldn't establish a connection with " + this.mongodPath
+						+ " server at /127.0.0.1:" + port + " after capturing seed template.");
+			}
+		} catch (InterruptedException e) {
+			throw new IllegalStateException(e);
+		} catch (UnknownHostException e) {
+			throw new IllegalStateException(e);
+		}
+	}
+
 
 	private List<String> startMongoDBAsADaemon() throws InterruptedException {
         CountDownLatch processIsReady = new CountDownLatch(1);
@@ -150,7 +235,7 @@ public class ManagedMongoDbLifecycleManager extends AbstractLifecycleManager {
 		programAndArguments.add(DBPATH_ARGUMENT_NAME);
 		programAndArguments.add(dbRelativePath);
 		programAndArguments.add(PORT_ARGUMENT_NAME);
-		programAndArguments.add(Integer.toString(port));
+		programAndArguments.add(Integer.toString(getPort()));
 		programAndArguments.add(LOGPATH_ARGUMENT_NAME);
 		programAndArguments.add(logRelativePath);
 		programAndArguments.add(journalingArgument());
@@ -252,6 +337,10 @@ public class ManagedMongoDbLifecycleManager extends AbstractLifecycleManager {
 	public void setPort(int port) {
 		this.port = port;
 	}
+
+	public void setSeedTemplate(SeedTemplate seedTemplate) {
+		this.seedTemplate = seedTemplate;
+	}
 	
 	public void setJournaling(boolean journaling) {
 		this.journaling = journaling;
@@ -297,6 +386,7 @@ public class ManagedMongoDbLifecycleManager extends AbstractLifecycleManager {
         private List<String> consoleOutput;
 
         private Process process;
+        private ProcessOutputPump outputPump;
         
         public ProcessRunnable(CountDownLatch processIsReady) {
             this.processIsReady = processIsReady;
@@ -306,7 +396,7 @@ public class ManagedMongoDbLifecycleManager extends AbstractLifecycleManager {
         public void run() {
             try {
             	process = startProcess();
-                //consoleOutput = getConsoleOutput(process);
+                outputPump = ProcessOutputPump.start(process);
             } catch (IOException e) {
                 throw prepareException(e);
             } finally {
@@ -316,6 +406,8 @@ public class ManagedMongoDbLifecycleManager extends AbstractLifecycleManager {
             try {
             	process.waitFor();
                 if (process.exitValue() != 0) {
+                    outputPump.awaitEnd(1, TimeUnit.SECONDS);
+                    consoleOutput = outputPump.getLines();
                     LOGGER.info(
                             "Mongodb ["
                                     + mongodPath
@@ -334,6 +426,10 @@ public class ManagedMongoDbLifecycleManager extends AbstractLifecycleManager {
 
         }
 
+        public Process getProcess() {
+        	return process;
+        }
+
         public void destroyProcess() {
         	if(this.process != null) {
         		this.process.destroy();
@@ -358,10 +454,6 @@ public class ManagedMongoDbLifecycleManager extends AbstractLifecycleManager {
     		return commandLineExecutor.startProcessInDirectoryAndArguments(
     				targetPath, buildOperationSystemProgramAndArguments());
     	}
-        
-        private List<String> getConsoleOutput(Process pwd) throws IOException {
-    		return commandLineExecutor.getConsoleOutput(pwd);
-    	}
     }
 
 }
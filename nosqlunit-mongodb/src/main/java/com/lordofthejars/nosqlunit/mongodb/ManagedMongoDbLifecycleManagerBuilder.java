@@ -1,5 +1,9 @@
 package com.lordofthejars.nosqlunit.mongodb;
 
+import java.io.File;
+
+import com.lordofthejars.nosqlunit.core.EphemeralPorts;
+import com.lordofthejars.nosqlunit.core.SeedTemplate;
 
 public class ManagedMongoDbLifecycleManagerBuilder {
 
@@ -23,6 +27,11 @@ public class ManagedMongoDbLifecycleManagerBuilder {
 			return this;
 		}
 
+		/**
+		 * @param port
+		 *            port of MongoDb server, or {@link EphemeralPorts#AUTO} to
+		 *            start it on a free port.
+		 */
 		public ManagedMongoDbLifecycleManagerBuilder port(int port) {
 			this.managedMongoDbLifecycleManager.setPort(port);
 			return this;
@@ -48,6 +57,20 @@ public class ManagedMongoDbLifecycleManagerBuilder {
 			return this;
 		}
 
+		/**
+		 * @param templatePath
+		 *            directory where templates cloned as db path before
+		 *            starting MongoDb are stored.
+		 * @param seedDataSets
+		 *            classpath locations of base fixtures. Template is captured
+		 *            once a rule has loaded them, and prepared again when they
+		 *            change. Without them, template must be prepared beforehand.
+		 */
+		public ManagedMongoDbLifecycleManagerBuilder seedTemplate(String templatePath, String... seedDataSets) {
+			this.managedMongoDbLifecycleManager.setSeedTemplate(SeedTemplate.of(new File(templatePath), seedDataSets));
+			return this;
+		}
+
 		public ManagedMongoDbLifecycleManagerBuilder shardServer() {
 			this.managedMongoDbLifecycleManager.setShardServer(true);
 			return this;
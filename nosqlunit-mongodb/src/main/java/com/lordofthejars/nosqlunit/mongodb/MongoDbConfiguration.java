@@ -4,6 +4,8 @@ import com.lordofthejars.nosqlunit.core.AbstractJsr330Configuration;
 import com.mongodb.MongoClient;
 import com.mongodb.WriteConcern;
 
+import java.util.concurrent.Callable;
+
 public final class MongoDbConfiguration extends AbstractJsr330Configuration {
 	private static final String DEFAULT_HOST = "localhost";
 	private static final int DEFAULT_PORT = 27017;
@@ -16,6 +18,7 @@ public final class MongoDbConfiguration extends AbstractJsr330Configuration {
 	private int port = DEFAULT_PORT;
 	
 	private MongoClient mongo;
+	private Callable<MongoClient> mongoFactory;
 	
 	private WriteConcern writeConcern = WriteConcern.SAFE;
 	
@@ -86,7 +89,25 @@ public final class MongoDbConfiguration extends AbstractJsr330Configuration {
 		this.mongo = mongo;
 	}
 	
-	public MongoClient getMongo() {
+	/**
+	 * Mongo client is created by given factory when it is first got, so
+	 * connection details only known once the server has been started, like
+	 * automatic ports, can be resolved then.
+	 */
+	void setMongoFactory(Callable<MongoClient> mongoFactory) {
+		this.mongoFactory = mongoFactory;
+	}
+	
+	public synchronized MongoClient getMongo() {
+		if (mongo == null && mongoFactory != null) {
+			try {
+				mongo = mongoFactory.call();
+			} catch (RuntimeException e) {
+				throw e;
+			} catch (Exception e) {
+				throw new IllegalStateException(e);
+			}
+		}
 		return mongo;
 	}
 	
@@ -1,10 +1,12 @@
 package com.lordofthejars.nosqlunit.mongodb;
 
+import com.lordofthejars.nosqlunit.core.EphemeralPorts;
 import com.mongodb.MongoClient;
 import com.mongodb.MongoCredential;
 import com.mongodb.ServerAddress;
 
 import java.util.Arrays;
+import java.util.concurrent.Callable;
 
 
 public class MongoDbConfigurationBuilder {
@@ -14,24 +16,39 @@ public class MongoDbConfigurationBuilder {
 	}
 	
 	private final MongoDbConfiguration mongoDbConfiguration;
+	private String managedServer;
 	
 	private MongoDbConfigurationBuilder() {
 		mongoDbConfiguration = new MongoDbConfiguration();
 	}
 	
 	public MongoDbConfiguration build() {
-		MongoClient mongo = null;
+		if (EphemeralPorts.isAuto(this.mongoDbConfiguration.getPort())) {
+			this.mongoDbConfiguration.setMongoFactory(new Callable<MongoClient>() {
+
+				@Override
+				public MongoClient call() {
+					mongoDbConfiguration.setPort(EphemeralPorts.resolve(ManagedMongoDbLifecycleManager.ENGINE,
+							managedServer, mongoDbConfiguration.getPort()));
+					return newMongoClient();
+				}
+			});
+		} else {
+			this.mongoDbConfiguration.setMongo(newMongoClient());
+		}
+
+		return mongoDbConfiguration;
+	}
+
+	private MongoClient newMongoClient() {
 		if(this.mongoDbConfiguration.isAuthenticateParametersSet()) {
 			MongoCredential credential = MongoCredential.createCredential(this.mongoDbConfiguration.getUsername(),
 					this.mongoDbConfiguration.getDatabaseName(),
 					this.mongoDbConfiguration.getPassword().toCharArray());
-			mongo = new MongoClient(new ServerAddress(this.mongoDbConfiguration.getHost(), this.mongoDbConfiguration.getPort()), Arrays.asList(credential));
+			return new MongoClient(new ServerAddress(this.mongoDbConfiguration.getHost(), this.mongoDbConfiguration.getPort()), Arrays.asList(credential));
 		} else {
-			mongo = new MongoClient(this.mongoDbConfiguration.getHost(), this.mongoDbConfiguration.getPort());
+			return new MongoClient(this.mongoDbConfiguration.getHost(), this.mongoDbConfiguration.getPort());
 		}
-		this.mongoDbConfiguration.setMongo(mongo);
-
-		return mongoDbConfiguration;
 	}
 	
 	public MongoDbConfigurationBuilder databaseName(String databaseName) {
@@ -39,11 +56,27 @@ public class MongoDbConfigurationBuilder {
 		return this;
 	}
 
+	/**
+	 * @param port
+	 *            port of MongoDb server, or {@link EphemeralPorts#AUTO} to
+	 *            connect to the managed server started with an automatic port.
+	 */
 	public MongoDbConfigurationBuilder port(int port) {
 		mongoDbConfiguration.setPort(port);
 		return this;
 	}
 	
+	/**
+	 * @param targetPath
+	 *            target path of the managed server to connect to when port is
+	 *            {@link EphemeralPorts#AUTO}, only needed when several
+	 *            MongoDb servers are started with automatic ports.
+	 */
+	public MongoDbConfigurationBuilder managedServer(String targetPath) {
+		this.managedServer = targetPath;
+		return this;
+	}
+	
 	public MongoDbConfigurationBuilder username(String username) {
 		mongoDbConfiguration.setUsername(username);
 		return this;
@@ -0,0 +1,51 @@
+package com.lordofthejars.nosqlunit.mongodb;
+
+import com.lordofthejars.nosqlunit.core.CompiledDataSetFormat;
+import com.lordofthejars.nosqlunit.core.DataSetCompiler;
+import com.lordofthejars.nosqlunit.core.IOUtils;
+import org.bson.BsonBinaryWriter;
+import org.bson.Document;
+import org.bson.codecs.DocumentCodec;
+import org.bson.codecs.EncoderContext;
+import org.bson.io.BasicOutputBuffer;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+
+/**
+ * Compiles MongoDB JSON datasets into a single BSON document, keeping the
+ * types given by MongoDB extended JSON, so they are decoded by
+ * {@link DocumentDataSetParser} without parsing JSON.
+ */
+public class MongoDbDataSetCompiler implements DataSetCompiler {
+
+    private static final DocumentCodec DOCUMENT_CODEC = new DocumentCodec();
+
+    @Override
+    public String getName() {
+        return "mongodb";
+    }
+
+    @Override
+    public CompiledDataSetFormat getFormat() {
+        return CompiledDataSetFormat.BSON;
+    }
+
+    @Override
+    public void compile(InputStream dataset, OutputStream compiledDataSet) throws IOException {
+        Document parsedData = Document.parse(IOUtils.readFullStream(dataset));
+
+        BasicOutputBuffer outputBuffer = new BasicOutputBuffer();
+        BsonBinaryWriter bsonWriter = new BsonBinaryWriter(outputBuffer);
+
+        try {
+            DOCUMENT_CODEC.encode(bsonWriter, parsedData, EncoderContext.builder().build());
+            outputBuffer.pipe(compiledDataSet);
+        } finally {
+            bsonWriter.close();
+            outputBuffer.close();
+        }
+    }
+
+}
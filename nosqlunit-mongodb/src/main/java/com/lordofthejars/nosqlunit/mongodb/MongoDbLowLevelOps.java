@@ -1,7 +1,10 @@
 package com.lordofthejars.nosqlunit.mongodb;
 
+import com.lordofthejars.nosqlunit.core.ReadinessProbe;
 import com.mongodb.MongoClient;
+import com.mongodb.MongoClientOptions;
 import com.mongodb.MongoException;
+import com.mongodb.ServerAddress;
 import com.mongodb.client.MongoDatabase;
 import com.mongodb.util.JSON;
 import org.bson.Document;
@@ -14,8 +17,8 @@ public class MongoDbLowLevelOps {
 
     private static final String MEMBERS_TOKEN = "members";
 
-    private static final int WAIT_TIME = 6;
-    private static final int MAX_RETRIES = 20;
+    private static final int TIMEOUT_SECONDS = 120;
+    private static final int SERVER_SELECTION_TIMEOUT_MILLIS = 1000;
 
     private static final String STATE_TOKEN = "state";
 
@@ -36,39 +39,51 @@ public class MongoDbLowLevelOps {
     public void waitUntilReplicaSetBecomeStable(MongoClient mongoClient,
                                                 int numberOfServersStable, String... authenticateParameters) {
 
-        boolean isConfigurationSpread = false;
+        ReplicaSetStableProbe replicaSetStableProbe = new ReplicaSetStableProbe(mongoClient, numberOfServersStable,
+                authenticateParameters);
 
-        int retries = 0;
+        boolean isConfigurationSpread;
 
-        while (!isConfigurationSpread) {
+        try {
+            isConfigurationSpread = replicaSetStableProbe.awaitReadiness(TIMEOUT_SECONDS, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            throw new IllegalStateException(e);
+        }
 
-            try {
-                TimeUnit.SECONDS.sleep(WAIT_TIME);
-            } catch (InterruptedException e) {
-                throw new IllegalStateException(e);
-            }
+        if (!isConfigurationSpread) {
+            mongoClient.close();
+            throw new IllegalStateException(
+                    "After "
+                            + TIMEOUT_SECONDS
+                            + " seconds replica set scenario could not be started and configured. Last status message was: "
+                            + JSON.serialize(replicaSetStableProbe.lastStatus));
+        }
 
-            Document status = null;
-            try {
-                status = getStatus(mongoClient, authenticateParameters);
-                isConfigurationSpread = isSystemStable(status,
-                        numberOfServersStable);
-            } catch (MongoException e) {
-                status = new Document("MongoException", "can't find a master");
-                isConfigurationSpread = false;
-            }
+    }
 
-            retries++;
+    private class ReplicaSetStableProbe extends ReadinessProbe {
 
-            if (retries > MAX_RETRIES && !isConfigurationSpread) {
-                mongoClient.close();
-                throw new IllegalStateException(
-                        "After "
-                                + (WAIT_TIME * MAX_RETRIES)
-                                + " seconds replica set scenario could not be started and configured. Last status message was: "
-                                + JSON.serialize(status));
-            }
+        private final MongoClient mongoClient;
+        private final int numberOfServersStable;
+        private final String[] authenticateParameters;
+
+        private volatile Document lastStatus;
 
+        ReplicaSetStableProbe(MongoClient mongoClient, int numberOfServersStable, String... authenticateParameters) {
+            this.mongoClient = mongoClient;
+            this.numberOfServersStable = numberOfServersStable;
+            this.authenticateParameters = authenticateParameters;
+        }
+
+        @Override
+        protected boolean probe() {
+            try {
+                lastStatus = getStatus(mongoClient, authenticateParameters);
+                return isSystemStable(lastStatus, numberOfServersStable);
+            } catch (MongoException e) {
+                lastStatus = new Document("MongoException", "can't find a master");
+                throw e;
+            }
         }
 
     }
@@ -119,28 +134,22 @@ public class MongoDbLowLevelOps {
     public boolean assertThatConnectionIsPossible(String host, int port) throws InterruptedException, UnknownHostException,
             MongoException {
 
-        int currentRetry = 0;
-        boolean connectionIsPossible = false;
+        MongoClient server = new MongoClient(new ServerAddress(host, port),
+                MongoClientOptions.builder().serverSelectionTimeout(SERVER_SELECTION_TIMEOUT_MILLIS).build());
 
-        MongoClient server = null;
         try {
-            do {
-                TimeUnit.SECONDS.sleep(WAIT_TIME);
-                server = new MongoClient(host, port);
-                MongoDatabase db = server.getDatabase("admin");
-                try {
+            final MongoDatabase db = server.getDatabase("admin");
+            return new ReadinessProbe() {
+
+                @Override
+                protected boolean probe() {
                     db.runCommand(Document.parse("{ dbStats: 1, scale: 1 }"));
-                    connectionIsPossible = true;
-                } catch (MongoException e) {
-                    currentRetry++;
+                    return true;
                 }
-            } while (!connectionIsPossible && currentRetry <= MAX_RETRIES);
+            }.awaitReadiness(TIMEOUT_SECONDS, TimeUnit.SECONDS);
         } finally {
-            if (server != null)
-                server.close();
+            server.close();
         }
-
-        return connectionIsPossible;
     }
 
     public void shutdown(String host, int port) {
@@ -1,6 +1,7 @@
 package com.lordofthejars.nosqlunit.mongodb;
 
-import com.lordofthejars.nosqlunit.core.IOUtils;
+import com.lordofthejars.nosqlunit.core.DataSetModelParser;
+import com.lordofthejars.nosqlunit.core.ParsedDataSetCache;
 import org.bson.Document;
 
 import java.io.IOException;
@@ -63,25 +64,21 @@ import java.io.InputStream;
 public class MongoFlexibleComparisonStrategy
         implements MongoComparisonStrategy {
 
+    private static final DataSetModelParser<Document> DATASET_PARSER = new DocumentDataSetParser();
+
     private String[] ignorePropertyValues = new String[0];
 
     @Override
     public boolean compare(MongoDbConnectionCallback connection, InputStream dataset) throws IOException {
-        String expectedJsonData = loadContentFromInputStream(dataset);
-        Document parsedData = parseData(expectedJsonData);
+        Document parsedData = parseData(dataset);
 
         MongoDbAssertion.flexibleAssertEquals(parsedData, ignorePropertyValues, connection.db());
 
         return true;
     }
 
-    private String loadContentFromInputStream(InputStream inputStreamContent) throws IOException {
-        return IOUtils.readFullStream(inputStreamContent);
-    }
-
-    private Document parseData(String jsonData) throws IOException {
-        Document parsedData = Document.parse(jsonData);
-        return parsedData;
+    private Document parseData(InputStream dataset) throws IOException {
+        return ParsedDataSetCache.getInstance().parse(dataset, DATASET_PARSER);
     }
 
     @Override
@@ -1,27 +1,60 @@
 package com.lordofthejars.nosqlunit.mongodb;
 
 import com.lordofthejars.nosqlunit.core.AbstractCustomizableDatabaseOperation;
+import com.lordofthejars.nosqlunit.core.CompiledDataSetDatabaseOperation;
+import com.lordofthejars.nosqlunit.core.CompiledDataSetFormat;
+import com.lordofthejars.nosqlunit.core.DatabaseOperation;
+import com.lordofthejars.nosqlunit.core.GeneratedDataSetOperation;
+import com.lordofthejars.nosqlunit.core.GeneratedRecord;
+import com.lordofthejars.nosqlunit.core.JsonDataSetReader;
+import com.lordofthejars.nosqlunit.core.NamespaceForkableDatabaseOperation;
 import com.lordofthejars.nosqlunit.core.NoSqlAssertionError;
+import com.lordofthejars.nosqlunit.core.RecordShape;
+import com.lordofthejars.nosqlunit.core.RecordLookupDatabaseOperation;
+import com.lordofthejars.nosqlunit.core.RecordStreamingDatabaseOperation;
+import com.lordofthejars.nosqlunit.core.StateTrackingDatabaseOperation;
+import com.lordofthejars.nosqlunit.core.TestNamespace;
+import com.lordofthejars.nosqlunit.core.ThreadSafeInsertionDatabaseOperation;
 import com.mongodb.MongoClient;
 import com.mongodb.MongoException;
 import com.mongodb.MongoOptions;
 import com.mongodb.client.MongoCollection;
+import com.mongodb.client.MongoCursor;
 import com.mongodb.client.MongoDatabase;
 import com.mongodb.client.MongoIterable;
 import org.bson.Document;
+import org.codehaus.jackson.JsonFactory;
+import org.codehaus.jackson.JsonGenerator;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.io.Closeable;
+import java.io.IOException;
 import java.io.InputStream;
+import java.io.Writer;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
 
-public final class MongoOperation extends AbstractCustomizableDatabaseOperation<MongoDbConnectionCallback, MongoClient> {
+public final class MongoOperation extends AbstractCustomizableDatabaseOperation<MongoDbConnectionCallback, MongoClient>
+        implements StateTrackingDatabaseOperation, NamespaceForkableDatabaseOperation,
+        GeneratedDataSetOperation, RecordStreamingDatabaseOperation, RecordLookupDatabaseOperation,
+        ThreadSafeInsertionDatabaseOperation, CompiledDataSetDatabaseOperation {
+
+    private static final String DATA = "data";
+
+    private static final String ID = "_id";
 
     private static Logger LOGGER = LoggerFactory.getLogger(MongoOperation.class);
 
+    private static final JsonFactory JSON_FACTORY = new JsonFactory();
+
     private MongoClient mongo;
 
     private MongoDbConfiguration mongoDbConfiguration;
 
+    private TestNamespace testNamespace = TestNamespace.DEFAULT_NAMESPACE;
+
     protected MongoOperation(MongoClient mongo, MongoDbConfiguration mongoDbConfiguration) {
         this.mongo = mongo;
         this.mongoDbConfiguration = mongoDbConfiguration;
@@ -29,16 +62,14 @@ public final class MongoOperation extends AbstractCustomizableDatabaseOperation<
         this.setComparisonStrategy(new DefaultComparisonStrategy());
     }
 
+    /**
+     * Mongo client of given configuration is got the first time it is used, so
+     * servers with automatic ports are resolved once they have been started.
+     */
     public MongoOperation(MongoDbConfiguration mongoDbConfiguration) {
-        try {
-            this.mongo = mongoDbConfiguration.getMongo();
-            this.mongo.setWriteConcern(mongoDbConfiguration.getWriteConcern());
-            this.mongoDbConfiguration = mongoDbConfiguration;
-            this.setInsertionStrategy(new DefaultInsertionStrategy());
-            this.setComparisonStrategy(new DefaultComparisonStrategy());
-        } catch (MongoException e) {
-            throw new IllegalArgumentException(e);
-        }
+        this.mongoDbConfiguration = mongoDbConfiguration;
+        this.setInsertionStrategy(new DefaultInsertionStrategy());
+        this.setComparisonStrategy(new DefaultComparisonStrategy());
     }
 
     @Override
@@ -61,7 +92,7 @@ public final class MongoOperation extends AbstractCustomizableDatabaseOperation<
 
                 @Override
                 public MongoClient mongoClient() {
-                    return mongo;
+                    return mongo();
                 }
             }, contentStream);
 
@@ -115,7 +146,7 @@ public final class MongoOperation extends AbstractCustomizableDatabaseOperation<
 
                 @Override
                 public MongoClient mongoClient() {
-                    return mongo;
+                    return mongo();
                 }
             }, contentStream);
             return true;
@@ -126,14 +157,225 @@ public final class MongoOperation extends AbstractCustomizableDatabaseOperation<
         }
     }
 
+    /**
+     * Uses dbHash command, which hashes content of all collections of
+     * configured database. Servers not supporting it (for example in-memory
+     * instances) are never considered clean.
+     */
+    @Override
+    public Object databaseState() {
+        try {
+            Document dbHash = getMongoDb().runCommand(new Document("dbHash", 1));
+            return dbHash.get("md5");
+        } catch (RuntimeException e) {
+            LOGGER.debug("Database state cannot be calculated.", e);
+            return null;
+        }
+    }
+
+    /**
+     * Namespace is applied as a suffix of configured database name, so tests
+     * should get their database using
+     * <code>TestNamespace.current().qualify(databaseName)</code>.
+     */
+    @Override
+    public void useNamespace(TestNamespace testNamespace) {
+        this.testNamespace = testNamespace;
+    }
+
+    /**
+     * Returned operation shares the Mongo client of this operation.
+     */
+    @Override
+    public DatabaseOperation<?> forNamespace(TestNamespace testNamespace) {
+        MongoOperation mongoOperation = new MongoOperation(mongo(), mongoDbConfiguration);
+        mongoOperation.setInsertionStrategy(this.insertionStrategy);
+        mongoOperation.setComparisonStrategy(this.comparisonStrategy);
+        mongoOperation.useNamespace(testNamespace);
+        return mongoOperation;
+    }
+
+    @Override
+    public RecordShape[] acceptedRecordShapes() {
+        return new RecordShape[] { RecordShape.DOCUMENT };
+    }
+
+    /**
+     * Records are written as documents of the collection named as template.
+     */
+    @Override
+    public void writeGeneratedRecords(RecordShape recordShape, String template, Iterator<GeneratedRecord> records,
+            Writer writer) throws IOException {
+        JsonGenerator jsonGenerator = JSON_FACTORY.createJsonGenerator(writer);
+
+        jsonGenerator.writeStartObject();
+        jsonGenerator.writeArrayFieldStart(template);
+
+        while (records.hasNext()) {
+            records.next().writeFields(jsonGenerator);
+        }
+
+        jsonGenerator.writeEndArray();
+        jsonGenerator.writeEndObject();
+        jsonGenerator.flush();
+    }
+
+    /**
+     * Expected records are read as in datasets inserted without cache, from
+     * collections defined as arrays or as objects with a data field. Compiled
+     * datasets are decoded at once.
+     */
+    @Override
+    public void readExpectedRecords(InputStream expectedData, final ExpectedRecordHandler expectedRecordHandler)
+            throws IOException {
+        if (CompiledDataSetFormat.of(expectedData) == CompiledDataSetFormat.BSON) {
+            readCompiledExpectedRecords(expectedData, expectedRecordHandler);
+            return;
+        }
+
+        ShellJsonDataSetReader dataSetReader = new ShellJsonDataSetReader(expectedData);
+
+        try {
+            String collectionName;
+
+            while ((collectionName = dataSetReader.nextField()) != null) {
+                expectedRecordHandler.collection(collectionName);
+
+                if (dataSetReader.isArrayValue()) {
+                    readExpectedCollection(dataSetReader, collectionName, expectedRecordHandler);
+                } else {
+                    dataSetReader.beginObject();
+                    String property;
+
+                    while ((property = dataSetReader.nextField()) != null) {
+                        if (DATA.equals(property)) {
+                            readExpectedCollection(dataSetReader, collectionName, expectedRecordHandler);
+                        }
+                    }
+                }
+            }
+        } finally {
+            dataSetReader.close();
+        }
+    }
+
+    private void readCompiledExpectedRecords(InputStream expectedData, ExpectedRecordHandler expectedRecordHandler)
+            throws IOException {
+        Document expectedDocument;
+
+        try {
+            expectedDocument = new DocumentDataSetParser().parse(expectedData);
+        } finally {
+            expectedData.close();
+        }
+
+        for (String collectionName : expectedDocument.keySet()) {
+            expectedRecordHandler.collection(collectionName);
+
+            Object collection = expectedDocument.get(collectionName);
+            List<?> records = collection instanceof List ? (List<?>) collection
+                    : ((Document) collection).get(DATA, List.class);
+
+            if (records != null) {
+                for (Object record : records) {
+                    expectedRecordHandler.record(collectionName, (Document) record);
+                }
+            }
+        }
+    }
+
+    private void readExpectedCollection(ShellJsonDataSetReader dataSetReader, final String collectionName,
+            final ExpectedRecordHandler expectedRecordHandler) throws IOException {
+        dataSetReader.readRecords(new JsonDataSetReader.RecordHandler() {
+
+            @Override
+            public void record(String record) {
+                expectedRecordHandler.record(collectionName, Document.parse(record));
+            }
+        });
+    }
+
+    @Override
+    public Iterator<Map<String, Object>> storedRecords(String collection) {
+        final MongoCursor<Document> documents = getMongoDb().getCollection(collection).find().iterator();
+
+        return new StoredRecordsIterator() {
+
+            @Override
+            public void close() {
+                documents.close();
+            }
+
+            @Override
+            public boolean hasNext() {
+                boolean hasNext = documents.hasNext();
+
+                if (!hasNext) {
+                    documents.close();
+                }
+
+                return hasNext;
+            }
+
+            @Override
+            public Map<String, Object> next() {
+                return documents.next();
+            }
+
+            @Override
+            public void remove() {
+                throw new UnsupportedOperationException();
+            }
+        };
+    }
+
+    @Override
+    public long countStoredRecords(String collection) {
+        return getMongoDb().getCollection(collection).count();
+    }
+
+    @Override
+    public Object recordKey(Map<String, Object> record) {
+        return record.get(ID);
+    }
+
+    @Override
+    public Map<String, Object> storedRecord(String collection, Object key) {
+        return getMongoDb().getCollection(collection).find(new Document(ID, key)).first();
+    }
+
+    private interface StoredRecordsIterator extends Iterator<Map<String, Object>>, Closeable {
+
+        @Override
+        void close();
+
+    }
+
     private MongoDatabase getMongoDb() {
-        MongoDatabase db = mongo.getDatabase(this.mongoDbConfiguration.getDatabaseName());
+        MongoDatabase db = mongo().getDatabase(testNamespace.qualify(this.mongoDbConfiguration.getDatabaseName()));
         return db;
     }
 
+    private synchronized MongoClient mongo() {
+        if (this.mongo == null) {
+            try {
+                this.mongo = mongoDbConfiguration.getMongo();
+                this.mongo.setWriteConcern(mongoDbConfiguration.getWriteConcern());
+            } catch (MongoException e) {
+                throw new IllegalArgumentException(e);
+            }
+        }
+        return this.mongo;
+    }
+
+    @Override
+    public CompiledDataSetFormat[] readableCompiledFormats() {
+        return new CompiledDataSetFormat[] { CompiledDataSetFormat.BSON };
+    }
+
     @Override
     public MongoClient connectionManager() {
-        return mongo;
+        return mongo();
     }
 
 }
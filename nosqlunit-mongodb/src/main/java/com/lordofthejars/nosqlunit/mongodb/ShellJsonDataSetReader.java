@@ -0,0 +1,330 @@
+package com.lordofthejars.nosqlunit.mongodb;
+
+import java.io.BufferedReader;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.PushbackReader;
+
+import com.lordofthejars.nosqlunit.core.JsonDataSetReader;
+
+/**
+ * Pull reader over a MongoDB dataset with the same contract as
+ * {@link JsonDataSetReader}. Values are not parsed but captured as raw text,
+ * so records are handed to <code>Document.parse</code> as they are written and
+ * streamed datasets accept the same Extended JSON and shell syntax, like
+ * <code>ObjectId(...)</code>, <code>ISODate(...)</code>,
+ * <code>NumberLong(...)</code> or regular expressions, as parsed ones.
+ *
+ * Comments are dropped, and field names may be quoted with double or single
+ * quotes or unquoted.
+ */
+class ShellJsonDataSetReader implements Closeable {
+
+    private static final int END_OF_STREAM = -1;
+
+    private final PushbackReader reader;
+    private boolean pendingValue = false;
+
+    ShellJsonDataSetReader(InputStream dataset) throws IOException {
+        this.reader = new PushbackReader(new BufferedReader(new InputStreamReader(dataset, "UTF-8")), 2);
+        expect('{');
+    }
+
+    /**
+     * @return name of the next field of current object, or null if there are
+     *         no more fields.
+     */
+    public String nextField() throws IOException {
+        skipPendingValue();
+
+        int character = nextSignificant();
+
+        if (character == ',') {
+            character = nextSignificant();
+        }
+
+        if (character == '}') {
+            return null;
+        }
+
+        if (character == END_OF_STREAM) {
+            throw new IOException("Expected a field or end of object but found end of dataset.");
+        }
+
+        String fieldName = fieldName(character);
+
+        expect(':');
+        pendingValue = true;
+
+        return fieldName;
+    }
+
+    public boolean isArrayValue() throws IOException {
+        return peekSignificant() == '[';
+    }
+
+    public boolean isObjectValue() throws IOException {
+        return peekSignificant() == '{';
+    }
+
+    /**
+     * Enters current object value, so its fields are read with
+     * {@link #nextField()}.
+     */
+    public void beginObject() throws IOException {
+        expect('{');
+        pendingValue = false;
+    }
+
+    /**
+     * Hands each element of current array value to given handler, reading
+     * the next one only after the previous one has been handled.
+     *
+     * @return number of records read.
+     */
+    public long readRecords(JsonDataSetReader.RecordHandler recordHandler) throws IOException {
+        expect('[');
+        pendingValue = false;
+
+        long numberOfRecords = 0;
+
+        while (true) {
+            int character = nextSignificant();
+
+            if (character == ',') {
+                character = nextSignificant();
+            }
+
+            if (character == ']') {
+                return numberOfRecords;
+            }
+
+            if (character == END_OF_STREAM) {
+                throw new IOException("Expected a record or end of array but found end of dataset.");
+            }
+
+            reader.unread(character);
+            recordHandler.record(rawValue());
+            numberOfRecords++;
+        }
+    }
+
+    /**
+     * @return current value, with all its children, as written in dataset.
+     */
+    public String readValueAsJson() throws IOException {
+        pendingValue = false;
+        return rawValue();
+    }
+
+    public void skipValue() throws IOException {
+        skipPendingValue();
+    }
+
+    @Override
+    public void close() throws IOException {
+        reader.close();
+    }
+
+    private void skipPendingValue() throws IOException {
+        if (pendingValue) {
+            rawValue();
+            pendingValue = false;
+        }
+    }
+
+    /**
+     * Captures a value until the comma or closing bracket ending it at its
+     * own nesting level, which is not consumed.
+     */
+    private String rawValue() throws IOException {
+        StringBuilder value = new StringBuilder();
+        int depth = 0;
+
+        skipWhitespacesAndComments();
+
+        while (true) {
+            int character = reader.read();
+
+            if (character == END_OF_STREAM) {
+                if (depth == 0 && value.length() > 0) {
+                    return value.toString().trim();
+                }
+                throw new IOException("Unexpected end of dataset reading a value.");
+            }
+
+            if (depth == 0 && (character == ',' || character == '}' || character == ']')) {
+                reader.unread(character);
+                return value.toString().trim();
+            }
+
+            switch (character) {
+            case '{':
+            case '[':
+            case '(':
+                depth++;
+                value.append((char) character);
+                break;
+            case '}':
+            case ']':
+            case ')':
+                depth--;
+                value.append((char) character);
+                break;
+            case '"':
+            case '\'':
+                appendQuoted(value, (char) character);
+                break;
+            case '/':
+                if (!skipComment()) {
+                    appendQuoted(value, '/');
+                }
+                break;
+            default:
+                value.append((char) character);
+            }
+        }
+    }
+
+    private String fieldName(int firstCharacter) throws IOException {
+        if (firstCharacter == '"' || firstCharacter == '\'') {
+            StringBuilder quotedName = new StringBuilder();
+            appendQuoted(quotedName, (char) firstCharacter);
+            return unquote(quotedName.toString());
+        }
+
+        StringBuilder name = new StringBuilder().append((char) firstCharacter);
+        int character;
+
+        while ((character = reader.read()) != END_OF_STREAM && character != ':'
+                && !Character.isWhitespace(character)) {
+            name.append((char) character);
+        }
+
+        if (character != END_OF_STREAM) {
+            reader.unread(character);
+        }
+
+        return name.toString();
+    }
+
+    private String unquote(String quoted) {
+        StringBuilder unquoted = new StringBuilder();
+
+        for (int i = 1; i < quoted.length() - 1; i++) {
+            char character = quoted.charAt(i);
+            if (character == '\\' && i + 1 < quoted.length() - 1) {
+                character = quoted.charAt(++i);
+            }
+            unquoted.append(character);
+        }
+
+        return unquoted.toString();
+    }
+
+    /**
+     * Appends a string or a regular expression literal, with its delimiters,
+     * keeping escaped characters as they are.
+     */
+    private void appendQuoted(StringBuilder value, char delimiter) throws IOException {
+        value.append(delimiter);
+        boolean escaped = false;
+
+        while (true) {
+            int character = reader.read();
+
+            if (character == END_OF_STREAM) {
+                throw new IOException("Unexpected end of dataset reading a quoted value.");
+            }
+
+            value.append((char) character);
+
+            if (escaped) {
+                escaped = false;
+            } else if (character == '\\') {
+                escaped = true;
+            } else if (character == delimiter) {
+                return;
+            }
+        }
+    }
+
+    private void expect(char expected) throws IOException {
+        int character = nextSignificant();
+
+        if (character != expected) {
+            throw new IOException("Expected " + expected + " but found "
+                    + (character == END_OF_STREAM ? "end of dataset" : String.valueOf((char) character)) + ".");
+        }
+    }
+
+    private int peekSignificant() throws IOException {
+        int character = nextSignificant();
+
+        if (character != END_OF_STREAM) {
+            reader.unread(character);
+        }
+
+        return character;
+    }
+
+    private int nextSignificant() throws IOException {
+        skipWhitespacesAndComments();
+        return reader.read();
+    }
+
+    private void skipWhitespacesAndComments() throws IOException {
+        while (true) {
+            int character = reader.read();
+
+            if (character == END_OF_STREAM) {
+                return;
+            }
+
+            if (character == '/') {
+                if (skipComment()) {
+                    continue;
+                }
+            }
+
+            if (!Character.isWhitespace(character)) {
+                reader.unread(character);
+                return;
+            }
+        }
+    }
+
+    /**
+     * Called after a slash has been read.
+     *
+     * @return true if it started a comment, which has been skipped. Otherwise
+     *         the character following the slash is left unread.
+     */
+    private boolean skipComment() throws IOException {
+        int character = reader.read();
+
+        if (character == '/') {
+            while ((character = reader.read()) != END_OF_STREAM && character != '\n') {
+                // skips line comment
+            }
+            return true;
+        }
+
+        if (character == '*') {
+            int previous = 0;
+            while ((character = reader.read()) != END_OF_STREAM && !(previous == '*' && character == '/')) {
+                previous = character;
+            }
+            return true;
+        }
+
+        if (character != END_OF_STREAM) {
+            reader.unread(character);
+        }
+
+        return false;
+    }
+
+}
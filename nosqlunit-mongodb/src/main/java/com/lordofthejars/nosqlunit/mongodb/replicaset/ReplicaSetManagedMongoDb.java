@@ -1,5 +1,6 @@
 package com.lordofthejars.nosqlunit.mongodb.replicaset;
 
+import com.lordofthejars.nosqlunit.core.TopologyLauncher;
 import com.lordofthejars.nosqlunit.mongodb.ManagedMongoDbLifecycleManager;
 import com.lordofthejars.nosqlunit.mongodb.MongoDbCommands;
 import com.lordofthejars.nosqlunit.mongodb.MongoDbLowLevelOps;
@@ -153,12 +154,7 @@ public class ReplicaSetManagedMongoDb extends ExternalResource {
 
         LOGGER.info("Stopping Replica Set servers");
 
-        for (ManagedMongoDbLifecycleManager managedMongoDbLifecycleManager : replicaSetGroup
-                .getServers()) {
-            if (isServerStarted(managedMongoDbLifecycleManager)) {
-                managedMongoDbLifecycleManager.stopEngine();
-            }
-        }
+        new TopologyLauncher().stage(replicaSetGroup.getServers()).stop();
 
         LOGGER.info("Stopped Replica Set servers");
     }
@@ -167,25 +163,11 @@ public class ReplicaSetManagedMongoDb extends ExternalResource {
 
         LOGGER.info("Starting Replica Set servers");
 
-        for (ManagedMongoDbLifecycleManager managedMongoDbLifecycleManager : replicaSetGroup
-                .getServers()) {
-            if (isServerStopped(managedMongoDbLifecycleManager)) {
-                managedMongoDbLifecycleManager.startEngine();
-            }
-        }
+        new TopologyLauncher().stage(replicaSetGroup.getServers()).start();
 
         LOGGER.info("Started Replica Set servers");
     }
 
-    private boolean isServerStarted(ManagedMongoDbLifecycleManager managedMongoDbLifecycleManager) {
-        return managedMongoDbLifecycleManager.isReady();
-    }
-
-    private boolean isServerStopped(
-            ManagedMongoDbLifecycleManager managedMongoDbLifecycleManager) {
-        return !managedMongoDbLifecycleManager.isReady();
-    }
-
     private MongoClient getAvailableServersMongoClient()
             throws UnknownHostException {
 
@@ -11,6 +11,7 @@ import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -20,6 +21,7 @@ import com.lordofthejars.nosqlunit.core.CommandLineExecutor;
 import com.lordofthejars.nosqlunit.core.OperatingSystem;
 import com.lordofthejars.nosqlunit.core.OperatingSystemResolver;
 import com.lordofthejars.nosqlunit.core.OsNameSystemPropertyOperatingSystemResolver;
+import com.lordofthejars.nosqlunit.core.ProcessOutputPump;
 import com.lordofthejars.nosqlunit.env.SystemEnvironmentVariables;
 import com.lordofthejars.nosqlunit.mongodb.MongoDbLowLevelOps;
 import com.lordofthejars.nosqlunit.mongodb.MongoDbLowLevelOpsFactory;
@@ -260,6 +262,7 @@ private static final Logger LOGGER = LoggerFactory.getLogger(ManagedMongosLifecy
         private List<String> consoleOutput;
 
         private Process process;
+        private ProcessOutputPump outputPump;
         
         public ProcessRunnable(CountDownLatch processIsReady) {
             this.processIsReady = processIsReady;
@@ -269,7 +272,7 @@ private static final Logger LOGGER = LoggerFactory.getLogger(ManagedMongosLifecy
         public void run() {
             try {
             	process = startProcess();
-                //consoleOutput = getConsoleOutput(process);
+                outputPump = ProcessOutputPump.start(process);
             } catch (IOException e) {
                 throw prepareException(e);
             } finally {
@@ -279,6 +282,8 @@ private static final Logger LOGGER = LoggerFactory.getLogger(ManagedMongosLifecy
             try {
             	process.waitFor();
                 if (process.exitValue() != 0) {
+                    outputPump.awaitEnd(1, TimeUnit.SECONDS);
+                    consoleOutput = outputPump.getLines();
                     LOGGER.info(
                             "Mongos ["
                                     + mongosPath
@@ -317,10 +322,6 @@ private static final Logger LOGGER = LoggerFactory.getLogger(ManagedMongosLifecy
     		return commandLineExecutor.startProcessInDirectoryAndArguments(
     				targetPath, buildOperationSystemProgramAndArguments());
     	}
-        
-        private List<String> getConsoleOutput(Process pwd) throws IOException {
-    		return commandLineExecutor.getConsoleOutput(pwd);
-    	}
     }
 
 }
@@ -76,6 +76,22 @@ public class ShardedGroup {
 	public AbstractLifecycleManager getStartingServer(int port) {
 		return getServerByPortAndState(port, false);
 	}
+
+	public void stopServer(int port) {
+		AbstractLifecycleManager stoppingServer = getStoppingServer(port);
+
+		if (stoppingServer != null) {
+			stoppingServer.stopEngine();
+		}
+	}
+
+	public void startServer(int port) throws Throwable {
+		AbstractLifecycleManager startingServer = getStartingServer(port);
+
+		if (startingServer != null) {
+			startingServer.startEngine();
+		}
+	}
 	
 	public boolean isOnlyShards() {
 		return this.getShards().size() > 0 && this.getReplicaSets().size() == 0;
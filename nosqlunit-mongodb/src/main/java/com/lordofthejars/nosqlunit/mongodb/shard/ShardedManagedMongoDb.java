@@ -1,6 +1,7 @@
 package com.lordofthejars.nosqlunit.mongodb.shard;
 
 import java.net.UnknownHostException;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.HashSet;
 import java.util.List;
@@ -12,7 +13,7 @@ import org.junit.rules.ExternalResource;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
-import com.lordofthejars.nosqlunit.core.AbstractLifecycleManager;
+import com.lordofthejars.nosqlunit.core.TopologyLauncher;
 import com.lordofthejars.nosqlunit.mongodb.ManagedMongoDbLifecycleManager;
 import com.lordofthejars.nosqlunit.mongodb.MongoDbCommands;
 import com.lordofthejars.nosqlunit.mongodb.replicaset.ReplicaSetManagedMongoDb;
@@ -32,131 +33,83 @@ public class ShardedManagedMongoDb extends ExternalResource {
 	}
 
 	public void shutdownServer(int port) {
-
-		AbstractLifecycleManager stoppingServer = shardedGroup.getStoppingServer(port);
-
-		if (stoppingServer != null) {
-			stoppingServer.stopEngine();
-		}
-
+		shardedGroup.stopServer(port);
 	}
 
 	public void startupServer(int port) throws Throwable {
-
-		AbstractLifecycleManager startingServer = shardedGroup.getStartingServer(port);
-
-		if (startingServer != null) {
-			startingServer.startEngine();
-		}
-
-	}
-
-	private boolean isServerStarted(AbstractLifecycleManager abstractLifecycleManager) {
-		return abstractLifecycleManager.isReady();
-	}
-
-	private boolean isServerStopped(AbstractLifecycleManager abstractLifecycleManager) {
-		return !abstractLifecycleManager.isReady();
+		shardedGroup.startServer(port);
 	}
 
 	@Override
 	protected void before() throws Throwable {
-		wakeUpShards();
-		wakeUpConfigs();
-		wakeUpMongos();
-		registerAllShards();
-	}
-
-	private Set<String> shardsUri() {
-
-		List<ManagedMongoDbLifecycleManager> shards = shardedGroup.getShards();
 
-		Set<String> shardsUri = new HashSet<String>();
-
-		for (ManagedMongoDbLifecycleManager managedMongoDbLifecycleManager : shards) {
-			shardsUri.add(getUri(managedMongoDbLifecycleManager));
+		if (this.shardedGroup.isShardsAndReplicSetShardsMixed()) {
+			throw new IllegalArgumentException("Cannot mix shards servers with replica set shards servers.");
 		}
 
-		return shardsUri;
-
-	}
+		LOGGER.info("Starting Shards, Configs and Mongos");
+		shardedTopology().start();
+		LOGGER.info("Started Shards, Configs and Mongos");
 
-	private String getUri(ManagedMongoDbLifecycleManager managedMongoDbLifecycleManager) {
-		return managedMongoDbLifecycleManager.getHost() + HOST_PORT_SEPARATOR
-				+ Integer.toString(managedMongoDbLifecycleManager.getPort());
+		registerAllShards();
 	}
 
-	private void wakeUpMongos() throws Throwable {
+	/**
+	 * Shards and config servers are started concurrently, and mongos once all
+	 * config servers are ready.
+	 */
+	private TopologyLauncher shardedTopology() {
 
-		LOGGER.info("Starting Mongos");
+		List<TopologyLauncher.Node> shardsAndConfigs = new ArrayList<TopologyLauncher.Node>();
 
-		List<ManagedMongosLifecycleManager> mongos = shardedGroup.getMongos();
+		for (ManagedMongoDbLifecycleManager managedMongoDbLifecycleManager : shardedGroup.getShards()) {
+			shardsAndConfigs.add(TopologyLauncher.node(managedMongoDbLifecycleManager));
+		}
 
-		for (ManagedMongosLifecycleManager managedMongosLifecycleManager : mongos) {
-			if (isServerStopped(managedMongosLifecycleManager)) {
-				managedMongosLifecycleManager.startEngine();
-			}
+		for (ReplicaSetManagedMongoDb replicaSetManagedMongoDb : shardedGroup.getReplicaSets()) {
+			shardsAndConfigs.add(replicaSetNode(replicaSetManagedMongoDb));
 		}
 
-		LOGGER.info("Started Mongos");
+		for (ManagedMongoDbLifecycleManager managedMongoDbLifecycleManager : shardedGroup.getConfigs()) {
+			shardsAndConfigs.add(TopologyLauncher.node(managedMongoDbLifecycleManager));
+		}
 
+		return new TopologyLauncher().stage(shardsAndConfigs.toArray(new TopologyLauncher.Node[shardsAndConfigs.size()]))
+				.stage(shardedGroup.getMongos());
 	}
 
-	private void wakeUpConfigs() throws Throwable {
-
-		LOGGER.info("Starting Configs");
+	private TopologyLauncher.Node replicaSetNode(final ReplicaSetManagedMongoDb replicaSetManagedMongoDb) {
+		return new TopologyLauncher.Node() {
 
-		List<ManagedMongoDbLifecycleManager> configs = shardedGroup.getConfigs();
-
-		for (ManagedMongoDbLifecycleManager managedMongoDbLifecycleManager : configs) {
-			if (isServerStopped(managedMongoDbLifecycleManager)) {
-				managedMongoDbLifecycleManager.startEngine();
+			@Override
+			public void start() throws Throwable {
+				replicaSetManagedMongoDb.startAllReplicaSet();
 			}
-		}
-
-		LOGGER.info("Started Configs");
 
+			@Override
+			public void stop() {
+				replicaSetManagedMongoDb.stopAllReplicaSet();
+			}
+		};
 	}
 
-	private void wakeUpShards() throws Throwable {
+	private Set<String> shardsUri() {
 
-		if (this.shardedGroup.isShardsAndReplicSetShardsMixed()) {
-			throw new IllegalArgumentException("Cannot mix shards servers with replica set shards servers.");
-		}
-		
-		if (this.shardedGroup.isOnlyShards()) {
-			wakeUpShardsServers();
-		} else {
-			if(this.shardedGroup.isOnlyReplicaSetShards()) {
-				wakeUpReplicaSetShardsServers();
-			}
-		}
+		List<ManagedMongoDbLifecycleManager> shards = shardedGroup.getShards();
 
-	}
+		Set<String> shardsUri = new HashSet<String>();
 
-	private void wakeUpReplicaSetShardsServers() throws Throwable {
-		LOGGER.info("Starting ReplicaSet Shards");
-		
-		List<ReplicaSetManagedMongoDb> replicaSets = shardedGroup.getReplicaSets();
-		
-		for (ReplicaSetManagedMongoDb replicaSetManagedMongoDb : replicaSets) {
-			replicaSetManagedMongoDb.startAllReplicaSet();
+		for (ManagedMongoDbLifecycleManager managedMongoDbLifecycleManager : shards) {
+			shardsUri.add(getUri(managedMongoDbLifecycleManager));
 		}
-		
-		LOGGER.info("Started ReplicaSet Shards");
-	}
 
-	private void wakeUpShardsServers() throws Throwable {
-		LOGGER.info("Starting Shards");
+		return shardsUri;
 
-		List<ManagedMongoDbLifecycleManager> shards = shardedGroup.getShards();
+	}
 
-		for (ManagedMongoDbLifecycleManager managedMongoDbLifecycleManager : shards) {
-			if (isServerStopped(managedMongoDbLifecycleManager)) {
-				managedMongoDbLifecycleManager.startEngine();
-			}
-		}
-		LOGGER.info("Started Shards");
+	private String getUri(ManagedMongoDbLifecycleManager managedMongoDbLifecycleManager) {
+		return managedMongoDbLifecycleManager.getHost() + HOST_PORT_SEPARATOR
+				+ Integer.toString(managedMongoDbLifecycleManager.getPort());
 	}
 
 	private void registerAllShards() throws UnknownHostException {
@@ -234,72 +187,10 @@ public class ShardedManagedMongoDb extends ExternalResource {
 	@Override
 	protected void after() {
 
-		shutdownMongos();
-		shutdownConfigs();
-		shutdownShards();
-		shutdownReplicaSetShards();
-
-	}
-
-	private void shutdownReplicaSetShards() {
-		
-		LOGGER.info("Stopping ReplicaSet Shards");
-		
-		List<ReplicaSetManagedMongoDb> replicaSets = shardedGroup.getReplicaSets();
-		
-		for (ReplicaSetManagedMongoDb replicaSetManagedMongoDb : replicaSets) {
-			replicaSetManagedMongoDb.stopAllReplicaSet();
-		}
-		
-		LOGGER.info("Stopped ReplicaSet Shards");
-		
-	}
-
-	private void shutdownMongos() {
-
-		LOGGER.info("Stopping Mongos");
-
-		List<ManagedMongosLifecycleManager> mongos = shardedGroup.getMongos();
-
-		for (ManagedMongosLifecycleManager managedMongosLifecycleManager : mongos) {
-			if (isServerStarted(managedMongosLifecycleManager)) {
-				managedMongosLifecycleManager.stopEngine();
-			}
-		}
-
-		LOGGER.info("Stopped Mongos");
-
-	}
-
-	private void shutdownConfigs() {
-
-		LOGGER.info("Stopping Configs");
-
-		List<ManagedMongoDbLifecycleManager> configs = shardedGroup.getConfigs();
-
-		for (ManagedMongoDbLifecycleManager managedMongoDbLifecycleManager : configs) {
-			if (isServerStarted(managedMongoDbLifecycleManager)) {
-				managedMongoDbLifecycleManager.stopEngine();
-			}
-		}
-
-		LOGGER.info("Stopped Configs");
-
-	}
-
-	private void shutdownShards() {
-
-		LOGGER.info("Stopping Shards");
-
-		List<ManagedMongoDbLifecycleManager> shards = shardedGroup.getShards();
-
-		for (ManagedMongoDbLifecycleManager managedMongoDbLifecycleManager : shards) {
-			if (isServerStarted(managedMongoDbLifecycleManager)) {
-				managedMongoDbLifecycleManager.stopEngine();
-			}
-		}
+		LOGGER.info("Stopping Mongos, Configs and Shards");
+		shardedTopology().stop();
+		LOGGER.info("Stopped Mongos, Configs and Shards");
 
-		LOGGER.info("Stopped Shards");
 	}
 
 }
@@ -26,6 +26,14 @@ public class WhenEmbeddedMongoDbOperationsArRequired {
             "	]" +
             "}";
 
+    private static final String SHELL_DATA = "" +
+            "{" +
+            "\"collection1\": " +
+            "	[" +
+            "		{\"_id\":ObjectId(\"507f1f77bcf86cd799439011\"),\"visits\":NumberLong(5),\"since\":ISODate(\"2012-01-01T00:00:00Z\")}" +
+            "	]" +
+            "}";
+
     @ClassRule
     public static final InMemoryMongoDb IN_MEMORY_MONGO_DB = newInMemoryMongoDbRule().build();
 
@@ -74,5 +82,17 @@ public class WhenEmbeddedMongoDbOperationsArRequired {
         assertThat(result, is(true));
     }
 
+    @Test
+    public void streamed_data_should_accept_shell_syntax_as_parsed_data_does() {
+
+        MongoOperation mongoOperation = new MongoOperation(inMemoryMongoDb().databaseName("test").build());
+        mongoOperation.insert(new ByteArrayInputStream(SHELL_DATA.getBytes()));
+
+        Mongo mongo = mongoOperation.connectionManager();
+        DBObject object = mongo.getDB("test").getCollection("collection1").findOne();
+
+        assertThat((Long) object.get("visits"), is(5L));
+        assertThat(mongoOperation.databaseIs(new ByteArrayInputStream(SHELL_DATA.getBytes())), is(true));
+    }
 
 }
@@ -6,6 +6,8 @@ import static org.junit.Assert.assertThat;
 
 import org.junit.Test;
 
+import com.lordofthejars.nosqlunit.core.EphemeralPorts;
+
 public class WhenMongoDbConfigurationIsCreated {
 
 	@Test
@@ -17,5 +19,13 @@ public class WhenMongoDbConfigurationIsCreated {
 		assertThat(managedConfiguration.getDatabaseName(), is("test"));
 		
 	}
+
+	@Test
+	public void automatic_port_should_not_be_resolved_before_first_connection() {
+		MongoDbConfiguration managedConfiguration = mongoDb().databaseName("test").port(EphemeralPorts.AUTO)
+				.managedServer("target/mongo-not-started").build();
+
+		assertThat(managedConfiguration.getPort(), is(EphemeralPorts.AUTO));
+	}
 	
 }
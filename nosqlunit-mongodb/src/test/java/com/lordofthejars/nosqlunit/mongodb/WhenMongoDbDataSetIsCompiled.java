@@ -0,0 +1,92 @@
+package com.lordofthejars.nosqlunit.mongodb;
+
+import com.lordofthejars.nosqlunit.core.ResourceInputStream;
+import com.mongodb.MongoClient;
+import com.mongodb.client.MongoCollection;
+import com.mongodb.client.MongoDatabase;
+import org.bson.Document;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.ByteArrayInputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.junit.Assert.assertThat;
+import static org.mockito.Matchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+public class WhenMongoDbDataSetIsCompiled {
+
+    private static final String DATA = ""
+            + "{"
+            + "\"collection1\": "
+            + "	["
+            + "		{\"_id\":{\"$oid\":\"507f1f77bcf86cd799439011\"},\"id\":1,\"code\":\"JSON dataset\","
+            + "			\"created\":{\"$date\":\"2017-01-01T00:00:00Z\"},\"price\":10.5,\"tags\":[\"a\",\"b\"]},"
+            + "		{\"id\":2,\"code\":\"Another row\",\"count\":{\"$numberLong\":\"9007199254740993\"}}"
+            + "	],"
+            + "\"collection2\": {"
+            + "	\"indexes\": [{\"index\": {\"field\": 1}}],"
+            + "	\"data\": [{\"id\":3,\"code\":\"JSON dataset 2\"}]"
+            + "   }"
+            + "}";
+
+    @Rule
+    public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+    @Test
+    public void compiled_dataset_should_be_decoded_as_parsed_dataset() throws IOException {
+
+        InputStream compiledDataSet = compiledDataSet();
+
+        Document decodedData = new DocumentDataSetParser().parse(compiledDataSet);
+        compiledDataSet.close();
+
+        assertThat(decodedData, is(Document.parse(DATA)));
+
+    }
+
+    @Test
+    public void compiled_dataset_should_be_inserted() throws IOException {
+
+        MongoClient mongo = mock(MongoClient.class);
+        MongoDatabase db = mock(MongoDatabase.class);
+        MongoCollection collection1 = mock(MongoCollection.class);
+        MongoCollection collection2 = mock(MongoCollection.class);
+
+        when(mongo.getDatabase("test")).thenReturn(db);
+        when(db.getCollection("collection1")).thenReturn(collection1);
+        when(db.getCollection("collection2")).thenReturn(collection2);
+
+        MongoOperation mongoOperation = new MongoOperation(mongo, new MongoDbConfiguration("localhost", "test"));
+        mongoOperation.insert(compiledDataSet());
+
+        verify(collection1, times(2)).insertOne(any(Document.class));
+        verify(collection2).insertOne(new Document("id", 3).append("code", "JSON dataset 2"));
+        verify(collection2).createIndex(new Document("field", 1));
+
+    }
+
+    private InputStream compiledDataSet() throws IOException {
+        File compiledFile = temporaryFolder.newFile("dataset.json.bson");
+        OutputStream compiledContent = new FileOutputStream(compiledFile);
+
+        try {
+            new MongoDbDataSetCompiler().compile(new ByteArrayInputStream(DATA.getBytes("UTF-8")), compiledContent);
+        } finally {
+            compiledContent.close();
+        }
+
+        return new ResourceInputStream(compiledFile.toURI().toURL());
+    }
+
+}
@@ -0,0 +1,101 @@
+package com.lordofthejars.nosqlunit.mongodb;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.nullValue;
+import static org.junit.Assert.assertThat;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+
+import org.bson.BsonRegularExpression;
+import org.bson.Document;
+import org.bson.types.ObjectId;
+import org.junit.Test;
+
+import com.lordofthejars.nosqlunit.core.JsonDataSetReader;
+
+public class WhenShellJsonDataSetIsStreamed {
+
+    private static final String SHELL_DATASET = "" +
+            "{\n" +
+            "  // users of the application\n" +
+            "  users: [\n" +
+            "    {\"_id\": ObjectId(\"507f1f77bcf86cd799439011\"), \"name\": \"Alex, \\\"the\\\" [first]\", \"visits\": NumberLong(5),\n" +
+            "     \"since\": ISODate(\"2012-01-01T00:00:00Z\"), \"nick\": /^al.*x$/i},\n" +
+            "    /* second user */\n" +
+            "    {'_id': ObjectId('507f1f77bcf86cd799439012'), 'name': 'Soto', tags: ['a', 'b',],},\n" +
+            "  ],\n" +
+            "  'orders': {\n" +
+            "    \"indexes\": [{\"index\": {\"code\": 1}}],\n" +
+            "    \"data\": [{\"code\": 7}]\n" +
+            "  }\n" +
+            "}";
+
+    @Test
+    public void shell_records_should_be_handed_as_written() throws IOException {
+
+        ShellJsonDataSetReader dataSetReader = new ShellJsonDataSetReader(new ByteArrayInputStream(SHELL_DATASET.getBytes("UTF-8")));
+
+        assertThat(dataSetReader.nextField(), is("users"));
+        assertThat(dataSetReader.isArrayValue(), is(true));
+
+        List<Document> users = readDocuments(dataSetReader);
+
+        assertThat(users.size(), is(2));
+        assertThat(users.get(0).getObjectId("_id"), is(new ObjectId("507f1f77bcf86cd799439011")));
+        assertThat(users.get(0).getString("name"), is("Alex, \"the\" [first]"));
+        assertThat(users.get(0).getLong("visits"), is(5L));
+        assertThat(users.get(0).getDate("since"), is(new Date(1325376000000L)));
+        assertThat(((BsonRegularExpression) users.get(0).get("nick")).getPattern(), is("^al.*x$"));
+        assertThat(users.get(1).getString("name"), is("Soto"));
+        assertThat(users.get(1).get("tags", List.class).size(), is(2));
+
+        assertThat(dataSetReader.nextField(), is("orders"));
+        assertThat(dataSetReader.isObjectValue(), is(true));
+        dataSetReader.beginObject();
+
+        assertThat(dataSetReader.nextField(), is("indexes"));
+        Document indexes = Document.parse("{\"indexes\":" + dataSetReader.readValueAsJson() + "}");
+        assertThat(indexes.get("indexes", List.class).size(), is(1));
+
+        assertThat(dataSetReader.nextField(), is("data"));
+        assertThat(readDocuments(dataSetReader).get(0).getInteger("code"), is(7));
+
+        assertThat(dataSetReader.nextField(), is(nullValue()));
+        assertThat(dataSetReader.nextField(), is(nullValue()));
+
+        dataSetReader.close();
+
+    }
+
+    @Test
+    public void values_not_consumed_should_be_skipped() throws IOException {
+
+        ShellJsonDataSetReader dataSetReader = new ShellJsonDataSetReader(new ByteArrayInputStream(SHELL_DATASET.getBytes("UTF-8")));
+
+        assertThat(dataSetReader.nextField(), is("users"));
+        assertThat(dataSetReader.nextField(), is("orders"));
+        assertThat(dataSetReader.nextField(), is(nullValue()));
+
+        dataSetReader.close();
+
+    }
+
+    private List<Document> readDocuments(ShellJsonDataSetReader dataSetReader) throws IOException {
+        final List<Document> documents = new ArrayList<Document>();
+
+        dataSetReader.readRecords(new JsonDataSetReader.RecordHandler() {
+
+            @Override
+            public void record(String record) {
+                documents.add(Document.parse(record));
+            }
+        });
+
+        return documents;
+    }
+
+}
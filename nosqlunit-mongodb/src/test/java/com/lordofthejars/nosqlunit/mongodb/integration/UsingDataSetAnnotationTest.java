@@ -46,4 +46,14 @@ public class UsingDataSetAnnotationTest implements Annotation, com.lordofthejars
 		return this.selectiveLocations;
 	}
 
+	@Override
+	public boolean parallelLoad() {
+		return false;
+	}
+
+	@Override
+	public String[] dependentLocations() {
+		return new String[0];
+	}
+
 }
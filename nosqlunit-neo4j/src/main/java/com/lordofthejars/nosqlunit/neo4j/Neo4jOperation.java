@@ -1,9 +1,16 @@
 package com.lordofthejars.nosqlunit.neo4j;
 
+import java.io.IOException;
 import java.io.InputStream;
+import java.io.Writer;
 import java.util.ArrayList;
 import java.util.Iterator;
 import java.util.List;
+import java.util.Map;
+
+import javax.xml.stream.XMLOutputFactory;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamWriter;
 
 import org.neo4j.graphdb.GraphDatabaseService;
 import org.neo4j.graphdb.Node;
@@ -12,12 +19,19 @@ import org.neo4j.graphdb.Transaction;
 import org.neo4j.graphdb.index.IndexManager;
 
 import com.lordofthejars.nosqlunit.core.AbstractCustomizableDatabaseOperation;
+import com.lordofthejars.nosqlunit.core.GeneratedDataSetOperation;
+import com.lordofthejars.nosqlunit.core.GeneratedRecord;
 import com.lordofthejars.nosqlunit.core.NoSqlAssertionError;
+import com.lordofthejars.nosqlunit.core.RecordShape;
+import com.lordofthejars.nosqlunit.core.TransactionalDatabaseOperation;
+import com.lordofthejars.nosqlunit.graph.parser.GraphMLTokens;
 import org.neo4j.tooling.GlobalGraphOperations;
 
-public class Neo4jOperation extends AbstractCustomizableDatabaseOperation<Neo4jConnectionCallback, GraphDatabaseService> {
+public class Neo4jOperation extends AbstractCustomizableDatabaseOperation<Neo4jConnectionCallback, GraphDatabaseService>
+		implements GeneratedDataSetOperation, TransactionalDatabaseOperation {
 
 	private GraphDatabaseService graphDatabaseService;
+	private Transaction transaction;
 
 	public Neo4jOperation(GraphDatabaseService graphDatabaseService) {
 		super();
@@ -69,6 +83,34 @@ public class Neo4jOperation extends AbstractCustomizableDatabaseOperation<Neo4jC
 		return this.graphDatabaseService.beginTx();
 	}
 
+	/**
+	 * Neo4j transactions are bound to the thread which opens them, so
+	 * insertions, comparisons and the test itself executed by the same thread
+	 * join this transaction instead of committing their own.
+	 */
+	@Override
+	public void beginTransaction() {
+		if (this.transaction != null) {
+			throw new IllegalStateException("A transaction is already open.");
+		}
+
+		this.transaction = beginTx();
+	}
+
+	@Override
+	public void rollbackTransaction() {
+		if (this.transaction == null) {
+			return;
+		}
+
+		try {
+			this.transaction.failure();
+			this.transaction.close();
+		} finally {
+			this.transaction = null;
+		}
+	}
+
 	private void removeAllIndexes() {
 		
 		IndexManager indexManager = this.graphDatabaseService.index();
@@ -130,6 +172,94 @@ public class Neo4jOperation extends AbstractCustomizableDatabaseOperation<Neo4jC
 	}
 
 
+	@Override
+	public RecordShape[] acceptedRecordShapes() {
+		return new RecordShape[] { RecordShape.GRAPH };
+	}
+
+	/**
+	 * Records are written as GraphML nodes with generated fields as
+	 * properties. GraphML nodes have no labels, so template is only used in
+	 * node identifiers.
+	 */
+	@Override
+	public void writeGeneratedRecords(RecordShape recordShape, String template, Iterator<GeneratedRecord> records,
+			Writer writer) throws IOException {
+		try {
+			XMLStreamWriter xmlWriter = XMLOutputFactory.newInstance().createXMLStreamWriter(writer);
+
+			xmlWriter.writeStartDocument();
+			xmlWriter.writeStartElement(GraphMLTokens.GRAPHML);
+			xmlWriter.writeDefaultNamespace(GraphMLTokens.GRAPHML_XMLNS);
+
+			if (records.hasNext()) {
+				GeneratedRecord record = records.next();
+
+				writeGeneratedKeys(record, xmlWriter);
+				writeGeneratedGraphElement(xmlWriter);
+				writeGeneratedNode(template, record, xmlWriter);
+
+				while (records.hasNext()) {
+					writeGeneratedNode(template, records.next(), xmlWriter);
+				}
+			} else {
+				writeGeneratedGraphElement(xmlWriter);
+			}
+
+			xmlWriter.writeEndElement();
+			xmlWriter.writeEndElement();
+			xmlWriter.writeEndDocument();
+			xmlWriter.flush();
+		} catch (XMLStreamException e) {
+			throw new IOException(e);
+		}
+	}
+
+	private void writeGeneratedKeys(GeneratedRecord record, XMLStreamWriter xmlWriter) throws XMLStreamException {
+		for (Map.Entry<String, Object> field : record.getFields().entrySet()) {
+			xmlWriter.writeStartElement(GraphMLTokens.KEY);
+			xmlWriter.writeAttribute(GraphMLTokens.ID, field.getKey());
+			xmlWriter.writeAttribute(GraphMLTokens.FOR, GraphMLTokens.NODE);
+			xmlWriter.writeAttribute(GraphMLTokens.ATTR_NAME, field.getKey());
+			xmlWriter.writeAttribute(GraphMLTokens.ATTR_TYPE, graphMLType(field.getValue()));
+			xmlWriter.writeEndElement();
+		}
+	}
+
+	private void writeGeneratedGraphElement(XMLStreamWriter xmlWriter) throws XMLStreamException {
+		xmlWriter.writeStartElement(GraphMLTokens.GRAPH);
+		xmlWriter.writeAttribute(GraphMLTokens.ID, GraphMLTokens.G);
+		xmlWriter.writeAttribute(GraphMLTokens.EDGEDEFAULT, GraphMLTokens.DIRECTED);
+	}
+
+	private void writeGeneratedNode(String template, GeneratedRecord record, XMLStreamWriter xmlWriter)
+			throws XMLStreamException {
+		xmlWriter.writeStartElement(GraphMLTokens.NODE);
+		xmlWriter.writeAttribute(GraphMLTokens.ID, template + record.getIndex());
+
+		for (Map.Entry<String, Object> field : record.getFields().entrySet()) {
+			xmlWriter.writeStartElement(GraphMLTokens.DATA);
+			xmlWriter.writeAttribute(GraphMLTokens.KEY, field.getKey());
+			xmlWriter.writeCharacters(String.valueOf(field.getValue()));
+			xmlWriter.writeEndElement();
+		}
+
+		xmlWriter.writeEndElement();
+	}
+
+	private String graphMLType(Object value) {
+		if (value instanceof Long) {
+			return GraphMLTokens.LONG;
+		}
+		if (value instanceof Double) {
+			return GraphMLTokens.DOUBLE;
+		}
+		if (value instanceof Boolean) {
+			return GraphMLTokens.BOOLEAN;
+		}
+		return GraphMLTokens.STRING;
+	}
+
 	@Override
 	public GraphDatabaseService connectionManager() {
 		return this.graphDatabaseService;
@@ -1,8 +1,11 @@
 package com.lordofthejars.nosqlunit.redis;
 
+import java.util.concurrent.Callable;
 
 import redis.clients.jedis.Jedis;
 
+import com.lordofthejars.nosqlunit.core.EphemeralPorts;
+
 
 public class ManagedRedisConfigurationBuilder {
 
@@ -10,6 +13,7 @@ public class ManagedRedisConfigurationBuilder {
 	private static final int DEFAULT_PORT = ManagedRedisLifecycleManager.DEFAULT_PORT;
 	
 	private RedisConfiguration redisConfiguration;
+	private String managedServer;
 	
 	private ManagedRedisConfigurationBuilder() {
 		redisConfiguration = new RedisConfiguration();
@@ -21,11 +25,27 @@ public class ManagedRedisConfigurationBuilder {
 		return new ManagedRedisConfigurationBuilder();
 	}
 	
+	/**
+	 * @param port
+	 *            port of Redis server, or {@link EphemeralPorts#AUTO} to
+	 *            connect to the managed server started with an automatic port.
+	 */
 	public ManagedRedisConfigurationBuilder port(int port) {
 		this.redisConfiguration.setPort(port);
 		return this;
 	}
 	
+	/**
+	 * @param targetPath
+	 *            target path of the managed server to connect to when port is
+	 *            {@link EphemeralPorts#AUTO}, only needed when several Redis
+	 *            servers are started with automatic ports.
+	 */
+	public ManagedRedisConfigurationBuilder managedServer(String targetPath) {
+		this.managedServer = targetPath;
+		return this;
+	}
+	
 	public ManagedRedisConfigurationBuilder connectionIdentifier(String connectionIdentifier) {
 		this.redisConfiguration.setConnectionIdentifier(connectionIdentifier);
 		return this;
@@ -38,6 +58,25 @@ public class ManagedRedisConfigurationBuilder {
 	
 	public RedisConfiguration build() {
 		
+		if (EphemeralPorts.isAuto(this.redisConfiguration.getPort())) {
+			this.redisConfiguration.setDatabaseOperation(new RedisOperation(new Callable<Jedis>() {
+
+				@Override
+				public Jedis call() {
+					redisConfiguration.setPort(EphemeralPorts.resolve(ManagedRedisLifecycleManager.ENGINE,
+							managedServer, redisConfiguration.getPort()));
+					return newJedis();
+				}
+			}));
+		} else {
+			this.redisConfiguration.setDatabaseOperation(new RedisOperation(newJedis()));
+		}
+
+		return redisConfiguration;
+	}
+
+	private Jedis newJedis() {
+		
 		Jedis jedis = new Jedis(this.redisConfiguration.getHost(), this.redisConfiguration.getPort());
 		
 		if(this.redisConfiguration.getPassword() != null) {
@@ -48,8 +87,7 @@ public class ManagedRedisConfigurationBuilder {
 			}
 			
 		}
-		this.redisConfiguration.setDatabaseOperation(new RedisOperation(jedis));
-		return redisConfiguration;
+		return jedis;
 	}
 	
 }
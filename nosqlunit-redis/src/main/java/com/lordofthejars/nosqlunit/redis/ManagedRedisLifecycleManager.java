@@ -10,17 +10,20 @@ import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.concurrent.CountDownLatch;
-import java.util.concurrent.TimeUnit;
+import java.util.regex.Pattern;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import com.lordofthejars.nosqlunit.core.AbstractLifecycleManager;
 import com.lordofthejars.nosqlunit.core.CommandLineExecutor;
+import com.lordofthejars.nosqlunit.core.EphemeralPorts;
+import com.lordofthejars.nosqlunit.core.ProcessOutputPump;
 import com.lordofthejars.nosqlunit.core.OperatingSystem;
 import com.lordofthejars.nosqlunit.core.OperatingSystemFamily;
 import com.lordofthejars.nosqlunit.core.OperatingSystemResolver;
 import com.lordofthejars.nosqlunit.core.OsNameSystemPropertyOperatingSystemResolver;
+import com.lordofthejars.nosqlunit.core.ReadinessProbe;
 import com.lordofthejars.nosqlunit.env.SystemEnvironmentVariables;
 
 public class ManagedRedisLifecycleManager extends AbstractLifecycleManager {
@@ -32,19 +35,24 @@ private static final Logger LOGGER = LoggerFactory.getLogger(ManagedRedis.class)
 	private static final String LOCALHOST = "127.0.0.1";
 
 	public static final int DEFAULT_PORT = 6379;
+	static final String ENGINE = "redis";
 	private static final int NO_MASTER_PORT = -1;
+
+	private static final Pattern READY_PATTERN = Pattern.compile("ready to accept connections", Pattern.CASE_INSENSITIVE);
 	protected static final String DEFAULT_REDIS_TARGET_PATH = "target" + File.separatorChar + "redis-temp";
 	protected static final String REDIS_BINARY_DIRECTORY = "src";
 
 	protected static final String REDIS_EXECUTABLE_X = "redis-server";
 
 	protected static final String SLAVE_OF_ARGUMENT = "--slaveof";
+	protected static final String PORT_ARGUMENT = "--port";
 	
 	private String targetPath = DEFAULT_REDIS_TARGET_PATH;
 	private String redisPath = SystemEnvironmentVariables.getEnvironmentOrPropertyVariable("REDIS_HOME");
 	private String configurationFilepath = null;
 	
 	private int port = DEFAULT_PORT;
+	private boolean automaticPort = false;
 
 	private String masterHost;
 	private int masterPort = NO_MASTER_PORT;
@@ -65,10 +73,25 @@ private static final Logger LOGGER = LoggerFactory.getLogger(ManagedRedis.class)
 	}
 
 	@Override
-	public int getPort() {
+	public synchronized int getPort() {
+		if (EphemeralPorts.isAuto(this.port)) {
+			this.port = EphemeralPorts.allocate();
+			this.automaticPort = true;
+			EphemeralPorts.publish(ENGINE, this.targetPath, this.port);
+		}
 		return port;
 	}
 
+	@Override
+	protected boolean isShareableAcrossProcesses() {
+		return true;
+	}
+
+	@Override
+	protected Process getServerProcess() {
+		return pwd;
+	}
+
 	@Override
 	public void doStart() throws Throwable {
 
@@ -97,7 +120,7 @@ private static final Logger LOGGER = LoggerFactory.getLogger(ManagedRedis.class)
 			@Override
 			public void run() {
 				try {
-					startRedisProcess();
+					startRedisProcess(startupLatch);
 					startupLatch.countDown();
 				} catch (InterruptedException e) {
 					throw new IllegalStateException(e);
@@ -117,12 +140,20 @@ private static final Logger LOGGER = LoggerFactory.getLogger(ManagedRedis.class)
 		return this.operatingSystemResolver.currentOperatingSystem().getFamily() == OperatingSystemFamily.WINDOWS;
 	}
 
-	private List<String> startRedisProcess() throws InterruptedException {
+	private List<String> startRedisProcess(final CountDownLatch startupLatch) throws InterruptedException {
 		try {
 			pwd = startProcess();
+			ProcessOutputPump outputPump = ProcessOutputPump.start(pwd);
+			outputPump.whenLogged(READY_PATTERN).thenRun(new Runnable() {
+				@Override
+				public void run() {
+					startupLatch.countDown();
+				}
+			});
 			pwd.waitFor();
 			if (pwd.exitValue() != 0) {
-				List<String> consoleOutput = getConsoleOutput(pwd);
+				outputPump.awaitEnd(1, SECONDS);
+				List<String> consoleOutput = outputPump.getLines();
 				throw new IllegalStateException("Redis [" + redisPath + " at port " + port
 						+ "] could not be started. Next console message was thrown: " + consoleOutput);
 			}
@@ -146,10 +177,6 @@ private static final Logger LOGGER = LoggerFactory.getLogger(ManagedRedis.class)
 				buildOperationSystemProgramAndArguments());
 	}
 
-	private List<String> getConsoleOutput(Process pwd) throws IOException {
-		return this.commandLineExecutor.getConsoleOutput(pwd);
-	}
-
 	private List<String> buildOperationSystemProgramAndArguments() {
 
 		List<String> programAndArguments = new ArrayList<String>();
@@ -157,6 +184,7 @@ private static final Logger LOGGER = LoggerFactory.getLogger(ManagedRedis.class)
 		programAndArguments.add(getExecutablePath());
 		addConfigurationPath(programAndArguments);
 		addSlaveOfParameter(programAndArguments);
+		addPortParameter(programAndArguments);
 
 		for (String argument : this.singleCommandArguments) {
 			programAndArguments.add(argument);
@@ -197,6 +225,18 @@ private static final Logger LOGGER = LoggerFactory.getLogger(ManagedRedis.class)
 		return programAndArguments;
 	}
 	
+	private List<String> addPortParameter(List<String> programAndArguments) {
+
+		int port = getPort();
+
+		if (this.automaticPort) {
+			programAndArguments.add(PORT_ARGUMENT);
+			programAndArguments.add(Integer.toString(port));
+		}
+
+		return programAndArguments;
+	}
+
 	private List<String> addConfigurationPath(List<String> programAndArguments) {
 
 		if (this.configurationFilepath != null) {
@@ -225,7 +265,7 @@ private static final Logger LOGGER = LoggerFactory.getLogger(ManagedRedis.class)
 	private void stopRedis() throws InterruptedException {
 		if (isProcessAlive()) {
 			pwd.destroy();
-			TimeUnit.SECONDS.sleep(2);
+			ReadinessProbe.processTerminated(pwd).awaitReadiness(2, SECONDS);
 		}
 	}
 
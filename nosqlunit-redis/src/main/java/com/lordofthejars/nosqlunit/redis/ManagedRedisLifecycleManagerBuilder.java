@@ -1,5 +1,6 @@
 package com.lordofthejars.nosqlunit.redis;
 
+import com.lordofthejars.nosqlunit.core.EphemeralPorts;
 
 public class ManagedRedisLifecycleManagerBuilder {
 
@@ -13,6 +14,11 @@ public class ManagedRedisLifecycleManagerBuilder {
 		return new ManagedRedisLifecycleManagerBuilder();
 	}
 
+	/**
+	 * @param port
+	 *            port of Redis server, or {@link EphemeralPorts#AUTO} to start
+	 *            it on a free port.
+	 */
 	public ManagedRedisLifecycleManagerBuilder port(int port) {
 		this.managedRedisLifecycleManager.setPort(port);
 		return this;
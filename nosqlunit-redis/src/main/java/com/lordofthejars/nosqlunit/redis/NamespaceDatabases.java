@@ -0,0 +1,61 @@
+package com.lordofthejars.nosqlunit.redis;
+
+import java.util.List;
+
+import redis.clients.jedis.Jedis;
+import redis.clients.jedis.exceptions.JedisDataException;
+
+import com.lordofthejars.nosqlunit.core.TestNamespace;
+
+/**
+ * Selects the database of a namespace. Redis servers only have the number of
+ * databases given by their <code>databases</code> setting, 16 by default, so
+ * the index of the namespace is checked against it before selecting.
+ */
+final class NamespaceDatabases {
+
+	private static final String DATABASES_SETTING = "databases";
+
+	private NamespaceDatabases() {
+		super();
+	}
+
+	public static void select(Jedis jedis, TestNamespace testNamespace) {
+		select(jedis, testNamespace.getIndex());
+	}
+
+	static void select(Jedis jedis, int index) {
+
+		int databases = numberOfDatabases(jedis);
+
+		if (databases >= 0 && index >= databases) {
+			throw new IllegalStateException("Namespace " + index + " requires Redis database " + index + " but server "
+					+ jedis.getClient().getHost() + ":" + jedis.getClient().getPort() + " only has " + databases
+					+ " databases. Increase databases setting of the server or run less tests in parallel.");
+		}
+
+		jedis.select(index);
+	}
+
+	/**
+	 * @return number of databases of server or -1 if it cannot be read, for
+	 *         example because CONFIG command is disabled.
+	 */
+	static int numberOfDatabases(Jedis jedis) {
+
+		try {
+			List<String> setting = jedis.configGet(DATABASES_SETTING);
+
+			if (setting == null || setting.size() < 2) {
+				return -1;
+			}
+
+			return Integer.parseInt(setting.get(1));
+		} catch (JedisDataException e) {
+			return -1;
+		} catch (NumberFormatException e) {
+			return -1;
+		}
+	}
+
+}
@@ -18,8 +18,8 @@ import static com.lordofthejars.nosqlunit.redis.parser.DataReader.VALUE_TOKEN;
 import static com.lordofthejars.nosqlunit.redis.parser.JsonToJedisConverter.toByteArray;
 import static org.hamcrest.Matchers.equalTo;
 
+import java.io.IOException;
 import java.io.InputStream;
-import java.io.InputStreamReader;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Comparator;
@@ -31,18 +31,21 @@ import java.util.TreeSet;
 
 import org.json.simple.JSONArray;
 import org.json.simple.JSONObject;
-import org.json.simple.JSONValue;
 
 import redis.clients.jedis.Jedis;
 
+import com.lordofthejars.nosqlunit.core.DataSetModelParser;
 import com.lordofthejars.nosqlunit.core.FailureHandler;
+import com.lordofthejars.nosqlunit.core.ParsedDataSetCache;
+import com.lordofthejars.nosqlunit.redis.parser.JsonDataSetParser;
 
 public class RedisAssertion {
 
+	private static final DataSetModelParser<JSONObject> DATASET_PARSER = new JsonDataSetParser();
+
 	public static void strictAssertEquals(RedisConnectionCallback redisConnectionCallback, InputStream expectedData) {
 
-		Object parse = JSONValue.parse(new InputStreamReader(expectedData));
-		JSONObject rootObject = (JSONObject) parse;
+		JSONObject rootObject = parse(expectedData);
 
 		JSONArray dataObject = (JSONArray) rootObject.get(DATA_TOKEN);
 
@@ -84,6 +87,14 @@ public class RedisAssertion {
 
 	}
 
+	private static JSONObject parse(InputStream expectedData) {
+		try {
+			return ParsedDataSetCache.getInstance().parse(expectedData, DATASET_PARSER);
+		} catch (IOException e) {
+			throw new IllegalArgumentException(e);
+		}
+	}
+
 	private static void checkNumberOfKeys(RedisConnectionCallback redisConnectionCallback,
 			long expectedTotalNumberOfKeys) throws Error {
 	
@@ -1,18 +1,30 @@
 package com.lordofthejars.nosqlunit.redis;
 
+import java.io.IOException;
 import java.io.InputStream;
+import java.io.Writer;
 import java.util.Arrays;
+import java.util.Iterator;
 import java.util.List;
+import java.util.concurrent.Callable;
 
 import redis.clients.jedis.BinaryJedisCommands;
 import redis.clients.jedis.Jedis;
 
 import com.lordofthejars.nosqlunit.core.AbstractCustomizableDatabaseOperation;
+import com.lordofthejars.nosqlunit.core.GeneratedDataSetOperation;
+import com.lordofthejars.nosqlunit.core.GeneratedRecord;
+import com.lordofthejars.nosqlunit.core.NamespaceAwareDatabaseOperation;
 import com.lordofthejars.nosqlunit.core.NoSqlAssertionError;
+import com.lordofthejars.nosqlunit.core.RecordShape;
+import com.lordofthejars.nosqlunit.core.TestNamespace;
+import com.lordofthejars.nosqlunit.redis.parser.GeneratedDataSetWriter;
 
-public class RedisOperation extends AbstractCustomizableDatabaseOperation<RedisConnectionCallback, Jedis> {
+public class RedisOperation extends AbstractCustomizableDatabaseOperation<RedisConnectionCallback, Jedis> implements
+		NamespaceAwareDatabaseOperation, GeneratedDataSetOperation {
 
 	private Jedis jedis;
+	private Callable<Jedis> jedisFactory;
 	
 	public RedisOperation(Jedis jedis) {
 		this.jedis = jedis;
@@ -20,6 +32,17 @@ public class RedisOperation extends AbstractCustomizableDatabaseOperation<RedisC
 		setComparisonStrategy(new DefaultRedisComparisonStrategy());
 	}
 	
+	/**
+	 * Connection is created by given factory the first time it is used, so
+	 * connection details only known once the server has been started, like
+	 * automatic ports, can be resolved then.
+	 */
+	RedisOperation(Callable<Jedis> jedisFactory) {
+		this.jedisFactory = jedisFactory;
+		setInsertionStrategy(new DefaultRedisInsertionStrategy());
+		setComparisonStrategy(new DefaultRedisComparisonStrategy());
+	}
+	
 	
 	@Override
 	public void insert(InputStream dataScript) {
@@ -33,17 +56,17 @@ public class RedisOperation extends AbstractCustomizableDatabaseOperation<RedisC
 				
 				@Override
 				public List<Jedis> getAllJedis() {
-					return Arrays.asList(jedis);
+					return Arrays.asList(jedis());
 				}
 				
 				@Override
 				public Jedis getActiveJedis(byte[] key) {
-					return jedis;
+					return jedis();
 				}
 
 				@Override
 				public BinaryJedisCommands insertionJedis() {
-					return jedis;
+					return jedis();
 				}
 			}, dataScript);
 		} catch (Throwable e) {
@@ -53,7 +76,7 @@ public class RedisOperation extends AbstractCustomizableDatabaseOperation<RedisC
 
 	@Override
 	public void deleteAll() {
-		this.jedis.flushDB();
+		jedis().flushDB();
 	}
 
 	@Override
@@ -68,17 +91,17 @@ public class RedisOperation extends AbstractCustomizableDatabaseOperation<RedisC
 					
 					@Override
 					public List<Jedis> getAllJedis() {
-						return Arrays.asList(jedis);
+						return Arrays.asList(jedis());
 					}
 					
 					@Override
 					public Jedis getActiveJedis(byte[] key) {
-						return jedis;
+						return jedis();
 					}
 
 					@Override
 					public BinaryJedisCommands insertionJedis() {
-						return jedis;
+						return jedis();
 					}
 				}, expectedData);
 		} catch (NoSqlAssertionError e) {
@@ -88,8 +111,41 @@ public class RedisOperation extends AbstractCustomizableDatabaseOperation<RedisC
 		}
 	}
 
+	/**
+	 * Namespace is applied by selecting the database with same index as the
+	 * namespace, so injected connection is already scoped to it.
+	 */
+	@Override
+	public void useNamespace(TestNamespace testNamespace) {
+		NamespaceDatabases.select(jedis(), testNamespace);
+	}
+
+	@Override
+	public RecordShape[] acceptedRecordShapes() {
+		return new RecordShape[] { RecordShape.KEY_VALUE };
+	}
+
+	@Override
+	public void writeGeneratedRecords(RecordShape recordShape, String template, Iterator<GeneratedRecord> records,
+			Writer writer) throws IOException {
+		GeneratedDataSetWriter.write(template, records, writer);
+	}
+
 	@Override
 	public Jedis connectionManager() {
+		return jedis();
+	}
+
+	private synchronized Jedis jedis() {
+		if (jedis == null) {
+			try {
+				jedis = jedisFactory.call();
+			} catch (RuntimeException e) {
+				throw e;
+			} catch (Exception e) {
+				throw new IllegalStateException(e);
+			}
+		}
 		return jedis;
 	}
 
@@ -1,20 +1,29 @@
 package com.lordofthejars.nosqlunit.redis;
 
-import static ch.lambdaj.Lambda.forEach;
-
+import java.io.IOException;
 import java.io.InputStream;
+import java.io.Writer;
 import java.util.Collection;
+import java.util.Iterator;
 
 import redis.clients.jedis.BinaryJedisCommands;
 import redis.clients.jedis.Jedis;
 import redis.clients.jedis.ShardedJedis;
 
 import com.lordofthejars.nosqlunit.core.AbstractCustomizableDatabaseOperation;
+import com.lordofthejars.nosqlunit.core.GeneratedDataSetOperation;
+import com.lordofthejars.nosqlunit.core.GeneratedRecord;
+import com.lordofthejars.nosqlunit.core.NamespaceAwareDatabaseOperation;
 import com.lordofthejars.nosqlunit.core.NoSqlAssertionError;
+import com.lordofthejars.nosqlunit.core.RecordShape;
+import com.lordofthejars.nosqlunit.core.TestNamespace;
+import com.lordofthejars.nosqlunit.redis.parser.GeneratedDataSetWriter;
 
-public class ShardedRedisOperation extends AbstractCustomizableDatabaseOperation<RedisConnectionCallback, ShardedJedis> {
+public class ShardedRedisOperation extends AbstractCustomizableDatabaseOperation<RedisConnectionCallback, ShardedJedis>
+		implements NamespaceAwareDatabaseOperation, GeneratedDataSetOperation {
 
 	private ShardedJedis shardedJedis;
+	private TestNamespace testNamespace = TestNamespace.DEFAULT_NAMESPACE;
 	
 	public ShardedRedisOperation(ShardedJedis shardedJedis) {
 		this.shardedJedis = shardedJedis;
@@ -51,9 +60,16 @@ public class ShardedRedisOperation extends AbstractCustomizableDatabaseOperation
 		}
 	}
 
+	/**
+	 * Only the database of current namespace is flushed in every shard, so
+	 * data of tests running in other namespaces is kept.
+	 */
 	@Override
 	public void deleteAll() {
-		forEach(shardedJedis.getAllShards()).flushAll();
+		for (Jedis jedis : shardedJedis.getAllShards()) {
+			jedis.select(testNamespace.getIndex());
+			jedis.flushDB();
+		}
 	}
 
 	@Override
@@ -87,6 +103,29 @@ public class ShardedRedisOperation extends AbstractCustomizableDatabaseOperation
 		}
 	}
 
+	/**
+	 * Namespace is applied by selecting the database with same index as the
+	 * namespace in every shard.
+	 */
+	@Override
+	public void useNamespace(TestNamespace testNamespace) {
+		for (Jedis jedis : shardedJedis.getAllShards()) {
+			NamespaceDatabases.select(jedis, testNamespace);
+		}
+		this.testNamespace = testNamespace;
+	}
+
+	@Override
+	public RecordShape[] acceptedRecordShapes() {
+		return new RecordShape[] { RecordShape.KEY_VALUE };
+	}
+
+	@Override
+	public void writeGeneratedRecords(RecordShape recordShape, String template, Iterator<GeneratedRecord> records,
+			Writer writer) throws IOException {
+		GeneratedDataSetWriter.write(template, records, writer);
+	}
+
 	@Override
 	public ShardedJedis connectionManager() {
 		return shardedJedis;
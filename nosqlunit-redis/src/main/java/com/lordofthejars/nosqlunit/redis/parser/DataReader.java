@@ -2,11 +2,10 @@ package com.lordofthejars.nosqlunit.redis.parser;
 
 import org.json.simple.JSONArray;
 import org.json.simple.JSONObject;
-import org.json.simple.JSONValue;
 import redis.clients.jedis.BinaryJedisCommands;
 
+import java.io.IOException;
 import java.io.InputStream;
-import java.io.InputStreamReader;
 import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
@@ -15,6 +14,9 @@ import java.util.Map;
 import static com.lordofthejars.nosqlunit.redis.parser.JsonToJedisConverter.toByteArray;
 import static com.lordofthejars.nosqlunit.redis.parser.JsonToJedisConverter.toDouble;
 
+import com.lordofthejars.nosqlunit.core.DataSetModelParser;
+import com.lordofthejars.nosqlunit.core.ParsedDataSetCache;
+
 public class DataReader {
 
 	public static final String SCORE_TOKEN = "score";
@@ -31,6 +33,8 @@ public class DataReader {
 	public static final String EXPIRE_AT_SEC_TOKEN = "expireAtSeconds";
 	public static final String SET_TOKEN = "set";
 
+	private static final DataSetModelParser<JSONObject> DATASET_PARSER = new JsonDataSetParser();
+
 	private BinaryJedisCommands jedis;
 
 	public DataReader(BinaryJedisCommands jedis) {
@@ -39,8 +43,7 @@ public class DataReader {
 
 	public void read(InputStream data) {
 
-		Object parse = JSONValue.parse(new InputStreamReader(data));
-		JSONObject rootObject = (JSONObject) parse;
+		JSONObject rootObject = parse(data);
 
 		JSONArray dataObject = (JSONArray) rootObject.get(DATA_TOKEN);
 
@@ -69,6 +72,13 @@ public class DataReader {
 		}
 	}
 
+	private JSONObject parse(InputStream data) {
+		try {
+			return ParsedDataSetCache.getInstance().parse(data, DATASET_PARSER);
+		} catch (IOException e) {
+			throw new IllegalArgumentException(e);
+		}
+	}
 
 	private void addHashesElement(JSONObject hashesObject) {
 		JSONArray sortsetsObject = (JSONArray) hashesObject.get(HASH_TOKEN);
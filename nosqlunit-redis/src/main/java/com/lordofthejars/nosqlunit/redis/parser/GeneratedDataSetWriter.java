@@ -0,0 +1,80 @@
+package com.lordofthejars.nosqlunit.redis.parser;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.util.Iterator;
+import java.util.Map;
+
+import org.codehaus.jackson.JsonFactory;
+import org.codehaus.jackson.JsonGenerator;
+
+import com.lordofthejars.nosqlunit.core.GeneratedRecord;
+
+/**
+ * Writes generated records as Redis dataset. Each record is stored under
+ * template and record index key, as a hash of generated fields, or as a simple
+ * value with record index when there are no generated fields. Values are
+ * written as strings, as numbers of datasets are stored as a single byte.
+ */
+public final class GeneratedDataSetWriter {
+
+	private static final JsonFactory JSON_FACTORY = new JsonFactory();
+
+	private static final String KEY_SEPARATOR = ":";
+
+	private GeneratedDataSetWriter() {
+		super();
+	}
+
+	public static void write(String template, Iterator<GeneratedRecord> records, Writer writer) throws IOException {
+		JsonGenerator jsonGenerator = JSON_FACTORY.createJsonGenerator(writer);
+
+		jsonGenerator.writeStartObject();
+		jsonGenerator.writeArrayFieldStart(DataReader.DATA_TOKEN);
+
+		if (records.hasNext()) {
+			GeneratedRecord record = records.next();
+			boolean hash = !record.getFields().isEmpty();
+
+			jsonGenerator.writeStartObject();
+			jsonGenerator.writeArrayFieldStart(hash ? DataReader.HASH_TOKEN : DataReader.SIMPLE_TOKEN);
+
+			writeRecord(jsonGenerator, template, record, hash);
+
+			while (records.hasNext()) {
+				writeRecord(jsonGenerator, template, records.next(), hash);
+			}
+
+			jsonGenerator.writeEndArray();
+			jsonGenerator.writeEndObject();
+		}
+
+		jsonGenerator.writeEndArray();
+		jsonGenerator.writeEndObject();
+		jsonGenerator.flush();
+	}
+
+	private static void writeRecord(JsonGenerator jsonGenerator, String template, GeneratedRecord record, boolean hash)
+			throws IOException {
+		jsonGenerator.writeStartObject();
+		jsonGenerator.writeStringField(DataReader.KEY_TOKEN, template + KEY_SEPARATOR + record.getIndex());
+
+		if (hash) {
+			jsonGenerator.writeArrayFieldStart(DataReader.VALUES_TOKEN);
+
+			for (Map.Entry<String, Object> field : record.getFields().entrySet()) {
+				jsonGenerator.writeStartObject();
+				jsonGenerator.writeStringField(DataReader.FIELD_TOKEN, field.getKey());
+				jsonGenerator.writeStringField(DataReader.VALUE_TOKEN, String.valueOf(field.getValue()));
+				jsonGenerator.writeEndObject();
+			}
+
+			jsonGenerator.writeEndArray();
+		} else {
+			jsonGenerator.writeStringField(DataReader.VALUE_TOKEN, Long.toString(record.getIndex()));
+		}
+
+		jsonGenerator.writeEndObject();
+	}
+
+}
@@ -0,0 +1,18 @@
+package com.lordofthejars.nosqlunit.redis.parser;
+
+import java.io.InputStream;
+import java.io.InputStreamReader;
+
+import org.json.simple.JSONObject;
+import org.json.simple.JSONValue;
+
+import com.lordofthejars.nosqlunit.core.DataSetModelParser;
+
+public class JsonDataSetParser implements DataSetModelParser<JSONObject> {
+
+	@Override
+	public JSONObject parse(InputStream dataset) {
+		return (JSONObject) JSONValue.parse(new InputStreamReader(dataset));
+	}
+
+}
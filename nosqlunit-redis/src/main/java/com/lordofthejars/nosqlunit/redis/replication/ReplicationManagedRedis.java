@@ -1,11 +1,12 @@
 package com.lordofthejars.nosqlunit.redis.replication;
 
-import java.util.List;
+import java.util.Collections;
 
 import org.junit.rules.ExternalResource;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import com.lordofthejars.nosqlunit.core.TopologyLauncher;
 import com.lordofthejars.nosqlunit.redis.ManagedRedisLifecycleManager;
 
 public class ReplicationManagedRedis extends ExternalResource {
@@ -46,41 +47,20 @@ public class ReplicationManagedRedis extends ExternalResource {
 
 	private void wakeUpServers() throws Throwable {
 		
-		LOGGER.info("Starting Redis Master Server");
+		LOGGER.info("Starting Redis Master and Slave Servers");
 		
-		startMaster();
+		replicationTopology().start();
 		
-		LOGGER.info("Started Redis Master Server");
-		
-		LOGGER.info("Starting Redis Slave Servers");
-		
-		startSlaves();
-		
-		LOGGER.info("Started Redis Slave Servers");
+		LOGGER.info("Started Redis Master and Slave Servers");
 		
 	}
 
-	private void startSlaves() throws Throwable {
-		List<ManagedRedisLifecycleManager> slaveServers = replicationGroup.getSlaveServers();
-		
-		for (ManagedRedisLifecycleManager slaveServer : slaveServers) {
-			if(isServerStopped(slaveServer)) {
-				slaveServer.startEngine();
-			}
-		}
-		
-	}
-	
-	private void startMaster() throws Throwable {
-		ManagedRedisLifecycleManager master = replicationGroup.getMaster();
-		
-		if(isServerStopped(master)) {
-			master.startEngine();
-		}
-	}
-	
-	private boolean isServerStopped(ManagedRedisLifecycleManager master) {
-		return !master.isReady();
+	/**
+	 * Slaves are started concurrently once master is ready.
+	 */
+	private TopologyLauncher replicationTopology() {
+		return new TopologyLauncher().stage(Collections.singletonList(replicationGroup.getMaster()))
+				.stage(replicationGroup.getSlaveServers());
 	}
 
 	@Override
@@ -90,44 +70,11 @@ public class ReplicationManagedRedis extends ExternalResource {
 
 	private void shutdownServers() {
 
-		LOGGER.info("Stopping Redis Master Server");
-		
-		stopMaster();
-		
-		LOGGER.info("Stopped Redis Master Server");
-		
-		LOGGER.info("Stopping Redis Slave Servers");
-		
-		stopSlaves();
-		
-		LOGGER.info("Stopped Redis Slave Servers");
-	}
-
-	private void stopMaster() {
-		
-		ManagedRedisLifecycleManager master = replicationGroup.getMaster();
-		
-		if(isServerStarted(master)) {
-			master.stopEngine();
-		}
+		LOGGER.info("Stopping Redis Slave and Master Servers");
 		
-	}
-	
-	private void stopSlaves() {
-		List<ManagedRedisLifecycleManager> slaveServers = replicationGroup.getSlaveServers();
+		replicationTopology().stop();
 		
-		for (ManagedRedisLifecycleManager slaveServer : slaveServers) {
-			
-			if(isServerStarted(slaveServer)) {
-				slaveServer.stopEngine();
-			}
-			
-		}
-		
-	}
-	
-	private boolean isServerStarted(ManagedRedisLifecycleManager master) {
-		return master.isReady();
+		LOGGER.info("Stopped Redis Slave and Master Servers");
 	}
 	
 }
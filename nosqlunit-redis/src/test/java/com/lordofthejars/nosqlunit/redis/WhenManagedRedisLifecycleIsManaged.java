@@ -1,6 +1,7 @@
 package com.lordofthejars.nosqlunit.redis;
 
 import static com.lordofthejars.nosqlunit.redis.ManagedRedis.ManagedRedisRuleBuilder.newManagedRedisRule;
+import static com.lordofthejars.nosqlunit.redis.ManagedRedisConfigurationBuilder.newManagedRedisConfiguration;
 
 import java.io.File;
 import java.util.ArrayList;
@@ -21,6 +22,7 @@ import org.mockito.MockitoAnnotations;
 
 import com.lordofthejars.nosqlunit.core.CommandLineExecutor;
 import com.lordofthejars.nosqlunit.core.ConnectionManagement;
+import com.lordofthejars.nosqlunit.core.EphemeralPorts;
 import com.lordofthejars.nosqlunit.core.OperatingSystem;
 import com.lordofthejars.nosqlunit.core.OperatingSystemResolver;
 import com.lordofthejars.nosqlunit.redis.ManagedRedis;
@@ -106,6 +108,52 @@ public class WhenManagedRedisLifecycleIsManaged {
 		
 	}
 	
+	@Test
+	public void managed_redis_should_be_started_on_a_free_port_when_port_is_automatic() throws Throwable {
+		
+		System.setProperty("REDIS_HOME", "/opt/redis-2.4.16");
+		
+		when(operatingSystemResolver.currentOperatingSystem()).thenReturn(
+				OperatingSystem.LINUX_OS);
+		
+		
+		CommandLineExecutor commandLineExecutor = mock(CommandLineExecutor.class);
+
+		Process mockProcess = mock(Process.class);
+		when(mockProcess.exitValue()).thenReturn(0);
+
+		when(
+				commandLineExecutor.startProcessInDirectoryAndArguments(
+						anyString(), anyList())).thenReturn(mockProcess);
+		
+		ManagedRedis managedRedis = newManagedRedisRule().port(EphemeralPorts.AUTO).build();
+		
+		managedRedis.managedRedisLifecycleManager.setCommandLineExecutor(commandLineExecutor);
+		managedRedis.managedRedisLifecycleManager.setOperatingSystemResolver(operatingSystemResolver);
+		
+		RedisConfiguration redisConfiguration = newManagedRedisConfiguration().port(EphemeralPorts.AUTO)
+				.managedServer(ManagedRedisLifecycleManager.DEFAULT_REDIS_TARGET_PATH).build();
+		
+		managedRedis.before();
+		
+		int port = managedRedis.managedRedisLifecycleManager.getPort();
+		redisConfiguration.getDatabaseOperation().connectionManager();
+		
+		List<String> expectedCommand = new ArrayList<String>();
+		expectedCommand.add("/opt/redis-2.4.16"+File.separatorChar+ManagedRedisLifecycleManager.REDIS_BINARY_DIRECTORY+File.separatorChar+ManagedRedisLifecycleManager.REDIS_EXECUTABLE_X);
+		expectedCommand.add(ManagedRedisLifecycleManager.PORT_ARGUMENT);
+		expectedCommand.add(Integer.toString(port));
+		managedRedis.after();
+
+		verify(commandLineExecutor).startProcessInDirectoryAndArguments(
+				ManagedRedisLifecycleManager.DEFAULT_REDIS_TARGET_PATH, expectedCommand);
+		assertThat(port > 0, is(true));
+		assertThat(redisConfiguration.getPort(), is(port));
+		
+		System.clearProperty("REDIS_HOME");
+		
+	}
+	
 	@Test
 	public void redis_should_be_started_with_slaveof_parameter() throws Throwable {
 		
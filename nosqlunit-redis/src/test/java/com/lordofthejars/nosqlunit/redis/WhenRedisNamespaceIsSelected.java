@@ -0,0 +1,94 @@
+package com.lordofthejars.nosqlunit.redis;
+
+import static org.hamcrest.CoreMatchers.containsString;
+import static org.junit.Assert.assertThat;
+import static org.junit.Assert.fail;
+import static org.mockito.Matchers.anyInt;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.util.Arrays;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.InOrder;
+
+import redis.clients.jedis.Client;
+import redis.clients.jedis.Jedis;
+import redis.clients.jedis.ShardedJedis;
+import redis.clients.jedis.exceptions.JedisDataException;
+
+import com.lordofthejars.nosqlunit.core.TestNamespace;
+
+public class WhenRedisNamespaceIsSelected {
+
+	private Jedis jedis;
+
+	@Before
+	public void setUp() {
+		jedis = mock(Jedis.class);
+		Client client = mock(Client.class);
+		when(client.getHost()).thenReturn("localhost");
+		when(client.getPort()).thenReturn(6379);
+		when(jedis.getClient()).thenReturn(client);
+	}
+
+	@Test
+	public void database_of_namespace_should_be_selected_when_server_has_it() {
+
+		when(jedis.configGet("databases")).thenReturn(Arrays.asList("databases", "16"));
+
+		NamespaceDatabases.select(jedis, 15);
+
+		verify(jedis).select(15);
+
+	}
+
+	@Test
+	public void namespace_beyond_databases_of_server_should_fail_with_a_clear_message() {
+
+		when(jedis.configGet("databases")).thenReturn(Arrays.asList("databases", "16"));
+
+		try {
+			NamespaceDatabases.select(jedis, 16);
+			fail();
+		} catch (IllegalStateException e) {
+			assertThat(e.getMessage(), containsString("localhost:6379 only has 16 databases"));
+		}
+
+		verify(jedis, never()).select(anyInt());
+
+	}
+
+	@Test
+	public void database_should_be_selected_when_server_does_not_allow_reading_its_configuration() {
+
+		when(jedis.configGet("databases")).thenThrow(new JedisDataException("ERR unknown command 'CONFIG'"));
+
+		NamespaceDatabases.select(jedis, 20);
+
+		verify(jedis).select(20);
+
+	}
+
+	@Test
+	public void sharded_delete_all_should_only_flush_database_of_namespace() {
+
+		when(jedis.configGet("databases")).thenReturn(Arrays.asList("databases", "16"));
+		ShardedJedis shardedJedis = mock(ShardedJedis.class);
+		when(shardedJedis.getAllShards()).thenReturn(Arrays.asList(jedis));
+
+		ShardedRedisOperation shardedRedisOperation = new ShardedRedisOperation(shardedJedis);
+		shardedRedisOperation.deleteAll();
+
+		InOrder inOrder = inOrder(jedis);
+		inOrder.verify(jedis).select(TestNamespace.DEFAULT_NAMESPACE.getIndex());
+		inOrder.verify(jedis).flushDB();
+		verify(jedis, never()).flushAll();
+
+	}
+
+}
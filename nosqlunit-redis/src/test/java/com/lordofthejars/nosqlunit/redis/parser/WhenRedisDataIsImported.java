@@ -8,6 +8,7 @@ import static org.mockito.Matchers.eq;
 import static org.mockito.Mockito.verify;
 
 import java.io.ByteArrayInputStream;
+import java.io.InputStream;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.List;
@@ -22,6 +23,13 @@ import org.mockito.MockitoAnnotations;
 
 import redis.clients.jedis.Jedis;
 
+import com.lordofthejars.nosqlunit.annotation.GeneratedDataSet;
+import com.lordofthejars.nosqlunit.annotation.GeneratedField;
+import com.lordofthejars.nosqlunit.core.DataSetGenerator;
+import com.lordofthejars.nosqlunit.core.FieldGenerator;
+import com.lordofthejars.nosqlunit.core.RecordShape;
+import com.lordofthejars.nosqlunit.redis.RedisOperation;
+
 public class WhenRedisDataIsImported {
 
 	@Mock
@@ -297,6 +305,30 @@ public class WhenRedisDataIsImported {
 		
 	}
 	
+	@GeneratedDataSet(template = "user", count = 2, shape = RecordShape.KEY_VALUE, fields = { @GeneratedField(name = "age", generator = FieldGenerator.INTEGER, min = 18, max = 18) })
+	public void generatedUsers() {
+	}
+
+	@Test
+	public void generated_records_should_be_added_into_redis_as_hashes() throws Exception {
+
+		GeneratedDataSet generatedDataSet = WhenRedisDataIsImported.class.getMethod("generatedUsers").getAnnotation(
+				GeneratedDataSet.class);
+		InputStream[] batches = new DataSetGenerator(generatedDataSet).batches(new RedisOperation(jedis));
+
+		DataReader dataReader = new DataReader(jedis);
+		dataReader.read(batches[0]);
+
+		ArgumentCaptor<Map> argument = ArgumentCaptor.forClass(Map.class);
+		verify(jedis).hmset(eq("user:0".getBytes()), argument.capture());
+		verify(jedis).hmset(eq("user:1".getBytes()), argument.capture());
+
+		Map<byte[], byte[]> fieldsMap = argument.getValue();
+
+		assertThat(fieldsMap, hasKey("age".getBytes()));
+		assertThat(fieldsMap, hasValue("18".getBytes()));
+	}
+
 	@Test
 	public void hash_types_should_be_added_into_redis() {
 		